@@ -0,0 +1,15 @@
+package com.example.apigatewayreactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@SpringBootApplication
+@EnableScheduling
+public class ApiGatewayReactiveApplication {
+
+    public static void main(String[] args) {
+        SpringApplication.run(ApiGatewayReactiveApplication.class, args);
+    }
+
+}
@@ -0,0 +1,44 @@
+package com.example.apigatewayreactive.cache;
+
+import lombok.Getter;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A response stored in the gateway cache, with the entity tag computed from its body.
+ */
+@Getter
+public class CachedResponse {
+
+    private final int status;
+    private final Map<String, List<String>> headers;
+    private final byte[] body;
+    private final String etag;
+    private final long generation;
+    private final long expiresAtNanos;
+
+    public CachedResponse(int status, Map<String, List<String>> headers, byte[] body, String etag,
+                          long generation, long expiresAtNanos) {
+        this.status = status;
+        this.headers = headers;
+        this.body = body;
+        this.etag = etag;
+        this.generation = generation;
+        this.expiresAtNanos = expiresAtNanos;
+    }
+
+    /**
+     * @return the approximate number of bytes the entry takes in memory
+     */
+    public int weight() {
+        int weight = body.length + 128;
+        for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+            weight += header.getKey().length() * 2;
+            for (String value : header.getValue()) {
+                weight += value.length() * 2;
+            }
+        }
+        return weight;
+    }
+}
@@ -0,0 +1,206 @@
+package com.example.apigatewayreactive.cache;
+
+import com.example.common.cache.CacheRoute;
+import com.example.common.cache.CacheRoutes;
+import com.example.common.cache.ResponseCacheProperties;
+import com.example.common.routing.QueryStrings;
+import com.example.common.routing.RequestPaths;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Memory-bounded store of proxied GET responses for the route groups configured under {@code response-cache}.
+ * Entries expire after the TTL of their group and are evicted by Caffeine's frequency-aware policy once the
+ * configured byte budget is reached. Successful mutations on the invalidating paths of a group drop its entries.
+ */
+@Slf4j
+@Component
+public class ResponseCache {
+
+    private static final String PREFIX = "response-cache";
+    private static final Set<String> EXCLUDED_HEADERS = Set.of(
+            HttpHeaders.CONNECTION.toLowerCase(Locale.ROOT),
+            HttpHeaders.CONTENT_LENGTH.toLowerCase(Locale.ROOT),
+            HttpHeaders.DATE.toLowerCase(Locale.ROOT),
+            HttpHeaders.ETAG.toLowerCase(Locale.ROOT),
+            HttpHeaders.TRANSFER_ENCODING.toLowerCase(Locale.ROOT),
+            "keep-alive");
+
+    private final Environment environment;
+    private final Cache<String, CachedResponse> entries;
+    private volatile Settings settings;
+
+    public ResponseCache(Environment environment, MeterRegistry meterRegistry) {
+        this.environment = environment;
+        this.settings = compile();
+        this.entries = Caffeine.newBuilder()
+                .maximumWeight(settings.properties.getMaxSize().toBytes())
+                .weigher((String key, CachedResponse response) -> key.length() * 2 + response.weight())
+                .expireAfter(new Expiry<String, CachedResponse>() {
+                    @Override
+                    public long expireAfterCreate(String key, CachedResponse response, long currentTime) {
+                        return Math.max(0, response.getExpiresAtNanos() - currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, CachedResponse response, long currentTime, long currentDuration) {
+                        return Math.max(0, response.getExpiresAtNanos() - currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, CachedResponse response, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, entries, "gateway.response");
+    }
+
+    @EventListener
+    public void onEnvironmentChange(EnvironmentChangeEvent event) {
+        if (event.getKeys().stream().noneMatch(key -> key.startsWith(PREFIX + "."))) {
+            return;
+        }
+        settings = compile();
+        entries.policy().eviction().ifPresent(eviction -> eviction.setMaximum(settings.properties.getMaxSize().toBytes()));
+        entries.invalidateAll();
+        log.info("Reloaded response cache routes");
+    }
+
+    /**
+     * Finds the cached route group of a GET request.
+     *
+     * @param request the incoming HTTP request
+     * @return the group, or null if the response of the request is not cacheable
+     */
+    public CacheRoute findRoute(ServerHttpRequest request) {
+        Settings current = settings;
+        if (!current.properties.isEnabled() || !HttpMethod.GET.equals(request.getMethod())) {
+            return null;
+        }
+        return current.routes.findRead(pathOf(request));
+    }
+
+    /**
+     * Builds the cache key of a request: its route group, path and normalized query string.
+     */
+    public String keyOf(CacheRoute route, ServerHttpRequest request) {
+        return CacheRoutes.keyOf(route, pathOf(request), QueryStrings.normalize(request.getURI().getRawQuery()));
+    }
+
+    /**
+     * Returns the cached response for the key, unless it was cached before the last invalidation of its group.
+     */
+    public CachedResponse get(CacheRoute route, String key) {
+        CachedResponse cached = entries.getIfPresent(key);
+        if (cached != null && cached.getGeneration() != route.currentGeneration()) {
+            entries.asMap().remove(key, cached);
+            return null;
+        }
+        return cached;
+    }
+
+    /**
+     * Returns the size of the largest cacheable response, the most of a response captured for the cache.
+     *
+     * @return the size, in bytes
+     */
+    public long getMaxEntrySize() {
+        return settings.properties.getMaxEntrySize().toBytes();
+    }
+
+    /**
+     * Stores a captured response if it is cacheable: a 200 without cookies or {@code no-store}/{@code private}
+     * directives, and not larger than the configured entry size.
+     *
+     * @param route      the route group of the request
+     * @param key        the cache key of the request
+     * @param generation the generation of the group when the request was proxied
+     * @param status     the status of the response
+     * @param headers    the headers of the response
+     * @param body       the captured body, or null if it was not captured
+     * @return the stored entry, or null if the response is not cacheable
+     */
+    public CachedResponse store(CacheRoute route, String key, long generation, HttpStatusCode status,
+                                HttpHeaders headers, byte[] body) {
+        if (body == null || body.length > getMaxEntrySize() || status == null || status.value() != HttpStatus.OK.value()
+                || headers.containsKey(HttpHeaders.SET_COOKIE)) {
+            return null;
+        }
+        String cacheControl = headers.getCacheControl();
+        if (cacheControl != null) {
+            String directives = cacheControl.toLowerCase(Locale.ROOT);
+            if (directives.contains("no-store") || directives.contains("private")) {
+                return null;
+            }
+        }
+        Map<String, List<String>> storedHeaders = new LinkedHashMap<>();
+        headers.forEach((name, values) -> {
+            if (!EXCLUDED_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                storedHeaders.put(name, List.copyOf(values));
+            }
+        });
+        String etag = "\"" + DigestUtils.md5DigestAsHex(body) + "\"";
+        CachedResponse cached = new CachedResponse(status.value(), storedHeaders, body, etag, generation,
+                System.nanoTime() + route.getTtlNanos());
+        if (route.currentGeneration() == generation) {
+            entries.put(key, cached);
+        }
+        return cached;
+    }
+
+    /**
+     * Invalidates the route groups a successful mutation affects.
+     *
+     * @param request the mutation request
+     */
+    public void invalidate(ServerHttpRequest request) {
+        List<CacheRoute> routes = settings.routes.findInvalidated(request.getMethod(), pathOf(request));
+        if (routes != null) {
+            routes.forEach(CacheRoute::invalidate);
+        }
+    }
+
+    private static String pathOf(ServerHttpRequest request) {
+        return RequestPaths.decodedPath(request.getPath().pathWithinApplication());
+    }
+
+    private Settings compile() {
+        ResponseCacheProperties properties = Binder.get(environment)
+                .bind(PREFIX, ResponseCacheProperties.class)
+                .orElseGet(ResponseCacheProperties::new);
+        return new Settings(properties, CacheRoutes.compile(properties));
+    }
+
+    private static final class Settings {
+        private final ResponseCacheProperties properties;
+        private final CacheRoutes routes;
+
+        private Settings(ResponseCacheProperties properties, CacheRoutes routes) {
+            this.properties = properties;
+            this.routes = routes;
+        }
+    }
+}
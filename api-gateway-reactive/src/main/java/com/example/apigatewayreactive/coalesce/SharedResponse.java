@@ -0,0 +1,52 @@
+package com.example.apigatewayreactive.coalesce;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import reactor.core.publisher.Mono;
+
+/**
+ * A captured upstream response fanned out to every request coalesced onto the same call.
+ */
+public final class SharedResponse {
+
+    private final HttpStatusCode status;
+    private final HttpHeaders headers;
+    private final byte[] body;
+
+    private SharedResponse(HttpStatusCode status, HttpHeaders headers, byte[] body) {
+        this.status = status;
+        this.headers = headers;
+        this.body = body;
+    }
+
+    /**
+     * Captures the status and headers of a response along with its captured body.
+     *
+     * @param response the response of the leading request
+     * @param body     the captured body
+     * @return the shared response
+     */
+    public static SharedResponse capture(ServerHttpResponse response, byte[] body) {
+        HttpHeaders headers = new HttpHeaders();
+        response.getHeaders().forEach((name, values) -> {
+            if (!HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name) && !HttpHeaders.TRANSFER_ENCODING.equalsIgnoreCase(name)) {
+                headers.addAll(name, values);
+            }
+        });
+        return new SharedResponse(response.getStatusCode(), HttpHeaders.readOnlyHttpHeaders(headers), body);
+    }
+
+    /**
+     * Writes the shared response to a waiting request.
+     *
+     * @param response the response of the waiting request
+     * @return completes once the body is written
+     */
+    public Mono<Void> writeTo(ServerHttpResponse response) {
+        response.setStatusCode(status);
+        response.getHeaders().addAll(headers);
+        response.getHeaders().setContentLength(body.length);
+        return response.writeWith(Mono.fromSupplier(() -> response.bufferFactory().wrap(body)));
+    }
+}
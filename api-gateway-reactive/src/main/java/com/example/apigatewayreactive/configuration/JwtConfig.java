@@ -0,0 +1,54 @@
+package com.example.apigatewayreactive.configuration;
+
+import com.example.common.security.Hs256JwtVerifier;
+import com.example.common.security.JwtClaimsCache;
+import com.example.common.security.JwtTokenIssuer;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration class for the JWT components shared with api-gateway.
+ * Provides the HS256 verifier, the token issuer and the verified claims cache.
+ */
+@Configuration
+public class JwtConfig {
+
+    /**
+     * Provides the verifier of the tokens issued by this gateway.
+     *
+     * @param secretKey the base64-encoded signing secret
+     * @return the HS256 verifier
+     */
+    @Bean
+    public Hs256JwtVerifier hs256JwtVerifier(@Value("${JWT_SECRET}") String secretKey) {
+        return new Hs256JwtVerifier(secretKey);
+    }
+
+    /**
+     * Provides the issuer signing tokens with the verifier's key.
+     *
+     * @param jwtVerifier the HS256 verifier
+     * @return the token issuer
+     */
+    @Bean
+    public JwtTokenIssuer jwtTokenIssuer(Hs256JwtVerifier jwtVerifier) {
+        return new JwtTokenIssuer(jwtVerifier);
+    }
+
+    /**
+     * Provides the cache of verified claims used by the authentication filter.
+     *
+     * @param jwtVerifier   the HS256 verifier
+     * @param meterRegistry the registry the cache metrics are published to
+     * @param maxSize       the maximum number of cached tokens
+     * @return the claims cache
+     */
+    @Bean
+    public JwtClaimsCache jwtClaimsCache(Hs256JwtVerifier jwtVerifier,
+                                         MeterRegistry meterRegistry,
+                                         @Value("${jwt.claims-cache.max-size:10000}") long maxSize) {
+        return new JwtClaimsCache(jwtVerifier, meterRegistry, maxSize);
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.apigatewayreactive.configuration;
+
+import com.example.common.dto.response.RefreshToken;
+import com.example.common.security.RefreshTokenRedisSerializer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+/**
+ * Configuration class for reactive Redis settings.
+ */
+@Configuration
+public class RedisConfig {
+
+    /**
+     * Configures the serializer of the refresh token records stored in Redis, shared with api-gateway.
+     *
+     * @return the refresh token record serializer
+     */
+    @Bean
+    public RedisSerializer<RefreshToken> refreshTokenSerializer() {
+        return new RefreshTokenRedisSerializer();
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.apigatewayreactive.configuration;
+
+import com.example.apigatewayreactive.filter.JwtAuthenticationWebFilter;
+import com.example.apigatewayreactive.security.CustomAccessDeniedHandler;
+import com.example.apigatewayreactive.security.CustomAuthenticationEntryPoint;
+import com.example.apigatewayreactive.security.CustomUserDetailService;
+import com.example.apigatewayreactive.security.SnapshotAuthorizationManager;
+import com.example.apigatewayreactive.service.IAuthorizationSnapshotService;
+import com.example.apigatewayreactive.service.IUserRevocationService;
+import com.example.common.constant.CommonConstant;
+import com.example.common.constant.GatewayConstant;
+import com.example.common.security.JwtClaimsCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.autoconfigure.security.reactive.EndpointRequest;
+import org.springframework.boot.actuate.health.HealthEndpoint;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.UserDetailsRepositoryReactiveAuthenticationManager;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Security configuration for the reactive gateway using JWT authentication.
+ * Mirrors api-gateway: CSRF disabled, no session, endpoint access decided from the hot-reloadable authorization snapshot,
+ * and actuator endpoints other than health reserved to administrators.
+ */
+@Configuration
+@EnableWebFluxSecurity
+@RequiredArgsConstructor
+public class SecurityConfig {
+
+    private final CustomAuthenticationEntryPoint customAuthenticationEntryPoint;
+    private final CustomAccessDeniedHandler customAccessDeniedHandler;
+    private final SnapshotAuthorizationManager snapshotAuthorizationManager;
+    private final JwtClaimsCache jwtClaimsCache;
+    private final IUserRevocationService userRevocationService;
+    private final IAuthorizationSnapshotService authorizationSnapshotService;
+
+    /**
+     * Configures the security filter chain for the application.
+     *
+     * @param http the ServerHttpSecurity object to configure
+     * @return the configured SecurityWebFilterChain
+     */
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http) {
+        return http
+                .cors(cors -> cors.configurationSource(corsConfigurationSource()))
+                .csrf(ServerHttpSecurity.CsrfSpec::disable)
+                .httpBasic(ServerHttpSecurity.HttpBasicSpec::disable)
+                .formLogin(ServerHttpSecurity.FormLoginSpec::disable)
+                .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+                .authorizeExchange(exchange -> exchange
+                        .matchers(EndpointRequest.toAnyEndpoint().excluding(HealthEndpoint.class))
+                        .hasAuthority(CommonConstant.ADMIN)
+                        .anyExchange().access(snapshotAuthorizationManager))
+                .exceptionHandling(exception -> exception
+                        .authenticationEntryPoint(customAuthenticationEntryPoint)
+                        .accessDeniedHandler(customAccessDeniedHandler))
+                .addFilterAt(new JwtAuthenticationWebFilter(jwtClaimsCache, userRevocationService, authorizationSnapshotService),
+                        SecurityWebFiltersOrder.AUTHENTICATION)
+                .build();
+    }
+
+    /**
+     * Configures the authentication manager used by the login endpoint.
+     * Password hashes are checked on the bounded elastic scheduler, away from the event loop.
+     *
+     * @param userDetailService the reactive user details service
+     * @param passwordEncoder   the password encoder
+     * @return the configured ReactiveAuthenticationManager
+     */
+    @Bean
+    public ReactiveAuthenticationManager authenticationManager(CustomUserDetailService userDetailService, PasswordEncoder passwordEncoder) {
+        UserDetailsRepositoryReactiveAuthenticationManager authenticationManager =
+                new UserDetailsRepositoryReactiveAuthenticationManager(userDetailService);
+        authenticationManager.setPasswordEncoder(passwordEncoder);
+        authenticationManager.setScheduler(Schedulers.boundedElastic());
+        return authenticationManager;
+    }
+
+    /**
+     * Configures CORS settings for the application.
+     *
+     * @return the configured UrlBasedCorsConfigurationSource
+     */
+    @Bean
+    UrlBasedCorsConfigurationSource corsConfigurationSource() {
+        CorsConfiguration configuration = new CorsConfiguration();
+        configuration.addAllowedOrigin("http://localhost:8080");
+        configuration.addAllowedHeader(GatewayConstant.ASTERISK);
+        configuration.addAllowedMethod(GatewayConstant.ASTERISK);
+        configuration.setAllowCredentials(true);
+        UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
+        source.registerCorsConfiguration(GatewayConstant.SLASH_ASTERISK_ASTERISK, configuration);
+        return source;
+    }
+
+    /**
+     * Configures the password encoder for the application.
+     *
+     * @return the configured PasswordEncoder
+     */
+    @Bean
+    public PasswordEncoder passwordEncoder() {
+        return new BCryptPasswordEncoder();
+    }
+}
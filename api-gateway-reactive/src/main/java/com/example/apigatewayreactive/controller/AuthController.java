@@ -0,0 +1,51 @@
+package com.example.apigatewayreactive.controller;
+
+import com.example.apigatewayreactive.service.IAuthService;
+import com.example.common.constant.GatewayConstant;
+import com.example.common.dto.request.LoginRequest;
+import com.example.common.dto.request.RefreshTokenRequest;
+import com.example.common.dto.response.ApiResponse;
+import com.example.common.dto.response.AuthResponse;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+/**
+ * Controller for handling authentication-related requests, with the same contract as api-gateway.
+ */
+@RestController
+@RequestMapping("/api/v1/auth")
+@RequiredArgsConstructor
+public class AuthController {
+
+    private final IAuthService authService;
+
+    /**
+     * Authenticates a user and returns access and refresh tokens along with user information.
+     *
+     * @param loginRequest the authentication request containing username and password
+     * @return an AuthResponse containing access token, refresh token, username, and email
+     */
+    @PostMapping("/login")
+    public Mono<ResponseEntity<ApiResponse<AuthResponse>>> login(@Valid @RequestBody LoginRequest loginRequest) {
+        return authService.login(loginRequest)
+                .map(response -> ResponseEntity.ok(ApiResponse.success(GatewayConstant.SUCCESS, response)));
+    }
+
+    /**
+     * Generates a new access token using a valid refresh token.
+     *
+     * @param refreshTokenRequest the request containing the refresh token
+     * @return an AuthResponse containing a new access token, the refresh token, username, and email
+     */
+    @PostMapping("/refresh-token")
+    public Mono<ResponseEntity<ApiResponse<AuthResponse>>> refreshToken(@Valid @RequestBody RefreshTokenRequest refreshTokenRequest) {
+        return authService.refreshToken(refreshTokenRequest)
+                .map(response -> ResponseEntity.ok(ApiResponse.success(GatewayConstant.SUCCESS, response)));
+    }
+}
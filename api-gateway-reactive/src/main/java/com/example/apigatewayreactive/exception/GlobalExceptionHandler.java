@@ -0,0 +1,124 @@
+package com.example.apigatewayreactive.exception;
+
+import com.example.common.constant.GatewayConstant;
+import com.example.common.dto.response.ErrorResponse;
+import com.example.common.exception.NotFoundException;
+import com.example.common.exception.UnAuthorizedException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Global exception handler for the REST API.
+ * Handles and logs all exceptions thrown by controllers, returning the same standardized error responses as api-gateway.
+ */
+@RestControllerAdvice
+@Slf4j
+public class GlobalExceptionHandler {
+
+    /**
+     * Handles RuntimeExceptions and returns a meaningful response.
+     *
+     * @param ex the exception
+     * @return a ResponseEntity with error details
+     */
+    @ExceptionHandler(RuntimeException.class)
+    public ResponseEntity<ErrorResponse<Object>> handleRuntimeException(RuntimeException ex) {
+        log.error(GatewayConstant.RUNTIME_EXCEPTION_OCCURRED, ex.getMessage(), ex);
+        ErrorResponse<Object> errorResponse = ErrorResponse.of(GatewayConstant.ERROR, ex.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+    }
+
+    /**
+     * Handles NotFoundExceptions and returns a meaningful response.
+     *
+     * @param ex the exception
+     * @return a ResponseEntity with error details
+     */
+    @ExceptionHandler(NotFoundException.class)
+    public ResponseEntity<ErrorResponse<Object>> handleNotFoundException(NotFoundException ex) {
+        log.error(GatewayConstant.NOT_FOUND_EXCEPTION_OCCURRED, ex.getMessage(), ex);
+        ErrorResponse<Object> errorResponse = ErrorResponse.of(GatewayConstant.NOT_FOUND, ex.getMessage());
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
+    }
+
+    /**
+     * Handles UnAuthorizedExceptions, such as an expired refresh token.
+     *
+     * @param ex the exception
+     * @return a ResponseEntity with HTTP 401 status and error message
+     */
+    @ExceptionHandler(UnAuthorizedException.class)
+    public ResponseEntity<ErrorResponse<Object>> handleUnAuthorizedException(UnAuthorizedException ex) {
+        log.error("Unauthorized error: {}", ex.getMessage());
+        ErrorResponse<Object> errorResponse = ErrorResponse.of(GatewayConstant.UNAUTHORIZED, ex.getMessage());
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(errorResponse);
+    }
+
+    /**
+     * Handles WebExchangeBindException for validation errors.
+     *
+     * @param ex the exception
+     * @return a ResponseEntity with error details
+     */
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<ErrorResponse<Map<String, String>>> handleValidationException(WebExchangeBindException ex) {
+        log.error(GatewayConstant.VALIDATION_EXCEPTION_OCCURRED, ex.getMessage(), ex);
+
+        Map<String, String> errors = new HashMap<>();
+        ex.getBindingResult().getFieldErrors().forEach(error ->
+                errors.put(error.getField(), error.getDefaultMessage())
+        );
+
+        ErrorResponse<Map<String, String>> errorResponse = ErrorResponse.of(GatewayConstant.VALIDATION_ERROR, GatewayConstant.VALIDATION_FAILED, errors);
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+    }
+
+    /**
+     * Handles DataAccessException for database-related errors.
+     *
+     * @param ex the exception
+     * @return a ResponseEntity with error details
+     */
+    @ExceptionHandler(DataAccessException.class)
+    public ResponseEntity<ErrorResponse<Object>> handleDatabaseException(DataAccessException ex) {
+        log.error(GatewayConstant.DATABASE_EXCEPTION_OCCURRED, ex.getMessage(), ex);
+        ErrorResponse<Object> errorResponse = ErrorResponse.of(GatewayConstant.ERROR, ex.getMessage());
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+    }
+
+    /**
+     * Handles all other exceptions and returns a meaningful response.
+     *
+     * @param ex the exception
+     * @return a ResponseEntity with error details
+     */
+    @ExceptionHandler(Exception.class)
+    public ResponseEntity<ErrorResponse<Object>> handleGenericException(Exception ex) {
+        log.error(GatewayConstant.UNEXPECTED_EXCEPTION_OCCURRED, ex.getMessage(), ex);
+        ErrorResponse<Object> errorResponse = ErrorResponse.of(GatewayConstant.INTERNAL_SERVER_ERROR, ex.getMessage());
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+    }
+
+    /**
+     * Handles AuthenticationException thrown when authentication fails.
+     * This is the base exception for all authentication-related errors.
+     *
+     * @param ex the AuthenticationException
+     * @return a ResponseEntity with HTTP 401 status and error message
+     */
+    @ExceptionHandler(AuthenticationException.class)
+    public ResponseEntity<ErrorResponse<Object>> handleAuthenticationException(AuthenticationException ex) {
+        log.error("Authentication error: {}", ex.getMessage(), ex);
+        ErrorResponse<Object> errorResponse = ErrorResponse.of(GatewayConstant.UNAUTHORIZED, ex.getMessage());
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED.value()).body(errorResponse);
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.apigatewayreactive.filter;
+
+/**
+ * Web filter orders of the gateway filters, relative to the Spring Security web filter chain, and global filter
+ * orders of the gateway filters that need the matched route, relative to the route filters.
+ */
+public final class FilterOrders {
+
+    // This class is not meant to be instantiated
+    private FilterOrders() {}
+
+    /**
+     * Order of the Spring Security web filter chain, as registered by {@code @EnableWebFluxSecurity}.
+     */
+    private static final int SECURITY_WEB_FILTER_CHAIN = -100;
+
+    /**
+     * Runs after the security filter chain and before the request is routed.
+     */
+    public static final int GEO_IP = SECURITY_WEB_FILTER_CHAIN + 5;
+
+    /**
+     * Runs before the route filters, which rewrite the request path, and before the write of the proxied response.
+     */
+    private static final int ROUTE_FILTERS = -100;
+
+    /**
+     * Runs once the route is matched, so the limits of the route apply, and before the response cache.
+     */
+    public static final int RATE_LIMIT = ROUTE_FILTERS + 10;
+
+    /**
+     * Runs after admission control, so cache hits still count against rate limits.
+     */
+    public static final int RESPONSE_CACHE = ROUTE_FILTERS + 20;
+
+    /**
+     * Runs inside the response cache, so only cache misses are coalesced.
+     */
+    public static final int REQUEST_COALESCING = ROUTE_FILTERS + 30;
+}
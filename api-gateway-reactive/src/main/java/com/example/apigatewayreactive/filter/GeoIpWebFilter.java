@@ -0,0 +1,32 @@
+package com.example.apigatewayreactive.filter;
+
+import com.example.apigatewayreactive.geo.GeoPolicyEngine;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+/**
+ * Rejects requests that the geo policy of their route does not allow, based on the real client address.
+ * The lookup reads the memory-mapped database and never waits on I/O, so it runs inline on the event loop.
+ */
+@Component
+@Order(FilterOrders.GEO_IP)
+@RequiredArgsConstructor
+public class GeoIpWebFilter implements WebFilter {
+
+    private final GeoPolicyEngine geoPolicyEngine;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        if (!geoPolicyEngine.isAllowed(exchange.getRequest())) {
+            exchange.getResponse().setStatusCode(HttpStatus.FORBIDDEN);
+            return exchange.getResponse().setComplete();
+        }
+        return chain.filter(exchange);
+    }
+}
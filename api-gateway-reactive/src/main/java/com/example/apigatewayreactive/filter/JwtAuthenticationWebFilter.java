@@ -0,0 +1,74 @@
+package com.example.apigatewayreactive.filter;
+
+import com.example.apigatewayreactive.service.IAuthorizationSnapshotService;
+import com.example.apigatewayreactive.service.IUserRevocationService;
+import com.example.common.constant.GatewayConstant;
+import com.example.common.routing.RequestPaths;
+import com.example.common.security.AuthorizationRule;
+import com.example.common.security.JwtClaimsCache;
+import com.example.common.security.JwtUserPrincipal;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+/**
+ * Authenticates requests carrying a bearer token, without blocking.
+ * The principal is always built from the verified claims, as in the stateless mode of api-gateway; the only I/O
+ * is the revocation check, which is cached and goes to Redis and the database reactively. Requests to public endpoints, and requests
+ * whose token cannot be verified, continue unauthenticated and are left to the authorization manager.
+ * The filter is registered in the security chain only, hence it is not a bean.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class JwtAuthenticationWebFilter implements WebFilter {
+
+    private final JwtClaimsCache jwtClaimsCache;
+    private final IUserRevocationService userRevocationService;
+    private final IAuthorizationSnapshotService authorizationSnapshotService;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        String authHeader = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (authHeader == null || !authHeader.startsWith(GatewayConstant.BEARER_PREFIX) || isPublic(request)) {
+            return chain.filter(exchange);
+        }
+        Claims claims;
+        try {
+            claims = jwtClaimsCache.getVerifiedClaims(authHeader.substring(GatewayConstant.BEARER_PREFIX.length()));
+        } catch (JwtException e) {
+            log.debug("Rejected bearer token: {}", e.getMessage());
+            return chain.filter(exchange);
+        }
+        JwtUserPrincipal principal = JwtUserPrincipal.fromClaims(claims);
+        if (principal == null) {
+            return chain.filter(exchange);
+        }
+        return userRevocationService.isRevoked(principal.getUserId(), principal.getRole(), claims.getIssuedAt())
+                .flatMap(revoked -> {
+                    if (revoked) {
+                        return chain.filter(exchange);
+                    }
+                    Authentication authentication = UsernamePasswordAuthenticationToken.authenticated(
+                            principal, null, principal.getAuthorities());
+                    return chain.filter(exchange)
+                            .contextWrite(ReactiveSecurityContextHolder.withAuthentication(authentication));
+                });
+    }
+
+    private boolean isPublic(ServerHttpRequest request) {
+        AuthorizationRule rule = authorizationSnapshotService.getSnapshot()
+                .match(request.getMethod(), RequestPaths.decodedPath(request.getPath().pathWithinApplication()));
+        return rule != null && rule.isPermitAll();
+    }
+}
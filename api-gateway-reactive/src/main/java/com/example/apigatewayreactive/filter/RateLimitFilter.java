@@ -0,0 +1,78 @@
+package com.example.apigatewayreactive.filter;
+
+import com.example.apigatewayreactive.geo.ClientIpResolver;
+import com.example.apigatewayreactive.service.IRateLimitService;
+import com.example.common.constant.GatewayConstant;
+import com.example.common.dto.response.ErrorResponse;
+import com.example.common.ratelimit.RateLimitDecision;
+import com.example.common.security.JwtUserPrincipal;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.Optional;
+
+/**
+ * Applies the per-route token-bucket limits to proxied requests, per client IP and per authenticated user.
+ * Rejected requests get a 429 response with a {@code Retry-After} header.
+ */
+@Component
+@RequiredArgsConstructor
+public class RateLimitFilter implements GlobalFilter, Ordered {
+
+    private final ClientIpResolver clientIpResolver;
+    private final IRateLimitService rateLimitService;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (route == null) {
+            return chain.filter(exchange);
+        }
+        String clientIp = clientIpResolver.resolveKey(exchange.getRequest());
+        return currentUserId()
+                .flatMap(userId -> rateLimitService.tryAcquire(route.getId(), userId.orElse(null), clientIp))
+                .flatMap(decision -> decision.isAllowed() ? chain.filter(exchange) : reject(exchange, decision));
+    }
+
+    @Override
+    public int getOrder() {
+        return FilterOrders.RATE_LIMIT;
+    }
+
+    private Mono<Void> reject(ServerWebExchange exchange, RateLimitDecision decision) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, Long.toString((decision.getRetryAfterMillis() + 999) / 1000));
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        ErrorResponse<Object> error = ErrorResponse.of(GatewayConstant.TOO_MANY_REQUESTS, "Too many requests, please retry later.");
+        try {
+            return response.writeWith(Mono.just(response.bufferFactory().wrap(objectMapper.writeValueAsBytes(error))));
+        } catch (JsonProcessingException e) {
+            return Mono.error(e);
+        }
+    }
+
+    private static Mono<Optional<Long>> currentUserId() {
+        return ReactiveSecurityContextHolder.getContext()
+                .map(SecurityContext::getAuthentication)
+                .filter(authentication -> authentication.getPrincipal() instanceof JwtUserPrincipal)
+                .map(authentication -> Optional.ofNullable(((JwtUserPrincipal) authentication.getPrincipal()).getUserId()))
+                .defaultIfEmpty(Optional.empty());
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.apigatewayreactive.filter;
+
+import com.example.apigatewayreactive.coalesce.SharedResponse;
+import com.example.apigatewayreactive.stream.CapturingResponseDecorator;
+import com.example.common.coalesce.RequestCoalescingProperties;
+import com.example.common.routing.QueryStrings;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Single-flight coalescing of identical in-flight GET requests on the routes listed under {@code request-coalescing.routes}.
+ * Requests with the same route, path, normalized query, {@code Accept} header and auth class (anonymous or the
+ * caller's roles) share the upstream call of the first one, whose captured response is fanned out to the others.
+ * A waiting request proxies on its own if the shared call fails, times out or produces a response that cannot be shared.
+ * Waiting requests hold no thread: they subscribe to the shared call and resume on the thread that completes it.
+ */
+@Slf4j
+@Component
+public class RequestCoalescingFilter implements GlobalFilter, Ordered {
+
+    private static final String PREFIX = "request-coalescing";
+    private static final String ANONYMOUS = "anonymous";
+
+    private final Environment environment;
+    private final Map<String, Sinks.One<SharedResponse>> inFlight = new ConcurrentHashMap<>();
+    private final Counter leaders;
+    private final Counter followers;
+    private final Counter fallbacks;
+    private volatile RequestCoalescingProperties properties;
+    private volatile Set<String> routes;
+
+    public RequestCoalescingFilter(Environment environment, MeterRegistry meterRegistry) {
+        this.environment = environment;
+        this.leaders = counter(meterRegistry, "leader");
+        this.followers = counter(meterRegistry, "follower");
+        this.fallbacks = counter(meterRegistry, "fallback");
+    }
+
+    @PostConstruct
+    public void init() {
+        bind();
+    }
+
+    @EventListener
+    public void onEnvironmentChange(EnvironmentChangeEvent event) {
+        if (event.getKeys().stream().anyMatch(key -> key.startsWith(PREFIX + "."))) {
+            bind();
+            log.info("Reloaded request coalescing routes");
+        }
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        RequestCoalescingProperties current = properties;
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (!current.isEnabled() || route == null || !HttpMethod.GET.equals(exchange.getRequest().getMethod())
+                || !routes.contains(route.getId())) {
+            return chain.filter(exchange);
+        }
+        return authClass().flatMap(authClass -> coalesce(keyOf(route.getId(), exchange.getRequest(), authClass),
+                current, exchange, chain));
+    }
+
+    @Override
+    public int getOrder() {
+        return FilterOrders.REQUEST_COALESCING;
+    }
+
+    private Mono<Void> coalesce(String key, RequestCoalescingProperties current, ServerWebExchange exchange,
+                                GatewayFilterChain chain) {
+        Sinks.One<SharedResponse> call = Sinks.one();
+        Sinks.One<SharedResponse> existing = inFlight.putIfAbsent(key, call);
+        if (existing != null) {
+            return existing.asMono()
+                    .timeout(current.getMaxWait(), Mono.empty())
+                    .map(Optional::of)
+                    .defaultIfEmpty(Optional.empty())
+                    .flatMap(shared -> {
+                        if (shared.isEmpty()) {
+                            fallbacks.increment();
+                            return chain.filter(exchange);
+                        }
+                        followers.increment();
+                        return shared.get().writeTo(exchange.getResponse());
+                    });
+        }
+
+        leaders.increment();
+        ServerWebExchange capturing = CapturingResponseDecorator.capture(exchange, current.getMaxBodySize().toBytes());
+        return chain.filter(capturing)
+                .doOnSuccess(done -> {
+                    ServerHttpResponse response = capturing.getResponse();
+                    byte[] body = CapturingResponseDecorator.capturedBody(capturing);
+                    boolean shareable = body != null
+                            && response.getStatusCode() != null
+                            && response.getCookies().isEmpty()
+                            && !response.getHeaders().containsKey(HttpHeaders.SET_COOKIE);
+                    if (shareable) {
+                        call.tryEmitValue(SharedResponse.capture(response, body));
+                    }
+                })
+                .doFinally(signal -> {
+                    inFlight.remove(key, call);
+                    // Followers of a failed, cancelled or unshareable call proxy on their own
+                    call.tryEmitEmpty();
+                });
+    }
+
+    static String keyOf(String routeId, ServerHttpRequest request, String authClass) {
+        StringBuilder key = new StringBuilder(128)
+                .append(routeId).append(' ')
+                .append(request.getURI().getRawPath()).append('?')
+                .append(QueryStrings.normalize(request.getURI().getRawQuery())).append(' ')
+                .append(authClass).append(' ');
+        String accept = request.getHeaders().getFirst(HttpHeaders.ACCEPT);
+        return accept == null ? key.toString() : key.append(accept).toString();
+    }
+
+    private static Mono<String> authClass() {
+        return ReactiveSecurityContextHolder.getContext()
+                .map(SecurityContext::getAuthentication)
+                .map(RequestCoalescingFilter::authClassOf)
+                .defaultIfEmpty(ANONYMOUS);
+    }
+
+    static String authClassOf(Authentication authentication) {
+        if (!authentication.isAuthenticated() || authentication instanceof AnonymousAuthenticationToken) {
+            return ANONYMOUS;
+        }
+        Set<String> authorities = new TreeSet<>();
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            authorities.add(authority.getAuthority());
+        }
+        return String.join(",", authorities);
+    }
+
+    private void bind() {
+        RequestCoalescingProperties bound = Binder.get(environment)
+                .bind(PREFIX, RequestCoalescingProperties.class)
+                .orElseGet(RequestCoalescingProperties::new);
+        routes = Set.copyOf(bound.getRoutes());
+        properties = bound;
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String role) {
+        return Counter.builder("gateway.coalescing.requests")
+                .description("GET requests by their part in request coalescing")
+                .tag("role", role)
+                .register(meterRegistry);
+    }
+}
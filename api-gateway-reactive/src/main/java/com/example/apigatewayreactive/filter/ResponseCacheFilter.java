@@ -0,0 +1,123 @@
+package com.example.apigatewayreactive.filter;
+
+import com.example.apigatewayreactive.cache.CachedResponse;
+import com.example.apigatewayreactive.cache.ResponseCache;
+import com.example.apigatewayreactive.stream.CapturingResponseDecorator;
+import com.example.common.cache.CacheRoute;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.Set;
+
+/**
+ * Serves cacheable GET routes from the gateway {@link ResponseCache} and revalidates them with clients through
+ * {@code ETag}/{@code If-None-Match}. Successful mutations proxied through the gateway invalidate the affected routes.
+ * Misses stream to the client while their body is captured for the cache; responses larger than a cache entry
+ * are streamed through and not stored.
+ */
+@Component
+public class ResponseCacheFilter implements GlobalFilter, Ordered {
+
+    private static final Set<HttpMethod> MUTATING_METHODS = Set.of(
+            HttpMethod.POST, HttpMethod.PUT, HttpMethod.PATCH, HttpMethod.DELETE);
+
+    private final ResponseCache responseCache;
+    private final Counter notModified;
+
+    public ResponseCacheFilter(ResponseCache responseCache, MeterRegistry meterRegistry) {
+        this.responseCache = responseCache;
+        this.notModified = Counter.builder("gateway.response.cache.not_modified")
+                .description("Cached responses revalidated with a 304")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (!HttpMethod.GET.equals(request.getMethod())) {
+            if (!isMutation(request)) {
+                return chain.filter(exchange);
+            }
+            return chain.filter(exchange).doOnSuccess(done -> {
+                HttpStatusCode status = exchange.getResponse().getStatusCode();
+                if (status != null && status.is2xxSuccessful()) {
+                    responseCache.invalidate(request);
+                }
+            });
+        }
+        CacheRoute route = responseCache.findRoute(request);
+        if (route == null) {
+            return chain.filter(exchange);
+        }
+        String key = responseCache.keyOf(route, request);
+        CachedResponse cached = responseCache.get(route, key);
+        if (cached != null) {
+            return writeCached(cached, request, exchange.getResponse());
+        }
+
+        long generation = route.currentGeneration();
+        ServerWebExchange capturing = CapturingResponseDecorator.capture(exchange, responseCache.getMaxEntrySize());
+        return chain.filter(capturing).doOnSuccess(done -> {
+            ServerHttpResponse response = capturing.getResponse();
+            if (response.getCookies().isEmpty()) {
+                responseCache.store(route, key, generation, response.getStatusCode(), response.getHeaders(),
+                        CapturingResponseDecorator.capturedBody(capturing));
+            }
+        });
+    }
+
+    @Override
+    public int getOrder() {
+        return FilterOrders.RESPONSE_CACHE;
+    }
+
+    /**
+     * Only methods that change resources invalidate; HEAD, OPTIONS and TRACE leave the cached routes alone.
+     */
+    private static boolean isMutation(ServerHttpRequest request) {
+        return MUTATING_METHODS.contains(request.getMethod());
+    }
+
+    private Mono<Void> writeCached(CachedResponse cached, ServerHttpRequest request, ServerHttpResponse response) {
+        HttpHeaders headers = response.getHeaders();
+        cached.getHeaders().forEach(headers::addAll);
+        headers.setETag(cached.getEtag());
+        if (matchesEtag(request, cached.getEtag())) {
+            notModified.increment();
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            return response.setComplete();
+        }
+        response.setStatusCode(HttpStatusCode.valueOf(cached.getStatus()));
+        headers.setContentLength(cached.getBody().length);
+        return response.writeWith(Mono.fromSupplier(() -> response.bufferFactory().wrap(cached.getBody())));
+    }
+
+    private static boolean matchesEtag(ServerHttpRequest request, String etag) {
+        String ifNoneMatch = request.getHeaders().getFirst(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
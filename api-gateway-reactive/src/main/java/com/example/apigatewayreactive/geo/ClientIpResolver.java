@@ -0,0 +1,83 @@
+package com.example.apigatewayreactive.geo;
+
+import com.example.common.constant.CommonConstant;
+import com.example.common.geo.TrustedProxies;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.List;
+
+/**
+ * Resolves the real client address of a request through the shared {@link TrustedProxies} rules.
+ * Trusted proxies are read from {@code geoip.trusted-proxies} and reloaded when that configuration changes.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ClientIpResolver {
+
+    private static final String TRUSTED_PROXIES = "geoip.trusted-proxies";
+
+    private final Environment environment;
+    private volatile TrustedProxies trustedProxies;
+
+    @PostConstruct
+    public void init() {
+        trustedProxies = compile();
+    }
+
+    @EventListener
+    public void onEnvironmentChange(EnvironmentChangeEvent event) {
+        if (event.getKeys().stream().noneMatch(key -> key.startsWith(TRUSTED_PROXIES))) {
+            return;
+        }
+        try {
+            trustedProxies = compile();
+            log.info("Reloaded trusted proxies");
+        } catch (RuntimeException e) {
+            log.warn("Invalid trusted proxy configuration, keeping the previous proxies: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Resolves the client address of the request.
+     *
+     * @param request the incoming HTTP request
+     * @return the client address, or null if the peer or a forwarded hop cannot be parsed
+     */
+    public InetAddress resolve(ServerHttpRequest request) {
+        InetSocketAddress remoteAddress = request.getRemoteAddress();
+        if (remoteAddress == null || remoteAddress.getAddress() == null) {
+            return null;
+        }
+        return trustedProxies.resolveClient(remoteAddress.getAddress().getHostAddress(),
+                request.getHeaders().getOrEmpty(TrustedProxies.FORWARDED),
+                request.getHeaders().getOrEmpty(TrustedProxies.X_FORWARDED_FOR));
+    }
+
+    /**
+     * Resolves the client address of the request as a string usable in keys.
+     *
+     * @param request the incoming HTTP request
+     * @return the textual client address, or {@code unknown} if it cannot be determined
+     */
+    public String resolveKey(ServerHttpRequest request) {
+        InetAddress client = resolve(request);
+        return client == null ? CommonConstant.UNKNOWN : client.getHostAddress();
+    }
+
+    private TrustedProxies compile() {
+        return new TrustedProxies(Binder.get(environment).bind(TRUSTED_PROXIES, Bindable.listOf(String.class))
+                .orElseGet(List::of));
+    }
+}
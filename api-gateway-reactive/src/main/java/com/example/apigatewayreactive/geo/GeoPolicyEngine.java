@@ -0,0 +1,74 @@
+package com.example.apigatewayreactive.geo;
+
+import com.example.apigatewayreactive.service.IGeoIpService;
+import com.example.common.geo.GeoPolicy;
+import com.example.common.geo.GeoPolicyProperties;
+import com.example.common.routing.RequestPaths;
+import com.example.common.routing.RouteTrie;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+
+/**
+ * Evaluates the per-route geo policies configured under {@code geoip}, compiled with the same code as api-gateway.
+ * Policies are recompiled whenever the {@code geoip} configuration changes; an invalid configuration is rejected
+ * at startup and ignored on reload, the previous policies staying in force.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class GeoPolicyEngine {
+
+    private static final String PREFIX = "geoip";
+
+    private final Environment environment;
+    private final IGeoIpService geoIpService;
+    private final ClientIpResolver clientIpResolver;
+    private volatile RouteTrie<GeoPolicy> routes;
+
+    @PostConstruct
+    public void init() {
+        routes = compile();
+    }
+
+    @EventListener
+    public void onEnvironmentChange(EnvironmentChangeEvent event) {
+        if (event.getKeys().stream().noneMatch(key -> key.startsWith(PREFIX + "."))) {
+            return;
+        }
+        try {
+            routes = compile();
+            log.info("Reloaded geo policies");
+        } catch (RuntimeException e) {
+            log.warn("Invalid geo policy configuration, keeping the previous policies: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Checks whether the request is allowed by the geo policy of its route.
+     *
+     * @param request the incoming HTTP request
+     * @return true if the route has no geo policy or the client is allowed, false otherwise
+     */
+    public boolean isAllowed(ServerHttpRequest request) {
+        RouteTrie<GeoPolicy> current = routes;
+        if (current.isEmpty()) {
+            return true;
+        }
+        GeoPolicy policy = current.find(request.getMethod(), RequestPaths.decodedPath(request.getPath().pathWithinApplication()));
+        return policy == null || policy.isAllowed(clientIpResolver.resolve(request), geoIpService);
+    }
+
+    private RouteTrie<GeoPolicy> compile() {
+        GeoPolicyProperties properties = Binder.get(environment)
+                .bind(PREFIX, GeoPolicyProperties.class)
+                .orElseGet(GeoPolicyProperties::new);
+        return GeoPolicy.compile(properties.getPolicies());
+    }
+}
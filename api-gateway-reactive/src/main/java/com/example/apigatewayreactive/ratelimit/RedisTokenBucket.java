@@ -0,0 +1,44 @@
+package com.example.apigatewayreactive.ratelimit;
+
+import com.example.common.ratelimit.RateLimitProperties;
+import com.example.common.ratelimit.TokenBucketKeys;
+import com.example.common.ratelimit.TokenLease;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Cluster-wide token buckets kept in Redis, with the same layout and script as api-gateway ({@link TokenBucketKeys}).
+ * Tokens are taken in batches so that gateway nodes only reach Redis when their local share runs out.
+ */
+@Component
+@RequiredArgsConstructor
+public class RedisTokenBucket {
+
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> TOKEN_BUCKET_SCRIPT =
+            RedisScript.of(new ClassPathResource(TokenBucketKeys.SCRIPT), List.class);
+
+    private final ReactiveStringRedisTemplate reactiveStringRedisTemplate;
+
+    /**
+     * Takes up to {@code requested} tokens from the bucket.
+     *
+     * @param key       the bucket key, without prefix
+     * @param spec      the capacity and refill rate of the bucket
+     * @param requested the number of tokens wanted
+     * @return the lease; when nothing was granted, it tells how long until the next token. Fails with a
+     * {@link org.springframework.dao.DataAccessException} if Redis cannot be reached
+     */
+    public Mono<TokenLease> lease(String key, RateLimitProperties.BucketSpec spec, long requested) {
+        return reactiveStringRedisTemplate.execute(TOKEN_BUCKET_SCRIPT, List.of(TokenBucketKeys.bucketKey(key)),
+                        TokenBucketKeys.arguments(spec, requested))
+                .next()
+                .map(TokenLease::fromReply);
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.apigatewayreactive.repository;
+
+import com.example.apigatewayreactive.repository.projection.PermissionRuleRow;
+import com.example.common.security.PermissionRuleView;
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking reads of the permission, role and role_permission tables managed by api-gateway.
+ */
+@Repository
+@RequiredArgsConstructor
+public class PermissionRepository {
+
+    private static final String FIND_ALL_RULES = "SELECT p.id AS id, p.method AS method, p.endpoint AS endpoint, r.name AS role_name "
+            + "FROM permission p "
+            + "LEFT JOIN role_permission rp ON rp.permission_id = p.id "
+            + "LEFT JOIN role r ON r.id = rp.role_id "
+            + "ORDER BY p.id";
+
+    private static final String COMPUTE_FINGERPRINT = "SELECT CONCAT_WS(':', "
+            + "(SELECT COUNT(*) FROM permission), "
+            + "(SELECT COALESCE(SUM(CRC32(CONCAT_WS('|', id, method, endpoint))), 0) FROM permission), "
+            + "(SELECT COUNT(*) FROM role), "
+            + "(SELECT COALESCE(SUM(CRC32(CONCAT_WS('|', id, name))), 0) FROM role), "
+            + "(SELECT COUNT(*) FROM role_permission), "
+            + "(SELECT COALESCE(SUM(CRC32(CONCAT_WS('|', role_id, permission_id))), 0) FROM role_permission)) AS fingerprint";
+
+    private final DatabaseClient databaseClient;
+
+    /**
+     * Retrieves every permission with the names of the roles granted it, in a single query.
+     *
+     * @return one row per permission and role, ordered by permission id
+     */
+    public Flux<PermissionRuleView> findAllRules() {
+        return databaseClient.sql(FIND_ALL_RULES)
+                .map(row -> (PermissionRuleView) new PermissionRuleRow(
+                        row.get("id", Long.class),
+                        row.get("method", String.class),
+                        row.get("endpoint", String.class),
+                        row.get("role_name", String.class)))
+                .all();
+    }
+
+    /**
+     * Computes a fingerprint of the permission, role and role_permission tables,
+     * identical to the one computed by api-gateway.
+     *
+     * @return the fingerprint of the authorization data
+     */
+    public Mono<String> computeFingerprint() {
+        return databaseClient.sql(COMPUTE_FINGERPRINT)
+                .map(row -> row.get("fingerprint", String.class))
+                .one();
+    }
+}
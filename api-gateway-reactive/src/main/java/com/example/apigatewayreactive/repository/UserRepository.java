@@ -0,0 +1,75 @@
+package com.example.apigatewayreactive.repository;
+
+import com.example.apigatewayreactive.repository.projection.UserAccount;
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking reads of the user table managed by api-gateway.
+ */
+@Repository
+@RequiredArgsConstructor
+public class UserRepository {
+
+    private static final String SELECT_USER = "SELECT u.id, u.username, u.password, u.full_name, u.phone_number, u.email, "
+            + "u.is_deleted, r.name AS role_name "
+            + "FROM `user` u LEFT JOIN role r ON r.id = u.role_id ";
+
+    private final DatabaseClient databaseClient;
+
+    /**
+     * Finds a user by their id.
+     *
+     * @param id the id of the user
+     * @return the user, or empty if not found
+     */
+    public Mono<UserAccount> findById(Long id) {
+        return databaseClient.sql(SELECT_USER + "WHERE u.id = :id")
+                .bind("id", id)
+                .map(UserRepository::toUserAccount)
+                .one();
+    }
+
+    /**
+     * Finds a user by their username and isDeleted=false.
+     *
+     * @param username the username to search for
+     * @return the user, or empty if not found
+     */
+    public Mono<UserAccount> findByUsernameAndIsDeletedFalse(String username) {
+        return databaseClient.sql(SELECT_USER + "WHERE u.username = :username AND u.is_deleted = false")
+                .bind("username", username)
+                .map(UserRepository::toUserAccount)
+                .one();
+    }
+
+    /**
+     * Finds the role name of a user that is not deleted.
+     *
+     * @param id the id of the user
+     * @return the role name, or empty if the user does not exist or is deleted
+     */
+    public Mono<String> findActiveRoleNameById(Long id) {
+        return databaseClient.sql("SELECT r.name FROM `user` u JOIN role r ON r.id = u.role_id "
+                        + "WHERE u.id = :id AND u.is_deleted = false")
+                .bind("id", id)
+                .map(row -> row.get("name", String.class))
+                .one();
+    }
+
+    private static UserAccount toUserAccount(Readable row) {
+        UserAccount user = new UserAccount();
+        user.setId(row.get("id", Long.class));
+        user.setUsername(row.get("username", String.class));
+        user.setPassword(row.get("password", String.class));
+        user.setFullName(row.get("full_name", String.class));
+        user.setPhoneNumber(row.get("phone_number", String.class));
+        user.setEmail(row.get("email", String.class));
+        user.setIsDeleted(row.get("is_deleted", Boolean.class));
+        user.setRoleName(row.get("role_name", String.class));
+        return user;
+    }
+}
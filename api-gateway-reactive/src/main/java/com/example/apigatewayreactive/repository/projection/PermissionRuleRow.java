@@ -0,0 +1,17 @@
+package com.example.apigatewayreactive.repository.projection;
+
+import com.example.common.security.PermissionRuleView;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A permission and one of the roles granted it, as read by {@link com.example.apigatewayreactive.repository.PermissionRepository}.
+ */
+@Getter
+@AllArgsConstructor
+public class PermissionRuleRow implements PermissionRuleView {
+    private final Long id;
+    private final String method;
+    private final String endpoint;
+    private final String roleName;
+}
@@ -0,0 +1,18 @@
+package com.example.apigatewayreactive.repository.projection;
+
+import lombok.Data;
+
+/**
+ * A user row joined with the name of its role, read without an ORM.
+ */
+@Data
+public class UserAccount {
+    private Long id;
+    private String username;
+    private String password;
+    private String fullName;
+    private String phoneNumber;
+    private String email;
+    private String roleName;
+    private Boolean isDeleted;
+}
@@ -0,0 +1,40 @@
+package com.example.apigatewayreactive.security;
+
+import com.example.apigatewayreactive.repository.projection.UserAccount;
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+
+@Getter
+public class CustomUserDetail implements UserDetails {
+
+    private final UserAccount user;
+
+    public CustomUserDetail(UserAccount user) {
+        this.user = user;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return List.of(new SimpleGrantedAuthority(user.getRoleName()));
+    }
+
+    @Override
+    public String getPassword() {
+        return user.getPassword();
+    }
+
+    @Override
+    public String getUsername() {
+        return user.getUsername();
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return !Boolean.TRUE.equals(user.getIsDeleted());
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.apigatewayreactive.security;
+
+import com.example.apigatewayreactive.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+/**
+ * Service for loading user-specific data for Spring Security authentication without blocking.
+ */
+@Service
+@RequiredArgsConstructor
+public class CustomUserDetailService implements ReactiveUserDetailsService {
+
+    private final UserRepository userRepository;
+
+    /**
+     * Loads the user by their username.
+     *
+     * @param username the username identifying the user
+     * @return a UserDetails object containing user information, or a {@link UsernameNotFoundException} error
+     */
+    @Override
+    public Mono<UserDetails> findByUsername(String username) {
+        return userRepository.findByUsernameAndIsDeletedFalse(username)
+                .switchIfEmpty(Mono.error(() -> new UsernameNotFoundException("User not found")))
+                .map(CustomUserDetail::new);
+    }
+}
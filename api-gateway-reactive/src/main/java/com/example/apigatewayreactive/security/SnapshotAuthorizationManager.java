@@ -0,0 +1,85 @@
+package com.example.apigatewayreactive.security;
+
+import com.example.apigatewayreactive.service.IAuthorizationSnapshotService;
+import com.example.common.routing.RequestPaths;
+import com.example.common.security.AuthorizationRule;
+import com.example.common.security.AuthorizationSnapshot;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationResult;
+import org.springframework.security.authorization.ReactiveAuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.server.authorization.AuthorizationContext;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Authorizes requests against the current {@link AuthorizationSnapshot}, with the same rules as api-gateway.
+ * Rules are matched against the decoded path, as upstream services read it.
+ * Public endpoints are granted without subscribing to the authentication; other requests are decided by
+ * {@link AuthorizationSnapshot#isGranted} once the authentication is available.
+ */
+@Component
+public class SnapshotAuthorizationManager implements ReactiveAuthorizationManager<AuthorizationContext> {
+
+    private static final AuthorizationDecision GRANTED = new AuthorizationDecision(true);
+    private static final AuthorizationDecision DENIED = new AuthorizationDecision(false);
+
+    private final IAuthorizationSnapshotService authorizationSnapshotService;
+    private final Timer grantedTimer;
+    private final Timer deniedTimer;
+
+    public SnapshotAuthorizationManager(IAuthorizationSnapshotService authorizationSnapshotService, MeterRegistry meterRegistry) {
+        this.authorizationSnapshotService = authorizationSnapshotService;
+        this.grantedTimer = Timer.builder("gateway.authorization.evaluation")
+                .description("Time spent matching a request against the authorization rules")
+                .tag("decision", "granted")
+                .register(meterRegistry);
+        this.deniedTimer = Timer.builder("gateway.authorization.evaluation")
+                .description("Time spent matching a request against the authorization rules")
+                .tag("decision", "denied")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Mono<AuthorizationResult> authorize(Mono<Authentication> authentication, AuthorizationContext context) {
+        return decide(authentication, context).cast(AuthorizationResult.class);
+    }
+
+    /**
+     * @deprecated use {@link #authorize(Mono, AuthorizationContext)}
+     */
+    @Deprecated
+    @Override
+    public Mono<AuthorizationDecision> check(Mono<Authentication> authentication, AuthorizationContext context) {
+        return decide(authentication, context);
+    }
+
+    private Mono<AuthorizationDecision> decide(Mono<Authentication> authentication, AuthorizationContext context) {
+        ServerHttpRequest request = context.getExchange().getRequest();
+        HttpMethod method = request.getMethod();
+        String path = RequestPaths.decodedPath(request.getPath().pathWithinApplication());
+        AuthorizationSnapshot snapshot = authorizationSnapshotService.getSnapshot();
+        long start = System.nanoTime();
+        AuthorizationRule rule = snapshot.match(method, path);
+        if (rule != null && rule.isPermitAll()) {
+            return Mono.just(record(true, start));
+        }
+        return authentication
+                .map(current -> {
+                    long evaluationStart = System.nanoTime();
+                    return record(snapshot.isGranted(method, path, () -> current), evaluationStart);
+                })
+                .defaultIfEmpty(DENIED);
+    }
+
+    private AuthorizationDecision record(boolean granted, long start) {
+        (granted ? grantedTimer : deniedTimer).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return granted ? GRANTED : DENIED;
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.apigatewayreactive.service;
+
+import com.example.common.dto.request.LoginRequest;
+import com.example.common.dto.request.RefreshTokenRequest;
+import com.example.common.dto.response.AuthResponse;
+import reactor.core.publisher.Mono;
+
+/**
+ * Service interface for authentication operations.
+ */
+public interface IAuthService {
+
+    /**
+     * Authenticates a user and returns access and refresh tokens along with user information.
+     *
+     * @param loginRequest the request containing username and password
+     * @return an AuthResponse containing access token, refresh token and user information
+     */
+    Mono<AuthResponse> login(LoginRequest loginRequest);
+
+    /**
+     * Generates a new access token using a valid refresh token.
+     *
+     * @param refreshTokenRequest the request containing the refresh token
+     * @return an AuthResponse containing a new access token, the refresh token and user information
+     */
+    Mono<AuthResponse> refreshToken(RefreshTokenRequest refreshTokenRequest);
+}
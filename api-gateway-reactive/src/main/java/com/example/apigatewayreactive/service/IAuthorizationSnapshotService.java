@@ -0,0 +1,31 @@
+package com.example.apigatewayreactive.service;
+
+import com.example.common.security.AuthorizationSnapshot;
+import reactor.core.publisher.Mono;
+
+/**
+ * Service interface for the authorization snapshot shared by the security filters.
+ */
+public interface IAuthorizationSnapshotService {
+
+    /**
+     * Returns the current snapshot. Never blocks.
+     *
+     * @return the current authorization snapshot
+     */
+    AuthorizationSnapshot getSnapshot();
+
+    /**
+     * Rebuilds the snapshot when the permission tables have changed since it was built.
+     *
+     * @return true if a new snapshot has been published, false otherwise
+     */
+    Mono<Boolean> refreshIfChanged();
+
+    /**
+     * Rebuilds and publishes the snapshot unconditionally.
+     *
+     * @return the new snapshot
+     */
+    Mono<AuthorizationSnapshot> reload();
+}
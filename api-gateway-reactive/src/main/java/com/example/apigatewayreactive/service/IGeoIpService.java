@@ -0,0 +1,10 @@
+package com.example.apigatewayreactive.service;
+
+import com.example.common.geo.CountryResolver;
+
+/**
+ * Service interface for resolving the country of an IP address.
+ * See {@link CountryResolver#getCountryIsoCode(java.net.InetAddress)}.
+ */
+public interface IGeoIpService extends CountryResolver {
+}
@@ -0,0 +1,21 @@
+package com.example.apigatewayreactive.service;
+
+import com.example.common.ratelimit.RateLimitDecision;
+import reactor.core.publisher.Mono;
+
+/**
+ * Service interface for per-route admission control.
+ */
+public interface IRateLimitService {
+
+    /**
+     * Takes a token from the client IP bucket and, for authenticated callers, from the user bucket of the route.
+     * Never waits on Redis when the local share of the buckets has tokens left.
+     *
+     * @param routeId  the id of the gateway route
+     * @param userId   the id of the authenticated user, or null for anonymous callers
+     * @param clientIp the client address
+     * @return the decision; rejected decisions carry the delay before retrying
+     */
+    Mono<RateLimitDecision> tryAcquire(String routeId, Long userId, String clientIp);
+}
@@ -0,0 +1,31 @@
+package com.example.apigatewayreactive.service;
+
+import com.example.apigatewayreactive.repository.projection.UserAccount;
+import com.example.common.dto.response.RefreshToken;
+import reactor.core.publisher.Mono;
+
+/**
+ * Service interface for refresh tokens stored in Redis.
+ */
+public interface IRefreshTokenService {
+
+    /**
+     * Creates a new refresh token for a user, starting a new token family, and stores it in Redis.
+     *
+     * @param user the user
+     * @return the created RefreshToken
+     */
+    Mono<RefreshToken> createRefreshToken(UserAccount user);
+
+    /**
+     * Rotates a refresh token: the token is consumed and a successor in the same family is stored and returned,
+     * in a single Redis round trip. Presenting a token that was already rotated revokes its family. A token of a
+     * revoked, deleted or demoted user is refused before anything is rotated.
+     *
+     * @param token the refresh token presented by the client
+     * @return the successor, carrying the user the family was issued to, or an
+     * {@link com.example.apigatewayreactive.exception.UnAuthorizedException} error if the token is invalid, expired,
+     * reused or revoked
+     */
+    Mono<RefreshToken> rotate(String token);
+}
@@ -0,0 +1,53 @@
+package com.example.apigatewayreactive.service;
+
+import com.example.apigatewayreactive.repository.projection.UserAccount;
+import com.example.common.dto.response.RefreshToken;
+import io.jsonwebtoken.Claims;
+
+/**
+ * Service interface for issuing JWT tokens.
+ * Tokens are verified by the shared {@link com.example.common.security.Hs256JwtVerifier}.
+ */
+public interface ITokenService {
+
+    /**
+     * Generates an access token for the user.
+     *
+     * @param user the user
+     * @return the access token
+     */
+    String generateAccessToken(UserAccount user);
+
+    /**
+     * Generates an access token for the user a refresh token was issued to.
+     *
+     * @param refreshToken the refresh token record
+     * @return the access token
+     */
+    String generateAccessToken(RefreshToken refreshToken);
+
+    /**
+     * Generates a refresh token for the user.
+     *
+     * @param user the user
+     * @return the refresh token
+     */
+    String generateRefreshToken(UserAccount user);
+
+    /**
+     * Generates the successor of a verified refresh token: same subject, user and role, expiring at the same time.
+     *
+     * @param claims the verified claims of the refresh token
+     * @return the new refresh token
+     */
+    String generateRefreshToken(Claims claims);
+
+    /**
+     * Parses a token and verifies its signature and expiration.
+     *
+     * @param token the JWT token
+     * @return the verified claims
+     * @throws io.jsonwebtoken.JwtException if the token is malformed, expired or badly signed
+     */
+    Claims extractVerifiedClaims(String token);
+}
@@ -0,0 +1,23 @@
+package com.example.apigatewayreactive.service;
+
+import reactor.core.publisher.Mono;
+
+import java.util.Date;
+
+/**
+ * Service interface for checking the access-token revocations recorded by api-gateway, and the current role of users.
+ */
+public interface IUserRevocationService {
+
+    /**
+     * Checks whether a token issued to the user at the given time, carrying the given role, has been revoked.
+     * A token is revoked when it was issued before the user's revocation mark, or when the user has since been
+     * deleted or given another role.
+     *
+     * @param userId   the id of the user
+     * @param role     the role carried by the token
+     * @param issuedAt the issued-at time of the token
+     * @return true if the token has been revoked, false otherwise
+     */
+    Mono<Boolean> isRevoked(Long userId, String role, Date issuedAt);
+}
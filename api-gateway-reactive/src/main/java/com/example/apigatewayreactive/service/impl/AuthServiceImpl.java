@@ -0,0 +1,68 @@
+package com.example.apigatewayreactive.service.impl;
+
+import com.example.apigatewayreactive.repository.projection.UserAccount;
+import com.example.apigatewayreactive.security.CustomUserDetail;
+import com.example.apigatewayreactive.service.IAuthService;
+import com.example.apigatewayreactive.service.IRefreshTokenService;
+import com.example.apigatewayreactive.service.ITokenService;
+import com.example.common.dto.request.LoginRequest;
+import com.example.common.dto.request.RefreshTokenRequest;
+import com.example.common.dto.response.AuthResponse;
+import com.example.common.dto.response.UserResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+/**
+ * Implementation of {@link IAuthService}.
+ * Password checks run on the bounded elastic scheduler of the authentication manager, so BCrypt never blocks an event loop.
+ * Refreshes read the user from the rotated token record, so they cost one Redis round trip and no database query.
+ */
+@Service
+@RequiredArgsConstructor
+public class AuthServiceImpl implements IAuthService {
+
+    private final ReactiveAuthenticationManager authenticationManager;
+
+    private final ITokenService tokenService;
+
+    private final IRefreshTokenService refreshTokenService;
+
+    @Override
+    public Mono<AuthResponse> login(LoginRequest loginRequest) {
+        return authenticationManager.authenticate(
+                        UsernamePasswordAuthenticationToken.unauthenticated(loginRequest.getUsername(), loginRequest.getPassword()))
+                .map(authentication -> ((CustomUserDetail) authentication.getPrincipal()).getUser())
+                .flatMap(user -> refreshTokenService.createRefreshToken(user)
+                        .map(refreshToken -> toResponse(user, refreshToken.getToken())));
+    }
+
+    @Override
+    public Mono<AuthResponse> refreshToken(RefreshTokenRequest refreshTokenRequest) {
+        return refreshTokenService.rotate(refreshTokenRequest.getRefreshToken())
+                .map(refreshToken -> {
+                    AuthResponse response = new AuthResponse();
+                    response.setAccessToken(tokenService.generateAccessToken(refreshToken));
+                    response.setRefreshToken(refreshToken.getToken());
+                    response.setUser(refreshToken.getUser());
+                    return response;
+                });
+    }
+
+    private AuthResponse toResponse(UserAccount user, String refreshToken) {
+        UserResponse userResponse = new UserResponse();
+        userResponse.setUsername(user.getUsername());
+        userResponse.setFullName(user.getFullName());
+        userResponse.setPhoneNumber(user.getPhoneNumber());
+        userResponse.setEmail(user.getEmail());
+        userResponse.setRole(user.getRoleName());
+
+        AuthResponse response = new AuthResponse();
+        response.setAccessToken(tokenService.generateAccessToken(user));
+        response.setRefreshToken(refreshToken);
+        response.setUser(userResponse);
+        return response;
+    }
+}
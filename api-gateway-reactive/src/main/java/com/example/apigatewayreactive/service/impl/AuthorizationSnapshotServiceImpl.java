@@ -0,0 +1,91 @@
+package com.example.apigatewayreactive.service.impl;
+
+import com.example.apigatewayreactive.repository.PermissionRepository;
+import com.example.apigatewayreactive.service.IAuthorizationSnapshotService;
+import com.example.common.security.AuthorizationSnapshot;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Implementation of {@link IAuthorizationSnapshotService}.
+ * Polls the same fingerprint of the permission tables as api-gateway over R2DBC and, when it changes,
+ * compiles a new snapshot and publishes it with a single volatile write. Readers never take a lock.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AuthorizationSnapshotServiceImpl implements IAuthorizationSnapshotService {
+
+    private final PermissionRepository permissionRepository;
+    private final AtomicLong versions = new AtomicLong();
+    private volatile AuthorizationSnapshot snapshot;
+
+    /**
+     * Loads the first snapshot before the gateway accepts traffic.
+     */
+    @PostConstruct
+    public void init() {
+        reload().block();
+    }
+
+    @Override
+    public AuthorizationSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Polls the permission fingerprint in the background; the next poll is scheduled once this one completes.
+     *
+     * @return completes when the poll is done
+     */
+    @Scheduled(fixedDelayString = "${authorization.snapshot.poll-interval:30s}",
+            initialDelayString = "${authorization.snapshot.poll-interval:30s}")
+    public Mono<Void> poll() {
+        return refreshIfChanged().then();
+    }
+
+    /**
+     * Rebuilds the snapshot when the permission fingerprint differs from the current one.
+     * A failed poll keeps serving the current snapshot.
+     *
+     * @return true if a new snapshot has been published, false otherwise
+     */
+    @Override
+    public Mono<Boolean> refreshIfChanged() {
+        return permissionRepository.computeFingerprint()
+                .flatMap(fingerprint -> Objects.equals(fingerprint, snapshot.getFingerprint())
+                        ? Mono.just(false)
+                        : publish(fingerprint).thenReturn(true))
+                .onErrorResume(DataAccessException.class, e -> {
+                    log.warn("Unable to refresh the authorization snapshot, keeping version {}: {}", snapshot.getVersion(), e.getMessage());
+                    return Mono.just(false);
+                });
+    }
+
+    @Override
+    public Mono<AuthorizationSnapshot> reload() {
+        return permissionRepository.computeFingerprint().flatMap(this::publish);
+    }
+
+    /**
+     * Builds and publishes a snapshot. The fingerprint is read before the rules,
+     * so a change racing with the build is picked up again by the next poll.
+     */
+    private Mono<AuthorizationSnapshot> publish(String fingerprint) {
+        return permissionRepository.findAllRules()
+                .collectList()
+                .map(rows -> AuthorizationSnapshot.of(versions.incrementAndGet(), fingerprint, rows))
+                .doOnNext(next -> {
+                    snapshot = next;
+                    log.info("Published authorization snapshot version {} with {} rules", next.getVersion(), next.getRuleCount());
+                });
+    }
+}
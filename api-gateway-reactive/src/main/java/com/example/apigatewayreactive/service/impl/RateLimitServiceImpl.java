@@ -0,0 +1,179 @@
+package com.example.apigatewayreactive.service.impl;
+
+import com.example.apigatewayreactive.ratelimit.RedisTokenBucket;
+import com.example.apigatewayreactive.service.IRateLimitService;
+import com.example.common.ratelimit.LocalTokenBucket;
+import com.example.common.ratelimit.RateLimitDecision;
+import com.example.common.ratelimit.RateLimitProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token-bucket implementation of {@link IRateLimitService}, with the same configuration and Redis buckets as api-gateway.
+ * Each (route, dimension, client) key has a striped local bucket spending tokens leased in batches from a Redis
+ * bucket that enforces the cluster-wide budget. If Redis is unavailable, requests are let through for a short
+ * back-off period rather than waiting on Redis, so an outage of Redis never takes the gateway down.
+ */
+@Slf4j
+@Service
+public class RateLimitServiceImpl implements IRateLimitService {
+
+    private static final String PREFIX = "rate-limit";
+    private static final String USER = "user";
+    private static final String IP = "ip";
+    private static final long REDIS_BACKOFF_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final Mono<RateLimitDecision> ALLOWED = Mono.just(RateLimitDecision.ALLOWED);
+
+    private final Environment environment;
+    private final RedisTokenBucket redisTokenBucket;
+    private final MeterRegistry meterRegistry;
+    private final Cache<String, LocalTokenBucket> buckets = Caffeine.newBuilder()
+            .maximumSize(100_000)
+            .expireAfterAccess(Duration.ofMinutes(5))
+            .build();
+    private volatile Settings settings;
+    private volatile long redisRetryAt = System.nanoTime();
+
+    public RateLimitServiceImpl(Environment environment, RedisTokenBucket redisTokenBucket, MeterRegistry meterRegistry) {
+        this.environment = environment;
+        this.redisTokenBucket = redisTokenBucket;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void init() {
+        settings = compile();
+    }
+
+    @EventListener
+    public void onEnvironmentChange(EnvironmentChangeEvent event) {
+        if (event.getKeys().stream().noneMatch(key -> key.startsWith(PREFIX + "."))) {
+            return;
+        }
+        settings = compile();
+        buckets.invalidateAll();
+        log.info("Reloaded rate limits");
+    }
+
+    @Override
+    public Mono<RateLimitDecision> tryAcquire(String routeId, Long userId, String clientIp) {
+        Settings current = settings;
+        RouteLimiter limiter = current.properties.isEnabled() ? current.routes.get(routeId) : null;
+        if (limiter == null) {
+            return ALLOWED;
+        }
+        Mono<RateLimitDecision> decision = acquire(current, limiter.ip, routeId + ":" + IP + ":" + clientIp);
+        if (userId == null) {
+            return decision;
+        }
+        return decision.flatMap(ipDecision -> ipDecision.isAllowed()
+                ? acquire(current, limiter.user, routeId + ":" + USER + ":" + userId)
+                : Mono.just(ipDecision));
+    }
+
+    private Mono<RateLimitDecision> acquire(Settings current, Dimension dimension, String key) {
+        if (dimension == null) {
+            return ALLOWED;
+        }
+        if (System.nanoTime() - redisRetryAt < 0) {
+            dimension.failOpen.increment();
+            return ALLOWED;
+        }
+        LocalTokenBucket bucket = buckets.get(key, k -> new LocalTokenBucket(current.properties.getStripes(),
+                current.properties.getLeaseTtl().toNanos()));
+        long leaseSize = Math.max(1, Math.min(current.properties.getLeaseSize(), dimension.spec.getCapacity()));
+        return bucket.acquire(leaseSize, size -> redisTokenBucket.lease(key, dimension.spec, size))
+                .map(retryAfterMillis -> {
+                    if (retryAfterMillis == 0) {
+                        dimension.allowed.increment();
+                        return RateLimitDecision.ALLOWED;
+                    }
+                    dimension.rejected.increment();
+                    return RateLimitDecision.rejected(retryAfterMillis);
+                })
+                .onErrorResume(DataAccessException.class, e -> {
+                    redisRetryAt = System.nanoTime() + REDIS_BACKOFF_NANOS;
+                    log.warn("Rate limiter cannot reach Redis, letting requests through: {}", e.getMessage());
+                    dimension.failOpen.increment();
+                    return ALLOWED;
+                });
+    }
+
+    private Settings compile() {
+        RateLimitProperties properties = Binder.get(environment)
+                .bind(PREFIX, RateLimitProperties.class)
+                .orElseGet(RateLimitProperties::new);
+        Map<String, RouteLimiter> routes = new HashMap<>();
+        properties.getRoutes().forEach((routeId, limit) -> routes.put(routeId, new RouteLimiter(
+                dimension(routeId, USER, limit.getUser()),
+                dimension(routeId, IP, limit.getIp()))));
+        return new Settings(properties, routes);
+    }
+
+    private Dimension dimension(String routeId, String name, RateLimitProperties.BucketSpec spec) {
+        if (spec == null || spec.getCapacity() <= 0 || spec.getRefillPerSecond() <= 0) {
+            return null;
+        }
+        return new Dimension(spec, counter(routeId, name, "allowed"), counter(routeId, name, "rejected"),
+                counter(routeId, name, "fail_open"));
+    }
+
+    private Counter counter(String routeId, String dimension, String outcome) {
+        return Counter.builder("gateway.ratelimit.decisions")
+                .description("Rate limiter decisions")
+                .tag("route", routeId)
+                .tag("dimension", dimension)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private static final class Settings {
+        private final RateLimitProperties properties;
+        private final Map<String, RouteLimiter> routes;
+
+        private Settings(RateLimitProperties properties, Map<String, RouteLimiter> routes) {
+            this.properties = properties;
+            this.routes = routes;
+        }
+    }
+
+    private static final class RouteLimiter {
+        private final Dimension user;
+        private final Dimension ip;
+
+        private RouteLimiter(Dimension user, Dimension ip) {
+            this.user = user;
+            this.ip = ip;
+        }
+    }
+
+    private static final class Dimension {
+        private final RateLimitProperties.BucketSpec spec;
+        private final Counter allowed;
+        private final Counter rejected;
+        private final Counter failOpen;
+
+        private Dimension(RateLimitProperties.BucketSpec spec, Counter allowed, Counter rejected, Counter failOpen) {
+            this.spec = spec;
+            this.allowed = allowed;
+            this.rejected = rejected;
+            this.failOpen = failOpen;
+        }
+    }
+}
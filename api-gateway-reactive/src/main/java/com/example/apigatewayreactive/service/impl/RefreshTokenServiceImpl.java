@@ -0,0 +1,159 @@
+package com.example.apigatewayreactive.service.impl;
+
+import com.example.apigatewayreactive.repository.UserRepository;
+import com.example.apigatewayreactive.repository.projection.UserAccount;
+import com.example.apigatewayreactive.service.IRefreshTokenService;
+import com.example.apigatewayreactive.service.ITokenService;
+import com.example.apigatewayreactive.service.IUserRevocationService;
+import com.example.common.constant.CommonConstant;
+import com.example.common.dto.response.RefreshToken;
+import com.example.common.dto.response.UserResponse;
+import com.example.common.exception.NotFoundException;
+import com.example.common.exception.UnAuthorizedException;
+import com.example.common.security.RefreshTokenKeys;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.GenericToStringSerializer;
+import org.springframework.data.redis.serializer.RedisElementReader;
+import org.springframework.data.redis.serializer.RedisElementWriter;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Reactive Redis implementation of {@link IRefreshTokenService}, using the same key layout and scripts as
+ * api-gateway, described in {@link RefreshTokenKeys}. Scripts are called with binary arguments and replies, so token
+ * records travel in the encoding of the {@code refreshTokenSerializer}.
+ * Tokens stored by earlier versions under their raw value are accepted once and replaced by a new family.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RefreshTokenServiceImpl implements IRefreshTokenService {
+
+    private static final RedisScript<Long> STORE_SCRIPT =
+            RedisScript.of(new ClassPathResource(RefreshTokenKeys.STORE_SCRIPT), Long.class);
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> ROTATE_SCRIPT =
+            RedisScript.of(new ClassPathResource(RefreshTokenKeys.ROTATE_SCRIPT), List.class);
+    private static final RedisElementWriter<byte[]> BINARY_ARGS = RedisElementWriter.from(RedisSerializer.byteArray());
+    private static final RedisElementReader<Long> INTEGER_REPLY =
+            RedisElementReader.from(new GenericToStringSerializer<>(Long.class));
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static final RedisElementReader<List> BULK_REPLIES = (RedisElementReader) RedisElementReader.from(RedisSerializer.byteArray());
+
+    private final ReactiveStringRedisTemplate reactiveStringRedisTemplate;
+
+    private final RedisSerializer<RefreshToken> refreshTokenSerializer;
+
+    private final UserRepository userRepository;
+
+    private final ITokenService tokenService;
+
+    private final IUserRevocationService userRevocationService;
+
+    @Value("${JWT_REFRESH_EXPIRATION_MS}")
+    private long jwtRefreshExpiration;
+
+    @Override
+    public Mono<RefreshToken> createRefreshToken(UserAccount user) {
+        RefreshToken refreshToken = new RefreshToken();
+        refreshToken.setToken(tokenService.generateRefreshToken(user));
+        refreshToken.setFamily(RefreshTokenKeys.newFamily());
+        refreshToken.setUserId(user.getId());
+        refreshToken.setRole(user.getRoleName());
+        refreshToken.setUser(toUserResponse(user));
+        refreshToken.setExpiryDate(Instant.now().plusMillis(jwtRefreshExpiration));
+
+        String digest = RefreshTokenKeys.digest(refreshToken.getToken());
+        return reactiveStringRedisTemplate.execute(STORE_SCRIPT,
+                        List.of(RefreshTokenKeys.tokenKey(digest), RefreshTokenKeys.familyKey(refreshToken.getFamily())),
+                        List.of(bytes(refreshToken.getFamily()), refreshTokenSerializer.serialize(refreshToken),
+                                bytes(Long.toString(jwtRefreshExpiration)), bytes(digest)),
+                        BINARY_ARGS, INTEGER_REPLY)
+                .then(Mono.just(refreshToken));
+    }
+
+    @Override
+    public Mono<RefreshToken> rotate(String token) {
+        return Mono.fromCallable(() -> verify(token)).flatMap(claims -> userRevocationService
+                .isRevoked(claims.get(CommonConstant.CLAIM_USER_ID, Long.class),
+                        claims.get(CommonConstant.CLAIM_ROLE, String.class), claims.getIssuedAt())
+                .flatMap(revoked -> revoked
+                        ? Mono.error(new UnAuthorizedException("Refresh token was revoked. Please make a new sign-in request"))
+                        : rotate(token, claims)));
+    }
+
+    private Mono<RefreshToken> rotate(String token, Claims claims) {
+        String successor = tokenService.generateRefreshToken(claims);
+        String digest = RefreshTokenKeys.digest(token);
+        String successorDigest = RefreshTokenKeys.digest(successor);
+        return reactiveStringRedisTemplate.execute(ROTATE_SCRIPT,
+                        List.of(RefreshTokenKeys.tokenKey(digest), RefreshTokenKeys.tokenKey(successorDigest), RefreshTokenKeys.usedKey(digest),
+                                RefreshTokenKeys.userRevokedAtKey(claims.get(CommonConstant.CLAIM_USER_ID, Long.class))),
+                        List.of(bytes(RefreshTokenKeys.FAMILY_PREFIX), bytes(RefreshTokenKeys.TOKEN_PREFIX), bytes(successorDigest),
+                                bytes(Long.toString(claims.getIssuedAt().getTime() / 1000))),
+                        BINARY_ARGS, BULK_REPLIES)
+                .next()
+                .flatMap(result -> {
+                    String outcome = new String((byte[]) result.get(0), StandardCharsets.US_ASCII);
+                    if (RefreshTokenKeys.ROTATED.equals(outcome)) {
+                        RefreshToken refreshToken = refreshTokenSerializer.deserialize((byte[]) result.get(1));
+                        refreshToken.setToken(successor);
+                        return Mono.just(refreshToken);
+                    }
+                    if (RefreshTokenKeys.REUSED.equals(outcome)) {
+                        log.warn("Refresh token of user {} was reused, its token family is revoked", claims.getSubject());
+                        return Mono.error(new UnAuthorizedException("Refresh token was already used. Please make a new sign-in request"));
+                    }
+                    if (RefreshTokenKeys.REVOKED.equals(outcome)) {
+                        return Mono.error(new UnAuthorizedException("Refresh token was revoked. Please make a new sign-in request"));
+                    }
+                    return rotateLegacy(token, claims);
+                });
+    }
+
+    private Mono<RefreshToken> rotateLegacy(String token, Claims claims) {
+        return reactiveStringRedisTemplate.delete(RefreshTokenKeys.legacyKey(token))
+                .flatMap(deleted -> deleted > 0
+                        ? userRepository.findById(claims.get(CommonConstant.CLAIM_USER_ID, Long.class))
+                                .switchIfEmpty(Mono.error(() -> new NotFoundException("User not found")))
+                                .flatMap(this::createRefreshToken)
+                        : Mono.error(new NotFoundException("Refresh token not found")));
+    }
+
+    private Claims verify(String token) {
+        try {
+            return tokenService.extractVerifiedClaims(token);
+        } catch (ExpiredJwtException e) {
+            throw new UnAuthorizedException("Refresh token was expired. Please make a new sign-in request");
+        } catch (JwtException | IllegalArgumentException e) {
+            throw new UnAuthorizedException("Invalid refresh token");
+        }
+    }
+
+    private static UserResponse toUserResponse(UserAccount user) {
+        UserResponse userResponse = new UserResponse();
+        userResponse.setUsername(user.getUsername());
+        userResponse.setFullName(user.getFullName());
+        userResponse.setPhoneNumber(user.getPhoneNumber());
+        userResponse.setEmail(user.getEmail());
+        userResponse.setRole(user.getRoleName());
+        return userResponse;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.apigatewayreactive.service.impl;
+
+import com.example.apigatewayreactive.repository.projection.UserAccount;
+import com.example.apigatewayreactive.service.ITokenService;
+import com.example.common.constant.CommonConstant;
+import com.example.common.dto.response.RefreshToken;
+import com.example.common.security.Hs256JwtVerifier;
+import com.example.common.security.JwtTokenIssuer;
+import io.jsonwebtoken.Claims;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Implementation of {@link ITokenService} issuing the same tokens as api-gateway.
+ */
+@Service
+@RequiredArgsConstructor
+public class TokenServiceImpl implements ITokenService {
+
+    private final JwtTokenIssuer jwtTokenIssuer;
+
+    private final Hs256JwtVerifier jwtVerifier;
+
+    @Value("${JWT_ACCESS_EXPIRATION_MS}")
+    private long jwtAccessExpiration;
+
+    @Value("${JWT_REFRESH_EXPIRATION_MS}")
+    private long jwtRefreshExpiration;
+
+    @Override
+    public String generateAccessToken(UserAccount user) {
+        return jwtTokenIssuer.issue(user.getUsername(), user.getId(), user.getRoleName(), jwtAccessExpiration);
+    }
+
+    @Override
+    public String generateAccessToken(RefreshToken refreshToken) {
+        return jwtTokenIssuer.issue(refreshToken.getUser().getUsername(), refreshToken.getUserId(), refreshToken.getRole(),
+                jwtAccessExpiration);
+    }
+
+    @Override
+    public String generateRefreshToken(UserAccount user) {
+        return jwtTokenIssuer.issueRefreshToken(user.getUsername(), user.getId(), user.getRoleName(), jwtRefreshExpiration);
+    }
+
+    @Override
+    public String generateRefreshToken(Claims claims) {
+        long remaining = claims.getExpiration().getTime() - System.currentTimeMillis();
+        return jwtTokenIssuer.issueRefreshToken(claims.getSubject(), claims.get(CommonConstant.CLAIM_USER_ID, Long.class),
+                claims.get(CommonConstant.CLAIM_ROLE, String.class), Math.max(0, remaining));
+    }
+
+    @Override
+    public Claims extractVerifiedClaims(String token) {
+        return jwtVerifier.verify(token);
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.apigatewayreactive.service.impl;
+
+import com.example.apigatewayreactive.repository.UserRepository;
+import com.example.apigatewayreactive.service.IUserRevocationService;
+import com.example.common.security.RefreshTokenKeys;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Date;
+
+/**
+ * Reactive Redis implementation of {@link IUserRevocationService}, reading the marks written by api-gateway.
+ * Users are deleted and demoted outside of the gateways, so the role of every user seen is also read from the database
+ * and compared with the role of the token.
+ * Both lookups are cached locally so the request path rarely leaves the gateway.
+ */
+@Service
+public class UserRevocationServiceImpl implements IUserRevocationService {
+
+    private static final String REVOKED_AT_PREFIX = RefreshTokenKeys.USER_REVOKED_AT_PREFIX;
+    private static final long NOT_REVOKED = 0L;
+    private static final String NO_ACTIVE_ROLE = "";
+
+    private final ReactiveStringRedisTemplate reactiveStringRedisTemplate;
+    private final UserRepository userRepository;
+    private final Cache<Long, Long> revokedAtCache;
+    private final Cache<Long, String> activeRoleCache;
+
+    public UserRevocationServiceImpl(ReactiveStringRedisTemplate reactiveStringRedisTemplate, UserRepository userRepository,
+                                     @Value("${jwt.revocation.cache-ttl:5s}") Duration cacheTtl,
+                                     @Value("${jwt.revocation.role-cache-ttl:30s}") Duration roleCacheTtl) {
+        this.reactiveStringRedisTemplate = reactiveStringRedisTemplate;
+        this.userRepository = userRepository;
+        this.revokedAtCache = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterWrite(cacheTtl)
+                .build();
+        this.activeRoleCache = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterWrite(roleCacheTtl)
+                .build();
+    }
+
+    /**
+     * Checks whether a token issued to the user at the given time, carrying the given role, has been revoked.
+     * JWT timestamps have second precision, so a token issued in the same second as the revocation is rejected too.
+     *
+     * @param userId   the id of the user
+     * @param role     the role carried by the token
+     * @param issuedAt the issued-at time of the token
+     * @return true if the token has been revoked, false otherwise
+     */
+    @Override
+    public Mono<Boolean> isRevoked(Long userId, String role, Date issuedAt) {
+        Long cached = revokedAtCache.getIfPresent(userId);
+        Mono<Long> revokedAt = cached != null ? Mono.just(cached) : loadRevokedAt(userId);
+        return revokedAt.flatMap(value -> {
+            if (value != NOT_REVOKED && (issuedAt == null || issuedAt.getTime() / 1000 <= value)) {
+                return Mono.just(true);
+            }
+            return activeRole(userId).map(activeRole -> !activeRole.equals(role));
+        });
+    }
+
+    private Mono<String> activeRole(Long userId) {
+        String cached = activeRoleCache.getIfPresent(userId);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+        return userRepository.findActiveRoleNameById(userId)
+                .defaultIfEmpty(NO_ACTIVE_ROLE)
+                .doOnNext(role -> activeRoleCache.put(userId, role));
+    }
+
+    private Mono<Long> loadRevokedAt(Long userId) {
+        return reactiveStringRedisTemplate.opsForValue().get(REVOKED_AT_PREFIX + userId)
+                .map(Long::parseLong)
+                .defaultIfEmpty(NOT_REVOKED)
+                .map(value -> {
+                    Long previous = revokedAtCache.asMap().putIfAbsent(userId, value);
+                    return previous == null ? value : previous;
+                });
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.apigatewayreactive.stream;
+
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Copies the body of a proxied response as it streams to the client, up to a maximum size, so it can be cached or
+ * shared once the response is complete. The body is never held back from the client: a response larger than the
+ * maximum is streamed through and simply not captured.
+ * <p>
+ * One decorator is installed per exchange and shared by every filter that needs the body, so a response is copied
+ * once whatever the number of filters reading it.
+ */
+public class CapturingResponseDecorator extends ServerHttpResponseDecorator {
+
+    private static final String ATTRIBUTE = CapturingResponseDecorator.class.getName();
+
+    private long maxSize;
+    private byte[] body = new byte[0];
+    private int size;
+    private boolean overflowed;
+    private boolean complete;
+
+    private CapturingResponseDecorator(ServerHttpResponse delegate, long maxSize) {
+        super(delegate);
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Returns the exchange with its response captured up to {@code maxSize} bytes. If an outer filter already
+     * captures the response, its decorator is reused and its maximum raised to {@code maxSize} if needed.
+     *
+     * @param exchange the exchange
+     * @param maxSize  the largest body wanted, in bytes
+     * @return the exchange to pass down the filter chain
+     */
+    public static ServerWebExchange capture(ServerWebExchange exchange, long maxSize) {
+        CapturingResponseDecorator existing = exchange.getAttribute(ATTRIBUTE);
+        if (existing != null) {
+            existing.maxSize = Math.max(existing.maxSize, maxSize);
+            return exchange;
+        }
+        CapturingResponseDecorator decorator = new CapturingResponseDecorator(exchange.getResponse(), maxSize);
+        ServerWebExchange decorated = exchange.mutate().response(decorator).build();
+        decorated.getAttributes().put(ATTRIBUTE, decorator);
+        return decorated;
+    }
+
+    /**
+     * @param exchange an exchange returned by {@link #capture}
+     * @return the captured body, or null if the response was larger than the maximum or did not complete
+     */
+    public static byte[] capturedBody(ServerWebExchange exchange) {
+        CapturingResponseDecorator decorator = exchange.getAttribute(ATTRIBUTE);
+        if (decorator == null || !decorator.complete || decorator.overflowed) {
+            return null;
+        }
+        return decorator.body.length == decorator.size ? decorator.body : Arrays.copyOf(decorator.body, decorator.size);
+    }
+
+    @Override
+    public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+        return super.writeWith(Flux.from(body)
+                .doOnNext(this::append)
+                .doOnComplete(() -> complete = true));
+    }
+
+    @Override
+    public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+        // Streamed responses are flushed chunk by chunk and never worth keeping
+        overflowed = true;
+        return super.writeAndFlushWith(body);
+    }
+
+    @Override
+    public Mono<Void> setComplete() {
+        return super.setComplete().doOnSuccess(done -> complete = true);
+    }
+
+    private void append(DataBuffer buffer) {
+        if (overflowed) {
+            return;
+        }
+        int count = buffer.readableByteCount();
+        if (size + (long) count > maxSize) {
+            overflowed = true;
+            body = null;
+            return;
+        }
+        if (size + count > body.length) {
+            body = Arrays.copyOf(body, (int) Math.min(maxSize, Math.max(size + count, body.length * 2L)));
+        }
+        try (DataBuffer.ByteBufferIterator buffers = buffer.readableByteBuffers()) {
+            while (buffers.hasNext()) {
+                ByteBuffer next = buffers.next();
+                int length = next.remaining();
+                next.get(body, size, length);
+                size += length;
+            }
+        }
+    }
+}
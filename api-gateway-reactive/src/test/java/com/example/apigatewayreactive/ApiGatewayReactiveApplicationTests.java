@@ -0,0 +1,13 @@
+package com.example.apigatewayreactive;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest
+class ApiGatewayReactiveApplicationTests {
+
+    @Test
+    void contextLoads() {
+    }
+
+}
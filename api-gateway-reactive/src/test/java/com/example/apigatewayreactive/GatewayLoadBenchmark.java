@@ -0,0 +1,183 @@
+package com.example.apigatewayreactive;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Side-by-side throughput and memory benchmark of the gateway editions: drives each running gateway in turn with the
+ * same closed-loop load and reports requests per second, latency percentiles and the peak heap and live thread
+ * count the gateway reports through its metrics endpoint.
+ * <p>
+ * Start api-gateway and api-gateway-reactive against the same services, with
+ * {@code --rate-limit.enabled=false --response-cache.enabled=false --request-coalescing.enabled=false} so every request
+ * is proxied, then run the main method on the test classpath with one {@code name=url} argument per gateway:
+ * <pre>
+ * java -cp ... -Dbench.path=/table/page -Dbench.token=$ADMIN_ACCESS_TOKEN -Dbench.concurrency=256 \
+ *     com.example.apigatewayreactive.GatewayLoadBenchmark mvc=http://localhost:8080 reactive=http://localhost:8081
+ * </pre>
+ * The token is sent with every request and is also used to read the metrics, which are restricted to administrators.
+ */
+public final class GatewayLoadBenchmark {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final long SAMPLE_INTERVAL_MILLIS = 500;
+
+    private GatewayLoadBenchmark() {}
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            System.err.println("usage: GatewayLoadBenchmark name=url [name=url...]");
+            System.exit(2);
+        }
+        String path = System.getProperty("bench.path", "/table/page");
+        String token = System.getProperty("bench.token");
+        int concurrency = Integer.getInteger("bench.concurrency", 256);
+        Duration warmup = Duration.parse(System.getProperty("bench.warmup", "PT10S"));
+        Duration duration = Duration.parse(System.getProperty("bench.duration", "PT30S"));
+
+        Map<String, Result> results = new LinkedHashMap<>();
+        for (String target : args) {
+            String[] nameAndUrl = target.split("=", 2);
+            String baseUrl = nameAndUrl[1].endsWith("/") ? nameAndUrl[1].substring(0, nameAndUrl[1].length() - 1) : nameAndUrl[1];
+            System.out.printf("%s: warming up for %ds%n", nameAndUrl[0], warmup.toSeconds());
+            run(baseUrl, path, token, concurrency, warmup);
+            System.out.printf("%s: measuring for %ds with %d concurrent requests%n", nameAndUrl[0], duration.toSeconds(), concurrency);
+            results.put(nameAndUrl[0], run(baseUrl, path, token, concurrency, duration));
+        }
+
+        System.out.printf("%n%-12s %10s %10s %10s %10s %10s %12s %10s%n",
+                "edition", "req/s", "p50 ms", "p99 ms", "max ms", "non-2xx", "heap MB", "threads");
+        results.forEach((name, result) -> System.out.printf("%-12s %10.0f %10.2f %10.2f %10.2f %10d %12s %10s%n",
+                name, result.throughput, result.percentileMillis(0.50), result.percentileMillis(0.99),
+                result.percentileMillis(1.0), result.failures, format(result.peakHeapBytes / (1024.0 * 1024.0)),
+                format(result.peakThreads)));
+    }
+
+    private static Result run(String baseUrl, String path, String token, int concurrency, Duration duration)
+            throws Exception {
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(Duration.ofSeconds(30)).GET();
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        HttpRequest request = builder.build();
+
+        Result result = new Result();
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+        sampler.scheduleAtFixedRate(() -> result.sample(client, baseUrl, token), 0, SAMPLE_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        long deadline = System.nanoTime() + duration.toNanos();
+        long start = System.nanoTime();
+        List<Future<long[]>> latencies = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            latencies.add(workers.submit(() -> drive(client, request, deadline, result.failureCount)));
+        }
+        long[] merged = new long[0];
+        for (Future<long[]> worker : latencies) {
+            long[] recorded = worker.get();
+            long[] grown = Arrays.copyOf(merged, merged.length + recorded.length);
+            System.arraycopy(recorded, 0, grown, merged.length, recorded.length);
+            merged = grown;
+        }
+        long elapsed = System.nanoTime() - start;
+        workers.shutdown();
+        sampler.shutdownNow();
+
+        Arrays.sort(merged);
+        result.latencyNanos = merged;
+        result.throughput = merged.length / (elapsed / 1e9);
+        result.failures = result.failureCount.get();
+        return result;
+    }
+
+    private static long[] drive(HttpClient client, HttpRequest request, long deadline, AtomicLong failures) {
+        long[] latencies = new long[1024];
+        int count = 0;
+        while (System.nanoTime() - deadline < 0) {
+            long sent = System.nanoTime();
+            try {
+                HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() / 100 != 2) {
+                    failures.incrementAndGet();
+                }
+            } catch (IOException e) {
+                failures.incrementAndGet();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = System.nanoTime() - sent;
+        }
+        return Arrays.copyOf(latencies, count);
+    }
+
+    private static String format(double value) {
+        return value < 0 ? "n/a" : String.format("%.0f", value);
+    }
+
+    private static final class Result {
+        private final AtomicLong failureCount = new AtomicLong();
+        private volatile double peakHeapBytes = -1;
+        private volatile double peakThreads = -1;
+        private long[] latencyNanos;
+        private double throughput;
+        private long failures;
+
+        private double percentileMillis(double percentile) {
+            if (latencyNanos.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.min(latencyNanos.length - 1, Math.ceil(percentile * latencyNanos.length) - 1);
+            return latencyNanos[Math.max(0, index)] / 1e6;
+        }
+
+        private void sample(HttpClient client, String baseUrl, String token) {
+            peakHeapBytes = Math.max(peakHeapBytes, metric(client, baseUrl + "/actuator/metrics/jvm.memory.used?tag=area:heap", token));
+            peakThreads = Math.max(peakThreads, metric(client, baseUrl + "/actuator/metrics/jvm.threads.live", token));
+        }
+
+        private static double metric(HttpClient client, String url, String token) {
+            HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url)).timeout(Duration.ofSeconds(2)).GET();
+            if (token != null) {
+                builder.header("Authorization", "Bearer " + token);
+            }
+            try {
+                HttpResponse<String> response = client.send(builder.build(), HttpResponse.BodyHandlers.ofString());
+                if (response.statusCode() != 200) {
+                    return -1;
+                }
+                JsonNode measurements = OBJECT_MAPPER.readTree(response.body()).path("measurements");
+                return measurements.isArray() && !measurements.isEmpty() ? measurements.get(0).path("value").asDouble(-1) : -1;
+            } catch (IOException e) {
+                return -1;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return -1;
+            }
+        }
+    }
+}
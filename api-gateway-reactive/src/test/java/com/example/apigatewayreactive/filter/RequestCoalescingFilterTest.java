@@ -0,0 +1,51 @@
+package com.example.apigatewayreactive.filter;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RequestCoalescingFilterTest {
+
+    @Test
+    void keysIgnoreTheOrderOfQueryParameters() {
+        String key = RequestCoalescingFilter.keyOf("table", get("/table/page?size=10&page=1"), "anonymous");
+
+        assertThat(RequestCoalescingFilter.keyOf("table", get("/table/page?page=1&size=10"), "anonymous")).isEqualTo(key);
+        assertThat(RequestCoalescingFilter.keyOf("table", get("/table/page?page=2&size=10"), "anonymous")).isNotEqualTo(key);
+    }
+
+    @Test
+    void keysSeparateRoutesPathsAuthClassesAndAcceptHeaders() {
+        MockServerHttpRequest json = MockServerHttpRequest.get("/table/1").header(HttpHeaders.ACCEPT, "application/json").build();
+        String key = RequestCoalescingFilter.keyOf("table", json, "anonymous");
+
+        assertThat(RequestCoalescingFilter.keyOf("table-type", json, "anonymous")).isNotEqualTo(key);
+        assertThat(RequestCoalescingFilter.keyOf("table", json, "ROLE_USER")).isNotEqualTo(key);
+        assertThat(RequestCoalescingFilter.keyOf("table", MockServerHttpRequest.get("/table/2")
+                .header(HttpHeaders.ACCEPT, "application/json").build(), "anonymous")).isNotEqualTo(key);
+        assertThat(RequestCoalescingFilter.keyOf("table", MockServerHttpRequest.get("/table/1")
+                .header(HttpHeaders.ACCEPT, "text/csv").build(), "anonymous")).isNotEqualTo(key);
+        assertThat(RequestCoalescingFilter.keyOf("table", get("/table/1"), "anonymous")).isNotEqualTo(key);
+    }
+
+    @Test
+    void authClassIsTheSortedRolesOrAnonymous() {
+        assertThat(RequestCoalescingFilter.authClassOf(UsernamePasswordAuthenticationToken.authenticated("alice", null,
+                AuthorityUtils.createAuthorityList("ROLE_USER", "ROLE_ADMIN")))).isEqualTo("ROLE_ADMIN,ROLE_USER");
+        assertThat(RequestCoalescingFilter.authClassOf(UsernamePasswordAuthenticationToken.authenticated("bob", null,
+                AuthorityUtils.createAuthorityList("ROLE_ADMIN", "ROLE_USER")))).isEqualTo("ROLE_ADMIN,ROLE_USER");
+        assertThat(RequestCoalescingFilter.authClassOf(new AnonymousAuthenticationToken("key", "anonymousUser",
+                AuthorityUtils.createAuthorityList("ROLE_ANONYMOUS")))).isEqualTo("anonymous");
+        assertThat(RequestCoalescingFilter.authClassOf(UsernamePasswordAuthenticationToken.unauthenticated("carol", null)))
+                .isEqualTo("anonymous");
+    }
+
+    private static MockServerHttpRequest get(String uri) {
+        return MockServerHttpRequest.get(uri).build();
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.apigatewayreactive.stream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.http.server.reactive.MockServerHttpResponse;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CapturingResponseDecoratorTest {
+
+    @Test
+    void capturesTheBodyWhileStreamingIt() {
+        ServerWebExchange exchange = CapturingResponseDecorator.capture(exchange(), 16);
+
+        exchange.getResponse().writeWith(body("hello ", "world")).block();
+
+        assertThat(CapturingResponseDecorator.capturedBody(exchange)).asString(StandardCharsets.UTF_8).isEqualTo("hello world");
+        assertThat(((MockServerHttpResponse) ((CapturingResponseDecorator) exchange.getResponse()).getDelegate())
+                .getBodyAsString().block()).isEqualTo("hello world");
+    }
+
+    @Test
+    void streamsButDoesNotCaptureOversizedBodies() {
+        ServerWebExchange exchange = CapturingResponseDecorator.capture(exchange(), 8);
+
+        exchange.getResponse().writeWith(body("hello ", "world")).block();
+
+        assertThat(CapturingResponseDecorator.capturedBody(exchange)).isNull();
+    }
+
+    @Test
+    void sharesOneCaptureRaisedToTheLargestMaximum() {
+        ServerWebExchange outer = CapturingResponseDecorator.capture(exchange(), 8);
+        ServerWebExchange inner = CapturingResponseDecorator.capture(outer, 16);
+
+        inner.getResponse().writeWith(body("hello ", "world")).block();
+
+        assertThat(inner.getResponse()).isSameAs(outer.getResponse());
+        assertThat(CapturingResponseDecorator.capturedBody(outer)).hasSize(11);
+    }
+
+    @Test
+    void capturesNothingBeforeTheResponseCompletes() {
+        ServerWebExchange exchange = CapturingResponseDecorator.capture(exchange(), 16);
+
+        assertThat(CapturingResponseDecorator.capturedBody(exchange)).isNull();
+        exchange.getResponse().setComplete().block();
+        assertThat(CapturingResponseDecorator.capturedBody(exchange)).isEmpty();
+    }
+
+    private static MockServerWebExchange exchange() {
+        return MockServerWebExchange.from(MockServerHttpRequest.get("/table/page").build());
+    }
+
+    private static Flux<DataBuffer> body(String... chunks) {
+        return Flux.fromArray(chunks).map(chunk -> DefaultDataBufferFactory.sharedInstance.wrap(chunk.getBytes(StandardCharsets.UTF_8)));
+    }
+}
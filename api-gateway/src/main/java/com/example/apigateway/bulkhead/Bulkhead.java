@@ -0,0 +1,44 @@
+package com.example.apigateway.bulkhead;
+
+import java.util.concurrent.Semaphore;
+
+/**
+ * Concurrency cap of one route, a non-blocking semaphore: a request either takes a slot at once or is rejected.
+ */
+public class Bulkhead {
+
+    private final String name;
+    private final int maxConcurrent;
+    private final Semaphore semaphore;
+
+    public Bulkhead(String name, int maxConcurrent) {
+        this.name = name;
+        this.maxConcurrent = maxConcurrent;
+        this.semaphore = new Semaphore(maxConcurrent);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    public int getInUse() {
+        return maxConcurrent - semaphore.availablePermits();
+    }
+
+    /**
+     * Takes a slot if one is free.
+     *
+     * @return true if a slot was taken and {@link #release()} must be called, false if the bulkhead is full
+     */
+    public boolean tryAcquire() {
+        return semaphore.tryAcquire();
+    }
+
+    public void release() {
+        semaphore.release();
+    }
+}
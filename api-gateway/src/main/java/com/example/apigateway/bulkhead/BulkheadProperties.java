@@ -0,0 +1,31 @@
+package com.example.apigateway.bulkhead;
+
+import lombok.Data;
+
+/**
+ * Bulkhead settings bound from the {@code bulkhead} configuration prefix.
+ * The cap of each proxied route is set in the metadata of the route itself, under {@value #ROUTE_METADATA_KEY}.
+ */
+@Data
+public class BulkheadProperties {
+
+    public static final String ROUTE_METADATA_KEY = "bulkhead-max-concurrent";
+
+    private boolean enabled = true;
+
+    /**
+     * Cap of the proxied routes whose metadata sets none; null leaves them uncapped.
+     */
+    private Integer defaultMaxConcurrent;
+
+    /**
+     * Capacity reserved for the login and refresh-token endpoints of the gateway itself.
+     */
+    private Auth auth = new Auth();
+
+    @Data
+    public static class Auth {
+        private String path = "/api/v1/auth/**";
+        private int maxConcurrent = 20;
+    }
+}
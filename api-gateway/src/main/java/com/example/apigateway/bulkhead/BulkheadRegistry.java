@@ -0,0 +1,163 @@
+package com.example.apigateway.bulkhead;
+
+import com.example.common.routing.RequestPaths;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.cloud.gateway.server.mvc.config.GatewayMvcProperties;
+import org.springframework.cloud.gateway.server.mvc.config.RouteProperties;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Holds the bulkhead of every capped route and of the authentication endpoints, so a slow service can only tie up
+ * the request threads of its own routes. The caps are read from the route metadata and the {@code bulkhead}
+ * settings, and rebuilt when they change; requests in flight release the bulkhead they were admitted by.
+ * Saturation is published per bulkhead as {@code gateway.bulkhead.in-use}, {@code gateway.bulkhead.max} and the
+ * {@code gateway.bulkhead.requests} outcome counter.
+ */
+@Slf4j
+@Component
+public class BulkheadRegistry {
+
+    public static final String AUTH_BULKHEAD = "auth";
+
+    private static final String PREFIX = "bulkhead";
+    private static final String ROUTES_PREFIX = "spring.cloud.gateway.mvc.routes";
+
+    private final Environment environment;
+    private final GatewayMvcProperties gatewayMvcProperties;
+    private final MeterRegistry meterRegistry;
+    private volatile Settings settings;
+
+    public BulkheadRegistry(Environment environment, GatewayMvcProperties gatewayMvcProperties, MeterRegistry meterRegistry) {
+        this.environment = environment;
+        this.gatewayMvcProperties = gatewayMvcProperties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void init() {
+        bind();
+    }
+
+    @EventListener
+    public void onEnvironmentChange(EnvironmentChangeEvent event) {
+        if (event.getKeys().stream().anyMatch(key -> key.startsWith(PREFIX + ".") || key.startsWith(ROUTES_PREFIX))) {
+            bind();
+            log.info("Reloaded bulkheads");
+        }
+    }
+
+    /**
+     * Resolves the bulkhead a request must go through.
+     *
+     * @param request the incoming HTTP request
+     * @param routeId the gateway route id of the request, or null if it is not proxied
+     * @return the bulkhead, or null if the request is not capped
+     */
+    public Bulkhead resolve(HttpServletRequest request, String routeId) {
+        Settings current = settings;
+        if (!current.enabled) {
+            return null;
+        }
+        if (routeId != null) {
+            return current.routes.getOrDefault(routeId, current.defaultRoute);
+        }
+        String path = RequestPaths.pathWithinApplication(request);
+        return current.authPath.matches(PathContainer.parsePath(path)) ? current.auth : null;
+    }
+
+    /**
+     * Counts the outcome of a request going through a bulkhead.
+     *
+     * @param bulkhead the bulkhead
+     * @param accepted whether the request got a slot
+     */
+    public void record(Bulkhead bulkhead, boolean accepted) {
+        counter(bulkhead.getName(), accepted ? "accepted" : "rejected").increment();
+    }
+
+    private void bind() {
+        BulkheadProperties properties = Binder.get(environment)
+                .bind(PREFIX, BulkheadProperties.class)
+                .orElseGet(BulkheadProperties::new);
+        Map<String, Bulkhead> routes = new HashMap<>();
+        for (RouteProperties route : gatewayMvcProperties.getRoutes()) {
+            Object maxConcurrent = route.getMetadata().get(BulkheadProperties.ROUTE_METADATA_KEY);
+            if (maxConcurrent != null) {
+                routes.put(route.getId(), register(new Bulkhead(route.getId(), Integer.parseInt(maxConcurrent.toString()))));
+            }
+        }
+        Bulkhead defaultRoute = properties.getDefaultMaxConcurrent() == null
+                ? null
+                : register(new Bulkhead("default", properties.getDefaultMaxConcurrent()));
+        Bulkhead auth = register(new Bulkhead(AUTH_BULKHEAD, properties.getAuth().getMaxConcurrent()));
+        settings = new Settings(properties.isEnabled(), Map.copyOf(routes), defaultRoute, auth,
+                PathPatternParser.defaultInstance.parse(properties.getAuth().getPath()));
+    }
+
+    private Bulkhead register(Bulkhead bulkhead) {
+        // Gauges read the bulkhead currently registered under the name, so they survive a reload.
+        Gauge.builder("gateway.bulkhead.in-use", this, registry -> registry.measure(bulkhead.getName(), true))
+                .description("Requests holding a slot of the bulkhead")
+                .tag("bulkhead", bulkhead.getName())
+                .register(meterRegistry);
+        Gauge.builder("gateway.bulkhead.max", this, registry -> registry.measure(bulkhead.getName(), false))
+                .description("Slots of the bulkhead")
+                .tag("bulkhead", bulkhead.getName())
+                .register(meterRegistry);
+        return bulkhead;
+    }
+
+    private double measure(String name, boolean inUse) {
+        Settings current = settings;
+        if (current == null) {
+            return Double.NaN;
+        }
+        Bulkhead bulkhead = AUTH_BULKHEAD.equals(name) ? current.auth
+                : current.defaultRoute != null && current.defaultRoute.getName().equals(name) ? current.defaultRoute
+                : current.routes.get(name);
+        if (bulkhead == null) {
+            return Double.NaN;
+        }
+        return inUse ? bulkhead.getInUse() : bulkhead.getMaxConcurrent();
+    }
+
+    private Counter counter(String name, String outcome) {
+        return Counter.builder("gateway.bulkhead.requests")
+                .description("Requests by bulkhead and admission outcome")
+                .tag("bulkhead", name)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private static final class Settings {
+        private final boolean enabled;
+        private final Map<String, Bulkhead> routes;
+        private final Bulkhead defaultRoute;
+        private final Bulkhead auth;
+        private final PathPattern authPath;
+
+        private Settings(boolean enabled, Map<String, Bulkhead> routes, Bulkhead defaultRoute, Bulkhead auth,
+                         PathPattern authPath) {
+            this.enabled = enabled;
+            this.routes = routes;
+            this.defaultRoute = defaultRoute;
+            this.auth = auth;
+            this.authPath = authPath;
+        }
+    }
+}
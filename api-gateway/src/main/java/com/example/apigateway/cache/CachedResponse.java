@@ -0,0 +1,65 @@
+package com.example.apigateway.cache;
+
+import com.example.apigateway.compress.ContentCoding;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A response stored in the gateway cache, with the entity tag computed from its body and the compressed variants
+ * of the body already sent to clients.
+ */
+@Getter
+public class CachedResponse {
+
+    private final int status;
+    private final Map<String, List<String>> headers;
+    private final byte[] body;
+    private final String etag;
+    private final long generation;
+    private final long expiresAtNanos;
+    @Getter(AccessLevel.NONE)
+    private final Map<ContentCoding, byte[]> encodings = new ConcurrentHashMap<>();
+
+    public CachedResponse(int status, Map<String, List<String>> headers, byte[] body, String etag,
+                          long generation, long expiresAtNanos) {
+        this.status = status;
+        this.headers = headers;
+        this.body = body;
+        this.etag = etag;
+        this.generation = generation;
+        this.expiresAtNanos = expiresAtNanos;
+    }
+
+    /**
+     * @param coding the coding
+     * @return the body compressed with the coding, or null if that variant has not been stored
+     */
+    public byte[] getEncodedBody(ContentCoding coding) {
+        return encodings.get(coding);
+    }
+
+    void putEncodedBody(ContentCoding coding, byte[] encodedBody) {
+        encodings.putIfAbsent(coding, encodedBody);
+    }
+
+    /**
+     * @return the approximate number of bytes the entry takes in memory
+     */
+    public int weight() {
+        int weight = body.length + 128;
+        for (byte[] encodedBody : encodings.values()) {
+            weight += encodedBody.length + 32;
+        }
+        for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+            weight += header.getKey().length() * 2;
+            for (String value : header.getValue()) {
+                weight += value.length() * 2;
+            }
+        }
+        return weight;
+    }
+}
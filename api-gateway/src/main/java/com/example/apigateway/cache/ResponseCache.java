@@ -0,0 +1,230 @@
+package com.example.apigateway.cache;
+
+import com.example.apigateway.compress.ContentCoding;
+import com.example.apigateway.stream.SpillingResponseWrapper;
+import com.example.common.cache.CacheRoute;
+import com.example.common.cache.CacheRoutes;
+import com.example.common.cache.ResponseCacheProperties;
+import com.example.common.routing.QueryStrings;
+import com.example.common.routing.RequestPaths;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Memory-bounded store of proxied GET responses for the route groups configured under {@code response-cache}.
+ * Entries expire after the TTL of their group and are evicted by Caffeine's frequency-aware policy once the
+ * configured byte budget is reached. Successful mutations on the invalidating paths of a group drop its entries.
+ */
+@Slf4j
+@Component
+public class ResponseCache {
+
+    private static final String PREFIX = "response-cache";
+    private static final Set<String> EXCLUDED_HEADERS = Set.of(
+            HttpHeaders.CONNECTION.toLowerCase(Locale.ROOT),
+            HttpHeaders.CONTENT_LENGTH.toLowerCase(Locale.ROOT),
+            HttpHeaders.DATE.toLowerCase(Locale.ROOT),
+            HttpHeaders.ETAG.toLowerCase(Locale.ROOT),
+            HttpHeaders.TRANSFER_ENCODING.toLowerCase(Locale.ROOT),
+            "keep-alive");
+
+    private final Environment environment;
+    private final Cache<String, CachedResponse> entries;
+    private volatile Settings settings;
+
+    public ResponseCache(Environment environment, MeterRegistry meterRegistry) {
+        this.environment = environment;
+        this.settings = compile();
+        this.entries = Caffeine.newBuilder()
+                .maximumWeight(settings.properties.getMaxSize().toBytes())
+                .weigher((String key, CachedResponse response) -> key.length() * 2 + response.weight())
+                .expireAfter(new Expiry<String, CachedResponse>() {
+                    @Override
+                    public long expireAfterCreate(String key, CachedResponse response, long currentTime) {
+                        return Math.max(0, response.getExpiresAtNanos() - currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, CachedResponse response, long currentTime, long currentDuration) {
+                        return Math.max(0, response.getExpiresAtNanos() - currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, CachedResponse response, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, entries, "gateway.response");
+    }
+
+    @EventListener
+    public void onEnvironmentChange(EnvironmentChangeEvent event) {
+        if (event.getKeys().stream().noneMatch(key -> key.startsWith(PREFIX + "."))) {
+            return;
+        }
+        settings = compile();
+        entries.policy().eviction().ifPresent(eviction -> eviction.setMaximum(settings.properties.getMaxSize().toBytes()));
+        entries.invalidateAll();
+        log.info("Reloaded response cache routes");
+    }
+
+    /**
+     * Finds the cached route group of a GET request.
+     *
+     * @param request the incoming HTTP request
+     * @return the group, or null if the response of the request is not cacheable
+     */
+    public CacheRoute findRoute(HttpServletRequest request) {
+        Settings current = settings;
+        if (!current.properties.isEnabled() || !HttpMethod.GET.matches(request.getMethod())) {
+            return null;
+        }
+        return current.routes.findRead(pathOf(request));
+    }
+
+    /**
+     * Builds the cache key of a request: its route group, path and normalized query string.
+     */
+    public String keyOf(CacheRoute route, HttpServletRequest request) {
+        return CacheRoutes.keyOf(route, pathOf(request), QueryStrings.normalize(request.getQueryString()));
+    }
+
+    /**
+     * Returns the cached response for the key, unless it was cached before the last invalidation of its group.
+     */
+    public CachedResponse get(CacheRoute route, String key) {
+        CachedResponse cached = entries.getIfPresent(key);
+        if (cached != null && cached.getGeneration() != route.currentGeneration()) {
+            entries.asMap().remove(key, cached);
+            return null;
+        }
+        return cached;
+    }
+
+    /**
+     * Returns the size of the largest cacheable response, the most a response is buffered for the cache.
+     *
+     * @return the size, in bytes
+     */
+    public long getMaxEntrySize() {
+        return settings.properties.getMaxEntrySize().toBytes();
+    }
+
+    /**
+     * Stores a buffered response if it is cacheable: a 200 without cookies or {@code no-store}/{@code private}
+     * directives, and not larger than the configured entry size.
+     *
+     * @param route      the route group of the request
+     * @param key        the cache key of the request
+     * @param generation the generation of the group when the request was proxied
+     * @param response   the buffered response
+     * @return the stored entry, or null if the response is not cacheable
+     */
+    public CachedResponse store(CacheRoute route, String key, long generation, SpillingResponseWrapper response) {
+        if (response.getStatus() != HttpStatus.OK.value()
+                || response.getHeader(HttpHeaders.SET_COOKIE) != null
+                || response.isSpilled()
+                || response.getContentSize() > getMaxEntrySize()) {
+            return null;
+        }
+        String cacheControl = response.getHeader(HttpHeaders.CACHE_CONTROL);
+        if (cacheControl != null) {
+            String directives = cacheControl.toLowerCase(Locale.ROOT);
+            if (directives.contains("no-store") || directives.contains("private")) {
+                return null;
+            }
+        }
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        for (String name : response.getHeaderNames()) {
+            if (!EXCLUDED_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                headers.put(name, List.copyOf(response.getHeaders(name)));
+            }
+        }
+        byte[] body = response.getContentAsByteArray();
+        String etag = "\"" + DigestUtils.md5DigestAsHex(body) + "\"";
+        CachedResponse cached = new CachedResponse(response.getStatus(), headers, body, etag, generation,
+                System.nanoTime() + route.getTtlNanos());
+        if (route.currentGeneration() == generation) {
+            entries.put(key, cached);
+        }
+        return cached;
+    }
+
+    /**
+     * Returns the body of a cached response compressed with a coding, compressing and storing it with the entry on
+     * first use so later hits do not compress it again.
+     *
+     * @param key     the cache key of the entry
+     * @param cached  the entry
+     * @param coding  the coding
+     * @param encoder compresses the body
+     * @return the compressed body
+     */
+    public byte[] encodedBody(String key, CachedResponse cached, ContentCoding coding, Function<byte[], byte[]> encoder) {
+        byte[] encodedBody = cached.getEncodedBody(coding);
+        if (encodedBody != null) {
+            return encodedBody;
+        }
+        encodedBody = encoder.apply(cached.getBody());
+        cached.putEncodedBody(coding, encodedBody);
+        // Writing the entry back makes Caffeine weigh the stored variant; it is a no-op if the entry was replaced.
+        entries.asMap().replace(key, cached, cached);
+        return cached.getEncodedBody(coding);
+    }
+
+    /**
+     * Invalidates the route groups a successful mutation affects.
+     *
+     * @param request the mutation request
+     */
+    public void invalidate(HttpServletRequest request) {
+        List<CacheRoute> routes = settings.routes.findInvalidated(HttpMethod.valueOf(request.getMethod()), pathOf(request));
+        if (routes != null) {
+            routes.forEach(CacheRoute::invalidate);
+        }
+    }
+
+    private static String pathOf(HttpServletRequest request) {
+        return RequestPaths.pathWithinApplication(request);
+    }
+
+    private Settings compile() {
+        ResponseCacheProperties properties = Binder.get(environment)
+                .bind(PREFIX, ResponseCacheProperties.class)
+                .orElseGet(ResponseCacheProperties::new);
+        return new Settings(properties, CacheRoutes.compile(properties));
+    }
+
+    private static final class Settings {
+        private final ResponseCacheProperties properties;
+        private final CacheRoutes routes;
+
+        private Settings(ResponseCacheProperties properties, CacheRoutes routes) {
+            this.properties = properties;
+            this.routes = routes;
+        }
+    }
+}
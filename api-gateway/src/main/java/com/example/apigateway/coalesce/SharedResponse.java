@@ -0,0 +1,61 @@
+package com.example.apigateway.coalesce;
+
+import com.example.apigateway.stream.SpillingResponseWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A buffered upstream response fanned out to every request coalesced onto the same call.
+ */
+public final class SharedResponse {
+
+    private final int status;
+    private final List<String[]> headers;
+    private final byte[] body;
+
+    private SharedResponse(int status, List<String[]> headers, byte[] body) {
+        this.status = status;
+        this.headers = headers;
+        this.body = body;
+    }
+
+    /**
+     * Captures the status, headers and body of a buffered response.
+     *
+     * @param response the buffered response
+     * @return the shared response
+     */
+    public static SharedResponse capture(SpillingResponseWrapper response) {
+        List<String[]> headers = new ArrayList<>();
+        for (String name : response.getHeaderNames()) {
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name) || HttpHeaders.TRANSFER_ENCODING.equalsIgnoreCase(name)) {
+                continue;
+            }
+            Collection<String> values = response.getHeaders(name);
+            for (String value : values) {
+                headers.add(new String[]{name, value});
+            }
+        }
+        return new SharedResponse(response.getStatus(), headers, response.getContentAsByteArray());
+    }
+
+    /**
+     * Writes the shared response to a waiting request.
+     *
+     * @param response the response of the waiting request
+     * @throws IOException if the body cannot be written
+     */
+    public void writeTo(HttpServletResponse response) throws IOException {
+        response.setStatus(status);
+        for (String[] header : headers) {
+            response.addHeader(header[0], header[1]);
+        }
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+}
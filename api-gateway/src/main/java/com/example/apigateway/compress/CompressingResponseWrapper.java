@@ -0,0 +1,248 @@
+package com.example.apigateway.compress;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.http.HttpHeaders;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Response wrapper compressing the body with a negotiated {@link ContentCoding}.
+ * Whether to compress is decided when the body starts, from the status, the content type and the
+ * {@code Content-Length}, which is held back until then; a response that already carries a {@code Content-Encoding},
+ * such as a compressed variant served from the response cache, passes through untouched. A compressed response
+ * drops its length, varies on {@code Accept-Encoding} and has its entity tag weakened, since its bytes differ from
+ * the identity representation.
+ */
+public class CompressingResponseWrapper extends HttpServletResponseWrapper {
+
+    private static final String WEAK_PREFIX = "W/";
+
+    private final ResponseCompressor compressor;
+    private final ContentCoding coding;
+    private Long contentLength;
+    private boolean decided;
+    private ResponseCompressor.Encoder encoder;
+    private ServletOutputStream outputStream;
+    private PrintWriter writer;
+
+    /**
+     * @param response   the response to wrap
+     * @param compressor the compressor
+     * @param coding     the coding the client accepts
+     */
+    public CompressingResponseWrapper(HttpServletResponse response, ResponseCompressor compressor, ContentCoding coding) {
+        super(response);
+        this.compressor = compressor;
+        this.coding = coding;
+    }
+
+    /**
+     * Completes the response: ends the compressed body, or releases the held {@code Content-Length} of a response
+     * that was not compressed.
+     *
+     * @throws IOException if the body cannot be written
+     */
+    public void finish() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        if (!decided) {
+            // No body was written (HEAD, 304, empty response): nothing to compress.
+            decided = true;
+            if (contentLength != null && !isCommitted()) {
+                super.setContentLengthLong(contentLength);
+            }
+            return;
+        }
+        if (encoder != null) {
+            encoder.finish();
+        }
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (outputStream == null) {
+            outputStream = new CompressingOutputStream();
+        }
+        return outputStream;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (writer == null) {
+            writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), getCharacterEncoding()));
+        }
+        return writer;
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        decide();
+        if (encoder != null) {
+            encoder.flush();
+        }
+        super.flushBuffer();
+    }
+
+    @Override
+    public void reset() {
+        if (decided) {
+            throw new IllegalStateException("The response body has already started");
+        }
+        contentLength = null;
+        super.reset();
+    }
+
+    @Override
+    public void setContentLength(int len) {
+        setContentLengthLong(len);
+    }
+
+    @Override
+    public void setContentLengthLong(long len) {
+        if (!decided) {
+            contentLength = len;
+        } else if (encoder == null) {
+            super.setContentLengthLong(len);
+        }
+    }
+
+    @Override
+    public void setHeader(String name, String value) {
+        if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+            setContentLengthLong(Long.parseLong(value));
+        } else if (encoder != null && HttpHeaders.ETAG.equalsIgnoreCase(name)) {
+            super.setHeader(name, weaken(value));
+        } else {
+            super.setHeader(name, value);
+        }
+    }
+
+    @Override
+    public void addHeader(String name, String value) {
+        if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+            setContentLengthLong(Long.parseLong(value));
+        } else if (encoder != null && HttpHeaders.ETAG.equalsIgnoreCase(name)) {
+            super.addHeader(name, weaken(value));
+        } else {
+            super.addHeader(name, value);
+        }
+    }
+
+    @Override
+    public void setIntHeader(String name, int value) {
+        if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+            setContentLengthLong(value);
+        } else {
+            super.setIntHeader(name, value);
+        }
+    }
+
+    @Override
+    public void addIntHeader(String name, int value) {
+        if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+            setContentLengthLong(value);
+        } else {
+            super.addIntHeader(name, value);
+        }
+    }
+
+    private void decide() throws IOException {
+        if (decided) {
+            return;
+        }
+        decided = true;
+        if (getHeader(HttpHeaders.CONTENT_ENCODING) == null
+                && compressor.isCompressible(getStatus(), getContentType(), contentLength)) {
+            super.setHeader(HttpHeaders.CONTENT_ENCODING, coding.getToken());
+            varyAndWeakenEtag();
+            encoder = compressor.encoder(super.getOutputStream(), coding);
+        } else if (contentLength != null) {
+            super.setContentLengthLong(contentLength);
+        }
+    }
+
+    private void varyAndWeakenEtag() {
+        boolean varies = getHeaders(HttpHeaders.VARY).stream()
+                .flatMap(value -> Arrays.stream(value.split(",")))
+                .map(value -> value.trim().toLowerCase(Locale.ROOT))
+                .anyMatch(value -> value.equals("*") || value.equals("accept-encoding"));
+        if (!varies) {
+            super.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+        String etag = getHeader(HttpHeaders.ETAG);
+        if (etag != null) {
+            super.setHeader(HttpHeaders.ETAG, weaken(etag));
+        }
+    }
+
+    private static String weaken(String etag) {
+        return etag.startsWith(WEAK_PREFIX) ? etag : WEAK_PREFIX + etag;
+    }
+
+    private final class CompressingOutputStream extends ServletOutputStream {
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return;
+            }
+            decide();
+            if (encoder != null) {
+                encoder.write(b, off, len);
+            } else {
+                CompressingResponseWrapper.super.getOutputStream().write(b, off, len);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (!decided) {
+                // Hold the decision until the body starts, so the length is still known.
+                return;
+            }
+            if (encoder != null) {
+                encoder.flush();
+            } else {
+                CompressingResponseWrapper.super.getOutputStream().flush();
+            }
+        }
+
+        @Override
+        public boolean isReady() {
+            // Until the body starts nothing is written; then the bytes, compressed or not, go to the wrapped stream
+            if (!decided) {
+                return true;
+            }
+            try {
+                return CompressingResponseWrapper.super.getOutputStream().isReady();
+            } catch (IOException e) {
+                return false;
+            }
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            try {
+                CompressingResponseWrapper.super.getOutputStream().setWriteListener(writeListener);
+            } catch (IOException e) {
+                throw new IllegalStateException("Cannot register the write listener on the response", e);
+            }
+        }
+    }
+}
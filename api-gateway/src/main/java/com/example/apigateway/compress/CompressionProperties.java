@@ -0,0 +1,41 @@
+package com.example.apigateway.compress;
+
+import lombok.Data;
+import org.springframework.util.MimeType;
+import org.springframework.util.unit.DataSize;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Response compression settings bound from the {@code compression} configuration prefix.
+ */
+@Data
+public class CompressionProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Ids of the gateway routes whose responses may be compressed.
+     */
+    private List<String> routes = new ArrayList<>();
+
+    /**
+     * Responses whose length is known and smaller than this are sent as they are.
+     */
+    private DataSize minResponseSize = DataSize.ofKilobytes(1);
+
+    /**
+     * Compressible content types; parameters such as the charset are ignored.
+     */
+    private List<MimeType> mimeTypes = new ArrayList<>(List.of(
+            MimeType.valueOf("application/json"),
+            MimeType.valueOf("application/problem+json"),
+            MimeType.valueOf("text/*"),
+            MimeType.valueOf("application/javascript")));
+
+    /**
+     * Deflate compression level, from 1 (fastest) to 9 (smallest).
+     */
+    private int level = 6;
+}
@@ -0,0 +1,73 @@
+package com.example.apigateway.compress;
+
+import lombok.Getter;
+
+import java.util.Locale;
+
+/**
+ * Content codings the gateway compresses responses with, in order of preference.
+ */
+@Getter
+public enum ContentCoding {
+
+    GZIP("gzip"),
+    DEFLATE("deflate");
+
+    private static final String ANY = "*";
+
+    private final String token;
+
+    ContentCoding(String token) {
+        this.token = token;
+    }
+
+    /**
+     * Picks the coding a client prefers among the supported ones, honouring the q-values of its
+     * {@code Accept-Encoding} header; on equal q-values the order of this enum decides.
+     *
+     * @param acceptEncoding the {@code Accept-Encoding} header, or null
+     * @return the coding, or null if the client accepts none of them
+     */
+    public static ContentCoding negotiate(String acceptEncoding) {
+        if (acceptEncoding == null || acceptEncoding.isBlank()) {
+            return null;
+        }
+        Double[] weights = new Double[values().length];
+        double any = 0;
+        for (String part : acceptEncoding.split(",")) {
+            String[] tokens = part.split(";");
+            String name = tokens[0].trim().toLowerCase(Locale.ROOT);
+            double q = 1;
+            for (int i = 1; i < tokens.length; i++) {
+                String parameter = tokens[i].trim();
+                if (parameter.startsWith("q=")) {
+                    try {
+                        q = Double.parseDouble(parameter.substring(2));
+                    } catch (NumberFormatException e) {
+                        q = 0;
+                    }
+                }
+            }
+            if (ANY.equals(name)) {
+                any = q;
+                continue;
+            }
+            for (ContentCoding coding : values()) {
+                if (coding.token.equals(name) || ("x-" + coding.token).equals(name)) {
+                    weights[coding.ordinal()] = q;
+                }
+            }
+        }
+        ContentCoding best = null;
+        double bestWeight = 0;
+        for (ContentCoding coding : values()) {
+            // A coding the client does not name is acceptable with the weight of "*", if any.
+            double weight = weights[coding.ordinal()] != null ? weights[coding.ordinal()] : any;
+            if (weight > bestWeight) {
+                best = coding;
+                bestWeight = weight;
+            }
+        }
+        return best;
+    }
+}
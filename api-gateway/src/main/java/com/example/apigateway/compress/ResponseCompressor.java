@@ -0,0 +1,324 @@
+package com.example.apigateway.compress;
+
+import com.example.apigateway.routing.GatewayRouteResolver;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeType;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Negotiates and performs the compression of proxied responses on the routes listed under
+ * {@code compression.routes}. The CPU time spent compressing is recorded in {@code gateway.compression.cpu}, as wall
+ * time on threads whose CPU time is not measurable such as virtual threads, and the
+ * bytes before and after compression in {@code gateway.compression.bytes}, per coding, so the bytes saved are their
+ * difference.
+ */
+@Slf4j
+@Component
+public class ResponseCompressor {
+
+    private static final String PREFIX = "compression";
+    private static final int BUFFER_SIZE = 8192;
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    private final Environment environment;
+    private final GatewayRouteResolver gatewayRouteResolver;
+    private final Map<ContentCoding, Meters> meters = new EnumMap<>(ContentCoding.class);
+    private volatile Settings settings;
+
+    public ResponseCompressor(Environment environment, GatewayRouteResolver gatewayRouteResolver,
+                              MeterRegistry meterRegistry) {
+        this.environment = environment;
+        this.gatewayRouteResolver = gatewayRouteResolver;
+        for (ContentCoding coding : ContentCoding.values()) {
+            meters.put(coding, new Meters(meterRegistry, coding));
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        bind();
+    }
+
+    @EventListener
+    public void onEnvironmentChange(EnvironmentChangeEvent event) {
+        if (event.getKeys().stream().anyMatch(key -> key.startsWith(PREFIX + "."))) {
+            bind();
+            log.info("Reloaded response compression routes");
+        }
+    }
+
+    /**
+     * Selects the coding the response of a request may be compressed with.
+     *
+     * @param request the incoming HTTP request
+     * @return the coding, or null if the route is not compressed or the client accepts no supported coding
+     */
+    public ContentCoding select(HttpServletRequest request) {
+        Settings current = settings;
+        if (!current.properties.isEnabled()) {
+            return null;
+        }
+        String routeId = gatewayRouteResolver.resolveRouteId(request);
+        if (routeId == null || !current.routes.contains(routeId)) {
+            return null;
+        }
+        return ContentCoding.negotiate(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+    }
+
+    /**
+     * Tells whether a response is worth compressing.
+     *
+     * @param status        the status of the response
+     * @param contentType   the content type of the response, or null
+     * @param contentLength the length of the body, or null if unknown
+     * @return true if the response should be compressed
+     */
+    public boolean isCompressible(int status, String contentType, Long contentLength) {
+        Settings current = settings;
+        return HttpStatusCode.valueOf(status).is2xxSuccessful() && status != HttpStatus.NO_CONTENT.value()
+                && isCompressibleType(contentType)
+                && (contentLength == null || contentLength >= current.properties.getMinResponseSize().toBytes());
+    }
+
+    private boolean isCompressibleType(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        MimeType mimeType;
+        try {
+            mimeType = MimeType.valueOf(contentType);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        return settings.properties.getMimeTypes().stream().anyMatch(type -> type.includes(mimeType));
+    }
+
+    /**
+     * Compresses a whole body.
+     *
+     * @param body   the body
+     * @param coding the coding
+     * @return the compressed body
+     */
+    public byte[] compress(byte[] body, ContentCoding coding) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(Math.max(64, body.length / 4));
+        try (Encoder encoder = encoder(compressed, coding)) {
+            encoder.write(body, 0, body.length);
+            encoder.finish();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return compressed.toByteArray();
+    }
+
+    /**
+     * Records a body sent from an already compressed copy, which saves bytes without costing CPU.
+     *
+     * @param coding      the coding of the copy
+     * @param size        the size of the identity body
+     * @param encodedSize the size of the compressed copy
+     */
+    public void recordReused(ContentCoding coding, long size, long encodedSize) {
+        Meters codingMeters = meters.get(coding);
+        codingMeters.bytesIn.increment(size);
+        codingMeters.bytesOut.increment(encodedSize);
+    }
+
+    /**
+     * Opens a compressing stream over a response body.
+     * The stream flushes what it has compressed so far on every flush, so streamed responses keep streaming;
+     * {@link Encoder#finish()} must be called once the body is complete.
+     *
+     * @param target the stream the compressed bytes go to
+     * @param coding the coding
+     * @return the compressing stream
+     */
+    public Encoder encoder(OutputStream target, ContentCoding coding) {
+        return new Encoder(target, coding, settings.properties.getLevel(), meters.get(coding));
+    }
+
+    private void bind() {
+        CompressionProperties bound = Binder.get(environment)
+                .bind(PREFIX, CompressionProperties.class)
+                .orElseGet(CompressionProperties::new);
+        settings = new Settings(bound, Set.copyOf(bound.getRoutes()));
+    }
+
+    /**
+     * Reads the CPU time of the current thread, or the wall time where the JVM cannot measure it: a virtual thread,
+     * for one, reports -1 as it moves between carrier threads. A compression runs on a single thread, so both ends
+     * of a measure use the same clock.
+     */
+    private static long cpuTime() {
+        long cpuTime = THREADS.isCurrentThreadCpuTimeSupported() ? THREADS.getCurrentThreadCpuTime() : -1;
+        return cpuTime >= 0 ? cpuTime : System.nanoTime();
+    }
+
+    private static final class Settings {
+        private final CompressionProperties properties;
+        private final Set<String> routes;
+
+        private Settings(CompressionProperties properties, Set<String> routes) {
+            this.properties = properties;
+            this.routes = routes;
+        }
+    }
+
+    private static final class Meters {
+        private final Timer cpu;
+        private final Counter bytesIn;
+        private final Counter bytesOut;
+
+        private Meters(MeterRegistry meterRegistry, ContentCoding coding) {
+            this.cpu = Timer.builder("gateway.compression.cpu")
+                    .description("CPU time spent compressing response bodies")
+                    .tag("coding", coding.getToken())
+                    .register(meterRegistry);
+            this.bytesIn = Counter.builder("gateway.compression.bytes")
+                    .description("Response body bytes before and after compression")
+                    .baseUnit("bytes")
+                    .tag("coding", coding.getToken())
+                    .tag("stage", "in")
+                    .register(meterRegistry);
+            this.bytesOut = Counter.builder("gateway.compression.bytes")
+                    .description("Response body bytes before and after compression")
+                    .baseUnit("bytes")
+                    .tag("coding", coding.getToken())
+                    .tag("stage", "out")
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Compressing stream over a response body, metering its CPU time and its bytes in and out.
+     */
+    public static final class Encoder extends OutputStream {
+
+        private final Deflater deflater;
+        private final DeflaterOutputStream stream;
+        private final Meters meters;
+        private long in;
+        private long out;
+        private long cpuNanos;
+        private boolean finished;
+
+        private Encoder(OutputStream target, ContentCoding coding, int level, Meters meters) {
+            this.meters = meters;
+            OutputStream counting = new OutputStream() {
+                @Override
+                public void write(int b) throws IOException {
+                    target.write(b);
+                    out++;
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    target.write(b, off, len);
+                    out += len;
+                }
+
+                @Override
+                public void flush() throws IOException {
+                    target.flush();
+                }
+            };
+            try {
+                if (coding == ContentCoding.GZIP) {
+                    GzipStream gzip = new GzipStream(counting, level);
+                    this.deflater = gzip.deflater();
+                    this.stream = gzip;
+                } else {
+                    this.deflater = new Deflater(level);
+                    this.stream = new DeflaterOutputStream(counting, deflater, BUFFER_SIZE, true);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            long start = cpuTime();
+            stream.write(b, off, len);
+            cpuNanos += cpuTime() - start;
+            in += len;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            long start = cpuTime();
+            stream.flush();
+            cpuNanos += cpuTime() - start;
+        }
+
+        /**
+         * Completes the compressed body and records the meters; the target stream stays open.
+         *
+         * @throws IOException if the end of the body cannot be written
+         */
+        public void finish() throws IOException {
+            if (finished) {
+                return;
+            }
+            finished = true;
+            long start = cpuTime();
+            try {
+                stream.finish();
+            } finally {
+                deflater.end();
+                cpuNanos += cpuTime() - start;
+                meters.cpu.record(cpuNanos, TimeUnit.NANOSECONDS);
+                meters.bytesIn.increment(in);
+                meters.bytesOut.increment(out);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            finish();
+        }
+    }
+
+    private static final class GzipStream extends GZIPOutputStream {
+
+        private GzipStream(OutputStream out, int level) throws IOException {
+            super(out, BUFFER_SIZE, true);
+            def.setLevel(level);
+        }
+
+        private Deflater deflater() {
+            return def;
+        }
+    }
+}
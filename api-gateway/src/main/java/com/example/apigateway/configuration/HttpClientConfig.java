@@ -0,0 +1,70 @@
+package com.example.apigateway.configuration;
+
+import com.example.apigateway.hedge.HedgingClientHttpRequestFactory;
+import com.example.apigateway.hedge.RequestHedger;
+import com.example.apigateway.routing.GatewayRouteResolver;
+import com.example.apigateway.upstream.UpstreamClientHttpRequestFactory;
+import com.example.apigateway.upstream.UpstreamClientProperties;
+import com.example.apigateway.upstream.UpstreamClients;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.http.client.ClientHttpRequestFactoryBuilder;
+import org.springframework.boot.http.client.ClientHttpRequestFactorySettings;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.http.client.ClientHttpRequestFactory;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Configuration class for the HTTP client the gateway proxies upstream calls with.
+ * The gateway picks up the {@link ClientHttpRequestFactory} bean for its proxy RestClient.
+ */
+@Configuration
+public class HttpClientConfig {
+
+    private static final String UPSTREAM_CLIENT_PREFIX = "upstream-client";
+
+    /**
+     * Provides the per-service upstream clients configured under upstream-client.services.
+     *
+     * @param environment   the environment holding the settings
+     * @param meterRegistry the registry the connection pools are published to
+     * @return the upstream clients
+     */
+    @Bean
+    public UpstreamClients upstreamClients(Environment environment, MeterRegistry meterRegistry) {
+        UpstreamClientProperties properties = Binder.get(environment)
+                .bind(UPSTREAM_CLIENT_PREFIX, UpstreamClientProperties.class)
+                .orElseGet(UpstreamClientProperties::new);
+        return new UpstreamClients(properties, meterRegistry);
+    }
+
+    /**
+     * Provides the request factory of the proxy client: the client of the target service, or the one Spring Boot
+     * would build for the other calls, with request hedging on top of each.
+     * Hedging goes inside the per-service selection because hedged calls are made outside of the request thread.
+     *
+     * @param requestFactoryBuilder  the builder detected from the classpath
+     * @param requestFactorySettings the timeouts and redirect settings
+     * @param upstreamClients        the per-service upstream clients
+     * @param gatewayRouteResolver   the resolver of the service a request is proxied to
+     * @param requestHedger          the request hedger
+     * @return the request factory
+     */
+    @Bean
+    public ClientHttpRequestFactory gatewayClientHttpRequestFactory(ClientHttpRequestFactoryBuilder<?> requestFactoryBuilder,
+                                                                    ClientHttpRequestFactorySettings requestFactorySettings,
+                                                                    UpstreamClients upstreamClients,
+                                                                    GatewayRouteResolver gatewayRouteResolver,
+                                                                    RequestHedger requestHedger) {
+        Map<String, ClientHttpRequestFactory> services = new LinkedHashMap<>();
+        upstreamClients.getFactories().forEach((serviceId, factory) ->
+                services.put(serviceId, new HedgingClientHttpRequestFactory(factory, requestHedger)));
+        ClientHttpRequestFactory fallback = new HedgingClientHttpRequestFactory(
+                requestFactoryBuilder.build(requestFactorySettings), requestHedger);
+        return new UpstreamClientHttpRequestFactory(gatewayRouteResolver, services, fallback);
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.apigateway.configuration;
+
+import com.example.common.loadbalancer.InstanceStatsRegistry;
+import com.example.common.loadbalancer.LatencyAwareLoadBalancerConfiguration;
+import com.example.common.loadbalancer.LoadBalancerStatsEndpoint;
+import com.example.common.loadbalancer.OutlierDetectionProperties;
+import com.example.common.loadbalancer.OutlierDetector;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+
+/**
+ * Configuration class for the latency-aware load balancing of the lb:// routes.
+ * The services listed under loadbalancer.latency-aware.service-ids are balanced by power of two choices
+ * over EWMA latency and in-flight requests; the others stay round-robin.
+ * Instances failing repeatedly are ejected from every service until they recover.
+ */
+@Configuration
+@LoadBalancerClients(defaultConfiguration = LatencyAwareLoadBalancerConfiguration.class)
+public class LoadBalancerConfig {
+
+    private static final String OUTLIER_DETECTION_PREFIX = "loadbalancer.outlier-detection";
+
+    /**
+     * Provides the per-instance statistics shared by the balancers of every service.
+     *
+     * @param decay the time after which an old latency sample has lost most of its weight
+     * @return the statistics registry
+     */
+    @Bean
+    public InstanceStatsRegistry instanceStatsRegistry(@Value("${loadbalancer.latency-aware.decay:10s}") Duration decay) {
+        return new InstanceStatsRegistry(decay);
+    }
+
+    /**
+     * Exposes the per-instance statistics on /actuator/loadbalancer.
+     *
+     * @param statsRegistry the statistics registry
+     * @return the actuator endpoint
+     */
+    @Bean
+    public LoadBalancerStatsEndpoint loadBalancerStatsEndpoint(InstanceStatsRegistry statsRegistry) {
+        return new LoadBalancerStatsEndpoint(statsRegistry);
+    }
+
+    /**
+     * Provides the per-instance circuit breakers ejecting failing instances from the lb:// routes.
+     *
+     * @param environment    the environment the settings are bound from
+     * @param meterRegistry  the registry the state transitions are counted in
+     * @param eventPublisher the publisher of the state transition events
+     * @return the outlier detector
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = OUTLIER_DETECTION_PREFIX, name = "enabled", matchIfMissing = true)
+    public OutlierDetector outlierDetector(Environment environment,
+                                           MeterRegistry meterRegistry,
+                                           ApplicationEventPublisher eventPublisher) {
+        OutlierDetectionProperties properties = Binder.get(environment)
+                .bind(OUTLIER_DETECTION_PREFIX, OutlierDetectionProperties.class)
+                .orElseGet(OutlierDetectionProperties::new);
+        return new OutlierDetector(properties, meterRegistry, eventPublisher);
+    }
+}
@@ -1,13 +1,10 @@
 package com.example.apigateway.configuration;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.example.common.dto.response.RefreshToken;
+import com.example.common.security.RefreshTokenRedisSerializer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.data.redis.connection.RedisConnectionFactory;
-import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
-import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
 
 /**
  * Configuration class for Redis settings.
@@ -16,29 +13,12 @@ import org.springframework.data.redis.serializer.StringRedisSerializer;
 public class RedisConfig {
 
     /**
-     * Configures RedisTemplate with a custom serializer that supports Java 8 date/time types.
+     * Configures the serializer of the refresh token records stored in Redis, shared with api-gateway-reactive.
      *
-     * @param connectionFactory the Redis connection factory
-     * @return the configured RedisTemplate
+     * @return the refresh token record serializer
      */
     @Bean
-    public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory) {
-        RedisTemplate<String, Object> template = new RedisTemplate<>();
-        template.setConnectionFactory(connectionFactory);
-
-        // Tạo ObjectMapper với JavaTimeModule để hỗ trợ Instant
-        ObjectMapper objectMapper = new ObjectMapper();
-        objectMapper.registerModule(new JavaTimeModule());
-
-        // Cấu hình serializer
-        GenericJackson2JsonRedisSerializer serializer = new GenericJackson2JsonRedisSerializer(objectMapper);
-        template.setDefaultSerializer(serializer);
-        template.setKeySerializer(new StringRedisSerializer());
-        template.setHashKeySerializer(new StringRedisSerializer());
-        template.setValueSerializer(serializer);
-        template.setHashValueSerializer(serializer);
-
-        template.afterPropertiesSet();
-        return template;
+    public RedisSerializer<RefreshToken> refreshTokenSerializer() {
+        return new RefreshTokenRedisSerializer();
     }
-}
\ No newline at end of file
+}
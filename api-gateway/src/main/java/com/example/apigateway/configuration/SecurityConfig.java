@@ -1,18 +1,17 @@
 package com.example.apigateway.configuration;
 
 
-import com.example.apigateway.constant.Constant;
-import com.example.apigateway.entity.Permission;
-import com.example.apigateway.entity.Role;
+import com.example.apigateway.filter.JwtAuthenticationFilter;
 import com.example.apigateway.security.CustomAccessDeniedHandler;
 import com.example.apigateway.security.CustomAuthenticationEntryPoint;
-import com.example.apigateway.filter.JwtAuthenticationFilter;
-import com.example.apigateway.service.IPermissionService;
-import com.example.apigateway.service.IRoleService;
+import com.example.apigateway.security.SnapshotAuthorizationManager;
+import com.example.common.constant.CommonConstant;
+import com.example.common.constant.GatewayConstant;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.health.HealthEndpoint;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -26,11 +25,13 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
-import java.util.List;
-
 /**
  * Security configuration for the application using JWT authentication.
  * Configures endpoint access, disables CSRF for REST APIs, and registers the JWT filter.
+ * Endpoint access is decided from the hot-reloadable authorization snapshot rather than matchers wired at startup.
+ * Public endpoints go through the chain like the others, so they get CORS and the security headers; the snapshot
+ * permits them without resolving the caller. Actuator endpoints other than health are reserved
+ * to administrators, since some of them reload permissions or rebind the gateway settings.
  */
 @Configuration
 @EnableWebSecurity
@@ -40,8 +41,8 @@ public class SecurityConfig {
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
     private final CustomAuthenticationEntryPoint customAuthenticationEntryPoint;
     private final CustomAccessDeniedHandler customAccessDeniedHandler;
-    private final IPermissionService permissionService;
-    private final IRoleService roleService;
+    private final SnapshotAuthorizationManager snapshotAuthorizationManager;
+
     /**
      * Configures the security filter chain for the application.
      *
@@ -51,24 +52,14 @@ public class SecurityConfig {
      */
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
-        List<Permission> permissionsPublic = permissionService.getPermissionsByRoleName(Constant.ANONYMOUS);
-        List<Permission> permissions = permissionService.getAllPermissions();
         http
             .cors(cors -> cors.configurationSource(corsConfigurationSource()))
             .csrf(AbstractHttpConfigurer::disable)
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
-            .authorizeHttpRequests(auth -> {
-                permissionsPublic.forEach(permission -> {
-                    auth.requestMatchers(HttpMethod.valueOf(permission.getMethod()), permission.getEndpoint()).permitAll();
-                });
-                permissions.forEach(permission -> {
-                    if(!permissionsPublic.contains(permission)){
-                        String[] listRoleName = permission.getRoles().stream().map(Role::getName).toArray(String[]::new);
-                        auth.requestMatchers(HttpMethod.valueOf(permission.getMethod()), permission.getEndpoint()).hasAnyAuthority(listRoleName);
-                    }
-                });
-                auth.anyRequest().authenticated();
-            })
+            .authorizeHttpRequests(auth -> auth
+                    .requestMatchers(EndpointRequest.toAnyEndpoint().excluding(HealthEndpoint.class))
+                    .hasAuthority(CommonConstant.ADMIN)
+                    .anyRequest().access(snapshotAuthorizationManager))
             .exceptionHandling(exception -> exception
                     .authenticationEntryPoint(customAuthenticationEntryPoint)
                     .accessDeniedHandler(customAccessDeniedHandler)
@@ -98,11 +89,11 @@ public class SecurityConfig {
     UrlBasedCorsConfigurationSource corsConfigurationSource(){
         CorsConfiguration configuration = new CorsConfiguration();
         configuration.addAllowedOrigin("http://localhost:8080");
-        configuration.addAllowedHeader(Constant.ASTERISK);
-        configuration.addAllowedMethod(Constant.ASTERISK);
+        configuration.addAllowedHeader(GatewayConstant.ASTERISK);
+        configuration.addAllowedMethod(GatewayConstant.ASTERISK);
         configuration.setAllowCredentials(true);
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
-        source.registerCorsConfiguration(Constant.SLASH_ASTERISK_ASTERISK, configuration);
+        source.registerCorsConfiguration(GatewayConstant.SLASH_ASTERISK_ASTERISK, configuration);
         return source;
     }
 
@@ -0,0 +1,36 @@
+package com.example.apigateway.configuration;
+
+import com.example.apigateway.stream.StreamingProxyExchange;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.server.mvc.config.GatewayMvcProperties;
+import org.springframework.cloud.gateway.server.mvc.handler.ProxyExchange;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.client.RestClient;
+
+/**
+ * Configuration class for the proxy exchange of the gateway.
+ * Replaces the default exchange with one that streams upstream bodies in fixed-size chunks.
+ */
+@Configuration
+public class StreamingProxyConfig {
+
+    /**
+     * Provides the streaming proxy exchange, built on the same RestClient as the default one.
+     *
+     * @param restClientBuilder the RestClient builder, carrying the gateway request factory
+     * @param properties        the gateway properties
+     * @param chunkSize         the size of the chunks the bodies are streamed in
+     * @param meterRegistry     the registry the buffered bytes are published to
+     * @return the proxy exchange
+     */
+    @Bean
+    public ProxyExchange streamingProxyExchange(RestClient.Builder restClientBuilder,
+                                                GatewayMvcProperties properties,
+                                                @Value("${streaming-proxy.chunk-size:8KB}") DataSize chunkSize,
+                                                MeterRegistry meterRegistry) {
+        return new StreamingProxyExchange(restClientBuilder.build(), properties, (int) chunkSize.toBytes(), meterRegistry);
+    }
+}
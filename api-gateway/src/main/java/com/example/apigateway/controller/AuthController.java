@@ -1,11 +1,11 @@
 package com.example.apigateway.controller;
 
-import com.example.apigateway.constant.Constant;
 import com.example.apigateway.dto.request.AuthRequest;
-import com.example.apigateway.dto.request.LoginRequest;
-import com.example.apigateway.dto.request.RefreshTokenRequest;
-import com.example.apigateway.dto.response.ApiResponse;
 import com.example.apigateway.service.IAuthService;
+import com.example.common.constant.GatewayConstant;
+import com.example.common.dto.request.LoginRequest;
+import com.example.common.dto.request.RefreshTokenRequest;
+import com.example.common.dto.response.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -34,18 +34,18 @@ public class AuthController {
      */
     @PostMapping("/login")
     public ResponseEntity<Object> login(@Valid @RequestBody LoginRequest loginRequest) {
-        return ResponseEntity.ok(ApiResponse.success(Constant.SUCCESS, authService.login(loginRequest)));
+        return ResponseEntity.ok(ApiResponse.success(GatewayConstant.SUCCESS, authService.login(loginRequest)));
     }
 
     /**
-     * Generates a new access token using a valid refresh token.
+     * Rotates a valid refresh token and generates a new access token.
      *
      * @param refreshTokenRequest the request containing the refresh token
-     * @return an AuthResponse containing a new access token, the refresh token, username, and email
+     * @return an AuthResponse containing a new access token, the new refresh token, username, and email
      */
     @PostMapping("/refresh-token")
     public ResponseEntity<Object> refreshToken(@Valid @RequestBody RefreshTokenRequest refreshTokenRequest) {
-        return ResponseEntity.ok(ApiResponse.success(Constant.SUCCESS, authService.refreshToken(refreshTokenRequest)));
+        return ResponseEntity.ok(ApiResponse.success(GatewayConstant.SUCCESS, authService.refreshToken(refreshTokenRequest)));
     }
 
 }
\ No newline at end of file
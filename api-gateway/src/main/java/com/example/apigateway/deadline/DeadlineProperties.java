@@ -0,0 +1,26 @@
+package com.example.apigateway.deadline;
+
+import lombok.Data;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Request deadline settings bound from the {@code deadline} configuration prefix.
+ */
+@Data
+public class DeadlineProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Budget of the requests whose route has no budget of its own; null for no deadline.
+     */
+    private Duration defaultTimeout;
+
+    /**
+     * Budget per gateway route id.
+     */
+    private Map<String, Duration> routes = new LinkedHashMap<>();
+}
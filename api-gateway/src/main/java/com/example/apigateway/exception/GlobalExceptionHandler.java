@@ -1,7 +1,12 @@
 package com.example.apigateway.exception;
 
-import com.example.apigateway.constant.Constant;
-import com.example.apigateway.dto.response.ErrorResponse;
+import com.example.common.constant.CommonConstant;
+import com.example.common.constant.GatewayConstant;
+import com.example.common.dto.response.ErrorResponse;
+import com.example.common.exception.BadRequestException;
+import com.example.common.exception.ConflictException;
+import com.example.common.exception.NotFoundException;
+import com.example.common.exception.UnAuthorizedException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataAccessException;
 import org.springframework.dao.DataIntegrityViolationException;
@@ -43,8 +48,8 @@ public class GlobalExceptionHandler {
      */
     @ExceptionHandler(RuntimeException.class)
     public ResponseEntity<ErrorResponse<Object>> handleRuntimeException(RuntimeException ex) {
-        log.error(Constant.RUNTIME_EXCEPTION_OCCURRED, ex.getMessage(), ex);
-        ErrorResponse<Object> errorResponse = ErrorResponse.of(Constant.ERROR, ex.getMessage());
+        log.error(GatewayConstant.RUNTIME_EXCEPTION_OCCURRED, ex.getMessage(), ex);
+        ErrorResponse<Object> errorResponse = ErrorResponse.of(GatewayConstant.ERROR, ex.getMessage());
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
     }
 
@@ -56,8 +61,8 @@ public class GlobalExceptionHandler {
      */
     @ExceptionHandler(IOException.class)
     public ResponseEntity<ErrorResponse<Object>> handleIOException(IOException ex) {
-        log.error(Constant.IO_EXCEPTION_OCCURRED, ex.getMessage(), ex);
-        ErrorResponse<Object> errorResponse = ErrorResponse.of(Constant.ERROR, ex.getMessage());
+        log.error(GatewayConstant.IO_EXCEPTION_OCCURRED, ex.getMessage(), ex);
+        ErrorResponse<Object> errorResponse = ErrorResponse.of(GatewayConstant.ERROR, ex.getMessage());
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
     }
 
@@ -69,8 +74,8 @@ public class GlobalExceptionHandler {
      */
     @ExceptionHandler(NotFoundException.class)
     public ResponseEntity<ErrorResponse<Object>> handleNotFoundException(NotFoundException ex) {
-        log.error(Constant.NOT_FOUND_EXCEPTION_OCCURRED, ex.getMessage(), ex);
-        ErrorResponse<Object> errorResponse = ErrorResponse.of(Constant.NOT_FOUND, ex.getMessage());
+        log.error(GatewayConstant.NOT_FOUND_EXCEPTION_OCCURRED, ex.getMessage(), ex);
+        ErrorResponse<Object> errorResponse = ErrorResponse.of(GatewayConstant.NOT_FOUND, ex.getMessage());
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
     }
 
@@ -82,8 +87,8 @@ public class GlobalExceptionHandler {
      */
     @ExceptionHandler(BadRequestException.class)
     public ResponseEntity<ErrorResponse<Object>> handleBadRequestException(BadRequestException ex) {
-        log.error(Constant.BAD_REQUEST_EXCEPTION_OCCURRED, ex.getMessage(), ex);
-        ErrorResponse<Object> errorResponse = ErrorResponse.of(Constant.BAD_REQUEST, ex.getMessage());
+        log.error(GatewayConstant.BAD_REQUEST_EXCEPTION_OCCURRED, ex.getMessage(), ex);
+        ErrorResponse<Object> errorResponse = ErrorResponse.of(GatewayConstant.BAD_REQUEST, ex.getMessage());
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
     }
 
@@ -95,14 +100,14 @@ public class GlobalExceptionHandler {
      */
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ErrorResponse<Map<String, String>>> handleValidationException(MethodArgumentNotValidException ex) {
-        log.error(Constant.VALIDATION_EXCEPTION_OCCURRED, ex.getMessage(), ex);
+        log.error(GatewayConstant.VALIDATION_EXCEPTION_OCCURRED, ex.getMessage(), ex);
 
         Map<String, String> errors = new HashMap<>();
         ex.getBindingResult().getFieldErrors().forEach(error ->
                 errors.put(error.getField(), error.getDefaultMessage())
         );
 
-        ErrorResponse<Map<String, String>> errorResponse = ErrorResponse.of(Constant.VALIDATION_ERROR, Constant.VALIDATION_FAILED, errors);
+        ErrorResponse<Map<String, String>> errorResponse = ErrorResponse.of(GatewayConstant.VALIDATION_ERROR, GatewayConstant.VALIDATION_FAILED, errors);
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
     }
 
@@ -114,8 +119,8 @@ public class GlobalExceptionHandler {
      */
     @ExceptionHandler(DataAccessException.class)
     public ResponseEntity<ErrorResponse<Object>> handleDatabaseException(DataAccessException ex) {
-        log.error(Constant.DATABASE_EXCEPTION_OCCURRED, ex.getMessage(), ex);
-        ErrorResponse<Object> errorResponse = ErrorResponse.of(Constant.ERROR, ex.getMessage());
+        log.error(GatewayConstant.DATABASE_EXCEPTION_OCCURRED, ex.getMessage(), ex);
+        ErrorResponse<Object> errorResponse = ErrorResponse.of(GatewayConstant.ERROR, ex.getMessage());
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
     }
 
@@ -127,8 +132,8 @@ public class GlobalExceptionHandler {
      */
     @ExceptionHandler(DataIntegrityViolationException.class)
     public ResponseEntity<ErrorResponse<Object>> handleDataIntegrityViolationException(DataIntegrityViolationException ex) {
-        log.error(Constant.DATA_INTEGRITY_VIOLATION_OCCURRED, ex.getMessage(), ex);
-        ErrorResponse<Object> errorResponse = ErrorResponse.of(Constant.ERROR, ex.getMessage());
+        log.error(GatewayConstant.DATA_INTEGRITY_VIOLATION_OCCURRED, ex.getMessage(), ex);
+        ErrorResponse<Object> errorResponse = ErrorResponse.of(GatewayConstant.ERROR, ex.getMessage());
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
     }
 
@@ -140,8 +145,8 @@ public class GlobalExceptionHandler {
      */
     @ExceptionHandler(MaxUploadSizeExceededException.class)
     public ResponseEntity<ErrorResponse<Object>> handleFileSizeLimitExceededException(MaxUploadSizeExceededException ex) {
-        log.error(Constant.FILE_SIZE_LIMIT_EXCEEDED, ex.getMessage(), ex);
-        ErrorResponse<Object> errorResponse = ErrorResponse.of(Constant.BAD_REQUEST, ex.getMessage());
+        log.error(GatewayConstant.FILE_SIZE_LIMIT_EXCEEDED, ex.getMessage(), ex);
+        ErrorResponse<Object> errorResponse = ErrorResponse.of(GatewayConstant.BAD_REQUEST, ex.getMessage());
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
     }
 
@@ -153,8 +158,8 @@ public class GlobalExceptionHandler {
      */
     @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<ErrorResponse<Object>> handleIllegalArgumentException(IllegalArgumentException ex) {
-        log.error(Constant.ILLEGAL_ARGUMENT_EXCEPTION_OCCURRED, ex.getMessage(), ex);
-        ErrorResponse<Object> errorResponse = ErrorResponse.of(Constant.BAD_REQUEST, ex.getMessage());
+        log.error(GatewayConstant.ILLEGAL_ARGUMENT_EXCEPTION_OCCURRED, ex.getMessage(), ex);
+        ErrorResponse<Object> errorResponse = ErrorResponse.of(GatewayConstant.BAD_REQUEST, ex.getMessage());
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
     }
 
@@ -166,8 +171,8 @@ public class GlobalExceptionHandler {
      */
     @ExceptionHandler(ConflictException.class)
     public ResponseEntity<ErrorResponse<Object>> handleConflictException(ConflictException ex) {
-        log.error(Constant.CONFLICT_EXCEPTION_OCCURRED, ex.getMessage(), ex);
-        ErrorResponse<Object> errorResponse = ErrorResponse.of(Constant.CONFLICT, ex.getMessage());
+        log.error(GatewayConstant.CONFLICT_EXCEPTION_OCCURRED, ex.getMessage(), ex);
+        ErrorResponse<Object> errorResponse = ErrorResponse.of(GatewayConstant.CONFLICT, ex.getMessage());
         return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
     }
 
@@ -180,10 +185,10 @@ public class GlobalExceptionHandler {
      */
     @ExceptionHandler(HttpMessageNotReadableException.class)
     public ResponseEntity<ErrorResponse<Object>> handleHttpMessageNotReadableException(HttpMessageNotReadableException ex) {
-        log.error(Constant.FAILED_TO_READ_REQUEST_BODY, ex.getMessage(), ex);
+        log.error(GatewayConstant.FAILED_TO_READ_REQUEST_BODY, ex.getMessage(), ex);
 
         ErrorResponse<Object> errorResponse = ErrorResponse.of(
-                Constant.INVALID_REQUEST_BODY,
+                GatewayConstant.INVALID_REQUEST_BODY,
                 ex.getMessage()
         );
 
@@ -197,8 +202,8 @@ public class GlobalExceptionHandler {
      */
     @ExceptionHandler(HttpRequestMethodNotSupportedException.class)
     public ResponseEntity<ErrorResponse<Object>> handleHttpRequestMethodNotSupportedException(HttpRequestMethodNotSupportedException ex) {
-        log.error(Constant.HttpRequestMethodNotSupportedException, ex.getMessage(), ex);
-        ErrorResponse<Object> errorResponse = ErrorResponse.of(Constant.HTTP_METHOD_NOT_ALLOWED, Constant.HTTP_METHOD_NOT_SUPPORT + ex.getMethod());
+        log.error(GatewayConstant.HttpRequestMethodNotSupportedException, ex.getMessage(), ex);
+        ErrorResponse<Object> errorResponse = ErrorResponse.of(GatewayConstant.HTTP_METHOD_NOT_ALLOWED, GatewayConstant.HTTP_METHOD_NOT_SUPPORT + ex.getMethod());
         return ResponseEntity.status(HttpStatus.METHOD_NOT_ALLOWED).body(errorResponse);
     }
 
@@ -210,8 +215,8 @@ public class GlobalExceptionHandler {
      */
     @ExceptionHandler(NoResourceFoundException.class)
     public ResponseEntity<ErrorResponse<Object>> handlerNoResourceFoundException(NoResourceFoundException ex) {
-        log.error(Constant.NO_RESOURCE_FOUND_EXCEPTION_OCCURRED, ex.getMessage(), ex);
-        ErrorResponse<Object> errorResponse = ErrorResponse.of(Constant.NOT_FOUND, ex.getMessage());
+        log.error(GatewayConstant.NO_RESOURCE_FOUND_EXCEPTION_OCCURRED, ex.getMessage(), ex);
+        ErrorResponse<Object> errorResponse = ErrorResponse.of(GatewayConstant.NOT_FOUND, ex.getMessage());
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
     }
 
@@ -223,13 +228,13 @@ public class GlobalExceptionHandler {
      */
     @ExceptionHandler(MethodArgumentTypeMismatchException.class)
     public ResponseEntity<ErrorResponse<Object>> handleMethodArgumentTypeMismatchException(MethodArgumentTypeMismatchException ex) {
-        log.error(Constant.METHOD_ARGUMENT_TYPE_MISMATCH_EXCEPTION_OCCURRED, ex.getMessage(), ex);
+        log.error(GatewayConstant.METHOD_ARGUMENT_TYPE_MISMATCH_EXCEPTION_OCCURRED, ex.getMessage(), ex);
         String message = String.format(
-                Constant.METHOD_ARGUMENT_TYPE_MISMATCH,
+                GatewayConstant.METHOD_ARGUMENT_TYPE_MISMATCH,
                 ex.getName(),
-                ex.getRequiredType() != null ? ex.getRequiredType().getSimpleName() : Constant.UNKNOWN
+                ex.getRequiredType() != null ? ex.getRequiredType().getSimpleName() : CommonConstant.UNKNOWN
         );
-        ErrorResponse<Object> errorResponse = ErrorResponse.of(Constant.BAD_REQUEST, message);
+        ErrorResponse<Object> errorResponse = ErrorResponse.of(GatewayConstant.BAD_REQUEST, message);
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
     }
     /**
@@ -240,8 +245,8 @@ public class GlobalExceptionHandler {
      */
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponse<Object>> handleGenericException(Exception ex) {
-        log.error(Constant.UNEXPECTED_EXCEPTION_OCCURRED, ex.getMessage(), ex);
-        ErrorResponse<Object> errorResponse = ErrorResponse.of(Constant.INTERNAL_SERVER_ERROR, ex.getMessage());
+        log.error(GatewayConstant.UNEXPECTED_EXCEPTION_OCCURRED, ex.getMessage(), ex);
+        ErrorResponse<Object> errorResponse = ErrorResponse.of(GatewayConstant.INTERNAL_SERVER_ERROR, ex.getMessage());
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
     }
 
@@ -255,7 +260,7 @@ public class GlobalExceptionHandler {
     @ExceptionHandler(AuthenticationException.class)
     public ResponseEntity<ErrorResponse<Object>> handleAuthenticationException(AuthenticationException ex) {
         log.error("Authentication error: {}", ex.getMessage(), ex);
-        ErrorResponse<Object> errorResponse = ErrorResponse.of(Constant.UNAUTHORIZED, ex.getMessage());
+        ErrorResponse<Object> errorResponse = ErrorResponse.of(GatewayConstant.UNAUTHORIZED, ex.getMessage());
         return ResponseEntity.status(HttpStatus.UNAUTHORIZED.value()).body(errorResponse);
     }
 
@@ -268,7 +273,7 @@ public class GlobalExceptionHandler {
     @ExceptionHandler(BadCredentialsException.class)
     public ResponseEntity<ErrorResponse<Object>> handleBadCredentialsException(BadCredentialsException ex) {
         log.error("Bad credentials: {}", ex.getMessage(), ex);
-        ErrorResponse<Object> errorResponse = ErrorResponse.of(Constant.UNAUTHORIZED, "Invalid username or password");
+        ErrorResponse<Object> errorResponse = ErrorResponse.of(GatewayConstant.UNAUTHORIZED, "Invalid username or password");
         return ResponseEntity.status(HttpStatus.UNAUTHORIZED.value()).body(errorResponse);
     }
 
@@ -281,7 +286,7 @@ public class GlobalExceptionHandler {
     @ExceptionHandler(DisabledException.class)
     public ResponseEntity<ErrorResponse<Object>> handleDisabledException(DisabledException ex) {
         log.error("User disabled: {}", ex.getMessage(), ex);
-        ErrorResponse<Object> errorResponse = ErrorResponse.of(Constant.UNAUTHORIZED, "User account is disabled");
+        ErrorResponse<Object> errorResponse = ErrorResponse.of(GatewayConstant.UNAUTHORIZED, "User account is disabled");
         return ResponseEntity.status(HttpStatus.UNAUTHORIZED.value()).body(errorResponse);
     }
 
@@ -294,7 +299,7 @@ public class GlobalExceptionHandler {
     @ExceptionHandler(LockedException.class)
     public ResponseEntity<ErrorResponse<Object>> handleLockedException(LockedException ex) {
         log.error("User locked: {}", ex.getMessage(), ex);
-        ErrorResponse<Object> errorResponse = ErrorResponse.of(Constant.UNAUTHORIZED, "User account is locked");
+        ErrorResponse<Object> errorResponse = ErrorResponse.of(GatewayConstant.UNAUTHORIZED, "User account is locked");
         return ResponseEntity.status(HttpStatus.UNAUTHORIZED.value()).body(errorResponse);
     }
 
@@ -307,7 +312,7 @@ public class GlobalExceptionHandler {
     @ExceptionHandler(CredentialsExpiredException.class)
     public ResponseEntity<ErrorResponse<Object>> handleCredentialsExpiredException(CredentialsExpiredException ex) {
         log.error("Credentials expired: {}", ex.getMessage(), ex);
-        ErrorResponse<Object> errorResponse = ErrorResponse.of(Constant.UNAUTHORIZED, "Invalid username or password");
+        ErrorResponse<Object> errorResponse = ErrorResponse.of(GatewayConstant.UNAUTHORIZED, "Invalid username or password");
         return ResponseEntity.status(HttpStatus.UNAUTHORIZED.value()).body(errorResponse);
     }
 
@@ -320,7 +325,7 @@ public class GlobalExceptionHandler {
     @ExceptionHandler(UsernameNotFoundException.class)
     public ResponseEntity<ErrorResponse<Object>> handleUsernameNotFoundException(UsernameNotFoundException ex) {
         log.error("Username not found: {}", ex.getMessage(), ex);
-        ErrorResponse<Object> errorResponse = ErrorResponse.of(Constant.UNAUTHORIZED, "User not found");
+        ErrorResponse<Object> errorResponse = ErrorResponse.of(GatewayConstant.UNAUTHORIZED, "User not found");
         return ResponseEntity.status(HttpStatus.UNAUTHORIZED.value()).body(errorResponse);
     }
 
@@ -341,7 +346,7 @@ public class GlobalExceptionHandler {
     @ExceptionHandler(UnAuthorizedException.class)
     public ResponseEntity<ErrorResponse<Object>> handleUnAuthorizedException(UnAuthorizedException ex) {
         log.error("Unauthorized access: {}", ex.getMessage(), ex);
-        ErrorResponse<Object> errorResponse = ErrorResponse.of(Constant.UNAUTHORIZED, ex.getMessage());
+        ErrorResponse<Object> errorResponse = ErrorResponse.of(GatewayConstant.UNAUTHORIZED, ex.getMessage());
         return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(errorResponse);
     }
 }
@@ -0,0 +1,58 @@
+package com.example.apigateway.filter;
+
+import com.example.apigateway.bulkhead.Bulkhead;
+import com.example.apigateway.bulkhead.BulkheadRegistry;
+import com.example.apigateway.routing.GatewayRouteResolver;
+import com.example.common.constant.GatewayConstant;
+import com.example.common.dto.response.ErrorResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Caps the concurrent requests of each route and of the authentication endpoints, see {@link BulkheadRegistry}.
+ * A request finding its bulkhead full is answered with 503 at once rather than waiting for a slot.
+ */
+@Component
+@Order(FilterOrders.BULKHEAD)
+@RequiredArgsConstructor
+public class BulkheadFilter extends OncePerRequestFilter {
+
+    private final GatewayRouteResolver gatewayRouteResolver;
+    private final BulkheadRegistry bulkheadRegistry;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Bulkhead bulkhead = bulkheadRegistry.resolve(request, gatewayRouteResolver.resolveRouteId(request));
+        if (bulkhead == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        boolean accepted = bulkhead.tryAcquire();
+        bulkheadRegistry.record(bulkhead, accepted);
+        if (!accepted) {
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            ErrorResponse<Object> error = ErrorResponse.of(GatewayConstant.SERVICE_UNAVAILABLE, "Too many concurrent requests on this route, please retry later.");
+            response.getWriter().write(objectMapper.writeValueAsString(error));
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            bulkhead.release();
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.apigateway.filter;
+
+import com.example.apigateway.compress.CompressingResponseWrapper;
+import com.example.apigateway.compress.ContentCoding;
+import com.example.apigateway.compress.ResponseCompressor;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Compresses the responses of the routes listed under {@code compression.routes} with the coding negotiated from
+ * the {@code Accept-Encoding} header, see {@link ResponseCompressor}.
+ */
+@Component
+@Order(FilterOrders.COMPRESSION)
+@RequiredArgsConstructor
+public class CompressionFilter extends OncePerRequestFilter {
+
+    private final ResponseCompressor responseCompressor;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        ContentCoding coding = responseCompressor.select(request);
+        if (coding == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        CompressingResponseWrapper wrapper = new CompressingResponseWrapper(response, responseCompressor, coding);
+        try {
+            filterChain.doFilter(request, wrapper);
+        } finally {
+            // Ends the deflater even when the chain fails, as it holds native memory until then
+            wrapper.finish();
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.apigateway.filter;
+
+import com.example.apigateway.deadline.DeadlineProperties;
+import com.example.apigateway.routing.GatewayRouteResolver;
+import com.example.common.deadline.Deadline;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+
+/**
+ * Starts the end-to-end budget of proxied requests and forwards it to the services in the {@value Deadline#HEADER}
+ * header. The budget comes from {@code deadline.routes}, falling back to {@code deadline.default-timeout}; a client
+ * may ask for a shorter one with the header itself but never for a longer one. The header value is the budget left
+ * when the upstream call is made, so time spent in the gateway is deducted.
+ */
+@Slf4j
+@Component
+@Order(FilterOrders.DEADLINE)
+public class DeadlineHeaderFilter extends OncePerRequestFilter {
+
+    private static final String PREFIX = "deadline";
+
+    private final Environment environment;
+    private final GatewayRouteResolver gatewayRouteResolver;
+    private volatile DeadlineProperties properties;
+
+    public DeadlineHeaderFilter(Environment environment, GatewayRouteResolver gatewayRouteResolver) {
+        this.environment = environment;
+        this.gatewayRouteResolver = gatewayRouteResolver;
+    }
+
+    @PostConstruct
+    public void init() {
+        bind();
+    }
+
+    @EventListener
+    public void onEnvironmentChange(EnvironmentChangeEvent event) {
+        if (event.getKeys().stream().anyMatch(key -> key.startsWith(PREFIX + "."))) {
+            bind();
+            log.info("Reloaded request deadlines");
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        DeadlineProperties current = properties;
+        String routeId = current.isEnabled() ? gatewayRouteResolver.resolveRouteId(request) : null;
+        Duration timeout = routeId == null ? null : current.getRoutes().getOrDefault(routeId, current.getDefaultTimeout());
+        Deadline deadline = Deadline.earliest(
+                timeout == null ? null : Deadline.after(timeout),
+                Deadline.parseHeader(request.getHeader(Deadline.HEADER)));
+        if (deadline == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        filterChain.doFilter(new DeadlineRequest(request, deadline), response);
+    }
+
+    private void bind() {
+        properties = Binder.get(environment)
+                .bind(PREFIX, DeadlineProperties.class)
+                .orElseGet(DeadlineProperties::new);
+    }
+
+    /**
+     * Exposes the remaining budget, computed when read, in place of any client-supplied deadline header.
+     */
+    private static final class DeadlineRequest extends HttpServletRequestWrapper {
+        private final Deadline deadline;
+
+        private DeadlineRequest(HttpServletRequest request, Deadline deadline) {
+            super(request);
+            this.deadline = deadline;
+        }
+
+        @Override
+        public String getHeader(String name) {
+            return Deadline.HEADER.equalsIgnoreCase(name) ? deadline.toHeader() : super.getHeader(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaders(String name) {
+            return Deadline.HEADER.equalsIgnoreCase(name)
+                    ? Collections.enumeration(List.of(deadline.toHeader()))
+                    : super.getHeaders(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaderNames() {
+            List<String> names = new ArrayList<>();
+            for (Enumeration<String> e = super.getHeaderNames(); e.hasMoreElements(); ) {
+                String name = e.nextElement();
+                if (!Deadline.HEADER.equalsIgnoreCase(name)) {
+                    names.add(name);
+                }
+            }
+            names.add(Deadline.HEADER);
+            return Collections.enumeration(names);
+        }
+    }
+}
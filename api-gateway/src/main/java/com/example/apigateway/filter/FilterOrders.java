@@ -0,0 +1,54 @@
+package com.example.apigateway.filter;
+
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+
+/**
+ * Servlet filter orders of the gateway filters, relative to the Spring Security filter chain.
+ */
+public final class FilterOrders {
+
+    // This class is not meant to be instantiated
+    private FilterOrders() {}
+
+    /**
+     * Runs right after the security filter chain, so the budget covers the time spent in the other gateway filters.
+     */
+    public static final int DEADLINE = SecurityProperties.DEFAULT_FILTER_ORDER + 1;
+
+    /**
+     * Runs after the security filter chain and before anything that may answer on behalf of a route.
+     */
+    public static final int GEO_IP = SecurityProperties.DEFAULT_FILTER_ORDER + 5;
+
+    /**
+     * Runs after the security filter chain, so the role of the user is known, and before the rate limits, so an
+     * overloaded gateway does not spend a Redis round trip on requests it sheds.
+     */
+    public static final int LOAD_SHEDDING = SecurityProperties.DEFAULT_FILTER_ORDER + 7;
+
+    /**
+     * Runs after load shedding, so requests waiting in a priority queue do not hold a slot of their route.
+     */
+    public static final int BULKHEAD = SecurityProperties.DEFAULT_FILTER_ORDER + 8;
+
+    /**
+     * Runs after the security filter chain, so the authenticated user is known.
+     */
+    public static final int RATE_LIMIT = SecurityProperties.DEFAULT_FILTER_ORDER + 10;
+
+    /**
+     * Runs outside the response cache, so cache hits may send a compressed variant stored with the entry and the
+     * cache only ever sees identity bodies.
+     */
+    public static final int COMPRESSION = SecurityProperties.DEFAULT_FILTER_ORDER + 19;
+
+    /**
+     * Runs after admission control, so cache hits still count against rate limits.
+     */
+    public static final int RESPONSE_CACHE = SecurityProperties.DEFAULT_FILTER_ORDER + 20;
+
+    /**
+     * Runs inside the response cache, so only cache misses are coalesced.
+     */
+    public static final int REQUEST_COALESCING = SecurityProperties.DEFAULT_FILTER_ORDER + 30;
+}
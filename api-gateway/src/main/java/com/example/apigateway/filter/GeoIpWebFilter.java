@@ -1,33 +1,27 @@
 package com.example.apigateway.filter;
 
-import com.maxmind.geoip2.DatabaseReader;
-import com.maxmind.geoip2.exception.GeoIp2Exception;
+import com.example.apigateway.geo.GeoPolicyEngine;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import org.springframework.core.io.ClassPathResource;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.annotation.Order;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
-import java.io.File;
 import java.io.IOException;
-import java.net.InetAddress;
-import java.util.List;
 
+/**
+ * Rejects requests that the geo policy of their route does not allow, based on the real client address.
+ */
 @Component
+@Order(FilterOrders.GEO_IP)
+@RequiredArgsConstructor
 public class GeoIpWebFilter extends OncePerRequestFilter {
 
-    private final DatabaseReader dbReader;
-    private static final String VN = "VN";
-    private static final String FILE_NAME =  "GeoLite2-Country.mmdb";
-    private static final List<String> RESTRICTED_PATHS = List.of("/table-type/");
-
-    public GeoIpWebFilter() throws IOException {
-        File database = new ClassPathResource(FILE_NAME).getFile();
-        dbReader = new DatabaseReader.Builder(database).build();
-    }
+    private final GeoPolicyEngine geoPolicyEngine;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -35,25 +29,7 @@ public class GeoIpWebFilter extends OncePerRequestFilter {
                                     FilterChain filterChain)
             throws ServletException, IOException {
 
-        String path = request.getRequestURI();
-        if (RESTRICTED_PATHS.stream().noneMatch(path::startsWith)) {
-            filterChain.doFilter(request, response);
-            return;
-        }
-
-        // Tạm thời dùng IP hardcoded để test
-        String ipAddress = "27.68.251.243"; // IP Việt Nam
-//        String ipAddress = "43.231.112.45"; // IP Nhật Bản
-
-        try {
-            String country = dbReader.country(InetAddress.getByName(ipAddress))
-                    .getCountry()
-                    .getIsoCode();
-            if (!VN.equals(country)) {
-                response.setStatus(HttpStatus.FORBIDDEN.value());
-                return;
-            }
-        } catch (IOException | GeoIp2Exception e) {
+        if (!geoPolicyEngine.isAllowed(request)) {
             response.setStatus(HttpStatus.FORBIDDEN.value());
             return;
         }
@@ -1,29 +1,26 @@
 package com.example.apigateway.filter;
 
-import com.example.apigateway.constant.Constant;
-import com.example.apigateway.enumn.UserRoleEnum;
 import com.example.apigateway.security.CustomUserDetailService;
-import com.example.apigateway.service.IPermissionService;
+import com.example.apigateway.security.PublicRouteIndex;
 import com.example.apigateway.service.ITokenService;
-import jakarta.annotation.PostConstruct;
+import com.example.apigateway.service.IUserRevocationService;
+import com.example.common.security.JwtClaimsCache;
+import com.example.common.security.JwtUserPrincipal;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
-import org.springframework.http.HttpMethod;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
-import org.springframework.security.web.servlet.util.matcher.PathPatternRequestMatcher;
-import org.springframework.security.web.util.matcher.RequestMatcher;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.List;
 
 /**
  * JwtAuthenticationFilter is a filter that checks for JWT tokens in the request headers.
@@ -34,17 +31,14 @@ import java.util.List;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final ITokenService tokenService;
+    private final JwtClaimsCache jwtClaimsCache;
     private final CustomUserDetailService userDetailsService;
-    private List<RequestMatcher> permitAllMatchers;
-    private final IPermissionService permissionService;
+    private final PublicRouteIndex publicRouteIndex;
+    private final IUserRevocationService userRevocationService;
+
+    @Value("${jwt.stateless-principal.enabled:false}")
+    private boolean statelessPrincipal;
 
-    @PostConstruct
-    public void init() {
-        // Khởi tạo danh sách các endpoint ANONYMOUS
-        permitAllMatchers = new ArrayList<>();
-        permissionService.getPermissionsByRoleName(Constant.ANONYMOUS).forEach(permission ->
-                permitAllMatchers.add(PathPatternRequestMatcher.withDefaults().matcher(HttpMethod.valueOf(permission.getMethod()),permission.getEndpoint())));
-    }
     /**
      * Filters incoming requests to check for JWT tokens and authenticate users.
      *
@@ -60,10 +54,11 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         String authHeader = request.getHeader("Authorization");
         if(authHeader != null && authHeader.startsWith("Bearer ")) {
             String token = authHeader.substring(7);
-            String username = tokenService.extractUsername(token);
+            Claims claims = jwtClaimsCache.getVerifiedClaims(token);
+            String username = claims.getSubject();
             if(username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                if(tokenService.isTokenValid(token, userDetails)){
+                UserDetails userDetails = resolveUserDetails(claims);
+                if(userDetails != null && tokenService.isTokenValid(claims, userDetails)){
                     UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
                     authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                     SecurityContextHolder.getContext().setAuthentication(authenticationToken);
@@ -73,9 +68,28 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * Resolves the principal for verified claims.
+     * In stateless mode the principal is built from the claims and checked against the revocation marks and the
+     * user's current role, both cached; otherwise the user is loaded from the database.
+     *
+     * @param claims the verified claims of the access token
+     * @return the user details, or null if the token has been revoked
+     */
+    private UserDetails resolveUserDetails(Claims claims) {
+        if (statelessPrincipal) {
+            JwtUserPrincipal principal = JwtUserPrincipal.fromClaims(claims);
+            if (principal != null) {
+                return userRevocationService.isRevoked(principal.getUserId(), principal.getRole(), claims.getIssuedAt())
+                        ? null : principal;
+            }
+        }
+        return userDetailsService.loadUserByUsername(claims.getSubject());
+    }
+
     /**
      * Determines whether the filter should not process the request.
-     * If the request matches any of the permitAllMatchers, it will not be filtered.
+     * Requests to public endpoints are not filtered.
      *
      * @param request the incoming HTTP request
      * @return true if the request should not be filtered, false otherwise
@@ -83,7 +97,6 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
      */
     @Override
     protected boolean shouldNotFilter(HttpServletRequest request) throws ServletException {
-        return permitAllMatchers.stream()
-                .anyMatch(matcher -> matcher.matches(request));
+        return publicRouteIndex.matches(request);
     }
 }
\ No newline at end of file
@@ -0,0 +1,84 @@
+package com.example.apigateway.filter;
+
+import com.example.apigateway.routing.GatewayRouteResolver;
+import com.example.apigateway.security.CustomUserDetail;
+import com.example.apigateway.shed.LoadShedder;
+import com.example.apigateway.shed.RequestPriority;
+import com.example.common.constant.GatewayConstant;
+import com.example.common.dto.response.ErrorResponse;
+import com.example.common.routing.RequestPaths;
+import com.example.common.security.JwtUserPrincipal;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Sheds proxied requests by priority when the gateway is overloaded, see {@link LoadShedder}.
+ * The priority comes from the role of the authenticated user, anonymous requests being the least important,
+ * and from the route. Shed requests get a 503 response with a {@code Retry-After} header.
+ */
+@Component
+@Order(FilterOrders.LOAD_SHEDDING)
+@RequiredArgsConstructor
+public class LoadSheddingFilter extends OncePerRequestFilter {
+
+    private static final String RETRY_AFTER_SECONDS = "1";
+
+    private final GatewayRouteResolver gatewayRouteResolver;
+    private final LoadShedder loadShedder;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String routeId = loadShedder.isEnabled() ? gatewayRouteResolver.resolveRouteId(request) : null;
+        if (routeId == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        String path = RequestPaths.pathWithinApplication(request);
+        RequestPriority priority = loadShedder.classify(HttpMethod.valueOf(request.getMethod()), path, routeId, currentRole());
+        if (!loadShedder.tryAcquire(priority)) {
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS);
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            ErrorResponse<Object> error = ErrorResponse.of(GatewayConstant.SERVICE_UNAVAILABLE, "The service is overloaded, please retry later.");
+            response.getWriter().write(objectMapper.writeValueAsString(error));
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            loadShedder.release(System.nanoTime() - start);
+        }
+    }
+
+    private static String currentRole() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null) {
+            return null;
+        }
+        if (authentication.getPrincipal() instanceof JwtUserPrincipal principal) {
+            return principal.getRole();
+        }
+        if (authentication.getPrincipal() instanceof CustomUserDetail userDetail) {
+            return userDetail.getUser().getRole().getName();
+        }
+        return null;
+    }
+}
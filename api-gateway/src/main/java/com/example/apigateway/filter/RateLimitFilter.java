@@ -0,0 +1,75 @@
+package com.example.apigateway.filter;
+
+import com.example.apigateway.geo.ClientIpResolver;
+import com.example.apigateway.routing.GatewayRouteResolver;
+import com.example.apigateway.security.CustomUserDetail;
+import com.example.apigateway.service.IRateLimitService;
+import com.example.common.constant.GatewayConstant;
+import com.example.common.dto.response.ErrorResponse;
+import com.example.common.ratelimit.RateLimitDecision;
+import com.example.common.security.JwtUserPrincipal;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Applies the per-route token-bucket limits to proxied requests, per client IP and per authenticated user.
+ * Rejected requests get a 429 response with a {@code Retry-After} header.
+ */
+@Component
+@Order(FilterOrders.RATE_LIMIT)
+@RequiredArgsConstructor
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final GatewayRouteResolver gatewayRouteResolver;
+    private final ClientIpResolver clientIpResolver;
+    private final IRateLimitService rateLimitService;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String routeId = gatewayRouteResolver.resolveRouteId(request);
+        if (routeId == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        RateLimitDecision decision = rateLimitService.tryAcquire(routeId, currentUserId(), clientIpResolver.resolveKey(request));
+        if (!decision.isAllowed()) {
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString((decision.getRetryAfterMillis() + 999) / 1000));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            ErrorResponse<Object> error = ErrorResponse.of(GatewayConstant.TOO_MANY_REQUESTS, "Too many requests, please retry later.");
+            response.getWriter().write(objectMapper.writeValueAsString(error));
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private static Long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null) {
+            return null;
+        }
+        if (authentication.getPrincipal() instanceof JwtUserPrincipal principal) {
+            return principal.getUserId();
+        }
+        if (authentication.getPrincipal() instanceof CustomUserDetail userDetail) {
+            return userDetail.getUser().getId();
+        }
+        return null;
+    }
+}
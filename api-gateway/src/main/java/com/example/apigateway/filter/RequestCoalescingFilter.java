@@ -0,0 +1,187 @@
+package com.example.apigateway.filter;
+
+import com.example.apigateway.coalesce.SharedResponse;
+import com.example.apigateway.routing.GatewayRouteResolver;
+import com.example.apigateway.stream.SpillingResponseWrapper;
+import com.example.common.coalesce.RequestCoalescingProperties;
+import com.example.common.routing.QueryStrings;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Single-flight coalescing of identical in-flight GET requests on the routes listed under {@code request-coalescing.routes}.
+ * Requests with the same route, path, normalized query, {@code Accept} header and auth class (anonymous or the
+ * caller's roles) share the upstream call of the first one, whose buffered response is fanned out to the others.
+ * A waiting request proxies on its own if the shared call fails, times out or produces a response that cannot be shared.
+ * On cached routes the leader reads its response from the buffer of the {@link ResponseCacheFilter} around it
+ * instead of buffering the body a second time.
+ */
+@Slf4j
+@Component
+@Order(FilterOrders.REQUEST_COALESCING)
+public class RequestCoalescingFilter extends OncePerRequestFilter {
+
+    private static final String PREFIX = "request-coalescing";
+    private static final String ANONYMOUS = "anonymous";
+
+    private final Environment environment;
+    private final GatewayRouteResolver gatewayRouteResolver;
+    private final Map<String, CompletableFuture<SharedResponse>> inFlight = new ConcurrentHashMap<>();
+    private final Counter leaders;
+    private final Counter followers;
+    private final Counter fallbacks;
+    private volatile RequestCoalescingProperties properties;
+    private volatile Set<String> routes;
+
+    public RequestCoalescingFilter(Environment environment, GatewayRouteResolver gatewayRouteResolver,
+                                   MeterRegistry meterRegistry) {
+        this.environment = environment;
+        this.gatewayRouteResolver = gatewayRouteResolver;
+        this.leaders = counter(meterRegistry, "leader");
+        this.followers = counter(meterRegistry, "follower");
+        this.fallbacks = counter(meterRegistry, "fallback");
+    }
+
+    @PostConstruct
+    public void init() {
+        bind();
+    }
+
+    @EventListener
+    public void onEnvironmentChange(EnvironmentChangeEvent event) {
+        if (event.getKeys().stream().anyMatch(key -> key.startsWith(PREFIX + "."))) {
+            bind();
+            log.info("Reloaded request coalescing routes");
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestCoalescingProperties current = properties;
+        String routeId = current.isEnabled() && HttpMethod.GET.matches(request.getMethod())
+                ? gatewayRouteResolver.resolveRouteId(request) : null;
+        if (routeId == null || !routes.contains(routeId)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        String key = keyOf(routeId, request);
+        CompletableFuture<SharedResponse> call = new CompletableFuture<>();
+        CompletableFuture<SharedResponse> existing = inFlight.putIfAbsent(key, call);
+        if (existing != null) {
+            SharedResponse shared = await(existing, current);
+            if (shared != null) {
+                followers.increment();
+                shared.writeTo(response);
+                return;
+            }
+            fallbacks.increment();
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        leaders.increment();
+        long maxBodySize = current.getMaxBodySize().toBytes();
+        SpillingResponseWrapper outer = SpillingResponseWrapper.find(response);
+        SpillingResponseWrapper wrapper;
+        if (outer != null) {
+            outer.raiseLimit(maxBodySize);
+            wrapper = outer;
+        } else {
+            wrapper = new SpillingResponseWrapper(request, response, maxBodySize);
+        }
+        try {
+            filterChain.doFilter(request, outer != null ? response : wrapper);
+            boolean shareable = wrapper.getHeader(HttpHeaders.SET_COOKIE) == null
+                    && !wrapper.isSpilled()
+                    && wrapper.getContentSize() <= maxBodySize;
+            call.complete(shareable ? SharedResponse.capture(wrapper) : null);
+        } catch (IOException | ServletException | RuntimeException e) {
+            call.complete(null);
+            throw e;
+        } finally {
+            inFlight.remove(key, call);
+        }
+        if (outer == null) {
+            wrapper.copyBodyToResponse();
+        }
+    }
+
+    private SharedResponse await(CompletableFuture<SharedResponse> call, RequestCoalescingProperties current) {
+        try {
+            return call.get(current.getMaxWait().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException | TimeoutException e) {
+            return null;
+        }
+    }
+
+    static String keyOf(String routeId, HttpServletRequest request) {
+        StringBuilder key = new StringBuilder(128)
+                .append(routeId).append(' ')
+                .append(request.getRequestURI()).append('?')
+                .append(QueryStrings.normalize(request.getQueryString())).append(' ')
+                .append(authClass()).append(' ');
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        return accept == null ? key.toString() : key.append(accept).toString();
+    }
+
+    private static String authClass() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated() || authentication instanceof AnonymousAuthenticationToken) {
+            return ANONYMOUS;
+        }
+        Set<String> authorities = new TreeSet<>();
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            authorities.add(authority.getAuthority());
+        }
+        return String.join(",", authorities);
+    }
+
+    private void bind() {
+        RequestCoalescingProperties bound = Binder.get(environment)
+                .bind(PREFIX, RequestCoalescingProperties.class)
+                .orElseGet(RequestCoalescingProperties::new);
+        routes = Set.copyOf(bound.getRoutes());
+        properties = bound;
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String role) {
+        return Counter.builder("gateway.coalescing.requests")
+                .description("GET requests by their part in request coalescing")
+                .tag("role", role)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.apigateway.filter;
+
+import com.example.apigateway.cache.CachedResponse;
+import com.example.apigateway.cache.ResponseCache;
+import com.example.apigateway.compress.ContentCoding;
+import com.example.apigateway.compress.ResponseCompressor;
+import com.example.apigateway.stream.SpillingResponseWrapper;
+import com.example.common.cache.CacheRoute;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Serves cacheable GET routes from the gateway {@link ResponseCache} and revalidates them with clients through
+ * {@code ETag}/{@code If-None-Match}. Successful mutations proxied through the gateway invalidate the affected routes.
+ * Responses larger than a cache entry are streamed through instead of being buffered. Hits on compressed routes are
+ * sent as a compressed variant stored with the entry, so a popular response is compressed once per coding.
+ */
+@Component
+@Order(FilterOrders.RESPONSE_CACHE)
+public class ResponseCacheFilter extends OncePerRequestFilter {
+
+    private static final Set<String> MUTATING_METHODS = Set.of(
+            HttpMethod.POST.name(), HttpMethod.PUT.name(), HttpMethod.PATCH.name(), HttpMethod.DELETE.name());
+
+    private final ResponseCache responseCache;
+    private final ResponseCompressor responseCompressor;
+    private final Counter notModified;
+
+    public ResponseCacheFilter(ResponseCache responseCache, ResponseCompressor responseCompressor,
+                               MeterRegistry meterRegistry) {
+        this.responseCache = responseCache;
+        this.responseCompressor = responseCompressor;
+        this.notModified = Counter.builder("gateway.response.cache.not_modified")
+                .description("Cached responses revalidated with a 304")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (!HttpMethod.GET.matches(request.getMethod())) {
+            filterChain.doFilter(request, response);
+            if (isMutation(request) && HttpStatusCode.valueOf(response.getStatus()).is2xxSuccessful()) {
+                responseCache.invalidate(request);
+            }
+            return;
+        }
+        CacheRoute route = responseCache.findRoute(request);
+        if (route == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        String key = responseCache.keyOf(route, request);
+        CachedResponse cached = responseCache.get(route, key);
+        if (cached != null) {
+            writeCached(key, cached, request, response);
+            return;
+        }
+
+        long generation = route.currentGeneration();
+        SpillingResponseWrapper wrapper = new SpillingResponseWrapper(request, response, responseCache.getMaxEntrySize());
+        filterChain.doFilter(request, wrapper);
+        CachedResponse stored = responseCache.store(route, key, generation, wrapper);
+        if (stored != null) {
+            response.setHeader(HttpHeaders.ETAG, etagFor(stored, codingFor(request, stored, response.getContentType())));
+            if (matchesEtag(request, stored.getEtag())) {
+                notModified.increment();
+                response.setStatus(HttpStatus.NOT_MODIFIED.value());
+                return;
+            }
+        }
+        wrapper.copyBodyToResponse();
+    }
+
+    /**
+     * Only methods that change resources invalidate; HEAD, OPTIONS and TRACE leave the cached routes alone.
+     */
+    private static boolean isMutation(HttpServletRequest request) {
+        return MUTATING_METHODS.contains(request.getMethod());
+    }
+
+    private void writeCached(String key, CachedResponse cached, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        for (Map.Entry<String, List<String>> header : cached.getHeaders().entrySet()) {
+            for (String value : header.getValue()) {
+                response.addHeader(header.getKey(), value);
+            }
+        }
+        ContentCoding coding = codingFor(request, cached, response.getContentType());
+        if (coding != null) {
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+        response.setHeader(HttpHeaders.ETAG, etagFor(cached, coding));
+        if (matchesEtag(request, cached.getEtag())) {
+            notModified.increment();
+            response.setStatus(HttpStatus.NOT_MODIFIED.value());
+            return;
+        }
+        response.setStatus(cached.getStatus());
+        byte[] body = cached.getBody();
+        if (coding != null) {
+            boolean reused = cached.getEncodedBody(coding) != null;
+            body = responseCache.encodedBody(key, cached, coding, identity -> responseCompressor.compress(identity, coding));
+            if (reused) {
+                responseCompressor.recordReused(coding, cached.getBody().length, body.length);
+            }
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, coding.getToken());
+        }
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    private ContentCoding codingFor(HttpServletRequest request, CachedResponse cached, String contentType) {
+        ContentCoding coding = responseCompressor.select(request);
+        boolean compressible = responseCompressor.isCompressible(cached.getStatus(), contentType, (long) cached.getBody().length);
+        return compressible ? coding : null;
+    }
+
+    /**
+     * A compressed variant is a different representation of the entry, so its entity tag is weak; it still matches
+     * {@code If-None-Match}, which uses the weak comparison.
+     */
+    private static String etagFor(CachedResponse cached, ContentCoding coding) {
+        return coding == null ? cached.getEtag() : "W/" + cached.getEtag();
+    }
+
+    private static boolean matchesEtag(HttpServletRequest request, String etag) {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
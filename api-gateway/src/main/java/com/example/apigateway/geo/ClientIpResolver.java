@@ -0,0 +1,83 @@
+package com.example.apigateway.geo;
+
+import com.example.common.constant.CommonConstant;
+import com.example.common.geo.TrustedProxies;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Resolves the real client address of a request through the shared {@link TrustedProxies} rules.
+ * Trusted proxies are read from {@code geoip.trusted-proxies} and reloaded when that configuration changes.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ClientIpResolver {
+
+    private static final String TRUSTED_PROXIES = "geoip.trusted-proxies";
+
+    private final Environment environment;
+    private volatile TrustedProxies trustedProxies;
+
+    @PostConstruct
+    public void init() {
+        trustedProxies = compile();
+    }
+
+    @EventListener
+    public void onEnvironmentChange(EnvironmentChangeEvent event) {
+        if (event.getKeys().stream().noneMatch(key -> key.startsWith(TRUSTED_PROXIES))) {
+            return;
+        }
+        try {
+            trustedProxies = compile();
+            log.info("Reloaded trusted proxies");
+        } catch (RuntimeException e) {
+            log.warn("Invalid trusted proxy configuration, keeping the previous proxies: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Resolves the client address of the request.
+     *
+     * @param request the incoming HTTP request
+     * @return the client address, or null if a forwarded hop cannot be parsed
+     */
+    public InetAddress resolve(HttpServletRequest request) {
+        return trustedProxies.resolveClient(request.getRemoteAddr(),
+                headerValues(request, TrustedProxies.FORWARDED),
+                headerValues(request, TrustedProxies.X_FORWARDED_FOR));
+    }
+
+    /**
+     * Resolves the client address of the request as a string usable in keys.
+     *
+     * @param request the incoming HTTP request
+     * @return the textual client address, or {@code unknown} if it cannot be determined
+     */
+    public String resolveKey(HttpServletRequest request) {
+        InetAddress client = resolve(request);
+        return client == null ? CommonConstant.UNKNOWN : client.getHostAddress();
+    }
+
+    private TrustedProxies compile() {
+        return new TrustedProxies(Binder.get(environment).bind(TRUSTED_PROXIES, Bindable.listOf(String.class))
+                .orElseGet(List::of));
+    }
+
+    private static List<String> headerValues(HttpServletRequest request, String name) {
+        return request.getHeaders(name) == null ? List.of() : Collections.list(request.getHeaders(name));
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.apigateway.hedge;
+
+import org.apache.hc.core5.concurrent.Cancellable;
+
+import java.util.concurrent.Future;
+
+/**
+ * An upstream call that {@link RequestHedger} runs on a hedge thread, and aborts when the other call wins.
+ * Interrupting the thread is not enough: HttpClient 5 blocks in socket reads that ignore interrupts, so the request
+ * factory {@link #bind binds} the HttpClient request it creates to the attempt running on the current thread, and
+ * aborting the attempt cancels that request, which shuts its connection down and fails the read.
+ */
+public final class HedgeAttempt {
+
+    private static final ThreadLocal<HedgeAttempt> CURRENT = new ThreadLocal<>();
+
+    private Future<?> future;
+    private Cancellable request;
+    private boolean entered;
+    private boolean aborted;
+
+    /**
+     * Binds a request to the attempt running on the current thread, if any. A request bound to an attempt that was
+     * already aborted is cancelled right away, so it fails instead of being sent.
+     *
+     * @param request the HttpClient request about to be executed
+     */
+    public static void bind(Cancellable request) {
+        HedgeAttempt attempt = CURRENT.get();
+        if (attempt == null) {
+            return;
+        }
+        boolean cancel;
+        synchronized (attempt) {
+            attempt.request = request;
+            cancel = attempt.aborted;
+        }
+        if (cancel) {
+            request.cancel();
+        }
+    }
+
+    /**
+     * Marks the attempt as running on the current thread.
+     *
+     * @return false if the attempt was aborted before it started, in which case it must not make its call
+     */
+    synchronized boolean enter() {
+        CURRENT.set(this);
+        entered = true;
+        return !aborted;
+    }
+
+    void exit() {
+        CURRENT.remove();
+    }
+
+    synchronized void setFuture(Future<?> future) {
+        this.future = future;
+    }
+
+    /**
+     * Aborts the call: cancels its HttpClient request and interrupts its thread, which is what the JDK client needs.
+     * An attempt that has not started yet is left to start and give up, since cancelling its future would skip the
+     * code that releases its hedge thread slot.
+     */
+    void abort() {
+        Cancellable boundRequest;
+        Future<?> boundFuture;
+        synchronized (this) {
+            aborted = true;
+            boundRequest = request;
+            boundFuture = entered ? future : null;
+        }
+        if (boundRequest != null) {
+            boundRequest.cancel();
+        }
+        if (boundFuture != null) {
+            boundFuture.cancel(true);
+        }
+    }
+}
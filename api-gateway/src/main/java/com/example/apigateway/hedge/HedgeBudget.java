@@ -0,0 +1,35 @@
+package com.example.apigateway.hedge;
+
+/**
+ * Global budget of hedged requests.
+ * Every hedgeable request deposits {@code ratio} tokens, up to {@code burst}, and every hedge spends one, so hedges
+ * never exceed that fraction of the traffic. During an incident, when most requests are slow, the budget runs dry
+ * instead of doubling the load on the upstreams.
+ */
+public class HedgeBudget {
+
+    private final double ratio;
+    private final double burst;
+    private double tokens;
+
+    public HedgeBudget(double ratio, int burst) {
+        this.ratio = ratio;
+        this.burst = burst;
+        this.tokens = burst;
+    }
+
+    public synchronized void deposit() {
+        tokens = Math.min(burst, tokens + ratio);
+    }
+
+    /**
+     * @return true if a hedge may be sent, in which case its token is spent
+     */
+    public synchronized boolean tryAcquire() {
+        if (tokens < 1) {
+            return false;
+        }
+        tokens -= 1;
+        return true;
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.apigateway.hedge;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.AbstractClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+
+/**
+ * Upstream GET request that may be sent twice by {@link RequestHedger}.
+ * The headers and the (normally empty) body are buffered so that each call can replay them.
+ */
+public class HedgedClientHttpRequest extends AbstractClientHttpRequest {
+
+    private final ClientHttpRequestFactory requestFactory;
+    private final RequestHedger requestHedger;
+    private final String serviceId;
+    private final URI uri;
+    private final HttpMethod method;
+    private final ByteArrayOutputStream body = new ByteArrayOutputStream(0);
+
+    HedgedClientHttpRequest(ClientHttpRequestFactory requestFactory, RequestHedger requestHedger,
+                            String serviceId, URI uri, HttpMethod method) {
+        this.requestFactory = requestFactory;
+        this.requestHedger = requestHedger;
+        this.serviceId = serviceId;
+        this.uri = uri;
+        this.method = method;
+    }
+
+    @Override
+    public HttpMethod getMethod() {
+        return method;
+    }
+
+    @Override
+    public URI getURI() {
+        return uri;
+    }
+
+    @Override
+    protected OutputStream getBodyInternal(HttpHeaders headers) {
+        return body;
+    }
+
+    @Override
+    protected ClientHttpResponse executeInternal(HttpHeaders headers) throws IOException {
+        byte[] content = body.toByteArray();
+        return requestHedger.execute(serviceId, uri, target -> {
+            ClientHttpRequest request = requestFactory.createRequest(target, method);
+            request.getHeaders().putAll(headers);
+            if (content.length > 0) {
+                request.getBody().write(content);
+            }
+            return request.execute();
+        });
+    }
+}
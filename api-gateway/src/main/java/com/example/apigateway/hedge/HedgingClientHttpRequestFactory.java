@@ -0,0 +1,32 @@
+package com.example.apigateway.hedge;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+
+import java.io.IOException;
+import java.net.URI;
+
+/**
+ * Request factory of the gateway proxy client that hedges the upstream calls selected by {@link RequestHedger}.
+ * Every other call is created by the delegate factory untouched, so request bodies keep streaming.
+ */
+public class HedgingClientHttpRequestFactory implements ClientHttpRequestFactory {
+
+    private final ClientHttpRequestFactory delegate;
+    private final RequestHedger requestHedger;
+
+    public HedgingClientHttpRequestFactory(ClientHttpRequestFactory delegate, RequestHedger requestHedger) {
+        this.delegate = delegate;
+        this.requestHedger = requestHedger;
+    }
+
+    @Override
+    public ClientHttpRequest createRequest(URI uri, HttpMethod httpMethod) throws IOException {
+        String serviceId = requestHedger.resolveHedgedService(httpMethod);
+        if (serviceId == null) {
+            return delegate.createRequest(uri, httpMethod);
+        }
+        return new HedgedClientHttpRequest(delegate, requestHedger, serviceId, uri, httpMethod);
+    }
+}
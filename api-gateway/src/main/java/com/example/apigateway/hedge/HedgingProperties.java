@@ -0,0 +1,63 @@
+package com.example.apigateway.hedge;
+
+import lombok.Data;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Request hedging settings bound from the {@code hedging} configuration prefix.
+ */
+@Data
+public class HedgingProperties {
+
+    private boolean enabled = false;
+
+    /**
+     * Ids of the gateway routes whose GET requests may be hedged; each must have an {@code lb://} uri.
+     */
+    private List<String> routes = new ArrayList<>();
+
+    /**
+     * Percentile of the recent upstream latencies of a route after which the hedge is sent.
+     */
+    private double percentile = 95;
+
+    /**
+     * Number of latency samples a route needs before it is hedged at all.
+     */
+    private int minSamples = 100;
+
+    /**
+     * Lower bound of the hedge delay.
+     */
+    private Duration minDelay = Duration.ofMillis(5);
+
+    /**
+     * Upper bound of the hedge delay.
+     */
+    private Duration maxDelay = Duration.ofSeconds(1);
+
+    /**
+     * Maximum number of upstream calls running on hedge threads at once, primaries and hedges alike. When they are
+     * all busy, primaries run on the request thread and are not hedged.
+     */
+    private int maxConcurrency = 64;
+
+    private Budget budget = new Budget();
+
+    @Data
+    public static class Budget {
+
+        /**
+         * Hedges allowed per hedgeable request, across every route.
+         */
+        private double ratio = 0.1;
+
+        /**
+         * Maximum number of hedges that can be saved up while traffic is quiet.
+         */
+        private int burst = 10;
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.apigateway.hedge;
+
+import java.util.Arrays;
+
+/**
+ * The latest upstream latencies of a route, from which the hedge delay is derived.
+ * The percentile is recomputed after every quarter of the window rather than on every request.
+ */
+public class LatencyWindow {
+
+    private static final int SIZE = 512;
+    private static final int RECOMPUTE_INTERVAL = SIZE / 4;
+
+    private final long[] samples = new long[SIZE];
+    private final double percentile;
+    private int next;
+    private int count;
+    private int sinceRecompute = RECOMPUTE_INTERVAL;
+    private long cachedPercentile;
+
+    /**
+     * @param percentile the percentile to compute, between 0 and 100
+     */
+    public LatencyWindow(double percentile) {
+        this.percentile = percentile;
+    }
+
+    public synchronized void record(long latencyNanos) {
+        samples[next] = latencyNanos;
+        next = (next + 1) % SIZE;
+        count = Math.min(count + 1, SIZE);
+        sinceRecompute++;
+    }
+
+    public synchronized int getCount() {
+        return count;
+    }
+
+    /**
+     * @return the configured percentile of the recorded latencies in nanoseconds, or 0 if none is recorded
+     */
+    public synchronized long getPercentile() {
+        if (count == 0) {
+            return 0;
+        }
+        if (sinceRecompute >= RECOMPUTE_INTERVAL) {
+            long[] sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(percentile / 100 * count) - 1;
+            cachedPercentile = sorted[Math.min(Math.max(index, 0), count - 1)];
+            sinceRecompute = 0;
+        }
+        return cachedPercentile;
+    }
+}
@@ -0,0 +1,484 @@
+package com.example.apigateway.hedge;
+
+import com.example.apigateway.routing.GatewayRouteResolver;
+import com.example.common.loadbalancer.SupersededCalls;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerClient;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycleValidator;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerUriTools;
+import org.springframework.cloud.client.loadbalancer.RequestData;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.cloud.gateway.server.mvc.config.GatewayMvcProperties;
+import org.springframework.cloud.gateway.server.mvc.config.RouteProperties;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hedges the upstream GET calls of the routes listed under {@code hedging.routes}.
+ * When the call to the selected instance has not answered after the configured percentile of the service's recent
+ * latencies, a second call goes to another instance of the same service; the first response wins and the other call
+ * is aborted. A failed call is not a response: the other one is awaited, or the failure is returned if there is
+ * no other. Hedges are bounded by a global {@link HedgeBudget}.
+ * <p>
+ * The gateway route reports the outcome of the primary call to the load-balancer lifecycles, with the response the
+ * client got. The hedge goes through the same lifecycles on its own instance, and a primary that loses to its hedge
+ * is recorded as {@link SupersededCalls superseded} so that it counts as a failure rather than a success.
+ * <p>
+ * Calls run on at most {@code hedging.max-concurrency} hedge threads, virtual threads when they are enabled; when
+ * every slot is taken, the call runs directly on the request thread without a hedge, so a slow upstream cannot
+ * make the gateway pile up threads.
+ */
+@Slf4j
+@Component
+public class RequestHedger {
+
+    private static final String PREFIX = "hedging";
+    private static final String LB_SCHEME = "lb";
+    private static final int INSTANCE_ATTEMPTS = 3;
+    private static final String THREAD_NAME_PREFIX = "hedge-";
+
+    private final Environment environment;
+    private final GatewayRouteResolver gatewayRouteResolver;
+    private final GatewayMvcProperties gatewayMvcProperties;
+    private final LoadBalancerClient loadBalancerClient;
+    private final LoadBalancerClientFactory loadBalancerClientFactory;
+    private final ThreadPoolExecutor platformThreads;
+    private final AsyncTaskExecutor executor;
+    private final Map<String, LatencyWindow> windows = new ConcurrentHashMap<>();
+    private final Counter notHedged;
+    private final Counter primaryWon;
+    private final Counter hedgeWon;
+    private final Counter budgetExhausted;
+    private final Counter saturated;
+    private volatile Settings settings;
+
+    public RequestHedger(Environment environment, GatewayRouteResolver gatewayRouteResolver,
+                         GatewayMvcProperties gatewayMvcProperties, LoadBalancerClient loadBalancerClient,
+                         LoadBalancerClientFactory loadBalancerClientFactory, MeterRegistry meterRegistry) {
+        this.environment = environment;
+        this.gatewayRouteResolver = gatewayRouteResolver;
+        this.gatewayMvcProperties = gatewayMvcProperties;
+        this.loadBalancerClient = loadBalancerClient;
+        this.loadBalancerClientFactory = loadBalancerClientFactory;
+        this.notHedged = counter(meterRegistry, "not_hedged");
+        this.primaryWon = counter(meterRegistry, "primary_won");
+        this.hedgeWon = counter(meterRegistry, "hedge_won");
+        this.budgetExhausted = counter(meterRegistry, "budget_exhausted");
+        this.saturated = counter(meterRegistry, "saturated");
+        if (Threading.VIRTUAL.isActive(environment)) {
+            this.platformThreads = null;
+            this.executor = new VirtualThreadTaskExecutor(THREAD_NAME_PREFIX);
+        } else {
+            // Sized by bind(); idle threads die after a minute
+            this.platformThreads = new ThreadPoolExecutor(0, 1, 1, TimeUnit.MINUTES, new SynchronousQueue<>(),
+                    daemonThreadFactory());
+            this.executor = new TaskExecutorAdapter(platformThreads);
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        bind();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (platformThreads != null) {
+            platformThreads.shutdownNow();
+        }
+    }
+
+    @EventListener
+    public void onEnvironmentChange(EnvironmentChangeEvent event) {
+        if (event.getKeys().stream().anyMatch(key -> key.startsWith(PREFIX + "."))) {
+            bind();
+            log.info("Reloaded request hedging routes");
+        }
+    }
+
+    /**
+     * Decides whether an upstream call of the current request may be hedged.
+     *
+     * @param method the method of the upstream call
+     * @return the service the call is load-balanced over, or null if it must not be hedged
+     */
+    public String resolveHedgedService(HttpMethod method) {
+        Settings current = settings;
+        if (!current.properties.isEnabled() || !HttpMethod.GET.equals(method)
+                || !(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            return null;
+        }
+        HttpServletRequest request = attributes.getRequest();
+        String routeId = gatewayRouteResolver.resolveRouteId(request);
+        return routeId == null ? null : current.services.get(routeId);
+    }
+
+    /**
+     * Executes an upstream call, hedging it on another instance of the service if it is slow.
+     *
+     * @param serviceId  the service the call is load-balanced over
+     * @param primaryUri the uri of the call, on the instance selected by the gateway
+     * @param call       performs the call against a given uri
+     * @return the first response
+     * @throws IOException if every call failed
+     */
+    public ClientHttpResponse execute(String serviceId, URI primaryUri, UpstreamCall call) throws IOException {
+        Settings current = settings;
+        HedgingProperties properties = current.properties;
+        LatencyWindow window = windows.computeIfAbsent(serviceId, id -> new LatencyWindow(properties.getPercentile()));
+        current.budget.deposit();
+
+        Race race = new Race(current.slots);
+        long start = System.nanoTime();
+        Attempt primaryCall = () -> {
+            ClientHttpResponse response = call.execute(primaryUri);
+            window.record(System.nanoTime() - start);
+            return response;
+        };
+        HedgeAttempt primary = race.start(primaryCall, false);
+        if (primary == null) {
+            saturated.increment();
+            return primaryCall.run();
+        }
+
+        long delay = hedgeDelay(window, properties);
+        if (delay < 0) {
+            notHedged.increment();
+            return race.await().response;
+        }
+        Outcome outcome = race.await(delay);
+        if (outcome != null) {
+            notHedged.increment();
+            return outcome.response;
+        }
+
+        if (!current.budget.tryAcquire()) {
+            budgetExhausted.increment();
+            return race.await().response;
+        }
+        HedgeCall hedgeCall = chooseOtherInstance(serviceId, primaryUri);
+        if (hedgeCall == null) {
+            notHedged.increment();
+            return race.await().response;
+        }
+        hedgeCall.started();
+        HedgeAttempt hedge = race.start(() -> hedgeCall.run(call), true);
+        if (hedge == null) {
+            hedgeCall.completed(CompletionContext.Status.DISCARD, null, null);
+            saturated.increment();
+            return race.await().response;
+        }
+        try {
+            outcome = race.await();
+        } catch (IOException | RuntimeException e) {
+            hedgeCall.completed(CompletionContext.Status.FAILED, null, e);
+            throw e;
+        }
+        if (outcome.hedge) {
+            // The primary latency is at least this long; recording it keeps the slow tail in the window.
+            window.record(System.nanoTime() - start);
+            primary.abort();
+            SupersededCalls.mark(serviceId, primaryUri);
+            hedgeCall.completed(CompletionContext.Status.SUCCESS, outcome.response, null);
+            hedgeWon.increment();
+        } else {
+            Throwable failure = hedgeCall.failure;
+            hedge.abort();
+            hedgeCall.completed(failure != null ? CompletionContext.Status.FAILED : CompletionContext.Status.DISCARD,
+                    null, failure);
+            primaryWon.increment();
+        }
+        return outcome.response;
+    }
+
+    private static long hedgeDelay(LatencyWindow window, HedgingProperties properties) {
+        if (window.getCount() < properties.getMinSamples()) {
+            return -1;
+        }
+        long delay = window.getPercentile();
+        return Math.min(Math.max(delay, properties.getMinDelay().toNanos()), properties.getMaxDelay().toNanos());
+    }
+
+    /**
+     * Selects another instance of the service for the hedge, going through the load-balancer lifecycles like the
+     * gateway route does for the primary.
+     *
+     * @return the hedge call, or null if the balancer keeps selecting the primary instance or has none
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private HedgeCall chooseOtherInstance(String serviceId, URI primaryUri) {
+        Set<LoadBalancerLifecycle> lifecycles = LoadBalancerLifecycleValidator.getSupportedLifecycleProcessors(
+                loadBalancerClientFactory.getInstances(serviceId, LoadBalancerLifecycle.class),
+                RequestDataContext.class, ResponseData.class, ServiceInstance.class);
+        RequestData requestData = new RequestData(HttpMethod.GET, primaryUri, new HttpHeaders(),
+                new LinkedMultiValueMap<>(), new HashMap<>());
+        DefaultRequest<RequestDataContext> lbRequest = new DefaultRequest<>(new RequestDataContext(requestData));
+        lifecycles.forEach(lifecycle -> lifecycle.onStart(lbRequest));
+        for (int i = 0; i < INSTANCE_ATTEMPTS; i++) {
+            ServiceInstance instance = loadBalancerClient.choose(serviceId, lbRequest);
+            if (instance == null) {
+                break;
+            }
+            if (!Objects.equals(instance.getHost(), primaryUri.getHost()) || instance.getPort() != primaryUri.getPort()) {
+                return new HedgeCall(lifecycles, lbRequest, new DefaultResponse(instance),
+                        LoadBalancerUriTools.reconstructURI(instance, primaryUri));
+            }
+        }
+        lifecycles.forEach(lifecycle -> lifecycle.onComplete(
+                new CompletionContext<>(CompletionContext.Status.DISCARD, lbRequest, new DefaultResponse(null))));
+        return null;
+    }
+
+    private void bind() {
+        HedgingProperties bound = Binder.get(environment)
+                .bind(PREFIX, HedgingProperties.class)
+                .orElseGet(HedgingProperties::new);
+        Map<String, String> services = new HashMap<>();
+        for (RouteProperties route : gatewayMvcProperties.getRoutes()) {
+            if (bound.getRoutes().contains(route.getId()) && LB_SCHEME.equals(route.getUri().getScheme())) {
+                services.put(route.getId(), route.getUri().getHost());
+            }
+        }
+        int maxConcurrency = Math.max(1, bound.getMaxConcurrency());
+        if (platformThreads != null) {
+            platformThreads.setMaximumPoolSize(maxConcurrency);
+        }
+        windows.clear();
+        settings = new Settings(bound, Map.copyOf(services),
+                new HedgeBudget(bound.getBudget().getRatio(), bound.getBudget().getBurst()), new Semaphore(maxConcurrency));
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("gateway.hedging.requests")
+                .description("Hedgeable GET requests by their hedging outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private static CustomizableThreadFactory daemonThreadFactory() {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(THREAD_NAME_PREFIX);
+        threadFactory.setDaemon(true);
+        return threadFactory;
+    }
+
+    private static final class Settings {
+        private final HedgingProperties properties;
+        private final Map<String, String> services;
+        private final HedgeBudget budget;
+        private final Semaphore slots;
+
+        private Settings(HedgingProperties properties, Map<String, String> services, HedgeBudget budget,
+                         Semaphore slots) {
+            this.properties = properties;
+            this.services = services;
+            this.budget = budget;
+            this.slots = slots;
+        }
+    }
+
+    /**
+     * Performs one upstream call against a given uri.
+     */
+    @FunctionalInterface
+    public interface UpstreamCall {
+        ClientHttpResponse execute(URI uri) throws IOException;
+    }
+
+    /**
+     * The hedge of one request, reported to the load-balancer lifecycles of its instance.
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static final class HedgeCall {
+        private final Set<LoadBalancerLifecycle> lifecycles;
+        private final DefaultRequest<RequestDataContext> lbRequest;
+        private final DefaultResponse lbResponse;
+        private final URI uri;
+        private volatile Throwable failure;
+
+        private HedgeCall(Set<LoadBalancerLifecycle> lifecycles, DefaultRequest<RequestDataContext> lbRequest,
+                          DefaultResponse lbResponse, URI uri) {
+            this.lifecycles = lifecycles;
+            this.lbRequest = lbRequest;
+            this.lbResponse = lbResponse;
+            this.uri = uri;
+        }
+
+        void started() {
+            lifecycles.forEach(lifecycle -> lifecycle.onStartRequest(lbRequest, lbResponse));
+        }
+
+        ClientHttpResponse run(UpstreamCall call) throws IOException {
+            try {
+                return call.execute(uri);
+            } catch (IOException | RuntimeException e) {
+                failure = e;
+                throw e;
+            }
+        }
+
+        void completed(CompletionContext.Status status, ClientHttpResponse response, Throwable error) {
+            ResponseData responseData = null;
+            if (response != null) {
+                try {
+                    responseData = new ResponseData(response.getStatusCode(), response.getHeaders(),
+                            new LinkedMultiValueMap<>(), lbRequest.getContext().getClientRequest());
+                } catch (IOException e) {
+                    status = CompletionContext.Status.FAILED;
+                    error = e;
+                }
+            }
+            CompletionContext completion = new CompletionContext<>(status, error, lbRequest, lbResponse, responseData);
+            lifecycles.forEach(lifecycle -> lifecycle.onComplete(completion));
+        }
+    }
+
+    @FunctionalInterface
+    private interface Attempt {
+        ClientHttpResponse run() throws IOException;
+    }
+
+    private static final class Outcome {
+        private final ClientHttpResponse response;
+        private final boolean hedge;
+
+        private Outcome(ClientHttpResponse response, boolean hedge) {
+            this.response = response;
+            this.hedge = hedge;
+        }
+    }
+
+    /**
+     * The calls racing for one request: the first response completes the race and later ones are closed.
+     */
+    private final class Race {
+
+        private final CompletableFuture<Outcome> result = new CompletableFuture<>();
+        private final AtomicInteger pending = new AtomicInteger();
+        private final Semaphore slots;
+
+        Race(Semaphore slots) {
+            this.slots = slots;
+        }
+
+        /**
+         * Starts a call on a hedge thread.
+         *
+         * @return the running call, or null if every hedge thread is busy
+         */
+        HedgeAttempt start(Attempt attempt, boolean hedge) {
+            if (!slots.tryAcquire()) {
+                return null;
+            }
+            HedgeAttempt running = new HedgeAttempt();
+            pending.incrementAndGet();
+            try {
+                running.setFuture(executor.submit(() -> {
+                    try {
+                        if (!running.enter()) {
+                            throw new InterruptedIOException("Aborted before the upstream call was made");
+                        }
+                        ClientHttpResponse response = attempt.run();
+                        if (!result.complete(new Outcome(response, hedge))) {
+                            response.close();
+                        }
+                    } catch (IOException | RuntimeException e) {
+                        if (pending.decrementAndGet() == 0) {
+                            result.completeExceptionally(e);
+                        }
+                    } finally {
+                        running.exit();
+                        slots.release();
+                    }
+                }));
+            } catch (TaskRejectedException e) {
+                pending.decrementAndGet();
+                slots.release();
+                return null;
+            }
+            return running;
+        }
+
+        Outcome await(long timeoutNanos) throws IOException {
+            try {
+                return unwrap(() -> result.get(timeoutNanos, TimeUnit.NANOSECONDS));
+            } catch (TimeoutException e) {
+                return null;
+            }
+        }
+
+        Outcome await() throws IOException {
+            try {
+                return unwrap(result::get);
+            } catch (TimeoutException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        private Outcome unwrap(Waiter waiter) throws IOException, TimeoutException {
+            try {
+                return waiter.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                result.cancel(true);
+                throw new InterruptedIOException("Interrupted while waiting for the upstream response");
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof IOException ioException) {
+                    throw ioException;
+                }
+                if (e.getCause() instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                throw new IOException(e.getCause());
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface Waiter {
+        Outcome await() throws InterruptedException, ExecutionException, TimeoutException;
+    }
+}
@@ -1,8 +1,8 @@
 package com.example.apigateway.mapper;
 
 
-import com.example.apigateway.dto.response.UserResponse;
 import com.example.apigateway.entity.User;
+import com.example.common.dto.response.UserResponse;
 import lombok.RequiredArgsConstructor;
 import org.modelmapper.ModelMapper;
 import org.springframework.stereotype.Component;
@@ -25,6 +25,9 @@ public class UserMapper {
      * @return the converted UserResponse DTO
      */
     public UserResponse mapEntityToResponse(User user) {
-        return modelMapper.map(user, UserResponse.class);
+        UserResponse response = modelMapper.map(user, UserResponse.class);
+        // The shared response carries the role name, not the Role entity
+        response.setRole(user.getRole() == null ? null : user.getRole().getName());
+        return response;
     }
 }
@@ -1,7 +1,7 @@
 package com.example.apigateway.repository;
 
 import com.example.apigateway.entity.Permission;
-import com.example.apigateway.entity.Role;
+import com.example.common.security.PermissionRuleView;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
@@ -19,4 +19,29 @@ public interface PermissionRepository extends JpaRepository<Permission, Long> {
      */
     @Query("SELECT p FROM Permission p JOIN p.roles r WHERE r.name = :roleName")
     List<Permission> getByRoleName(String roleName);
+
+    /**
+     * Retrieves every permission with the names of the roles granted it, in a single query and without loading entities.
+     *
+     * @return one row per permission and role, ordered by permission id
+     */
+    @Query("SELECT p.id AS id, p.method AS method, p.endpoint AS endpoint, r.name AS roleName "
+            + "FROM Permission p LEFT JOIN p.roles r ORDER BY p.id")
+    List<PermissionRuleView> findAllRules();
+
+    /**
+     * Computes a fingerprint of the permission, role and role_permission tables.
+     * The value changes whenever a permission, a role or a grant is added, removed or modified.
+     *
+     * @return the fingerprint of the authorization data
+     */
+    @Query(value = "SELECT CONCAT_WS(':', "
+            + "(SELECT COUNT(*) FROM permission), "
+            + "(SELECT COALESCE(SUM(CRC32(CONCAT_WS('|', id, method, endpoint))), 0) FROM permission), "
+            + "(SELECT COUNT(*) FROM role), "
+            + "(SELECT COALESCE(SUM(CRC32(CONCAT_WS('|', id, name))), 0) FROM role), "
+            + "(SELECT COUNT(*) FROM role_permission), "
+            + "(SELECT COALESCE(SUM(CRC32(CONCAT_WS('|', role_id, permission_id))), 0) FROM role_permission))",
+            nativeQuery = true)
+    String computeFingerprint();
 }
@@ -2,6 +2,8 @@ package com.example.apigateway.repository;
 
 import com.example.apigateway.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -23,4 +25,13 @@ public interface UserRepository extends JpaRepository<User, Long> {
      * @return an Optional containing the found User, or empty if not found
      */
     Optional<User> findByUsernameAndIsDeletedFalse(String username);
+
+    /**
+     * Finds the role name of a user that is not deleted, without loading the user and its permissions.
+     *
+     * @param id the id of the user
+     * @return an Optional containing the role name, or empty if the user does not exist or is deleted
+     */
+    @Query("SELECT r.name FROM User u JOIN u.role r WHERE u.id = :id AND u.isDeleted = false")
+    Optional<String> findActiveRoleNameById(@Param("id") Long id);
 }
@@ -0,0 +1,83 @@
+package com.example.apigateway.routing;
+
+import com.example.common.routing.RequestPaths;
+import com.example.common.routing.RouteTrie;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cloud.gateway.server.mvc.config.GatewayMvcProperties;
+import org.springframework.cloud.gateway.server.mvc.config.PredicateProperties;
+import org.springframework.cloud.gateway.server.mvc.config.RouteProperties;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Resolves the id of the gateway route a request will be proxied through.
+ * The {@code Path} predicates of the routes declared under {@code spring.cloud.gateway.mvc.routes} are compiled
+ * into a {@link RouteTrie} once, in route order, so the gateway filters can key their per-route settings
+ * on the route id without re-evaluating every predicate.
+ */
+@Component
+@RequiredArgsConstructor
+public class GatewayRouteResolver {
+
+    private static final String PATH_PREDICATE = "Path";
+    private static final String LB_SCHEME = "lb";
+
+    private final GatewayMvcProperties gatewayMvcProperties;
+    private RouteTrie<String> routes;
+    private Map<String, String> services;
+
+    @PostConstruct
+    public void init() {
+        RouteTrie<String> compiled = new RouteTrie<>();
+        Map<String, String> serviceIds = new HashMap<>();
+        List<RouteProperties> ordered = new ArrayList<>(gatewayMvcProperties.getRoutes());
+        ordered.sort(Comparator.comparingInt(RouteProperties::getOrder));
+        for (RouteProperties route : ordered) {
+            if (route.getUri() != null && LB_SCHEME.equals(route.getUri().getScheme())) {
+                serviceIds.put(route.getId(), route.getUri().getHost());
+            }
+            for (PredicateProperties predicate : route.getPredicates()) {
+                if (!PATH_PREDICATE.equals(predicate.getName())) {
+                    continue;
+                }
+                for (String patterns : predicate.getArgs().values()) {
+                    for (String pattern : patterns.split(",")) {
+                        compiled.add(null, pattern.trim(), route.getId());
+                    }
+                }
+            }
+        }
+        routes = compiled;
+        services = Map.copyOf(serviceIds);
+    }
+
+    /**
+     * Resolves the route of the request.
+     *
+     * @param request the incoming HTTP request
+     * @return the route id, or null if the request is not proxied
+     */
+    public String resolveRouteId(HttpServletRequest request) {
+        String path = RequestPaths.pathWithinApplication(request);
+        return routes.find(HttpMethod.valueOf(request.getMethod()), path);
+    }
+
+    /**
+     * Resolves the load-balanced service the request will be proxied to.
+     *
+     * @param request the incoming HTTP request
+     * @return the service id, or null if the request is not proxied to an {@code lb://} route
+     */
+    public String resolveServiceId(HttpServletRequest request) {
+        String routeId = resolveRouteId(request);
+        return routeId == null ? null : services.get(routeId);
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.apigateway.security;
+
+import com.example.apigateway.service.IAuthorizationSnapshotService;
+import com.example.common.security.AuthorizationSnapshot;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Actuator endpoint exposing the current authorization snapshot and letting administrators reload it
+ * right after changing permissions, without waiting for the next poll.
+ */
+@Component
+@Endpoint(id = "authorization")
+@RequiredArgsConstructor
+public class AuthorizationSnapshotEndpoint {
+
+    private final IAuthorizationSnapshotService authorizationSnapshotService;
+
+    @ReadOperation
+    public Map<String, Object> snapshot() {
+        return describe(authorizationSnapshotService.getSnapshot());
+    }
+
+    @WriteOperation
+    public Map<String, Object> reload() {
+        return describe(authorizationSnapshotService.reload());
+    }
+
+    private Map<String, Object> describe(AuthorizationSnapshot snapshot) {
+        return Map.of(
+                "version", snapshot.getVersion(),
+                "fingerprint", snapshot.getFingerprint(),
+                "loadedAt", snapshot.getLoadedAt(),
+                "rules", snapshot.getRuleCount());
+    }
+}
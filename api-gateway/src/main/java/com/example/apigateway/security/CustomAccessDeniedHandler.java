@@ -1,8 +1,8 @@
 package com.example.apigateway.security;
 
 
-import com.example.apigateway.constant.Constant;
-import com.example.apigateway.dto.response.ErrorResponse;
+import com.example.common.constant.GatewayConstant;
+import com.example.common.dto.response.ErrorResponse;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -25,7 +25,7 @@ public class CustomAccessDeniedHandler implements AccessDeniedHandler {
         response.setStatus(HttpStatus.FORBIDDEN.value());
 
         ErrorResponse<Object> error = ErrorResponse.of(
-                Constant.FORBIDDEN,
+                GatewayConstant.FORBIDDEN,
                 "Access denied: you do not have permission to access this resource."
         );
         response.getWriter().write(new ObjectMapper().writeValueAsString(error));
@@ -1,8 +1,8 @@
 package com.example.apigateway.security;
 
 
-import com.example.apigateway.constant.Constant;
-import com.example.apigateway.dto.response.ErrorResponse;
+import com.example.common.constant.GatewayConstant;
+import com.example.common.dto.response.ErrorResponse;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -26,7 +26,7 @@ public class CustomAuthenticationEntryPoint implements AuthenticationEntryPoint
         response.setContentType("application/json");
         response.setStatus(HttpStatus.UNAUTHORIZED.value());
         log.error("Unauthorized error: {}", authException.getMessage());
-        ErrorResponse<Object> error = ErrorResponse.of(Constant.UNAUTHORIZED, "Access denied: missing or invalid authentication token.");
+        ErrorResponse<Object> error = ErrorResponse.of(GatewayConstant.UNAUTHORIZED, "Access denied: missing or invalid authentication token.");
         response.getWriter().write(new ObjectMapper().writeValueAsString(error));
     }
 }
\ No newline at end of file
@@ -0,0 +1,37 @@
+package com.example.apigateway.security;
+
+import com.example.apigateway.service.IAuthorizationSnapshotService;
+import com.example.common.routing.RequestPaths;
+import com.example.common.security.AuthorizationRule;
+import com.example.common.security.AuthorizationSnapshot;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.stereotype.Component;
+
+/**
+ * Matches requests whose first matching rule in the current {@link AuthorizationSnapshot} is granted to the ANONYMOUS role.
+ * The lookup goes through the compiled per-method route trie of the snapshot, so it costs time proportional
+ * to the depth of the path, independently of the number of endpoints, and follows permission reloads.
+ * It only lets the JWT filter skip public endpoints; access to them is still granted by {@link SnapshotAuthorizationManager}.
+ */
+@Component
+@RequiredArgsConstructor
+public class PublicRouteIndex implements RequestMatcher {
+
+    private final IAuthorizationSnapshotService authorizationSnapshotService;
+
+    /**
+     * Checks whether the request targets a public endpoint.
+     *
+     * @param request the incoming HTTP request
+     * @return true if the endpoint is granted to the ANONYMOUS role, false otherwise
+     */
+    @Override
+    public boolean matches(HttpServletRequest request) {
+        String path = RequestPaths.pathWithinApplication(request);
+        AuthorizationRule rule = authorizationSnapshotService.getSnapshot().match(HttpMethod.valueOf(request.getMethod()), path);
+        return rule != null && rule.isPermitAll();
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.apigateway.security;
+
+import com.example.apigateway.service.IAuthorizationSnapshotService;
+import com.example.common.routing.RequestPaths;
+import com.example.common.security.AuthorizationSnapshot;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.authorization.AuthorizationResult;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Authorizes requests against the current {@link AuthorizationSnapshot}.
+ * The first rule matching the request decides: public rules permit everyone, other rules require one of
+ * their authorities, and requests no permission covers only require an authenticated user.
+ * Per-role decisions are held by the matched rule, so no rule list is walked for the caller.
+ * Rules are matched against the decoded path, which is the path the upstream services route on.
+ */
+@Component
+public class SnapshotAuthorizationManager implements AuthorizationManager<RequestAuthorizationContext> {
+
+    private static final AuthorizationDecision GRANTED = new AuthorizationDecision(true);
+    private static final AuthorizationDecision DENIED = new AuthorizationDecision(false);
+
+    private final IAuthorizationSnapshotService authorizationSnapshotService;
+    private final Timer grantedTimer;
+    private final Timer deniedTimer;
+
+    public SnapshotAuthorizationManager(IAuthorizationSnapshotService authorizationSnapshotService, MeterRegistry meterRegistry) {
+        this.authorizationSnapshotService = authorizationSnapshotService;
+        this.grantedTimer = Timer.builder("gateway.authorization.evaluation")
+                .description("Time spent matching a request against the authorization rules")
+                .tag("decision", "granted")
+                .register(meterRegistry);
+        this.deniedTimer = Timer.builder("gateway.authorization.evaluation")
+                .description("Time spent matching a request against the authorization rules")
+                .tag("decision", "denied")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public AuthorizationResult authorize(Supplier<Authentication> authentication, RequestAuthorizationContext context) {
+        return decide(authentication, context);
+    }
+
+    /**
+     * @deprecated use {@link #authorize(Supplier, RequestAuthorizationContext)}
+     */
+    @Deprecated
+    @Override
+    public AuthorizationDecision check(Supplier<Authentication> authentication, RequestAuthorizationContext context) {
+        return decide(authentication, context);
+    }
+
+    private AuthorizationDecision decide(Supplier<Authentication> authentication, RequestAuthorizationContext context) {
+        long start = System.nanoTime();
+        boolean granted = isGranted(authentication, context);
+        (granted ? grantedTimer : deniedTimer).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return granted ? GRANTED : DENIED;
+    }
+
+    private boolean isGranted(Supplier<Authentication> authentication, RequestAuthorizationContext context) {
+        HttpServletRequest request = context.getRequest();
+        String path = RequestPaths.pathWithinApplication(request);
+        return authorizationSnapshotService.getSnapshot().isGranted(HttpMethod.valueOf(request.getMethod()), path, authentication);
+    }
+}
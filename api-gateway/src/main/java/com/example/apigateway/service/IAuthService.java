@@ -2,9 +2,9 @@ package com.example.apigateway.service;
 
 
 import com.example.apigateway.dto.request.AuthRequest;
-import com.example.apigateway.dto.request.LoginRequest;
-import com.example.apigateway.dto.request.RefreshTokenRequest;
-import com.example.apigateway.dto.response.AuthResponse;
+import com.example.common.dto.request.LoginRequest;
+import com.example.common.dto.request.RefreshTokenRequest;
+import com.example.common.dto.response.AuthResponse;
 
 /**
  * Service interface for handling authentication-related operations.
@@ -21,11 +21,11 @@ public interface IAuthService {
     AuthResponse login(LoginRequest loginRequest);
 
     /**
-     * Generates a new access token using a valid refresh token.
+     * Rotates a valid refresh token and generates a new access token.
      *
      * @param refreshTokenRequest the request containing the refresh token
-     * @return an AuthResponse containing a new access token, the refresh token, username, and email
-     * @throws RuntimeException if the refresh token is invalid or expired
+     * @return an AuthResponse containing a new access token, the new refresh token, username, and email
+     * @throws RuntimeException if the refresh token is invalid, expired or was already used
      */
     AuthResponse refreshToken(RefreshTokenRequest refreshTokenRequest);
 
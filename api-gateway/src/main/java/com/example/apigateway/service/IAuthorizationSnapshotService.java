@@ -0,0 +1,30 @@
+package com.example.apigateway.service;
+
+import com.example.common.security.AuthorizationSnapshot;
+
+/**
+ * Service interface for the authorization snapshot shared by the security filters.
+ */
+public interface IAuthorizationSnapshotService {
+
+    /**
+     * Returns the current snapshot. Never blocks.
+     *
+     * @return the current authorization snapshot
+     */
+    AuthorizationSnapshot getSnapshot();
+
+    /**
+     * Rebuilds the snapshot from the database if the permission data has changed.
+     *
+     * @return true if a new snapshot has been published, false otherwise
+     */
+    boolean refreshIfChanged();
+
+    /**
+     * Rebuilds the snapshot from the database unconditionally.
+     *
+     * @return the new snapshot
+     */
+    AuthorizationSnapshot reload();
+}
@@ -1,6 +1,7 @@
 package com.example.apigateway.service;
 
 import com.example.apigateway.entity.Permission;
+import com.example.common.security.PermissionRuleView;
 
 import java.util.List;
 
@@ -20,4 +21,18 @@ public interface IPermissionService {
      * @return a list of permissions associated with the specified role
      */
     List<Permission> getPermissionsByRoleName(String roleName);
+
+    /**
+     * Retrieves every permission with the names of the roles granted it.
+     *
+     * @return one row per permission and role, ordered by permission id
+     */
+    List<PermissionRuleView> getPermissionRules();
+
+    /**
+     * Computes a fingerprint of the permission and role data, used to detect changes.
+     *
+     * @return the current fingerprint
+     */
+    String getPermissionsFingerprint();
 }
@@ -0,0 +1,19 @@
+package com.example.apigateway.service;
+
+import com.example.common.ratelimit.RateLimitDecision;
+
+/**
+ * Service interface for per-route admission control.
+ */
+public interface IRateLimitService {
+
+    /**
+     * Takes a token from the client IP bucket and, for authenticated callers, from the user bucket of the route.
+     *
+     * @param routeId  the id of the gateway route
+     * @param userId   the id of the authenticated user, or null for anonymous callers
+     * @param clientIp the client address
+     * @return the decision; rejected decisions carry the delay before retrying
+     */
+    RateLimitDecision tryAcquire(String routeId, Long userId, String clientIp);
+}
@@ -1,9 +1,8 @@
 package com.example.apigateway.service;
 
 
-import com.example.apigateway.dto.response.RefreshToken;
-
-import java.util.Optional;
+import com.example.apigateway.entity.User;
+import com.example.common.dto.response.RefreshToken;
 
 /**
  * Service interface for managing refresh tokens.
@@ -11,28 +10,23 @@ import java.util.Optional;
 public interface IRefreshTokenService {
 
     /**
-     * Creates a new refresh token for a user and stores it in Redis.
+     * Creates a new refresh token for a user, starting a new token family, and stores it in Redis.
      *
-     * @param username the username of the user
+     * @param user the user
      * @return the created RefreshToken
-     * @throws RuntimeException if the user is not found
-     */
-    RefreshToken createRefreshToken(String username);
-
-    /**
-     * Finds a refresh token by its token value in Redis.
-     *
-     * @param token the token value to search for
-     * @return an Optional containing the found RefreshToken, or empty if not found
      */
-    Optional<RefreshToken> findByToken(String token);
+    RefreshToken createRefreshToken(User user);
 
     /**
-     * Verifies if a refresh token is still valid.
+     * Rotates a refresh token: the token is consumed and a successor in the same family is stored and returned,
+     * in a single Redis round trip. Presenting a token that was already rotated revokes its family. A token of a
+     * revoked, deleted or demoted user is refused before anything is rotated.
      *
-     * @param token the refresh token to verify
-     * @throws RuntimeException if the token is expired or not found
+     * @param token the refresh token presented by the client
+     * @return the successor, carrying the user the family was issued to
+     * @throws com.example.apigateway.exception.UnAuthorizedException if the token is invalid, expired, reused or revoked
+     * @throws com.example.apigateway.exception.NotFoundException     if the token is not known
      */
-    void verifyExpiration(RefreshToken token);
+    RefreshToken rotate(String token);
 
-}
\ No newline at end of file
+}
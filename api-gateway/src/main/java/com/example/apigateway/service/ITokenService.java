@@ -1,6 +1,8 @@
 package com.example.apigateway.service;
 
 import com.example.apigateway.entity.User;
+import com.example.common.dto.response.RefreshToken;
+import io.jsonwebtoken.Claims;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import java.util.function.Function;
@@ -40,6 +42,20 @@ public interface ITokenService {
      */
     String generateRefreshToken(String username, User user);
 
+    /**
+     * Generates an access token for the user a refresh token was issued to.
+     * @param refreshToken the refresh token record
+     * @return the access token
+     */
+    String generateAccessToken(RefreshToken refreshToken);
+
+    /**
+     * Generates the successor of a verified refresh token: same subject, user and role, expiring at the same time.
+     * @param claims the verified claims of the refresh token
+     * @return the new refresh token
+     */
+    String generateRefreshToken(Claims claims);
+
     /**
      * Validates the JWT token for the given user details.
      * @param token the JWT token
@@ -47,4 +63,19 @@ public interface ITokenService {
      * @return true if the token is valid, false otherwise
      */
     boolean isTokenValid(String token, UserDetails userDetails);
+
+    /**
+     * Parses the JWT token and verifies its signature and expiration.
+     * @param token the JWT token
+     * @return the verified claims
+     */
+    Claims extractVerifiedClaims(String token);
+
+    /**
+     * Validates already verified claims for the given user details.
+     * @param claims the verified claims of the token
+     * @param userDetails the user details
+     * @return true if the claims belong to the user and are not expired, false otherwise
+     */
+    boolean isTokenValid(Claims claims, UserDetails userDetails);
 }
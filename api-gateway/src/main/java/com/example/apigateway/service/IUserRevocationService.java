@@ -0,0 +1,29 @@
+package com.example.apigateway.service;
+
+import java.util.Date;
+
+/**
+ * Service interface for revoking the access and refresh tokens of deleted or demoted users.
+ */
+public interface IUserRevocationService {
+
+    /**
+     * Revokes every access and refresh token issued to the user up to now.
+     * Should be called whenever a user is deleted or their role changes.
+     *
+     * @param userId the id of the user
+     */
+    void revokeUser(Long userId);
+
+    /**
+     * Checks whether a token issued to the user at the given time, carrying the given role, has been revoked.
+     * A token is revoked when it was issued before the user's revocation mark, or when the user has since been
+     * deleted or given another role.
+     *
+     * @param userId   the id of the user
+     * @param role     the role carried by the token
+     * @param issuedAt the issued-at time of the token
+     * @return true if the token has been revoked, false otherwise
+     */
+    boolean isRevoked(Long userId, String role, Date issuedAt);
+}
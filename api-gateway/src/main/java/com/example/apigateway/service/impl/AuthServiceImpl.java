@@ -1,20 +1,18 @@
 package com.example.apigateway.service.impl;
 
 import com.example.apigateway.dto.request.AuthRequest;
-import com.example.apigateway.dto.request.LoginRequest;
-import com.example.apigateway.dto.request.RefreshTokenRequest;
-import com.example.apigateway.dto.response.AuthResponse;
-import com.example.apigateway.dto.response.RefreshToken;
 import com.example.apigateway.entity.User;
 import com.example.apigateway.enumn.Permission;
 import com.example.apigateway.enumn.UserRoleEnum;
-import com.example.apigateway.exception.NotFoundException;
 import com.example.apigateway.mapper.UserMapper;
-import com.example.apigateway.repository.UserRepository;
 import com.example.apigateway.security.CustomUserDetail;
 import com.example.apigateway.service.IAuthService;
 import com.example.apigateway.service.IRefreshTokenService;
 import com.example.apigateway.service.ITokenService;
+import com.example.common.dto.request.LoginRequest;
+import com.example.common.dto.request.RefreshTokenRequest;
+import com.example.common.dto.response.AuthResponse;
+import com.example.common.dto.response.RefreshToken;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -40,8 +38,6 @@ public class AuthServiceImpl implements IAuthService {
 
     private final UserDetailsService userDetailsService;
 
-    private final UserRepository userRepository;
-
     private final UserMapper userMapper;
 
     private final AntPathMatcher pathMatcher = new AntPathMatcher();
@@ -57,7 +53,7 @@ public class AuthServiceImpl implements IAuthService {
         Authentication authentication = authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(loginRequest.getUsername(), loginRequest.getPassword()));
         User user = ((CustomUserDetail) authentication.getPrincipal()).getUser();
         String accessToken = tokenService.generateAccessToken(user.getUsername(), user);
-        RefreshToken refreshToken = refreshTokenService.createRefreshToken(user.getUsername());
+        RefreshToken refreshToken = refreshTokenService.createRefreshToken(user);
 
         AuthResponse response = new AuthResponse();
         response.setAccessToken(accessToken);
@@ -67,26 +63,21 @@ public class AuthServiceImpl implements IAuthService {
     }
 
     /**
-     * Generates a new access token using a valid refresh token.
+     * Rotates a refresh token and generates a new access token for its user.
+     * The user is read from the rotated token record, so a refresh costs one Redis round trip and no database query.
      *
      * @param refreshTokenRequest the request containing the refresh token
-     * @return an AuthResponse containing a new access token, the refresh token, username, and email
-     * @throws RuntimeException if the refresh token is invalid or expired
+     * @return an AuthResponse containing a new access token, the new refresh token and the user
+     * @throws com.example.apigateway.exception.UnAuthorizedException if the refresh token is invalid, expired or reused
      */
     @Override
     public AuthResponse refreshToken(RefreshTokenRequest refreshTokenRequest) {
-        RefreshToken refreshToken = refreshTokenService.findByToken(refreshTokenRequest.getRefreshToken())
-                .orElseThrow(() -> new NotFoundException("Refresh token not found"));
-        refreshTokenService.verifyExpiration(refreshToken);
-
-        User user = userRepository.findById(refreshToken.getUserId())
-                .orElseThrow(() -> new NotFoundException("User not found"));
-        String accessToken = tokenService.generateAccessToken(user.getUsername(), user);
+        RefreshToken refreshToken = refreshTokenService.rotate(refreshTokenRequest.getRefreshToken());
 
         AuthResponse response = new AuthResponse();
-        response.setAccessToken(accessToken);
+        response.setAccessToken(tokenService.generateAccessToken(refreshToken));
         response.setRefreshToken(refreshToken.getToken());
-        response.setUser(userMapper.mapEntityToResponse(user));
+        response.setUser(refreshToken.getUser());
         return response;
     }
 }
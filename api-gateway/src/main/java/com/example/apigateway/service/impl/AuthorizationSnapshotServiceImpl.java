@@ -0,0 +1,86 @@
+package com.example.apigateway.service.impl;
+
+import com.example.apigateway.service.IAuthorizationSnapshotService;
+import com.example.apigateway.service.IPermissionService;
+import com.example.common.security.AuthorizationSnapshot;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Implementation of {@link IAuthorizationSnapshotService}.
+ * Polls a cheap fingerprint of the permission tables and, when it changes, compiles a new snapshot
+ * in the background and publishes it with a single volatile write. Readers never take a lock.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AuthorizationSnapshotServiceImpl implements IAuthorizationSnapshotService {
+
+    private final IPermissionService permissionService;
+    private final AtomicLong versions = new AtomicLong();
+    private volatile AuthorizationSnapshot snapshot;
+
+    @PostConstruct
+    public void init() {
+        reload();
+    }
+
+    @Override
+    public AuthorizationSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Polls the permission fingerprint in the background.
+     */
+    @Scheduled(fixedDelayString = "${authorization.snapshot.poll-interval:30s}",
+            initialDelayString = "${authorization.snapshot.poll-interval:30s}")
+    public void poll() {
+        refreshIfChanged();
+    }
+
+    /**
+     * Rebuilds the snapshot when the permission fingerprint differs from the current one.
+     * A failed poll keeps serving the current snapshot.
+     *
+     * @return true if a new snapshot has been published, false otherwise
+     */
+    @Override
+    public boolean refreshIfChanged() {
+        try {
+            String fingerprint = permissionService.getPermissionsFingerprint();
+            if (Objects.equals(fingerprint, snapshot.getFingerprint())) {
+                return false;
+            }
+            publish(fingerprint);
+            return true;
+        } catch (DataAccessException e) {
+            log.warn("Unable to refresh the authorization snapshot, keeping version {}: {}", snapshot.getVersion(), e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public synchronized AuthorizationSnapshot reload() {
+        return publish(permissionService.getPermissionsFingerprint());
+    }
+
+    /**
+     * Builds and publishes a snapshot. The fingerprint is read before the rules,
+     * so a change racing with the build is picked up again by the next poll.
+     */
+    private synchronized AuthorizationSnapshot publish(String fingerprint) {
+        AuthorizationSnapshot next = AuthorizationSnapshot.of(versions.incrementAndGet(), fingerprint,
+                permissionService.getPermissionRules());
+        snapshot = next;
+        log.info("Published authorization snapshot version {} with {} rules", next.getVersion(), next.getRuleCount());
+        return next;
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.apigateway.service.impl;
+
+import com.example.apigateway.service.IGeoIpService;
+import com.example.common.geo.GeoIpDatabase;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.net.InetAddress;
+import java.util.Optional;
+
+/**
+ * MaxMind-backed implementation of {@link IGeoIpService}.
+ * Lookups go to the shared memory-mapped {@link GeoIpDatabase}; this service polls the file for changes
+ * and closes the database on shutdown.
+ */
+@Service
+public class GeoIpServiceImpl implements IGeoIpService {
+
+    private final GeoIpDatabase database;
+
+    public GeoIpServiceImpl(@Value("${geoip.database-path}") String databasePath,
+                            @Value("${geoip.cache.max-size:100000}") long cacheMaxSize,
+                            MeterRegistry meterRegistry) {
+        this.database = new GeoIpDatabase(databasePath, cacheMaxSize, meterRegistry);
+    }
+
+    @Override
+    public Optional<String> getCountryIsoCode(InetAddress address) {
+        return database.getCountryIsoCode(address);
+    }
+
+    /**
+     * Opens the database again when the file has been replaced.
+     */
+    @Scheduled(fixedDelayString = "${geoip.reload-interval:60s}", initialDelayString = "${geoip.reload-interval:60s}")
+    public void reloadIfChanged() {
+        database.reloadIfChanged();
+    }
+
+    @PreDestroy
+    public void close() {
+        database.close();
+    }
+}
@@ -3,6 +3,7 @@ package com.example.apigateway.service.impl;
 import com.example.apigateway.entity.Permission;
 import com.example.apigateway.repository.PermissionRepository;
 import com.example.apigateway.service.IPermissionService;
+import com.example.common.security.PermissionRuleView;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
@@ -33,4 +34,24 @@ public class PermissionServiceImpl implements IPermissionService {
     public List<Permission> getPermissionsByRoleName(String roleName) {
         return permissionRepository.getByRoleName(roleName);
     }
+
+    /**
+     * Retrieves every permission with the names of the roles granted it.
+     *
+     * @return one row per permission and role, ordered by permission id
+     */
+    @Override
+    public List<PermissionRuleView> getPermissionRules() {
+        return permissionRepository.findAllRules();
+    }
+
+    /**
+     * Computes a fingerprint of the permission and role data, used to detect changes.
+     *
+     * @return the current fingerprint
+     */
+    @Override
+    public String getPermissionsFingerprint() {
+        return permissionRepository.computeFingerprint();
+    }
 }
@@ -1,94 +1,150 @@
 package com.example.apigateway.service.impl;
 
-import com.example.apigateway.dto.response.RefreshToken;
 import com.example.apigateway.entity.User;
-import com.example.apigateway.exception.UnAuthorizedException;
+import com.example.apigateway.mapper.UserMapper;
 import com.example.apigateway.repository.UserRepository;
 import com.example.apigateway.service.IRefreshTokenService;
 import com.example.apigateway.service.ITokenService;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.example.apigateway.service.IUserRevocationService;
+import com.example.common.constant.CommonConstant;
+import com.example.common.dto.response.RefreshToken;
+import com.example.common.exception.NotFoundException;
+import com.example.common.exception.UnAuthorizedException;
+import com.example.common.security.RefreshTokenKeys;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.GenericToStringSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
-import java.util.LinkedHashMap;
-import java.util.Optional;
-import java.util.concurrent.TimeUnit;
-
+import java.util.List;
+
+/**
+ * Redis implementation of {@link IRefreshTokenService}, using the key layout described in {@link RefreshTokenKeys}.
+ * Scripts are called with binary arguments and replies, so token records travel in the encoding of the
+ * {@code refreshTokenSerializer}. Tokens stored by earlier versions under their raw value are accepted once and
+ * replaced by a new family.
+ */
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class RefreshTokenServiceImpl implements IRefreshTokenService {
 
-    private final RedisTemplate<String, Object> redisTemplate;
+    private static final RedisScript<Long> STORE_SCRIPT =
+            RedisScript.of(new ClassPathResource(RefreshTokenKeys.STORE_SCRIPT), Long.class);
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> ROTATE_SCRIPT =
+            RedisScript.of(new ClassPathResource(RefreshTokenKeys.ROTATE_SCRIPT), List.class);
+    private static final RedisSerializer<Long> INTEGER_REPLY = new GenericToStringSerializer<>(Long.class);
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static final RedisSerializer<List> BULK_REPLIES = (RedisSerializer) RedisSerializer.byteArray();
+
+    private final StringRedisTemplate stringRedisTemplate;
 
     private final UserRepository userRepository;
 
     private final ITokenService tokenService;
 
-    private static final String REFRESH_TOKEN_PREFIX = "refresh_token:";
+    private final UserMapper userMapper;
+
+    private final IUserRevocationService userRevocationService;
 
-    private final ObjectMapper objectMapper;
+    private final RedisSerializer<RefreshToken> refreshTokenSerializer;
 
     @Value("${JWT_REFRESH_EXPIRATION_MS}")
     private long jwtRefreshExpiration;
+
     /**
-     * Creates a new refresh token for a user and stores it in Redis.
+     * Creates a new refresh token for a user, starting a new token family, and stores it in Redis.
      *
-     * @param username the username of the user
+     * @param user the user
      * @return the created RefreshToken
-     * @throws RuntimeException if the user is not found
      */
-    public RefreshToken createRefreshToken(String username) {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new RuntimeException("User not found: " + username));
-
+    @Override
+    public RefreshToken createRefreshToken(User user) {
         RefreshToken refreshToken = new RefreshToken();
+        refreshToken.setToken(tokenService.generateRefreshToken(user.getUsername(), user));
+        refreshToken.setFamily(RefreshTokenKeys.newFamily());
         refreshToken.setUserId(user.getId());
-        String refreshTokenString = tokenService.generateRefreshToken(username, user);
-        refreshToken.setToken(refreshTokenString);
+        refreshToken.setRole(user.getRole().getName());
+        refreshToken.setUser(userMapper.mapEntityToResponse(user));
         refreshToken.setExpiryDate(Instant.now().plusMillis(jwtRefreshExpiration));
 
-        // Store in Redis with TTL
-        String redisKey = REFRESH_TOKEN_PREFIX + refreshToken.getToken();
-        redisTemplate.opsForValue().set(redisKey, refreshToken, jwtRefreshExpiration, TimeUnit.MILLISECONDS);
-
+        String digest = RefreshTokenKeys.digest(refreshToken.getToken());
+        stringRedisTemplate.execute(STORE_SCRIPT, RedisSerializer.byteArray(), INTEGER_REPLY,
+                List.of(RefreshTokenKeys.tokenKey(digest), RefreshTokenKeys.familyKey(refreshToken.getFamily())),
+                bytes(refreshToken.getFamily()), refreshTokenSerializer.serialize(refreshToken),
+                bytes(Long.toString(jwtRefreshExpiration)), bytes(digest));
         return refreshToken;
     }
 
     /**
-     * Finds a refresh token by its token value in Redis.
+     * Rotates a refresh token: the token is consumed and a successor in the same family is stored and returned,
+     * in a single Redis round trip. Presenting a token that was already rotated revokes its family. A token of a
+     * revoked, deleted or demoted user is refused before anything is rotated.
      *
-     * @param token the token value to search for
-     * @return an Optional containing the found RefreshToken, or empty if not found
+     * @param token the refresh token presented by the client
+     * @return the successor, carrying the user the family was issued to
+     * @throws UnAuthorizedException if the token is invalid, expired, reused or revoked
+     * @throws NotFoundException     if the token is not known
      */
     @Override
-    public Optional<RefreshToken> findByToken(String token) {
-        String redisKey = REFRESH_TOKEN_PREFIX + token;
-        Object data = redisTemplate.opsForValue().get(redisKey);
-
-        RefreshToken refreshToken = null;
-        if (data instanceof LinkedHashMap) {
-            refreshToken = objectMapper.convertValue(data, RefreshToken.class);
-        } else if (data instanceof RefreshToken) {
-            refreshToken = (RefreshToken) data;
+    public RefreshToken rotate(String token) {
+        Claims claims = verify(token);
+        if (userRevocationService.isRevoked(claims.get(CommonConstant.CLAIM_USER_ID, Long.class),
+                claims.get(CommonConstant.CLAIM_ROLE, String.class), claims.getIssuedAt())) {
+            throw new UnAuthorizedException("Refresh token was revoked. Please make a new sign-in request");
         }
-
-        return Optional.ofNullable(refreshToken);
+        String successor = tokenService.generateRefreshToken(claims);
+        String digest = RefreshTokenKeys.digest(token);
+        String successorDigest = RefreshTokenKeys.digest(successor);
+
+        List<?> result = stringRedisTemplate.execute(ROTATE_SCRIPT, RedisSerializer.byteArray(), BULK_REPLIES,
+                List.of(RefreshTokenKeys.tokenKey(digest), RefreshTokenKeys.tokenKey(successorDigest), RefreshTokenKeys.usedKey(digest),
+                        RefreshTokenKeys.userRevokedAtKey(claims.get(CommonConstant.CLAIM_USER_ID, Long.class))),
+                bytes(RefreshTokenKeys.FAMILY_PREFIX), bytes(RefreshTokenKeys.TOKEN_PREFIX), bytes(successorDigest),
+                bytes(Long.toString(claims.getIssuedAt().getTime() / 1000)));
+        String outcome = new String((byte[]) result.get(0), StandardCharsets.US_ASCII);
+        if (RefreshTokenKeys.ROTATED.equals(outcome)) {
+            RefreshToken refreshToken = refreshTokenSerializer.deserialize((byte[]) result.get(1));
+            refreshToken.setToken(successor);
+            return refreshToken;
+        }
+        if (RefreshTokenKeys.REUSED.equals(outcome)) {
+            log.warn("Refresh token of user {} was reused, its token family is revoked", claims.getSubject());
+            throw new UnAuthorizedException("Refresh token was already used. Please make a new sign-in request");
+        }
+        if (RefreshTokenKeys.REVOKED.equals(outcome)) {
+            throw new UnAuthorizedException("Refresh token was revoked. Please make a new sign-in request");
+        }
+        if (Boolean.TRUE.equals(stringRedisTemplate.delete(RefreshTokenKeys.legacyKey(token)))) {
+            User user = userRepository.findById(claims.get(CommonConstant.CLAIM_USER_ID, Long.class))
+                    .orElseThrow(() -> new NotFoundException("User not found"));
+            return createRefreshToken(user);
+        }
+        throw new NotFoundException("Refresh token not found");
     }
 
-    /**
-     * Verifies if a refresh token is still valid.
-     *
-     * @param token the refresh token to verify
-     * @throws UnAuthorizedException if the token is expired or not found
-     */
-    public void verifyExpiration(RefreshToken token) {
-        if (token.getExpiryDate().compareTo(Instant.now()) < 0) {
-            String redisKey = REFRESH_TOKEN_PREFIX + token.getToken();
-            redisTemplate.delete(redisKey);
+    private Claims verify(String token) {
+        try {
+            return tokenService.extractVerifiedClaims(token);
+        } catch (ExpiredJwtException e) {
             throw new UnAuthorizedException("Refresh token was expired. Please make a new sign-in request");
+        } catch (JwtException | IllegalArgumentException e) {
+            throw new UnAuthorizedException("Invalid refresh token");
         }
     }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
 }
@@ -2,19 +2,17 @@ package com.example.apigateway.service.impl;
 
 import com.example.apigateway.entity.User;
 import com.example.apigateway.service.ITokenService;
+import com.example.common.constant.CommonConstant;
+import com.example.common.dto.response.RefreshToken;
+import com.example.common.security.Hs256JwtVerifier;
+import com.example.common.security.JwtTokenIssuer;
 import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
+import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
-import java.security.Key;
 import java.util.Date;
-import java.util.HashMap;
-import java.util.Map;
 import java.util.function.Function;
 
 /**
@@ -22,10 +20,12 @@ import java.util.function.Function;
  * Provides methods for generating, validating, and extracting information from JWT tokens.
  */
 @Service
+@RequiredArgsConstructor
 public class TokenServiceImpl implements ITokenService {
 
-    @Value("${JWT_SECRET}")
-    private String secretKey;
+    private final Hs256JwtVerifier jwtVerifier;
+
+    private final JwtTokenIssuer jwtTokenIssuer;
 
     @Value("${JWT_ACCESS_EXPIRATION_MS}")
     private long jwtAccessExpiration;
@@ -60,7 +60,7 @@ public class TokenServiceImpl implements ITokenService {
      * @return the access token
      */
     public String generateAccessToken(String username, User user) {
-        return generateToken(new HashMap<>(), username, jwtAccessExpiration, user);
+        return generateToken(username, jwtAccessExpiration, user);
     }
 
     /**
@@ -69,27 +69,38 @@ public class TokenServiceImpl implements ITokenService {
      * @return the refresh token
      */
     public String generateRefreshToken(String username, User user) {
-        return generateToken(new HashMap<>(), username, jwtRefreshExpiration, user);
+        return jwtTokenIssuer.issueRefreshToken(username, user.getId(), user.getRole().getName(), jwtRefreshExpiration);
+    }
+
+    /**
+     * Generates an access token for the user a refresh token was issued to.
+     * @param refreshToken the refresh token record
+     * @return the access token
+     */
+    public String generateAccessToken(RefreshToken refreshToken) {
+        return jwtTokenIssuer.issue(refreshToken.getUser().getUsername(), refreshToken.getUserId(), refreshToken.getRole(),
+                jwtAccessExpiration);
     }
 
     /**
-     * Generates a JWT token with the given claims, user details, and expiration.
-     * @param extraClaims additional claims to include in the token
+     * Generates the successor of a verified refresh token: same subject, user and role, expiring at the same time.
+     * @param claims the verified claims of the refresh token
+     * @return the new refresh token
+     */
+    public String generateRefreshToken(Claims claims) {
+        long remaining = claims.getExpiration().getTime() - System.currentTimeMillis();
+        return jwtTokenIssuer.issueRefreshToken(claims.getSubject(), claims.get(CommonConstant.CLAIM_USER_ID, Long.class),
+                claims.get(CommonConstant.CLAIM_ROLE, String.class), Math.max(0, remaining));
+    }
+
+    /**
+     * Generates a JWT token carrying the user id and role of the user.
      * @param username the of the user
      * @param expiration the expiration time in milliseconds
      * @return the generated JWT token
      */
-    private String generateToken(Map<String, Object> extraClaims, String username, long expiration, User user) {
-        extraClaims.put("userId", user.getId());
-        extraClaims.put("role", user.getRole().getName());
-        return Jwts
-                .builder()
-                .setClaims(extraClaims)
-                .setSubject(username)
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSignInKey(), SignatureAlgorithm.HS256)
-                .compact();
+    private String generateToken(String username, long expiration, User user) {
+        return jwtTokenIssuer.issue(username, user.getId(), user.getRole().getName(), expiration);
     }
 
     /**
@@ -103,6 +114,25 @@ public class TokenServiceImpl implements ITokenService {
         return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
     }
 
+    /**
+     * Parses the JWT token and verifies its signature and expiration.
+     * @param token the JWT token
+     * @return the verified claims
+     */
+    public Claims extractVerifiedClaims(String token) {
+        return extractAllClaims(token);
+    }
+
+    /**
+     * Validates already verified claims for the given user details.
+     * @param claims the verified claims of the token
+     * @param userDetails the user details
+     * @return true if the claims belong to the user and are not expired, false otherwise
+     */
+    public boolean isTokenValid(Claims claims, UserDetails userDetails) {
+        return userDetails.getUsername().equals(claims.getSubject()) && claims.getExpiration().after(new Date());
+    }
+
     /**
      * Checks if the JWT token is expired.
      * @param token the JWT token
@@ -127,20 +157,6 @@ public class TokenServiceImpl implements ITokenService {
      * @return the claims
      */
     private Claims extractAllClaims(String token) {
-        return Jwts
-                .parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-    }
-
-    /**
-     * Returns the signing key for JWT operations.
-     * @return the signing key
-     */
-    private Key getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+        return jwtVerifier.verify(token);
     }
 }
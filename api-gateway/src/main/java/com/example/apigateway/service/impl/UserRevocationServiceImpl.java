@@ -0,0 +1,133 @@
+package com.example.apigateway.service.impl;
+
+import com.example.apigateway.repository.UserRepository;
+import com.example.apigateway.service.IUserRevocationService;
+import com.example.common.security.RefreshTokenKeys;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Redis-backed implementation of {@link IUserRevocationService}.
+ * Stores, per user, the epoch second before which issued tokens are no longer accepted.
+ * Users are deleted and demoted outside of the gateway, so the role of every user seen is also read from the database
+ * and compared with the role of the token; a mismatch revokes the tokens issued up to the stale one.
+ * Both lookups are cached locally so the request path rarely leaves the gateway. Redis and the database are read
+ * outside of the caches' compute locks, so a virtual thread waiting on them is never pinned.
+ */
+@Slf4j
+@Service
+public class UserRevocationServiceImpl implements IUserRevocationService {
+
+    private static final String REVOKED_AT_PREFIX = RefreshTokenKeys.USER_REVOKED_AT_PREFIX;
+    private static final long NOT_REVOKED = 0L;
+    private static final String NO_ACTIVE_ROLE = "";
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final UserRepository userRepository;
+    private final Cache<Long, Long> revokedAtCache;
+    private final Cache<Long, String> activeRoleCache;
+
+    @Value("${JWT_ACCESS_EXPIRATION_MS}")
+    private long jwtAccessExpiration;
+
+    @Value("${JWT_REFRESH_EXPIRATION_MS}")
+    private long jwtRefreshExpiration;
+
+    public UserRevocationServiceImpl(StringRedisTemplate stringRedisTemplate, UserRepository userRepository,
+                                     @Value("${jwt.revocation.cache-ttl:5s}") Duration cacheTtl,
+                                     @Value("${jwt.revocation.role-cache-ttl:30s}") Duration roleCacheTtl) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.userRepository = userRepository;
+        this.revokedAtCache = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterWrite(cacheTtl)
+                .build();
+        this.activeRoleCache = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterWrite(roleCacheTtl)
+                .build();
+    }
+
+    /**
+     * Revokes every access and refresh token issued to the user up to now.
+     * The mark only needs to outlive the longest-lived token; refresh tokens are checked against it when rotated.
+     *
+     * @param userId the id of the user
+     */
+    @Override
+    public void revokeUser(Long userId) {
+        markRevoked(userId, Instant.now().getEpochSecond());
+        activeRoleCache.invalidate(userId);
+    }
+
+    /**
+     * Checks whether a token issued to the user at the given time, carrying the given role, has been revoked.
+     * JWT timestamps have second precision, so a token issued in the same second as the revocation is rejected too.
+     * A token whose role no longer matches the user's is revoked together with the older tokens of the user, but not
+     * the newer ones, so signing in again after a role change is not undone by an old token still in use.
+     *
+     * @param userId   the id of the user
+     * @param role     the role carried by the token
+     * @param issuedAt the issued-at time of the token
+     * @return true if the token has been revoked, false otherwise
+     */
+    @Override
+    public boolean isRevoked(Long userId, String role, Date issuedAt) {
+        long revokedAt = revokedAt(userId);
+        if (revokedAt != NOT_REVOKED && (issuedAt == null || issuedAt.getTime() / 1000 <= revokedAt)) {
+            return true;
+        }
+        if (activeRole(userId).equals(role)) {
+            return false;
+        }
+        log.info("Revoking the tokens of user {} issued with the stale role {}", userId, role);
+        markRevoked(userId, issuedAt == null ? Instant.now().getEpochSecond() : issuedAt.getTime() / 1000);
+        return true;
+    }
+
+    private long revokedAt(Long userId) {
+        Long revokedAt = revokedAtCache.getIfPresent(userId);
+        if (revokedAt == null) {
+            revokedAt = loadRevokedAt(userId);
+            // Never overwrite a revocation recorded while Redis was being read
+            Long previous = revokedAtCache.asMap().putIfAbsent(userId, revokedAt);
+            return previous == null ? revokedAt : previous;
+        }
+        return revokedAt;
+    }
+
+    private String activeRole(Long userId) {
+        String role = activeRoleCache.getIfPresent(userId);
+        if (role == null) {
+            role = userRepository.findActiveRoleNameById(userId).orElse(NO_ACTIVE_ROLE);
+            activeRoleCache.put(userId, role);
+        }
+        return role;
+    }
+
+    /**
+     * Moves the revocation mark of the user forward; a mark is never moved back.
+     */
+    private void markRevoked(Long userId, long revokedAt) {
+        if (revokedAt <= revokedAt(userId)) {
+            return;
+        }
+        stringRedisTemplate.opsForValue().set(REVOKED_AT_PREFIX + userId, Long.toString(revokedAt),
+                Math.max(jwtAccessExpiration, jwtRefreshExpiration), TimeUnit.MILLISECONDS);
+        revokedAtCache.put(userId, revokedAt);
+    }
+
+    private Long loadRevokedAt(Long userId) {
+        String value = stringRedisTemplate.opsForValue().get(REVOKED_AT_PREFIX + userId);
+        return value == null ? NOT_REVOKED : Long.parseLong(value);
+    }
+}
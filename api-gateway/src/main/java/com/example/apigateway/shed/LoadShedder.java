@@ -0,0 +1,300 @@
+package com.example.apigateway.shed;
+
+import com.example.apigateway.enumn.Permission;
+import com.example.apigateway.enumn.UserRoleEnum;
+import com.example.common.routing.RouteTrie;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Priority-aware admission control of proxied requests.
+ * The load is the larger of the in-flight ratio to {@code load-shedding.max-in-flight} and the ratio of the recent
+ * average latency to {@code load-shedding.latency-threshold}. Each priority class is admitted while the load is
+ * below its {@code shed-at} level, so anonymous browsing is shed first and critical mutations last; above it a
+ * request waits in the bounded queue of its class for the load to drop, and is shed when the queue is full or the
+ * wait times out. The in-flight cap applies to every class. Admission outcomes are counted per class in
+ * {@code gateway.load-shedding.requests}.
+ * <p>
+ * Queued requests hold a worker thread without holding a bulkhead slot, so on platform threads the in-flight cap
+ * and the queues together are kept within {@code server.tomcat.threads.max} less
+ * {@code load-shedding.reserved-threads}, leaving threads for the endpoints that are not proxied.
+ * Each class waits on its own condition, and a released slot wakes one waiter of the most important class that may
+ * be admitted instead of every queued request.
+ */
+@Slf4j
+@Component
+public class LoadShedder {
+
+    private static final String PREFIX = "load-shedding";
+    private static final int DEFAULT_WORKER_THREADS = 200;
+
+    private final Environment environment;
+    private final MeterRegistry meterRegistry;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<RequestPriority, ClassState> classes = new EnumMap<>(RequestPriority.class);
+    private volatile Settings settings;
+
+    private int inFlight;
+    private int queued;
+    private double latencyNanos;
+    private long lastSampleNanos = System.nanoTime();
+
+    public LoadShedder(Environment environment, MeterRegistry meterRegistry) {
+        this.environment = environment;
+        this.meterRegistry = meterRegistry;
+        for (RequestPriority priority : RequestPriority.values()) {
+            classes.put(priority, new ClassState(priority));
+        }
+        Gauge.builder("gateway.load-shedding.load", this, LoadShedder::getLoad)
+                .description("Load of the gateway, where 1 is the in-flight cap or the latency threshold")
+                .register(meterRegistry);
+        Gauge.builder("gateway.load-shedding.in-flight", this, LoadShedder::getInFlight)
+                .description("Proxied requests in flight")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void init() {
+        bind();
+    }
+
+    @EventListener
+    public void onEnvironmentChange(EnvironmentChangeEvent event) {
+        if (event.getKeys().stream().anyMatch(key -> key.startsWith(PREFIX + "."))) {
+            bind();
+            log.info("Reloaded load shedding settings");
+        }
+    }
+
+    public boolean isEnabled() {
+        return settings.properties.isEnabled();
+    }
+
+    /**
+     * Classifies a proxied request.
+     *
+     * @param method  the request method
+     * @param path    the request path, without the context path
+     * @param routeId the gateway route id
+     * @param role    the role of the user, or null for an anonymous request
+     * @return the priority of the request
+     */
+    public RequestPriority classify(HttpMethod method, String path, String routeId, String role) {
+        Settings current = settings;
+        if (current.criticalRequests.find(method, path) != null) {
+            return RequestPriority.CRITICAL;
+        }
+        UserRoleEnum userRole = resolveRole(role);
+        RequestPriority priority = current.properties.getRoles().getOrDefault(userRole, RequestPriority.LOW);
+        return priority.atMost(current.properties.getRoutes().get(routeId));
+    }
+
+    /**
+     * Admits a request of a given priority, waiting in the queue of its class if the gateway is overloaded.
+     *
+     * @param priority the priority of the request
+     * @return true if the request was admitted and {@link #release(long)} must be called when it completes,
+     * false if it was shed
+     */
+    public boolean tryAcquire(RequestPriority priority) {
+        Settings current = settings;
+        LoadSheddingProperties.PriorityClass priorityClass = current.properties.getClasses().get(priority);
+        ClassState state = classes.get(priority);
+        long deadline = System.nanoTime() + current.properties.getQueueTimeout().toNanos();
+        boolean waiting = false;
+        lock.lock();
+        try {
+            while (!isAdmissible(priorityClass)) {
+                if (!waiting) {
+                    if (priorityClass == null || state.queued >= priorityClass.getMaxQueue()
+                            || queued >= current.maxQueued) {
+                        state.shed.increment();
+                        return false;
+                    }
+                    state.queued++;
+                    queued++;
+                    waiting = true;
+                }
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    state.shed.increment();
+                    return false;
+                }
+                state.released.awaitNanos(remaining);
+            }
+            inFlight++;
+            state.accepted.increment();
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            state.shed.increment();
+            return false;
+        } finally {
+            if (waiting) {
+                state.queued--;
+                queued--;
+            }
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Releases the slot of an admitted request and records its latency.
+     *
+     * @param latencyNanos the time the request took
+     */
+    public void release(long latencyNanos) {
+        lock.lock();
+        try {
+            inFlight--;
+            long now = System.nanoTime();
+            double weight = 1 - Math.exp(-(double) (now - lastSampleNanos) / settings.decayNanos);
+            this.latencyNanos += (latencyNanos - this.latencyNanos) * weight;
+            lastSampleNanos = now;
+            signalNext();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getInFlight() {
+        return inFlight;
+    }
+
+    public double getLoad() {
+        lock.lock();
+        try {
+            return load();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean isAdmissible(LoadSheddingProperties.PriorityClass priorityClass) {
+        return priorityClass != null && inFlight < settings.maxInFlight
+                && (priorityClass.getShedAt() == null || load() < priorityClass.getShedAt());
+    }
+
+    private double load() {
+        // The average fades while no request completes, so an idle gateway is not stuck with the last latency seen.
+        double latency = latencyNanos * Math.exp(-(double) (System.nanoTime() - lastSampleNanos) / settings.decayNanos);
+        return Math.max((double) inFlight / settings.maxInFlight,
+                latency / settings.properties.getLatencyThreshold().toNanos());
+    }
+
+    /**
+     * Wakes one waiter of the most important class with queued requests, if it may be admitted. Less important
+     * classes shed at a lower load, so they are not admissible either when that class is not.
+     */
+    private void signalNext() {
+        for (RequestPriority priority : RequestPriority.values()) {
+            ClassState state = classes.get(priority);
+            if (state.queued > 0) {
+                if (isAdmissible(settings.properties.getClasses().get(priority))) {
+                    state.released.signal();
+                }
+                return;
+            }
+        }
+    }
+
+    private static UserRoleEnum resolveRole(String role) {
+        if (role == null) {
+            return UserRoleEnum.ANONYMOUS;
+        }
+        for (UserRoleEnum value : UserRoleEnum.values()) {
+            if (value.name().equalsIgnoreCase(role)) {
+                return value;
+            }
+        }
+        return UserRoleEnum.USER;
+    }
+
+    private void bind() {
+        LoadSheddingProperties bound = Binder.get(environment)
+                .bind(PREFIX, LoadSheddingProperties.class)
+                .orElseGet(LoadSheddingProperties::new);
+        RouteTrie<Permission> criticalRequests = new RouteTrie<>();
+        for (Permission permission : bound.getCriticalPermissions()) {
+            criticalRequests.add(permission.getMethod(), permission.getEndpoint(), permission);
+        }
+        long decayNanos = bound.getLatencyDecay().toNanos();
+        int maxInFlight = bound.getMaxInFlight();
+        int maxQueued = Integer.MAX_VALUE;
+        if (!Threading.VIRTUAL.isActive(environment)) {
+            int workerThreads = Binder.get(environment).bind("server.tomcat.threads.max", Integer.class)
+                    .orElse(DEFAULT_WORKER_THREADS);
+            int available = Math.max(1, workerThreads - bound.getReservedThreads());
+            if (maxInFlight > available) {
+                log.warn("load-shedding.max-in-flight {} leaves fewer than {} of the {} worker threads free, capped to {}",
+                        maxInFlight, bound.getReservedThreads(), workerThreads, available);
+                maxInFlight = available;
+            }
+            maxQueued = available - maxInFlight;
+        }
+        lock.lock();
+        try {
+            settings = new Settings(bound, criticalRequests, decayNanos, maxInFlight, maxQueued);
+            classes.values().forEach(state -> state.released.signalAll());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static final class Settings {
+        private final LoadSheddingProperties properties;
+        private final RouteTrie<Permission> criticalRequests;
+        private final long decayNanos;
+        private final int maxInFlight;
+        private final int maxQueued;
+
+        private Settings(LoadSheddingProperties properties, RouteTrie<Permission> criticalRequests, long decayNanos,
+                         int maxInFlight, int maxQueued) {
+            this.properties = properties;
+            this.criticalRequests = criticalRequests;
+            this.decayNanos = decayNanos;
+            this.maxInFlight = maxInFlight;
+            this.maxQueued = maxQueued;
+        }
+    }
+
+    private final class ClassState {
+        private final Counter accepted;
+        private final Counter shed;
+        private final Condition released = lock.newCondition();
+        private int queued;
+
+        private ClassState(RequestPriority priority) {
+            this.accepted = counter(priority, "accepted");
+            this.shed = counter(priority, "shed");
+            Gauge.builder("gateway.load-shedding.queued", this, state -> state.queued)
+                    .description("Requests waiting for the load to drop")
+                    .tag("priority", priority.name())
+                    .register(meterRegistry);
+        }
+
+        private Counter counter(RequestPriority priority, String outcome) {
+            return Counter.builder("gateway.load-shedding.requests")
+                    .description("Proxied requests by priority class and admission outcome")
+                    .tag("priority", priority.name())
+                    .tag("outcome", outcome)
+                    .register(meterRegistry);
+        }
+    }
+}
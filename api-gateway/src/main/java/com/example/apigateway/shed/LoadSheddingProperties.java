@@ -0,0 +1,99 @@
+package com.example.apigateway.shed;
+
+import com.example.apigateway.enumn.Permission;
+import com.example.apigateway.enumn.UserRoleEnum;
+import lombok.Data;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Load shedding settings bound from the {@code load-shedding} configuration prefix.
+ */
+@Data
+public class LoadSheddingProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Hard cap on the proxied requests in flight, whatever their priority. On platform threads it must stay below
+     * the worker threads less {@link #reservedThreads}, and is capped there otherwise.
+     */
+    private int maxInFlight = 150;
+
+    /**
+     * Worker threads kept free of proxied requests, admitted or queued, for the endpoints that are not proxied.
+     * Ignored on virtual threads.
+     */
+    private int reservedThreads = 20;
+
+    /**
+     * Average latency of the proxied requests above which the gateway is considered overloaded.
+     */
+    private Duration latencyThreshold = Duration.ofSeconds(1);
+
+    /**
+     * Time after which an old latency sample has lost about two thirds of its weight.
+     */
+    private Duration latencyDecay = Duration.ofSeconds(5);
+
+    /**
+     * Priority of the requests of each role.
+     */
+    private Map<UserRoleEnum, RequestPriority> roles = new EnumMap<>(Map.of(
+            UserRoleEnum.ADMIN, RequestPriority.HIGH,
+            UserRoleEnum.USER, RequestPriority.NORMAL,
+            UserRoleEnum.ANONYMOUS, RequestPriority.LOW));
+
+    /**
+     * Lowest priority the requests of a gateway route id may have, whatever the role.
+     */
+    private Map<String, RequestPriority> routes = new LinkedHashMap<>();
+
+    /**
+     * Permissions whose requests are always critical.
+     */
+    private List<Permission> criticalPermissions = new ArrayList<>();
+
+    /**
+     * Admission settings of each priority class.
+     */
+    private Map<RequestPriority, PriorityClass> classes = new EnumMap<>(Map.of(
+            RequestPriority.CRITICAL, new PriorityClass(null, 15),
+            RequestPriority.HIGH, new PriorityClass(0.95, 10),
+            RequestPriority.NORMAL, new PriorityClass(0.8, 5),
+            RequestPriority.LOW, new PriorityClass(0.6, 0)));
+
+    /**
+     * Longest time a queued request waits for the load to drop before it is shed.
+     */
+    private Duration queueTimeout = Duration.ofMillis(200);
+
+    @Data
+    public static class PriorityClass {
+
+        /**
+         * Load above which the requests of the class are no longer admitted directly, where 1 is either the
+         * in-flight cap or the latency threshold; unset for a class limited by the in-flight cap only.
+         */
+        private Double shedAt;
+
+        /**
+         * Maximum number of requests of the class waiting for the load to drop; 0 sheds them at once. On platform
+         * threads, all classes together also wait within the worker threads left by the in-flight cap.
+         */
+        private int maxQueue;
+
+        public PriorityClass() {
+        }
+
+        public PriorityClass(Double shedAt, int maxQueue) {
+            this.shedAt = shedAt;
+            this.maxQueue = maxQueue;
+        }
+    }
+}
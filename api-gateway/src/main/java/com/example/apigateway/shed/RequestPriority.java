@@ -0,0 +1,21 @@
+package com.example.apigateway.shed;
+
+/**
+ * Priority classes of proxied requests, from the last shed to the first shed.
+ */
+public enum RequestPriority {
+    CRITICAL,
+    HIGH,
+    NORMAL,
+    LOW;
+
+    /**
+     * Returns the less important of two priorities.
+     *
+     * @param other the other priority, or null
+     * @return the less important priority
+     */
+    public RequestPriority atMost(RequestPriority other) {
+        return other == null || other.ordinal() <= ordinal() ? this : other;
+    }
+}
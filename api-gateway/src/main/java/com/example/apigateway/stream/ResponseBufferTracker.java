@@ -0,0 +1,64 @@
+package com.example.apigateway.stream;
+
+import jakarta.servlet.ServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+/**
+ * Accounts for the response body bytes the gateway holds in memory for one request: the copy buffer of the proxy
+ * and the bounded captures of the response cache and of request coalescing. Only the request thread updates it.
+ */
+public final class ResponseBufferTracker {
+
+    private static final String ATTRIBUTE = ResponseBufferTracker.class.getName();
+
+    private long current;
+    private long peak;
+
+    private ResponseBufferTracker() {
+    }
+
+    /**
+     * Returns the tracker of a request, creating it on first use.
+     *
+     * @param request the incoming request
+     * @return the tracker
+     */
+    public static ResponseBufferTracker of(ServletRequest request) {
+        ResponseBufferTracker tracker = (ResponseBufferTracker) request.getAttribute(ATTRIBUTE);
+        if (tracker == null) {
+            tracker = new ResponseBufferTracker();
+            request.setAttribute(ATTRIBUTE, tracker);
+        }
+        return tracker;
+    }
+
+    /**
+     * Returns the tracker of the request bound to the current thread.
+     *
+     * @return the tracker, or null outside of a request
+     */
+    public static ResponseBufferTracker current() {
+        return RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes
+                ? of(attributes.getRequest())
+                : null;
+    }
+
+    public void allocate(long bytes) {
+        current += bytes;
+        peak = Math.max(peak, current);
+    }
+
+    public void release(long bytes) {
+        current -= bytes;
+    }
+
+    /**
+     * Returns the largest number of bytes held at once so far.
+     *
+     * @return the peak, in bytes
+     */
+    public long getPeak() {
+        return peak;
+    }
+}
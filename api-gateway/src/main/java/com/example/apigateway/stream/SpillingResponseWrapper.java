@@ -0,0 +1,270 @@
+package com.example.apigateway.stream;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.FastByteArrayOutputStream;
+import org.springframework.web.util.WebUtils;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+
+/**
+ * Response wrapper buffering the body in memory up to a limit, for the filters that keep a copy of small responses.
+ * A body growing past the limit spills: the buffered bytes are written out and the rest streams straight through,
+ * so a large response never costs more than the limit. Until it spills the wrapper holds back the
+ * {@code Content-Length} and flushes, so the filter may still change the status and headers.
+ * Nested filters share the buffer of the outermost wrapper, see {@link #find(ServletResponse)}, rather than each
+ * holding a copy of the same body.
+ */
+public class SpillingResponseWrapper extends HttpServletResponseWrapper {
+
+    private long limit;
+    private final ResponseBufferTracker tracker;
+    private final FastByteArrayOutputStream buffer = new FastByteArrayOutputStream(1024);
+    private boolean spilled;
+    private Long contentLength;
+    private ServletOutputStream outputStream;
+    private PrintWriter writer;
+
+    /**
+     * @param request  the request, whose {@link ResponseBufferTracker} accounts for the buffer
+     * @param response the response to wrap
+     * @param limit    the largest body kept in memory, in bytes
+     */
+    public SpillingResponseWrapper(HttpServletRequest request, HttpServletResponse response, long limit) {
+        super(response);
+        this.limit = limit;
+        this.tracker = ResponseBufferTracker.of(request);
+    }
+
+    /**
+     * Returns the wrapper an outer filter put around the response, so that a nested filter reads the body from its
+     * buffer instead of buffering it a second time. The outer filter still writes the body out.
+     *
+     * @param response the response given to the nested filter
+     * @return the outer wrapper, or null if the response is not buffered
+     */
+    public static SpillingResponseWrapper find(ServletResponse response) {
+        return WebUtils.getNativeResponse(response, SpillingResponseWrapper.class);
+    }
+
+    /**
+     * Raises the limit to what a nested filter sharing the buffer needs; a body that already spilled stays spilled.
+     *
+     * @param limit the largest body the nested filter keeps, in bytes
+     */
+    public void raiseLimit(long limit) {
+        this.limit = Math.max(this.limit, limit);
+    }
+
+    /**
+     * Tells whether the body outgrew the limit and was streamed through.
+     *
+     * @return true if the body is no longer available
+     */
+    public boolean isSpilled() {
+        return spilled;
+    }
+
+    public int getContentSize() {
+        return spilled ? -1 : buffer.size();
+    }
+
+    /**
+     * Returns the buffered body.
+     *
+     * @return the body
+     * @throws IllegalStateException if the body spilled
+     */
+    public byte[] getContentAsByteArray() {
+        if (spilled) {
+            throw new IllegalStateException("The response body outgrew the buffer and was streamed");
+        }
+        return buffer.toByteArray();
+    }
+
+    /**
+     * Writes the buffered body, if any, to the wrapped response.
+     *
+     * @throws IOException if the body cannot be written
+     */
+    public void copyBodyToResponse() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        if (spilled) {
+            return;
+        }
+        int size = buffer.size();
+        if (!isCommitted()) {
+            super.setContentLengthLong(size);
+        }
+        if (size > 0) {
+            buffer.writeTo(super.getOutputStream());
+        }
+        discard();
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (outputStream == null) {
+            outputStream = new SpillingOutputStream();
+        }
+        return outputStream;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (writer == null) {
+            writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), getCharacterEncoding()));
+        }
+        return writer;
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        if (spilled) {
+            super.flushBuffer();
+        }
+    }
+
+    @Override
+    public void resetBuffer() {
+        if (!spilled) {
+            tracker.release(buffer.size());
+            buffer.reset();
+        }
+        super.resetBuffer();
+    }
+
+    @Override
+    public void reset() {
+        resetBuffer();
+        contentLength = null;
+        super.reset();
+    }
+
+    @Override
+    public void setContentLength(int len) {
+        setContentLengthLong(len);
+    }
+
+    @Override
+    public void setContentLengthLong(long len) {
+        if (spilled) {
+            super.setContentLengthLong(len);
+        } else {
+            contentLength = len;
+        }
+    }
+
+    @Override
+    public void setHeader(String name, String value) {
+        if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+            setContentLengthLong(Long.parseLong(value));
+        } else {
+            super.setHeader(name, value);
+        }
+    }
+
+    @Override
+    public void addHeader(String name, String value) {
+        if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+            setContentLengthLong(Long.parseLong(value));
+        } else {
+            super.addHeader(name, value);
+        }
+    }
+
+    @Override
+    public void setIntHeader(String name, int value) {
+        if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+            setContentLengthLong(value);
+        } else {
+            super.setIntHeader(name, value);
+        }
+    }
+
+    @Override
+    public void addIntHeader(String name, int value) {
+        if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+            setContentLengthLong(value);
+        } else {
+            super.addIntHeader(name, value);
+        }
+    }
+
+    private void spill() throws IOException {
+        spilled = true;
+        if (contentLength != null) {
+            super.setContentLengthLong(contentLength);
+        }
+        buffer.writeTo(super.getOutputStream());
+        discard();
+    }
+
+    private void discard() {
+        tracker.release(buffer.size());
+        buffer.reset();
+    }
+
+    private final class SpillingOutputStream extends ServletOutputStream {
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (!spilled && buffer.size() + (long) len > limit) {
+                spill();
+            }
+            if (spilled) {
+                SpillingResponseWrapper.super.getOutputStream().write(b, off, len);
+                return;
+            }
+            buffer.write(b, off, len);
+            tracker.allocate(len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (spilled) {
+                SpillingResponseWrapper.super.getOutputStream().flush();
+            }
+        }
+
+        @Override
+        public boolean isReady() {
+            // Writes into the buffer never block; once spilled, they go to the wrapped stream
+            if (!spilled) {
+                return true;
+            }
+            try {
+                return SpillingResponseWrapper.super.getOutputStream().isReady();
+            } catch (IOException e) {
+                return false;
+            }
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            // The container notifies the listener from the wrapped stream, which the body reaches once spilled
+            try {
+                SpillingResponseWrapper.super.getOutputStream().setWriteListener(writeListener);
+            } catch (IOException e) {
+                throw new IllegalStateException("Cannot register the write listener on the response", e);
+            }
+        }
+    }
+}
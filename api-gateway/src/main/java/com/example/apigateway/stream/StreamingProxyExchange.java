@@ -0,0 +1,61 @@
+package com.example.apigateway.stream;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cloud.gateway.server.mvc.config.GatewayMvcProperties;
+import org.springframework.cloud.gateway.server.mvc.handler.RestClientProxyExchange;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.web.client.RestClient;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Proxy exchange streaming every upstream body to the client in fixed-size chunks, flushed one by one, so the client
+ * gets the first bytes as soon as the service sends them. The blocking servlet output stream provides the
+ * back-pressure: while the client does not read, the next chunk is not read from the service either.
+ * Response headers are written by the gateway before the body, without buffering it. The peak of the response bytes
+ * held in memory for each request is recorded in {@code gateway.proxy.response.buffered}.
+ */
+public class StreamingProxyExchange extends RestClientProxyExchange {
+
+    private final int chunkSize;
+    private final DistributionSummary bufferedBytes;
+
+    public StreamingProxyExchange(RestClient restClient, GatewayMvcProperties properties, int chunkSize,
+                                  MeterRegistry meterRegistry) {
+        super(restClient, properties);
+        this.chunkSize = chunkSize;
+        this.bufferedBytes = DistributionSummary.builder("gateway.proxy.response.buffered")
+                .description("Peak response body bytes held in gateway memory per proxied request")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected int copyResponseBody(ClientHttpResponse clientResponse, InputStream inputStream, OutputStream outputStream)
+            throws IOException {
+        ResponseBufferTracker tracker = ResponseBufferTracker.current();
+        if (tracker != null) {
+            tracker.allocate(chunkSize);
+        }
+        byte[] chunk = new byte[chunkSize];
+        long total = 0;
+        try {
+            int read;
+            while ((read = inputStream.read(chunk)) != -1) {
+                outputStream.write(chunk, 0, read);
+                outputStream.flush();
+                total += read;
+            }
+            // Bodies past 2 GiB are reported as Integer.MAX_VALUE rather than failing the copy
+            return (int) Math.min(total, Integer.MAX_VALUE);
+        } finally {
+            if (tracker != null) {
+                tracker.release(chunkSize);
+                bufferedBytes.record(tracker.getPeak());
+            }
+        }
+    }
+}
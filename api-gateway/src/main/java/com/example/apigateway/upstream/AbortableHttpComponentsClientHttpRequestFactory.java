@@ -0,0 +1,29 @@
+package com.example.apigateway.upstream;
+
+import com.example.apigateway.hedge.HedgeAttempt;
+import org.apache.hc.client5.http.classic.HttpClient;
+import org.apache.hc.core5.concurrent.Cancellable;
+import org.apache.hc.core5.http.ClassicHttpRequest;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+
+import java.net.URI;
+
+/**
+ * HttpClient 5 request factory whose requests can be aborted by the request hedger while they wait for a response.
+ */
+public class AbortableHttpComponentsClientHttpRequestFactory extends HttpComponentsClientHttpRequestFactory {
+
+    public AbortableHttpComponentsClientHttpRequestFactory(HttpClient httpClient) {
+        super(httpClient);
+    }
+
+    @Override
+    protected ClassicHttpRequest createHttpUriRequest(HttpMethod httpMethod, URI uri) {
+        ClassicHttpRequest request = super.createHttpUriRequest(httpMethod, uri);
+        if (request instanceof Cancellable cancellable) {
+            HedgeAttempt.bind(cancellable);
+        }
+        return request;
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.apigateway.upstream;
+
+import com.example.apigateway.routing.GatewayRouteResolver;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.Map;
+
+/**
+ * Request factory of the gateway proxy client that sends each upstream call through the client of the service it
+ * is load-balanced over. The service is resolved from the route of the incoming request; calls of other routes,
+ * and calls made outside of a request, go through the fallback factory.
+ */
+public class UpstreamClientHttpRequestFactory implements ClientHttpRequestFactory {
+
+    private final GatewayRouteResolver gatewayRouteResolver;
+    private final Map<String, ClientHttpRequestFactory> services;
+    private final ClientHttpRequestFactory fallback;
+
+    public UpstreamClientHttpRequestFactory(GatewayRouteResolver gatewayRouteResolver,
+                                            Map<String, ClientHttpRequestFactory> services,
+                                            ClientHttpRequestFactory fallback) {
+        this.gatewayRouteResolver = gatewayRouteResolver;
+        this.services = Map.copyOf(services);
+        this.fallback = fallback;
+    }
+
+    @Override
+    public ClientHttpRequest createRequest(URI uri, HttpMethod httpMethod) throws IOException {
+        ClientHttpRequestFactory factory = fallback;
+        if (!services.isEmpty() && RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+            String serviceId = gatewayRouteResolver.resolveServiceId(attributes.getRequest());
+            if (serviceId != null) {
+                factory = services.getOrDefault(serviceId, fallback);
+            }
+        }
+        return factory.createRequest(uri, httpMethod);
+    }
+}
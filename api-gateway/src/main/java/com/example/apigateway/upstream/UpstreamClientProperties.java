@@ -0,0 +1,70 @@
+package com.example.apigateway.upstream;
+
+import lombok.Data;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Upstream client settings bound from the {@code upstream-client} configuration prefix.
+ * Every service listed under {@code services} gets a client of its own; the other upstream calls use the client
+ * Spring Boot builds from the {@code spring.http.client} settings.
+ */
+@Data
+public class UpstreamClientProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Client settings per load-balanced service id.
+     */
+    private Map<String, ServiceClient> services = new LinkedHashMap<>();
+
+    public enum Protocol {
+        /**
+         * HTTP/1.1 over a pool of persistent connections, one request per connection at a time.
+         */
+        HTTP_1_1,
+        /**
+         * Cleartext HTTP/2, multiplexing the requests to an instance over a single connection.
+         */
+        H2C
+    }
+
+    @Data
+    public static class ServiceClient {
+
+        private Protocol protocol = Protocol.HTTP_1_1;
+
+        /**
+         * Maximum number of pooled connections to the service, and to each of its instances (HTTP/1.1 only).
+         */
+        private int maxConnections = 50;
+
+        /**
+         * Longest time a request waits for a pooled connection before failing (HTTP/1.1 only).
+         */
+        private Duration connectionRequestTimeout = Duration.ofSeconds(1);
+
+        private Duration connectTimeout = Duration.ofSeconds(2);
+
+        private Duration readTimeout = Duration.ofSeconds(30);
+
+        /**
+         * Longest time an idle connection is kept for reuse; keep it below the keep-alive timeout of the service
+         * so the gateway never reuses a connection the service is closing (HTTP/1.1 only).
+         */
+        private Duration keepAlive = Duration.ofSeconds(15);
+
+        /**
+         * Lifetime of a pooled connection, so traffic spreads to new instances behind the same address (HTTP/1.1 only).
+         */
+        private Duration timeToLive = Duration.ofMinutes(5);
+
+        /**
+         * Idle time after which a pooled connection is checked before it is reused (HTTP/1.1 only).
+         */
+        private Duration validateAfterInactivity = Duration.ofSeconds(2);
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.apigateway.upstream;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.DefaultConnectionKeepAliveStrategy;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+
+import java.net.http.HttpClient;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds and owns the per-service clients of the gateway proxy, see {@link UpstreamClientProperties}.
+ * HTTP/1.1 services get a connection pool of their own, so a burst toward one service neither opens a connection per
+ * request nor waits behind the connections of another; the pool of each service is published under the
+ * {@code httpcomponents.httpclient.pool} metrics with a {@code httpclient} tag naming the service. H2C services get
+ * a JDK client that multiplexes its requests over one connection per instance. The pooled clients are closed with the
+ * application context.
+ */
+@Slf4j
+public class UpstreamClients implements DisposableBean {
+
+    private final Map<String, ClientHttpRequestFactory> factories = new LinkedHashMap<>();
+    private final List<AutoCloseable> resources = new ArrayList<>();
+
+    public UpstreamClients(UpstreamClientProperties properties, MeterRegistry meterRegistry) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        properties.getServices().forEach((serviceId, client) -> {
+            ClientHttpRequestFactory factory = client.getProtocol() == UpstreamClientProperties.Protocol.H2C
+                    ? h2cFactory(client)
+                    : pooledFactory(serviceId, client, meterRegistry);
+            factories.put(serviceId, factory);
+            log.info("Upstream client of service {}: {}, up to {} connections", serviceId, client.getProtocol(),
+                    client.getProtocol() == UpstreamClientProperties.Protocol.H2C ? "multiplexed" : client.getMaxConnections());
+        });
+    }
+
+    /**
+     * Returns the request factory of each configured service.
+     *
+     * @return the request factories, by service id
+     */
+    public Map<String, ClientHttpRequestFactory> getFactories() {
+        return factories;
+    }
+
+    @Override
+    public void destroy() {
+        for (AutoCloseable resource : resources) {
+            try {
+                resource.close();
+            } catch (Exception e) {
+                log.warn("Failed to close an upstream client: {}", e.getMessage());
+            }
+        }
+    }
+
+    private ClientHttpRequestFactory pooledFactory(String serviceId, UpstreamClientProperties.ServiceClient client,
+                                                   MeterRegistry meterRegistry) {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(client.getMaxConnections())
+                .setMaxConnPerRoute(client.getMaxConnections())
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(client.getConnectTimeout()))
+                        .setSocketTimeout(Timeout.of(client.getReadTimeout()))
+                        .setTimeToLive(TimeValue.of(client.getTimeToLive()))
+                        .setValidateAfterInactivity(TimeValue.of(client.getValidateAfterInactivity()))
+                        .build())
+                .build();
+        TimeValue keepAlive = TimeValue.of(client.getKeepAlive());
+        CloseableHttpClient httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setKeepAliveStrategy((response, context) ->
+                        DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context).min(keepAlive))
+                .evictIdleConnections(keepAlive)
+                .evictExpiredConnections()
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.of(client.getConnectionRequestTimeout()))
+                        .setResponseTimeout(Timeout.of(client.getReadTimeout()))
+                        .build())
+                .disableRedirectHandling()
+                .build();
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, serviceId).bindTo(meterRegistry);
+        resources.add(httpClient);
+        return new AbortableHttpComponentsClientHttpRequestFactory(httpClient);
+    }
+
+    private ClientHttpRequestFactory h2cFactory(UpstreamClientProperties.ServiceClient client) {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(client.getConnectTimeout())
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build();
+        JdkClientHttpRequestFactory factory = new JdkClientHttpRequestFactory(httpClient);
+        factory.setReadTimeout(client.getReadTimeout());
+        return factory;
+    }
+}
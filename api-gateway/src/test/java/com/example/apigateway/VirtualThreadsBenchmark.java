@@ -0,0 +1,295 @@
+package com.example.apigateway;
+
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.catalina.Context;
+import org.apache.catalina.LifecycleException;
+import org.apache.catalina.Wrapper;
+import org.apache.catalina.connector.Connector;
+import org.apache.catalina.startup.Tomcat;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sustained concurrency benchmark of the {@code virtual-threads} profile: finds, for each running gateway, the highest
+ * number of concurrent requests it serves while its p99 latency stays under a target, with every request proxied to
+ * an upstream that answers after a fixed delay. Concurrency doubles from {@code bench.start-concurrency} until a step
+ * misses the target or fails more than {@code bench.max-error-rate} of its requests, then is bisected down to a
+ * resolution of {@code bench.resolution}.
+ * <p>
+ * The benchmark starts the upstream itself, an asynchronous servlet on {@code bench.upstream-port} that answers every
+ * path after {@code bench.upstream-delay}, so the upstream never limits the gateway. Start the gateway twice, built
+ * with {@code -Pvirtual-threads} and run on Java 21, the second time with {@code --spring.profiles.active=virtual-threads}
+ * and another port, routing table-service to the upstream and turning off everything that answers or rejects requests
+ * without proxying them:
+ * <pre>
+ * --eureka.client.enabled=false --spring.cloud.discovery.client.simple.instances.table-service[0].uri=http://localhost:9000
+ * --rate-limit.enabled=false --response-cache.enabled=false --request-coalescing.enabled=false --hedging.enabled=false
+ * --bulkhead.enabled=false --load-shedding.enabled=false --upstream-client.services.table-service.max-connections=10000
+ * </pre>
+ * then run the main method on the test classpath with one {@code name=url} argument per gateway:
+ * <pre>
+ * java -cp ... -Dbench.token=$ADMIN_ACCESS_TOKEN -Dbench.p99=PT0.25S -Dbench.upstream-delay=PT0.1S \
+ *     com.example.apigateway.VirtualThreadsBenchmark platform=http://localhost:8080 virtual=http://localhost:8081
+ * </pre>
+ */
+public final class VirtualThreadsBenchmark {
+
+    private static final byte[] PAGE = ("{\"content\":[" + "{\"id\":1,\"name\":\"Table\",\"capacity\":4},".repeat(20)
+            + "{\"id\":1,\"name\":\"Table\",\"capacity\":4}],\"totalElements\":21}").getBytes(StandardCharsets.UTF_8);
+
+    private VirtualThreadsBenchmark() {}
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            System.err.println("usage: VirtualThreadsBenchmark name=url [name=url...]");
+            System.exit(2);
+        }
+        String path = System.getProperty("bench.path", "/table/page");
+        String token = System.getProperty("bench.token");
+        Duration targetP99 = Duration.parse(System.getProperty("bench.p99", "PT0.25S"));
+        double maxErrorRate = Double.parseDouble(System.getProperty("bench.max-error-rate", "0.01"));
+        int startConcurrency = Integer.getInteger("bench.start-concurrency", 50);
+        int maxConcurrency = Integer.getInteger("bench.max-concurrency", 6400);
+        double resolution = Double.parseDouble(System.getProperty("bench.resolution", "0.1"));
+        Duration warmup = Duration.parse(System.getProperty("bench.warmup", "PT10S"));
+        Duration step = Duration.parse(System.getProperty("bench.step-duration", "PT15S"));
+        int upstreamPort = Integer.getInteger("bench.upstream-port", 9000);
+        Duration upstreamDelay = Duration.parse(System.getProperty("bench.upstream-delay", "PT0.1S"));
+
+        Tomcat upstream = startUpstream(upstreamPort, upstreamDelay);
+        Map<String, Step> results = new LinkedHashMap<>();
+        try {
+            for (String target : args) {
+                String[] nameAndUrl = target.split("=", 2);
+                String baseUrl = nameAndUrl[1].endsWith("/") ? nameAndUrl[1].substring(0, nameAndUrl[1].length() - 1) : nameAndUrl[1];
+                Load load = new Load(baseUrl + path, token);
+                System.out.printf("%s: warming up for %ds%n", nameAndUrl[0], warmup.toSeconds());
+                load.run(startConcurrency, warmup);
+                System.out.printf("%n%-12s %12s %10s %10s %10s %10s %8s%n",
+                        nameAndUrl[0], "concurrency", "req/s", "p50 ms", "p99 ms", "non-2xx", "holds");
+                results.put(nameAndUrl[0], search(nameAndUrl[0], load, startConcurrency, maxConcurrency, resolution, step,
+                        targetP99, maxErrorRate));
+            }
+        } finally {
+            upstream.stop();
+            upstream.destroy();
+        }
+
+        System.out.printf("%nHighest concurrency holding p99 <= %d ms with a %d ms upstream:%n",
+                targetP99.toMillis(), upstreamDelay.toMillis());
+        System.out.printf("%-12s %12s %10s %10s%n", "edition", "concurrency", "req/s", "p99 ms");
+        results.forEach((name, held) -> System.out.printf("%-12s %12s %10s %10s%n", name,
+                held == null ? "none" : String.valueOf(held.concurrency),
+                held == null ? "-" : String.format("%.0f", held.throughput),
+                held == null ? "-" : String.format("%.2f", held.percentileMillis(0.99))));
+    }
+
+    /**
+     * Doubles the concurrency until a step misses the target, then bisects between the last step that held and the
+     * first one that did not.
+     *
+     * @return the step at the highest concurrency that held, or null if even the first step missed the target
+     */
+    private static Step search(String name, Load load, int startConcurrency, int maxConcurrency, double resolution,
+                               Duration duration, Duration targetP99, double maxErrorRate) throws Exception {
+        Step held = null;
+        int failed = -1;
+        for (int concurrency = startConcurrency; concurrency <= maxConcurrency; concurrency *= 2) {
+            Step step = measure(name, load, concurrency, duration, targetP99, maxErrorRate);
+            if (!step.holds) {
+                failed = concurrency;
+                break;
+            }
+            held = step;
+        }
+        if (held == null || failed < 0) {
+            return held;
+        }
+        while (failed - held.concurrency > Math.max(1, held.concurrency * resolution)) {
+            int concurrency = (held.concurrency + failed) / 2;
+            Step step = measure(name, load, concurrency, duration, targetP99, maxErrorRate);
+            if (step.holds) {
+                held = step;
+            } else {
+                failed = concurrency;
+            }
+        }
+        return held;
+    }
+
+    private static Step measure(String name, Load load, int concurrency, Duration duration, Duration targetP99,
+                                double maxErrorRate) throws Exception {
+        Step step = load.run(concurrency, duration);
+        long requests = step.latencyNanos.length;
+        step.holds = requests > 0 && step.percentileMillis(0.99) <= targetP99.toNanos() / 1e6
+                && step.failures <= requests * maxErrorRate;
+        System.out.printf("%-12s %12d %10.0f %10.2f %10.2f %10d %8s%n", name, concurrency, step.throughput,
+                step.percentileMillis(0.50), step.percentileMillis(0.99), step.failures, step.holds ? "yes" : "no");
+        return step;
+    }
+
+    private static Tomcat startUpstream(int port, Duration delay) throws IOException, LifecycleException {
+        Tomcat tomcat = new Tomcat();
+        tomcat.setBaseDir(Files.createTempDirectory("virtual-threads-benchmark").toString());
+        Connector connector = new Connector();
+        connector.setPort(port);
+        connector.setProperty("maxConnections", "-1");
+        connector.setProperty("acceptCount", "1000");
+        tomcat.getService().addConnector(connector);
+        tomcat.setConnector(connector);
+        Context context = tomcat.addContext("", null);
+        Wrapper servlet = Tomcat.addServlet(context, "upstream", new DelayedServlet(delay));
+        servlet.setAsyncSupported(true);
+        context.addServletMappingDecoded("/*", "upstream");
+        tomcat.start();
+        return tomcat;
+    }
+
+    /**
+     * Closed-loop load on one URL: each worker sends its next request as soon as the previous one is answered.
+     */
+    private static final class Load {
+        private final HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        private final HttpRequest request;
+
+        private Load(String url, String token) {
+            HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url)).timeout(Duration.ofSeconds(30)).GET();
+            if (token != null) {
+                builder.header("Authorization", "Bearer " + token);
+            }
+            this.request = builder.build();
+        }
+
+        private Step run(int concurrency, Duration duration) throws Exception {
+            AtomicLong failures = new AtomicLong();
+            ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+            long start = System.nanoTime();
+            long deadline = start + duration.toNanos();
+            List<Future<long[]>> latencies = new ArrayList<>(concurrency);
+            try {
+                for (int i = 0; i < concurrency; i++) {
+                    latencies.add(workers.submit(() -> drive(deadline, failures)));
+                }
+                long[] merged = new long[0];
+                for (Future<long[]> worker : latencies) {
+                    long[] recorded = worker.get();
+                    long[] grown = Arrays.copyOf(merged, merged.length + recorded.length);
+                    System.arraycopy(recorded, 0, grown, merged.length, recorded.length);
+                    merged = grown;
+                }
+                Arrays.sort(merged);
+                return new Step(concurrency, merged, merged.length / ((System.nanoTime() - start) / 1e9), failures.get());
+            } finally {
+                workers.shutdownNow();
+            }
+        }
+
+        private long[] drive(long deadline, AtomicLong failures) {
+            long[] latencies = new long[1024];
+            int count = 0;
+            while (System.nanoTime() - deadline < 0) {
+                long sent = System.nanoTime();
+                try {
+                    HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                    if (response.statusCode() / 100 != 2) {
+                        failures.incrementAndGet();
+                    }
+                } catch (IOException e) {
+                    failures.incrementAndGet();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+                if (count == latencies.length) {
+                    latencies = Arrays.copyOf(latencies, count * 2);
+                }
+                latencies[count++] = System.nanoTime() - sent;
+            }
+            return Arrays.copyOf(latencies, count);
+        }
+    }
+
+    private static final class Step {
+        private final int concurrency;
+        private final long[] latencyNanos;
+        private final double throughput;
+        private final long failures;
+        private boolean holds;
+
+        private Step(int concurrency, long[] latencyNanos, double throughput, long failures) {
+            this.concurrency = concurrency;
+            this.latencyNanos = latencyNanos;
+            this.throughput = throughput;
+            this.failures = failures;
+        }
+
+        private double percentileMillis(double percentile) {
+            if (latencyNanos.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.min(latencyNanos.length - 1, Math.ceil(percentile * latencyNanos.length) - 1);
+            return latencyNanos[Math.max(0, index)] / 1e6;
+        }
+    }
+
+    /**
+     * Answers every request after a fixed delay without holding a thread while it waits.
+     */
+    private static final class DelayedServlet extends HttpServlet {
+
+        private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(4);
+        private final long delayNanos;
+
+        private DelayedServlet(Duration delay) {
+            this.delayNanos = delay.toNanos();
+        }
+
+        @Override
+        protected void service(HttpServletRequest request, HttpServletResponse response) {
+            AsyncContext async = request.startAsync();
+            async.setTimeout(0);
+            scheduler.schedule(() -> {
+                HttpServletResponse delayed = (HttpServletResponse) async.getResponse();
+                delayed.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                delayed.setContentLength(PAGE.length);
+                try {
+                    delayed.getOutputStream().write(PAGE);
+                } catch (IOException e) {
+                    // The gateway gave up on the request; there is nobody left to answer
+                } finally {
+                    async.complete();
+                }
+            }, delayNanos, TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public void destroy() {
+            scheduler.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.apigateway.cache;
+
+import com.example.apigateway.stream.SpillingResponseWrapper;
+import com.example.common.cache.CacheRoute;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResponseCacheTest {
+
+    private final ResponseCache cache = new ResponseCache(new MockEnvironment()
+            .withProperty("response-cache.max-entry-size", "16B")
+            .withProperty("response-cache.routes[0].id", "table-catalogue")
+            .withProperty("response-cache.routes[0].paths[0]", "/table/page")
+            .withProperty("response-cache.routes[0].paths[1]", "/table/*")
+            .withProperty("response-cache.routes[0].invalidated-by[0]", "/table/update/*"),
+            new SimpleMeterRegistry());
+
+    @Test
+    void findsCachedRoutesOfGetRequestsOnly() {
+        assertThat(cache.findRoute(get("/table/page", null)).getId()).isEqualTo("table-catalogue");
+        assertThat(cache.findRoute(get("/table/1", null)).getId()).isEqualTo("table-catalogue");
+        assertThat(cache.findRoute(new MockHttpServletRequest("POST", "/table/page"))).isNull();
+        assertThat(cache.findRoute(get("/table-type/list", null))).isNull();
+    }
+
+    @Test
+    void keysIgnoreTheOrderOfQueryParameters() {
+        CacheRoute route = cache.findRoute(get("/table/page", null));
+
+        String key = cache.keyOf(route, get("/table/page", "size=10&page=1"));
+
+        assertThat(cache.keyOf(route, get("/table/page", "page=1&size=10"))).isEqualTo(key);
+        assertThat(cache.keyOf(route, get("/table/page", "page=2&size=10"))).isNotEqualTo(key);
+        assertThat(cache.keyOf(route, get("/table/page", null))).isEqualTo("table-catalogue /table/page");
+    }
+
+    @Test
+    void storesAndServesCacheableResponses() throws IOException {
+        CacheRoute route = cache.findRoute(get("/table/1", null));
+        String key = cache.keyOf(route, get("/table/1", null));
+
+        CachedResponse stored = cache.store(route, key, route.currentGeneration(), response(200, "{\"id\":1}"));
+
+        assertThat(stored).isNotNull();
+        assertThat(cache.get(route, key)).isSameAs(stored);
+        assertThat(new String(stored.getBody(), StandardCharsets.UTF_8)).isEqualTo("{\"id\":1}");
+        assertThat(stored.getEtag()).startsWith("\"").endsWith("\"");
+    }
+
+    @Test
+    void skipsResponsesThatMustNotBeShared() throws IOException {
+        CacheRoute route = cache.findRoute(get("/table/1", null));
+        long generation = route.currentGeneration();
+
+        SpillingResponseWrapper withCookie = response(200, "{}");
+        withCookie.addHeader(HttpHeaders.SET_COOKIE, "session=1");
+        SpillingResponseWrapper privateResponse = response(200, "{}");
+        privateResponse.setHeader(HttpHeaders.CACHE_CONTROL, "private, max-age=60");
+
+        assertThat(cache.store(route, "k1", generation, response(404, "{}"))).isNull();
+        assertThat(cache.store(route, "k2", generation, withCookie)).isNull();
+        assertThat(cache.store(route, "k3", generation, privateResponse)).isNull();
+        assertThat(cache.store(route, "k4", generation, response(200, "x".repeat(17)))).isNull();
+    }
+
+    @Test
+    void successfulMutationInvalidatesTheGroup() throws IOException {
+        CacheRoute route = cache.findRoute(get("/table/1", null));
+        String key = cache.keyOf(route, get("/table/1", null));
+        long generation = route.currentGeneration();
+        cache.store(route, key, generation, response(200, "{}"));
+
+        cache.invalidate(new MockHttpServletRequest("PUT", "/table/update/1"));
+
+        assertThat(cache.get(route, key)).isNull();
+    }
+
+    @Test
+    void responseProxiedBeforeAnInvalidationIsNotCached() throws IOException {
+        CacheRoute route = cache.findRoute(get("/table/1", null));
+        String key = cache.keyOf(route, get("/table/1", null));
+        long generation = route.currentGeneration();
+
+        cache.invalidate(new MockHttpServletRequest("PUT", "/table/update/1"));
+        cache.store(route, key, generation, response(200, "{}"));
+
+        assertThat(cache.get(route, key)).isNull();
+    }
+
+    private static MockHttpServletRequest get(String path, String query) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.setQueryString(query);
+        return request;
+    }
+
+    private static SpillingResponseWrapper response(int status, String body) throws IOException {
+        SpillingResponseWrapper response = new SpillingResponseWrapper(new MockHttpServletRequest(),
+                new MockHttpServletResponse(), 1024);
+        response.setStatus(status);
+        response.getOutputStream().write(body.getBytes(StandardCharsets.UTF_8));
+        return response;
+    }
+}
@@ -0,0 +1,224 @@
+package com.example.apigateway.compress;
+
+import com.example.apigateway.filter.CompressionFilter;
+import com.example.apigateway.routing.GatewayRouteResolver;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.server.mvc.config.GatewayMvcProperties;
+import org.springframework.cloud.gateway.server.mvc.config.PredicateProperties;
+import org.springframework.cloud.gateway.server.mvc.config.RouteProperties;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CompressingResponseWrapperTest {
+
+    private static final String BODY = "{\"content\":[{\"id\":1,\"name\":\"Bàn 1\"},{\"id\":2,\"name\":\"Bàn 2\"}]}";
+
+    private ResponseCompressor compressor;
+
+    @BeforeEach
+    void setUp() {
+        GatewayMvcProperties gatewayMvcProperties = new GatewayMvcProperties();
+        RouteProperties route = new RouteProperties();
+        route.setId("table-service");
+        route.setUri(URI.create("lb://table-service"));
+        route.setPredicates(List.of(new PredicateProperties("Path=/table/**")));
+        gatewayMvcProperties.getRoutes().add(route);
+        GatewayRouteResolver gatewayRouteResolver = new GatewayRouteResolver(gatewayMvcProperties);
+        gatewayRouteResolver.init();
+        compressor = new ResponseCompressor(new MockEnvironment()
+                .withProperty("compression.routes[0]", "table-service")
+                .withProperty("compression.min-response-size", "16B"),
+                gatewayRouteResolver, new SimpleMeterRegistry());
+        compressor.init();
+    }
+
+    @Test
+    void negotiatesTheCodingOfCompressedRoutesOnly() {
+        assertThat(compressor.select(request("/table/page", "gzip, deflate"))).isEqualTo(ContentCoding.GZIP);
+        assertThat(compressor.select(request("/table/page", "gzip;q=0.5, deflate"))).isEqualTo(ContentCoding.DEFLATE);
+        assertThat(compressor.select(request("/table/page", "br, *;q=0.1"))).isEqualTo(ContentCoding.GZIP);
+        assertThat(compressor.select(request("/table/page", "gzip;q=0, identity"))).isNull();
+        assertThat(compressor.select(request("/table/page", null))).isNull();
+        assertThat(compressor.select(request("/table-type/list", "gzip"))).isNull();
+    }
+
+    @Test
+    void compressesTheBodyWithoutItsLength() throws IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        CompressingResponseWrapper wrapper = new CompressingResponseWrapper(response, compressor, ContentCoding.GZIP);
+
+        writeJson(wrapper);
+        wrapper.finish();
+
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        assertThat(response.getHeader(HttpHeaders.CONTENT_LENGTH)).isNull();
+        assertThat(response.getHeaders(HttpHeaders.VARY)).containsExactly(HttpHeaders.ACCEPT_ENCODING);
+        assertThat(gunzip(response.getContentAsByteArray())).isEqualTo(BODY);
+    }
+
+    @Test
+    void deflatesTheBody() throws IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        CompressingResponseWrapper wrapper = new CompressingResponseWrapper(response, compressor, ContentCoding.DEFLATE);
+
+        writeJson(wrapper);
+        wrapper.finish();
+
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isEqualTo("deflate");
+        byte[] inflated = new InflaterInputStream(new ByteArrayInputStream(response.getContentAsByteArray())).readAllBytes();
+        assertThat(new String(inflated, StandardCharsets.UTF_8)).isEqualTo(BODY);
+    }
+
+    @Test
+    void releasesTheHeldLengthOfResponsesItDoesNotCompress() throws IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        CompressingResponseWrapper wrapper = new CompressingResponseWrapper(response, compressor, ContentCoding.GZIP);
+
+        wrapper.setContentType("application/json");
+        wrapper.setContentLength(8);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_LENGTH)).isNull();
+        wrapper.getOutputStream().write("{\"id\":1}".getBytes(StandardCharsets.UTF_8));
+        wrapper.finish();
+
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(response.getHeader(HttpHeaders.CONTENT_LENGTH)).isEqualTo("8");
+        assertThat(response.getHeaders(HttpHeaders.VARY)).isEmpty();
+        assertThat(response.getContentAsString()).isEqualTo("{\"id\":1}");
+    }
+
+    @Test
+    void leavesErrorsAndOtherTypesAlone() throws IOException {
+        MockHttpServletResponse error = new MockHttpServletResponse();
+        CompressingResponseWrapper errorWrapper = new CompressingResponseWrapper(error, compressor, ContentCoding.GZIP);
+        errorWrapper.setStatus(500);
+        writeJson(errorWrapper);
+        errorWrapper.finish();
+
+        MockHttpServletResponse image = new MockHttpServletResponse();
+        CompressingResponseWrapper imageWrapper = new CompressingResponseWrapper(image, compressor, ContentCoding.GZIP);
+        imageWrapper.setContentType("image/png");
+        imageWrapper.getOutputStream().write(BODY.getBytes(StandardCharsets.UTF_8));
+        imageWrapper.finish();
+
+        assertThat(error.getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(error.getContentAsString(StandardCharsets.UTF_8)).isEqualTo(BODY);
+        assertThat(image.getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(image.getContentAsString(StandardCharsets.UTF_8)).isEqualTo(BODY);
+    }
+
+    @Test
+    void keepsAnExistingVaryOnAcceptEncoding() throws IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        CompressingResponseWrapper wrapper = new CompressingResponseWrapper(response, compressor, ContentCoding.GZIP);
+
+        wrapper.addHeader(HttpHeaders.VARY, "Origin, accept-encoding");
+        writeJson(wrapper);
+        wrapper.finish();
+
+        assertThat(response.getHeaders(HttpHeaders.VARY)).containsExactly("Origin, accept-encoding");
+    }
+
+    @Test
+    void weakensEntityTagsOfCompressedResponses() throws IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        CompressingResponseWrapper wrapper = new CompressingResponseWrapper(response, compressor, ContentCoding.GZIP);
+
+        wrapper.setHeader(HttpHeaders.ETAG, "\"abc\"");
+        writeJson(wrapper);
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo("W/\"abc\"");
+
+        // A tag set once the body started is weakened too, and a weak tag is left as it is
+        wrapper.setHeader(HttpHeaders.ETAG, "\"def\"");
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo("W/\"def\"");
+        wrapper.setHeader(HttpHeaders.ETAG, "W/\"ghi\"");
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo("W/\"ghi\"");
+        wrapper.finish();
+    }
+
+    @Test
+    void passesEncodedCacheVariantsThrough() throws IOException {
+        byte[] encoded = compressor.compress(BODY.getBytes(StandardCharsets.UTF_8), ContentCoding.GZIP);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        CompressingResponseWrapper wrapper = new CompressingResponseWrapper(response, compressor, ContentCoding.GZIP);
+
+        // As the response cache filter writes a compressed variant
+        wrapper.setContentType("application/json");
+        wrapper.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        wrapper.setHeader(HttpHeaders.ETAG, "W/\"abc\"");
+        wrapper.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        wrapper.setContentLength(encoded.length);
+        wrapper.getOutputStream().write(encoded);
+        wrapper.finish();
+
+        assertThat(response.getHeader(HttpHeaders.CONTENT_LENGTH)).isEqualTo(String.valueOf(encoded.length));
+        assertThat(response.getHeaders(HttpHeaders.VARY)).containsExactly(HttpHeaders.ACCEPT_ENCODING);
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo("W/\"abc\"");
+        assertThat(response.getContentAsByteArray()).isEqualTo(encoded);
+    }
+
+    @Test
+    void holdsTheLengthOfEmptyResponses() throws IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        CompressingResponseWrapper wrapper = new CompressingResponseWrapper(response, compressor, ContentCoding.GZIP);
+
+        wrapper.setStatus(200);
+        wrapper.setContentType("application/json");
+        wrapper.setContentLength(1024);
+        wrapper.finish();
+
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(response.getHeader(HttpHeaders.CONTENT_LENGTH)).isEqualTo("1024");
+    }
+
+    @Test
+    void filterEndsTheBodyWhenTheChainFails() throws IOException {
+        MockHttpServletRequest request = request("/table/page", "gzip");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertThatThrownBy(() -> new CompressionFilter(compressor).doFilter(request, response, (req, res) -> {
+            res.setContentType("application/json");
+            res.getOutputStream().write(BODY.getBytes(StandardCharsets.UTF_8));
+            throw new ServletException("Upstream failed");
+        })).isInstanceOf(ServletException.class);
+
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        assertThat(gunzip(response.getContentAsByteArray())).isEqualTo(BODY);
+    }
+
+    private static void writeJson(CompressingResponseWrapper wrapper) throws IOException {
+        byte[] body = BODY.getBytes(StandardCharsets.UTF_8);
+        wrapper.setContentType("application/json");
+        wrapper.setContentLength(body.length);
+        wrapper.getOutputStream().write(body);
+    }
+
+    private static String gunzip(byte[] compressed) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static MockHttpServletRequest request(String path, String acceptEncoding) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        if (acceptEncoding != null) {
+            request.addHeader(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        }
+        return request;
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.apigateway.filter;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RequestCoalescingFilterTest {
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void keysIgnoreTheOrderOfQueryParameters() {
+        String key = RequestCoalescingFilter.keyOf("table", get("/table/page", "size=10&page=1", null));
+
+        assertThat(RequestCoalescingFilter.keyOf("table", get("/table/page", "page=1&size=10", null))).isEqualTo(key);
+        assertThat(RequestCoalescingFilter.keyOf("table", get("/table/page", "page=2&size=10", null))).isNotEqualTo(key);
+    }
+
+    @Test
+    void keysSeparateRoutesPathsAndAcceptHeaders() {
+        String key = RequestCoalescingFilter.keyOf("table", get("/table/1", null, "application/json"));
+
+        assertThat(RequestCoalescingFilter.keyOf("table-type", get("/table/1", null, "application/json"))).isNotEqualTo(key);
+        assertThat(RequestCoalescingFilter.keyOf("table", get("/table/2", null, "application/json"))).isNotEqualTo(key);
+        assertThat(RequestCoalescingFilter.keyOf("table", get("/table/1", null, "text/csv"))).isNotEqualTo(key);
+        assertThat(RequestCoalescingFilter.keyOf("table", get("/table/1", null, null))).isNotEqualTo(key);
+    }
+
+    @Test
+    void callersWithTheSameRolesShareAKey() {
+        authenticate("alice", "ROLE_USER", "ROLE_ADMIN");
+        String alice = RequestCoalescingFilter.keyOf("table", get("/table/1", null, null));
+        authenticate("bob", "ROLE_ADMIN", "ROLE_USER");
+        String bob = RequestCoalescingFilter.keyOf("table", get("/table/1", null, null));
+        authenticate("carol", "ROLE_USER");
+        String carol = RequestCoalescingFilter.keyOf("table", get("/table/1", null, null));
+
+        assertThat(bob).isEqualTo(alice);
+        assertThat(carol).isNotEqualTo(alice);
+    }
+
+    @Test
+    void anonymousCallersShareTheirOwnKey() {
+        String unauthenticated = RequestCoalescingFilter.keyOf("table", get("/table/1", null, null));
+        SecurityContextHolder.getContext().setAuthentication(new AnonymousAuthenticationToken("key", "anonymousUser",
+                AuthorityUtils.createAuthorityList("ROLE_ANONYMOUS")));
+        String anonymous = RequestCoalescingFilter.keyOf("table", get("/table/1", null, null));
+        authenticate("alice", "ROLE_USER");
+
+        assertThat(anonymous).isEqualTo(unauthenticated).contains(" anonymous ");
+        assertThat(RequestCoalescingFilter.keyOf("table", get("/table/1", null, null))).isNotEqualTo(anonymous);
+    }
+
+    private static void authenticate(String username, String... roles) {
+        SecurityContextHolder.getContext().setAuthentication(UsernamePasswordAuthenticationToken.authenticated(
+                username, null, AuthorityUtils.createAuthorityList(roles)));
+    }
+
+    private static MockHttpServletRequest get(String path, String query, String accept) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.setQueryString(query);
+        if (accept != null) {
+            request.addHeader(HttpHeaders.ACCEPT, accept);
+        }
+        return request;
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.apigateway.hedge;
+
+import org.apache.hc.client5.http.classic.methods.HttpGet;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HedgeAttemptTest {
+
+    @Test
+    void abortCancelsTheBoundRequestAndTheThread() {
+        HedgeAttempt attempt = new HedgeAttempt();
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        attempt.setFuture(future);
+        HttpGet request = new HttpGet("http://table-service/api/v1/restaurant-tables/page");
+        attempt.enter();
+        try {
+            HedgeAttempt.bind(request);
+        } finally {
+            attempt.exit();
+        }
+
+        attempt.abort();
+
+        assertThat(request.isCancelled()).isTrue();
+        assertThat(future).isCancelled();
+    }
+
+    @Test
+    void requestBoundAfterTheAbortIsCancelledRightAway() {
+        HedgeAttempt attempt = new HedgeAttempt();
+        attempt.abort();
+        HttpGet request = new HttpGet("http://table-service/api/v1/restaurant-tables/page");
+        attempt.enter();
+        try {
+            HedgeAttempt.bind(request);
+        } finally {
+            attempt.exit();
+        }
+
+        assertThat(request.isCancelled()).isTrue();
+    }
+
+    @Test
+    void requestsOutsideAnAttemptAreLeftAlone() {
+        HttpGet request = new HttpGet("http://table-service/api/v1/restaurant-tables/page");
+
+        HedgeAttempt.bind(request);
+
+        assertThat(request.isCancelled()).isFalse();
+    }
+}
@@ -0,0 +1,240 @@
+package com.example.apigateway.hedge;
+
+import com.example.apigateway.routing.GatewayRouteResolver;
+import com.example.common.loadbalancer.InstanceStats;
+import com.example.common.loadbalancer.InstanceStatsLifecycle;
+import com.example.common.loadbalancer.InstanceStatsRegistry;
+import com.example.common.loadbalancer.OutlierDetectionLifecycle;
+import com.example.common.loadbalancer.OutlierDetectionProperties;
+import com.example.common.loadbalancer.OutlierDetector;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerClient;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerClientsProperties;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerRequest;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerUriTools;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestData;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.cloud.gateway.server.mvc.config.GatewayMvcProperties;
+import org.springframework.cloud.gateway.server.mvc.config.PredicateProperties;
+import org.springframework.cloud.gateway.server.mvc.config.RouteProperties;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RequestHedgerTest {
+
+    private static final String SERVICE_ID = "table-service";
+    private static final ServiceInstance PRIMARY = new DefaultServiceInstance("primary", SERVICE_ID, "primary-host", 8081, false);
+    private static final ServiceInstance HEDGE = new DefaultServiceInstance("hedge", SERVICE_ID, "hedge-host", 8082, false);
+    private static final URI PRIMARY_URI = URI.create("http://primary-host:8081/api/v1/restaurant-tables/page");
+
+    private final InstanceStatsRegistry statsRegistry = new InstanceStatsRegistry(Duration.ofSeconds(10));
+    private final OutlierDetector outlierDetector = new OutlierDetector(outlierDetectionProperties(),
+            new SimpleMeterRegistry(), event -> {});
+    private final Map<String, LoadBalancerLifecycle> lifecycles = Map.of(
+            "instanceStatsLifecycle", new InstanceStatsLifecycle(SERVICE_ID, statsRegistry),
+            "outlierDetectionLifecycle", new OutlierDetectionLifecycle(SERVICE_ID, outlierDetector));
+    private RequestHedger hedger;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest("GET", "/table/page")));
+        GatewayMvcProperties gatewayMvcProperties = new GatewayMvcProperties();
+        RouteProperties route = new RouteProperties();
+        route.setId(SERVICE_ID);
+        route.setUri(URI.create("lb://" + SERVICE_ID));
+        route.setPredicates(List.of(new PredicateProperties("Path=/table/**")));
+        gatewayMvcProperties.getRoutes().add(route);
+        GatewayRouteResolver gatewayRouteResolver = new GatewayRouteResolver(gatewayMvcProperties);
+        gatewayRouteResolver.init();
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("hedging.enabled", "true")
+                .withProperty("hedging.routes[0]", SERVICE_ID)
+                .withProperty("hedging.min-samples", "5")
+                .withProperty("hedging.min-delay", "20ms")
+                .withProperty("hedging.max-delay", "20ms");
+        hedger = new RequestHedger(environment, gatewayRouteResolver, gatewayMvcProperties, new HedgeInstanceClient(),
+                new LifecycleFactory(), new SimpleMeterRegistry());
+        hedger.init();
+
+        assertThat(hedger.resolveHedgedService(HttpMethod.GET)).isEqualTo(SERVICE_ID);
+        for (int i = 0; i < 5; i++) {
+            hedger.execute(SERVICE_ID, PRIMARY_URI, uri -> response("warm-up")).close();
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        hedger.shutdown();
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void hedgeWinIsCountedOnTheHedgeInstanceAndAgainstThePrimary() throws IOException {
+        DefaultRequest<RequestDataContext> primaryRequest = routeStarted();
+
+        ClientHttpResponse response = hedger.execute(SERVICE_ID, PRIMARY_URI,
+                uri -> PRIMARY_URI.equals(uri) ? after(5_000, response("primary")) : response("hedge"));
+        routeCompleted(primaryRequest, response);
+
+        assertThat(response.getBody().readAllBytes()).asString(StandardCharsets.UTF_8).isEqualTo("hedge");
+        InstanceStats hedgeStats = statsRegistry.get(SERVICE_ID, HEDGE);
+        assertThat(hedgeStats.getSamples()).isEqualTo(1);
+        assertThat(hedgeStats.getInFlight()).isZero();
+        assertThat(statsRegistry.get(SERVICE_ID, PRIMARY).getInFlight()).isZero();
+        // One failure ejects an instance in this test, so only the primary is left out
+        assertThat(outlierDetector.filter(SERVICE_ID, List.of(PRIMARY, HEDGE))).containsExactly(HEDGE);
+    }
+
+    @Test
+    void primaryWinDiscardsTheHedge() throws IOException {
+        DefaultRequest<RequestDataContext> primaryRequest = routeStarted();
+
+        ClientHttpResponse response = hedger.execute(SERVICE_ID, PRIMARY_URI, uri -> {
+            if (PRIMARY_URI.equals(uri)) {
+                return after(100, response("primary"));
+            }
+            return after(5_000, response("hedge"));
+        });
+        routeCompleted(primaryRequest, response);
+
+        assertThat(response.getBody().readAllBytes()).asString(StandardCharsets.UTF_8).isEqualTo("primary");
+        InstanceStats hedgeStats = statsRegistry.get(SERVICE_ID, HEDGE);
+        assertThat(hedgeStats.getSamples()).isZero();
+        assertThat(hedgeStats.getInFlight()).isZero();
+        assertThat(outlierDetector.filter(SERVICE_ID, List.of(PRIMARY, HEDGE))).containsExactly(PRIMARY, HEDGE);
+    }
+
+    @Test
+    void failedHedgeIsCountedAgainstItsInstance() throws IOException {
+        ClientHttpResponse response = hedger.execute(SERVICE_ID, PRIMARY_URI, uri -> {
+            if (PRIMARY_URI.equals(uri)) {
+                return after(100, response("primary"));
+            }
+            throw new IOException("Connection refused");
+        });
+
+        assertThat(response.getBody().readAllBytes()).asString(StandardCharsets.UTF_8).isEqualTo("primary");
+        assertThat(statsRegistry.get(SERVICE_ID, HEDGE).getInFlight()).isZero();
+        assertThat(outlierDetector.filter(SERVICE_ID, List.of(PRIMARY, HEDGE))).containsExactly(PRIMARY);
+    }
+
+    /**
+     * Starts the primary call in the lifecycles the way the {@code lb()} filter of the route does.
+     */
+    @SuppressWarnings("unchecked")
+    private DefaultRequest<RequestDataContext> routeStarted() {
+        RequestData requestData = new RequestData(HttpMethod.GET, PRIMARY_URI, new HttpHeaders(),
+                new LinkedMultiValueMap<>(), new HashMap<>());
+        DefaultRequest<RequestDataContext> request = new DefaultRequest<>(new RequestDataContext(requestData));
+        lifecycles.values().forEach(lifecycle -> lifecycle.onStartRequest(request, new DefaultResponse(PRIMARY)));
+        return request;
+    }
+
+    /**
+     * Completes the primary call with the response the client got, as the {@code lb()} filter does.
+     */
+    @SuppressWarnings("unchecked")
+    private void routeCompleted(DefaultRequest<RequestDataContext> request, ClientHttpResponse response) throws IOException {
+        ResponseData responseData = new ResponseData(response.getStatusCode(), response.getHeaders(),
+                new LinkedMultiValueMap<>(), request.getContext().getClientRequest());
+        lifecycles.values().forEach(lifecycle -> lifecycle.onComplete(new CompletionContext<>(
+                CompletionContext.Status.SUCCESS, request, new DefaultResponse(PRIMARY), responseData)));
+    }
+
+    private static ClientHttpResponse response(String body) {
+        return new MockClientHttpResponse(body.getBytes(StandardCharsets.UTF_8), HttpStatus.OK);
+    }
+
+    private static ClientHttpResponse after(long millis, ClientHttpResponse response) throws InterruptedIOException {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            throw new InterruptedIOException("Aborted");
+        }
+        return response;
+    }
+
+    private static OutlierDetectionProperties outlierDetectionProperties() {
+        OutlierDetectionProperties properties = new OutlierDetectionProperties();
+        properties.setConsecutiveFailures(1);
+        return properties;
+    }
+
+    /**
+     * Balancer that always selects the hedge instance, since the primary was selected by the route.
+     */
+    private static final class HedgeInstanceClient implements LoadBalancerClient {
+
+        @Override
+        public ServiceInstance choose(String serviceId) {
+            return HEDGE;
+        }
+
+        @Override
+        public <T> ServiceInstance choose(String serviceId, Request<T> request) {
+            return HEDGE;
+        }
+
+        @Override
+        public <T> T execute(String serviceId, LoadBalancerRequest<T> request) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public <T> T execute(String serviceId, ServiceInstance serviceInstance, LoadBalancerRequest<T> request) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public URI reconstructURI(ServiceInstance instance, URI original) {
+            return LoadBalancerUriTools.reconstructURI(instance, original);
+        }
+    }
+
+    /**
+     * Factory returning the lifecycles of the test instead of starting a child context per service.
+     */
+    private final class LifecycleFactory extends LoadBalancerClientFactory {
+
+        private LifecycleFactory() {
+            super(new LoadBalancerClientsProperties());
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> Map<String, T> getInstances(String name, Class<T> type) {
+            return (Map<String, T>) lifecycles;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.apigateway.security;
+
+import com.example.apigateway.service.IAuthorizationSnapshotService;
+import com.example.common.constant.CommonConstant;
+import com.example.common.security.AuthorizationSnapshot;
+import com.example.common.security.JwtUserPrincipal;
+import com.example.common.security.PermissionRuleView;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SnapshotAuthorizationManagerTest {
+
+    private static final AuthorizationSnapshot SNAPSHOT = AuthorizationSnapshot.of(1, "test", List.of(
+            row(1L, "GET", "/table/{id}", CommonConstant.ANONYMOUS),
+            row(2L, "PUT", "/table/update/{id}", CommonConstant.ADMIN),
+            row(3L, "DELETE", "/table/delete/{id}", CommonConstant.ADMIN)));
+
+    private final SnapshotAuthorizationManager manager = new SnapshotAuthorizationManager(new FixedSnapshotService(),
+            new SimpleMeterRegistry());
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "/table/update/1",
+            "/table/%75pdate/1",
+            "/table/%75%70%64%61%74%65/1",
+            "//table//update/1",
+            "/table/update;v=1/1"
+    })
+    void denyAdminMutationToUserWhateverThePathEncoding(String uri) {
+        assertThat(isGranted("PUT", uri, CommonConstant.ADMIN)).isTrue();
+        assertThat(isGranted("PUT", uri, "USER")).isFalse();
+    }
+
+    @Test
+    void denyEncodedDeleteToUser() {
+        assertThat(isGranted("DELETE", "/table/d%65lete/1", "USER")).isFalse();
+        assertThat(isGranted("DELETE", "/table/d%65lete/1", CommonConstant.ADMIN)).isTrue();
+    }
+
+    @Test
+    void permitPublicRuleWithoutAuthentication() {
+        assertThat(isGranted("GET", "/table/%31", null)).isTrue();
+    }
+
+    @Test
+    void requireAuthenticationOnUncoveredRoute() {
+        assertThat(isGranted("GET", "/other", null)).isFalse();
+        assertThat(isGranted("GET", "/other", "USER")).isTrue();
+    }
+
+    private boolean isGranted(String method, String uri, String role) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        Authentication authentication = role == null ? null : UsernamePasswordAuthenticationToken.authenticated(
+                new JwtUserPrincipal(1L, "alice", role), null, List.of());
+        return manager.authorize(() -> authentication, new RequestAuthorizationContext(request)).isGranted();
+    }
+
+    private static PermissionRuleView row(Long id, String method, String endpoint, String roleName) {
+        return new PermissionRuleView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getMethod() {
+                return method;
+            }
+
+            @Override
+            public String getEndpoint() {
+                return endpoint;
+            }
+
+            @Override
+            public String getRoleName() {
+                return roleName;
+            }
+        };
+    }
+
+    private static final class FixedSnapshotService implements IAuthorizationSnapshotService {
+
+        @Override
+        public AuthorizationSnapshot getSnapshot() {
+            return SNAPSHOT;
+        }
+
+        @Override
+        public boolean refreshIfChanged() {
+            return false;
+        }
+
+        @Override
+        public AuthorizationSnapshot reload() {
+            return SNAPSHOT;
+        }
+    }
+}
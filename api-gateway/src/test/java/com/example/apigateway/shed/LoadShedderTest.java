@@ -0,0 +1,67 @@
+package com.example.apigateway.shed;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LoadShedderTest {
+
+    @Test
+    void inFlightCapAndQueuesStayWithinTheWorkerThreads() {
+        LoadShedder shedder = shedder(new MockEnvironment()
+                .withProperty("server.tomcat.threads.max", "10")
+                .withProperty("load-shedding.reserved-threads", "2")
+                .withProperty("load-shedding.max-in-flight", "20"));
+
+        for (int i = 0; i < 8; i++) {
+            assertThat(shedder.tryAcquire(RequestPriority.CRITICAL)).isTrue();
+        }
+
+        // 8 worker threads are available and all hold admitted requests, so none is left to wait in a queue
+        assertThat(shedder.tryAcquire(RequestPriority.CRITICAL)).isFalse();
+    }
+
+    @Test
+    void releasedSlotGoesToTheMostImportantQueuedClass() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        LoadShedder shedder = shedder(new MockEnvironment()
+                .withProperty("server.tomcat.threads.max", "10")
+                .withProperty("load-shedding.reserved-threads", "0")
+                .withProperty("load-shedding.max-in-flight", "1")
+                .withProperty("load-shedding.queue-timeout", "5s"), meterRegistry);
+        assertThat(shedder.tryAcquire(RequestPriority.CRITICAL)).isTrue();
+
+        CompletableFuture<Boolean> high = CompletableFuture.supplyAsync(() -> shedder.tryAcquire(RequestPriority.HIGH));
+        awaitQueued(meterRegistry, RequestPriority.HIGH);
+        CompletableFuture<Boolean> critical = CompletableFuture.supplyAsync(() -> shedder.tryAcquire(RequestPriority.CRITICAL));
+        awaitQueued(meterRegistry, RequestPriority.CRITICAL);
+
+        shedder.release(0);
+
+        assertThat(critical.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(high).isNotDone();
+        shedder.release(0);
+        assertThat(high.get(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    private static void awaitQueued(SimpleMeterRegistry meterRegistry, RequestPriority priority) {
+        while (meterRegistry.get("gateway.load-shedding.queued").tag("priority", priority.name()).gauge().value() < 1) {
+            Thread.onSpinWait();
+        }
+    }
+
+    private static LoadShedder shedder(MockEnvironment environment) {
+        return shedder(environment, new SimpleMeterRegistry());
+    }
+
+    private static LoadShedder shedder(MockEnvironment environment, SimpleMeterRegistry meterRegistry) {
+        LoadShedder shedder = new LoadShedder(environment, meterRegistry);
+        shedder.init();
+        return shedder;
+    }
+}
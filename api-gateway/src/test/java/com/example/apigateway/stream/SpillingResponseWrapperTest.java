@@ -0,0 +1,93 @@
+package com.example.apigateway.stream;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SpillingResponseWrapperTest {
+
+    @Test
+    void nestedFilterFindsTheOuterBuffer() throws IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        SpillingResponseWrapper outer = new SpillingResponseWrapper(new MockHttpServletRequest(), response, 4);
+        HttpServletResponseWrapper nested = new HttpServletResponseWrapper(outer);
+
+        assertThat(SpillingResponseWrapper.find(nested)).isSameAs(outer);
+        assertThat(SpillingResponseWrapper.find(response)).isNull();
+
+        outer.raiseLimit(16);
+        nested.getOutputStream().write("0123456789".getBytes());
+
+        assertThat(outer.isSpilled()).isFalse();
+        assertThat(outer.getContentSize()).isEqualTo(10);
+        assertThat(response.getContentAsByteArray()).isEmpty();
+        outer.copyBodyToResponse();
+        assertThat(response.getContentAsString()).isEqualTo("0123456789");
+    }
+
+    @Test
+    void raisingTheLimitDoesNotLowerIt() throws IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        SpillingResponseWrapper wrapper = new SpillingResponseWrapper(new MockHttpServletRequest(), response, 16);
+
+        wrapper.raiseLimit(4);
+        wrapper.getOutputStream().write("0123456789".getBytes());
+
+        assertThat(wrapper.isSpilled()).isFalse();
+    }
+
+    @Test
+    void writeListenerIsRegisteredOnTheWrappedStream() throws IOException {
+        ListenedOutputStream stream = new ListenedOutputStream();
+        MockHttpServletResponse response = new MockHttpServletResponse() {
+            @Override
+            public ServletOutputStream getOutputStream() {
+                return stream;
+            }
+        };
+        SpillingResponseWrapper wrapper = new SpillingResponseWrapper(new MockHttpServletRequest(), response, 4);
+        WriteListener listener = new WriteListener() {
+            @Override
+            public void onWritePossible() {}
+
+            @Override
+            public void onError(Throwable t) {}
+        };
+
+        wrapper.getOutputStream().setWriteListener(listener);
+        assertThat(stream.listener).isSameAs(listener);
+
+        assertThat(wrapper.getOutputStream().isReady()).isTrue();
+        wrapper.getOutputStream().write("0123456789".getBytes());
+        assertThat(wrapper.isSpilled()).isTrue();
+        assertThat(wrapper.getOutputStream().isReady()).isFalse();
+    }
+
+    /**
+     * Stream of a response under asynchronous writes, never ready for more bytes.
+     */
+    private static final class ListenedOutputStream extends ServletOutputStream {
+
+        private WriteListener listener;
+
+        @Override
+        public void write(int b) {}
+
+        @Override
+        public boolean isReady() {
+            return false;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            this.listener = writeListener;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.apigateway.upstream;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.catalina.Context;
+import org.apache.catalina.LifecycleException;
+import org.apache.catalina.connector.Connector;
+import org.apache.catalina.startup.Tomcat;
+import org.apache.coyote.http2.Http2Protocol;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the two upstream protocols of {@link UpstreamClients} against an embedded Tomcat that accepts both, the
+ * way table-service and table-type-service are configured: the pooled HTTP/1.1 client with the connection cap of
+ * table-type-service, and the JDK client multiplexing h2c requests over one connection. {@code delayMillis} is the
+ * time the upstream takes to answer, so the pool is also measured once its connections are all busy.
+ * This is the benchmark behind the choice of HTTP_1_1 in the {@code upstream-client} settings of the gateway.
+ * Run with {@code mvn -pl api-gateway test-compile} then the main method, using the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(64)
+public class UpstreamClientsBenchmark {
+
+    private static final String SERVICE_ID = "table-type-service";
+    private static final int MAX_CONNECTIONS = 40;
+    private static final byte[] PAGE = ("{\"content\":[" + "{\"id\":1,\"name\":\"Table\",\"capacity\":4},".repeat(40)
+            + "{\"id\":1,\"name\":\"Table\",\"capacity\":4}],\"totalElements\":41}").getBytes(StandardCharsets.UTF_8);
+
+    @Param({"HTTP_1_1", "H2C"})
+    private UpstreamClientProperties.Protocol protocol;
+
+    @Param({"0", "5"})
+    private long delayMillis;
+
+    private Tomcat tomcat;
+    private UpstreamClients upstreamClients;
+    private ClientHttpRequestFactory factory;
+    private URI uri;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, LifecycleException {
+        tomcat = new Tomcat();
+        tomcat.setBaseDir(Files.createTempDirectory("upstream-benchmark").toString());
+        Connector connector = new Connector();
+        connector.setPort(0);
+        connector.addUpgradeProtocol(new Http2Protocol());
+        tomcat.getService().addConnector(connector);
+        tomcat.setConnector(connector);
+        Context context = tomcat.addContext("", null);
+        Tomcat.addServlet(context, "page", new PageServlet(delayMillis));
+        context.addServletMappingDecoded("/table-type/page", "page");
+        tomcat.start();
+        uri = URI.create("http://localhost:" + connector.getLocalPort() + "/table-type/page");
+
+        UpstreamClientProperties.ServiceClient client = new UpstreamClientProperties.ServiceClient();
+        client.setProtocol(protocol);
+        client.setMaxConnections(MAX_CONNECTIONS);
+        UpstreamClientProperties properties = new UpstreamClientProperties();
+        properties.setServices(Map.of(SERVICE_ID, client));
+        upstreamClients = new UpstreamClients(properties, new SimpleMeterRegistry());
+        factory = upstreamClients.getFactories().get(SERVICE_ID);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws LifecycleException {
+        upstreamClients.destroy();
+        tomcat.stop();
+        tomcat.destroy();
+    }
+
+    @Benchmark
+    public byte[] get() throws IOException {
+        try (ClientHttpResponse response = factory.createRequest(uri, HttpMethod.GET).execute()) {
+            return response.getBody().readAllBytes();
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(UpstreamClientsBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    private static final class PageServlet extends HttpServlet {
+
+        private final long delayMillis;
+
+        private PageServlet(long delayMillis) {
+            this.delayMillis = delayMillis;
+        }
+
+        @Override
+        protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+            if (delayMillis > 0) {
+                try {
+                    Thread.sleep(delayMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.setContentLength(PAGE.length);
+            response.getOutputStream().write(PAGE);
+        }
+    }
+}
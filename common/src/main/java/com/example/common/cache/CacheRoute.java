@@ -0,0 +1,32 @@
+package com.example.common.cache;
+
+import lombok.Getter;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A compiled group of cached routes.
+ * Invalidating the group bumps its generation; entries cached under an older generation are treated as misses,
+ * so invalidation costs O(1) whatever the number of cached responses.
+ */
+public class CacheRoute {
+
+    @Getter
+    private final String id;
+    @Getter
+    private final long ttlNanos;
+    private final AtomicLong generation = new AtomicLong();
+
+    public CacheRoute(String id, long ttlNanos) {
+        this.id = id;
+        this.ttlNanos = ttlNanos;
+    }
+
+    public long currentGeneration() {
+        return generation.get();
+    }
+
+    public void invalidate() {
+        generation.incrementAndGet();
+    }
+}
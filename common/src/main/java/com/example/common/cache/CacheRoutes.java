@@ -0,0 +1,71 @@
+package com.example.common.cache;
+
+import com.example.common.routing.RouteTrie;
+import org.springframework.http.HttpMethod;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The cached route groups of a {@link ResponseCacheProperties}, compiled into route tries: the group a GET path is
+ * cached under, and the groups a mutation on a path invalidates. Shared by both gateway editions.
+ */
+public final class CacheRoutes {
+
+    private final RouteTrie<CacheRoute> reads;
+    private final RouteTrie<List<CacheRoute>> invalidations;
+
+    private CacheRoutes(RouteTrie<CacheRoute> reads, RouteTrie<List<CacheRoute>> invalidations) {
+        this.reads = reads;
+        this.invalidations = invalidations;
+    }
+
+    /**
+     * @param properties the response cache settings
+     * @return the compiled route groups
+     */
+    public static CacheRoutes compile(ResponseCacheProperties properties) {
+        RouteTrie<CacheRoute> reads = new RouteTrie<>();
+        Map<String, List<CacheRoute>> invalidatingPaths = new LinkedHashMap<>();
+        for (ResponseCacheProperties.Route routeProperties : properties.getRoutes()) {
+            CacheRoute route = new CacheRoute(routeProperties.getId(), routeProperties.getTtl().toNanos());
+            routeProperties.getPaths().forEach(path -> reads.add(HttpMethod.GET, path, route));
+            routeProperties.getInvalidatedBy().forEach(path ->
+                    invalidatingPaths.computeIfAbsent(path, key -> new ArrayList<>()).add(route));
+        }
+        RouteTrie<List<CacheRoute>> invalidations = new RouteTrie<>();
+        invalidatingPaths.forEach((path, routes) -> invalidations.add(null, path, List.copyOf(routes)));
+        return new CacheRoutes(reads, invalidations);
+    }
+
+    /**
+     * @param path the decoded request path
+     * @return the group GET requests on the path are cached under, or null if they are not cached
+     */
+    public CacheRoute findRead(String path) {
+        return reads.find(HttpMethod.GET, path);
+    }
+
+    /**
+     * @param method the method of a successful mutation
+     * @param path   the decoded request path
+     * @return the groups the mutation invalidates, or null if none
+     */
+    public List<CacheRoute> findInvalidated(HttpMethod method, String path) {
+        return invalidations.find(method, path);
+    }
+
+    /**
+     * Builds the cache key of a request: its route group, path and normalized query string.
+     *
+     * @param route           the group of the request
+     * @param path            the decoded request path
+     * @param normalizedQuery the query string normalized by {@link com.example.common.routing.QueryStrings#normalize}
+     * @return the cache key
+     */
+    public static String keyOf(CacheRoute route, String path, String normalizedQuery) {
+        return normalizedQuery.isEmpty() ? route.getId() + " " + path : route.getId() + " " + path + "?" + normalizedQuery;
+    }
+}
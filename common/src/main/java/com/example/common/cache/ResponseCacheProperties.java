@@ -0,0 +1,44 @@
+package com.example.common.cache;
+
+import lombok.Data;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Gateway response cache settings bound from the {@code response-cache} configuration prefix.
+ */
+@Data
+public class ResponseCacheProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Upper bound of the memory taken by cached responses.
+     */
+    private DataSize maxSize = DataSize.ofMegabytes(64);
+
+    /**
+     * Responses larger than this are never cached.
+     */
+    private DataSize maxEntrySize = DataSize.ofMegabytes(1);
+
+    /**
+     * Cached route groups, matched in declaration order.
+     */
+    private List<Route> routes = new ArrayList<>();
+
+    @Data
+    public static class Route {
+        private String id;
+        private List<String> paths = new ArrayList<>();
+        private Duration ttl = Duration.ofSeconds(30);
+
+        /**
+         * Paths whose successful non-GET requests invalidate every response cached for this group.
+         */
+        private List<String> invalidatedBy = new ArrayList<>();
+    }
+}
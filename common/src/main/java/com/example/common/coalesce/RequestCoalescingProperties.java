@@ -0,0 +1,32 @@
+package com.example.common.coalesce;
+
+import lombok.Data;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Request coalescing settings bound from the {@code request-coalescing} configuration prefix.
+ */
+@Data
+public class RequestCoalescingProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Ids of the gateway routes whose identical GET requests share one upstream call.
+     */
+    private List<String> routes = new ArrayList<>();
+
+    /**
+     * How long a request waits for the shared upstream call before proxying on its own.
+     */
+    private Duration maxWait = Duration.ofSeconds(10);
+
+    /**
+     * Responses larger than this are not shared; waiting requests proxy on their own instead.
+     */
+    private DataSize maxBodySize = DataSize.ofMegabytes(1);
+}
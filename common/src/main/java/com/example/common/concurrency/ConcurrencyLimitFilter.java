@@ -0,0 +1,84 @@
+package com.example.common.concurrency;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Admits requests through a {@link GradientConcurrencyLimiter} and rejects the excess at once with 503 and a
+ * {@code Retry-After} header, instead of letting them queue in the servlet container and the connection pool.
+ * A 503 or 504 answered by the application counts as a dropped request and backs the limit off; other 4xx answers
+ * are not measured. The limit, the in-flight count and the admission outcomes are published as
+ * {@code concurrency.limit}, {@code concurrency.in-flight} and {@code concurrency.requests}.
+ */
+@Slf4j
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final String RETRY_AFTER_SECONDS = "1";
+
+    private final GradientConcurrencyLimiter limiter;
+    private final Counter accepted;
+    private final Counter rejected;
+
+    public ConcurrencyLimitFilter(GradientConcurrencyLimiter limiter, MeterRegistry meterRegistry) {
+        this.limiter = limiter;
+        Gauge.builder("concurrency.limit", limiter, GradientConcurrencyLimiter::getLimit)
+                .description("Current adaptive concurrency limit")
+                .register(meterRegistry);
+        Gauge.builder("concurrency.in-flight", limiter, GradientConcurrencyLimiter::getInFlight)
+                .description("Requests currently admitted by the concurrency limit")
+                .register(meterRegistry);
+        Gauge.builder("concurrency.min-rtt", limiter, GradientConcurrencyLimiter::getMinRttMillis)
+                .description("Minimum RTT the concurrency limit is computed against")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        this.accepted = counter(meterRegistry, "accepted");
+        this.rejected = counter(meterRegistry, "rejected");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        GradientConcurrencyLimiter.Permit permit = limiter.tryAcquire();
+        if (permit == null) {
+            rejected.increment();
+            log.debug("Rejected {} {}, concurrency limit {} reached", request.getMethod(), request.getRequestURI(), limiter.getLimit());
+            response.setHeader(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS);
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Concurrency limit reached");
+            return;
+        }
+        accepted.increment();
+        boolean completed = false;
+        try {
+            filterChain.doFilter(request, response);
+            completed = true;
+        } finally {
+            int status = response.getStatus();
+            if (!completed) {
+                permit.onIgnore();
+            } else if (status == HttpServletResponse.SC_SERVICE_UNAVAILABLE || status == HttpServletResponse.SC_GATEWAY_TIMEOUT) {
+                permit.onDropped();
+            } else if (status >= 400 && status < 500) {
+                permit.onIgnore();
+            } else {
+                permit.onSuccess();
+            }
+        }
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("concurrency.requests")
+                .description("Requests by their concurrency limit admission outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
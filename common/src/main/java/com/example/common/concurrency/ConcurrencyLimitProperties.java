@@ -0,0 +1,61 @@
+package com.example.common.concurrency;
+
+import lombok.Data;
+
+import java.time.Duration;
+
+/**
+ * Adaptive concurrency limit settings bound from the {@code concurrency-limit} configuration prefix.
+ */
+@Data
+public class ConcurrencyLimitProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Limit used until the first window has been measured.
+     */
+    private int initialLimit = 20;
+
+    private int minLimit = 4;
+
+    private int maxLimit = 200;
+
+    /**
+     * Ratio of the current RTT to the minimum RTT tolerated before the limit shrinks.
+     */
+    private double rttTolerance = 1.5;
+
+    /**
+     * Weight of a new limit estimate, between 0 and 1; lower values react more slowly but oscillate less.
+     */
+    private double smoothing = 0.2;
+
+    /**
+     * Minimum length of a measurement window.
+     */
+    private Duration window = Duration.ofSeconds(1);
+
+    /**
+     * Minimum number of completed requests in a measurement window.
+     */
+    private int windowSamples = 10;
+
+    /**
+     * Average number of windows after which the minimum RTT is measured again, so it follows deployments and data
+     * growth. Each interval is drawn between half and one and a half times this value, so that the instances of a
+     * service do not all probe at once.
+     */
+    private int minRttResetWindows = 60;
+
+    /**
+     * Factor applied to the limit during the window that measures the minimum RTT again, when the service is too
+     * busy for its RTT to be the baseline. Enough to drain most of the queue without shedding most of the traffic.
+     */
+    private double probeRatio = 0.5;
+
+    /**
+     * Factor applied to the limit after a window in which requests timed out or were shed downstream.
+     */
+    private double backoffRatio = 0.9;
+}
@@ -0,0 +1,188 @@
+package com.example.common.concurrency;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Adaptive concurrency limit in the gradient (TCP Vegas) style.
+ * Requests are measured in windows; at the end of each window the average RTT is compared with the minimum RTT
+ * seen so far, the RTT of the service when nothing queues. While they are close the limit grows by about its square
+ * root, and as queueing inflates the RTT the limit shrinks in proportion, down to half per window.
+ * A window with timed-out or downstream-shed requests backs off, and the limit never grows while the service is
+ * not using half of it, so a quiet period does not leave a limit the service cannot sustain.
+ * The minimum RTT is measured again periodically, at jittered intervals so the instances of a service do not probe
+ * together. A window in which the service used at most half of its limit had no queue and its RTT is taken as the
+ * baseline as is; otherwise the limit is lowered by {@code probe-ratio} for one window to drain the queue, since
+ * measuring under full load would let the queueing delay creep into the baseline.
+ */
+public class GradientConcurrencyLimiter {
+
+    private static final double MIN_GRADIENT = 0.5;
+
+    private final ConcurrencyLimitProperties properties;
+    private final long windowNanos;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile double limit;
+
+    private long windowStart = System.nanoTime();
+    private long windowRttNanos;
+    private int windowCount;
+    private int windowMaxInFlight;
+    private boolean windowDropped;
+    private long minRttNanos;
+    private int windowsSinceReset;
+    private int windowsUntilReset;
+    private double limitBeforeProbe;
+    private boolean probing;
+
+    public GradientConcurrencyLimiter(ConcurrencyLimitProperties properties) {
+        this.properties = properties;
+        this.windowNanos = properties.getWindow().toNanos();
+        this.limit = clamp(properties.getInitialLimit());
+        this.windowsUntilReset = nextResetInterval();
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public synchronized double getMinRttMillis() {
+        return minRttNanos / 1_000_000d;
+    }
+
+    /**
+     * Admits a request if the limit allows it.
+     *
+     * @return the permit of the request, to be completed exactly once, or null if the request must be rejected
+     */
+    public Permit tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                return null;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return new Permit(current + 1);
+            }
+        }
+    }
+
+    private synchronized void sample(long start, int inFlightAtStart, boolean dropped) {
+        if (probing && start - windowStart < 0) {
+            // Admitted before the probe started, under the previous limit.
+            return;
+        }
+        long now = System.nanoTime();
+        windowRttNanos += now - start;
+        windowCount++;
+        windowMaxInFlight = Math.max(windowMaxInFlight, inFlightAtStart);
+        windowDropped |= dropped;
+        if (now - windowStart < windowNanos || windowCount < properties.getWindowSamples()) {
+            return;
+        }
+        long rtt = windowRttNanos / windowCount;
+        if (probing) {
+            minRttNanos = rtt;
+            probing = false;
+            limit = limitBeforeProbe;
+        } else if (++windowsSinceReset >= windowsUntilReset) {
+            windowsSinceReset = 0;
+            windowsUntilReset = nextResetInterval();
+            if (windowMaxInFlight * 2 <= limit) {
+                minRttNanos = rtt;
+                limit = nextLimit(rtt);
+            } else {
+                probing = true;
+                limitBeforeProbe = limit;
+                limit = clamp(limit * properties.getProbeRatio());
+            }
+        } else {
+            minRttNanos = minRttNanos == 0 ? rtt : Math.min(minRttNanos, rtt);
+            limit = nextLimit(rtt);
+        }
+        resetWindow(now);
+    }
+
+    private double nextLimit(long rtt) {
+        double current = limit;
+        double estimate;
+        if (windowDropped) {
+            estimate = current * properties.getBackoffRatio();
+        } else {
+            double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, properties.getRttTolerance() * minRttNanos / rtt));
+            estimate = current * gradient + Math.sqrt(current);
+            if (estimate > current && windowMaxInFlight * 2 < current) {
+                estimate = current;
+            }
+        }
+        return clamp((1 - properties.getSmoothing()) * current + properties.getSmoothing() * estimate);
+    }
+
+    private int nextResetInterval() {
+        int windows = properties.getMinRttResetWindows();
+        return Math.max(1, windows / 2 + ThreadLocalRandom.current().nextInt(windows + 1));
+    }
+
+    private void resetWindow(long now) {
+        windowStart = now;
+        windowRttNanos = 0;
+        windowCount = 0;
+        windowMaxInFlight = 0;
+        windowDropped = false;
+    }
+
+    private double clamp(double value) {
+        return Math.max(properties.getMinLimit(), Math.min(properties.getMaxLimit(), value));
+    }
+
+    /**
+     * The slot of one admitted request.
+     */
+    public final class Permit {
+        private final long start = System.nanoTime();
+        private final int inFlightAtStart;
+        private boolean released;
+
+        private Permit(int inFlightAtStart) {
+            this.inFlightAtStart = inFlightAtStart;
+        }
+
+        /**
+         * Releases the slot and measures the request.
+         */
+        public void onSuccess() {
+            if (release()) {
+                sample(start, inFlightAtStart, false);
+            }
+        }
+
+        /**
+         * Releases the slot of a request that timed out or was shed downstream, a sign of overload.
+         */
+        public void onDropped() {
+            if (release()) {
+                sample(start, inFlightAtStart, true);
+            }
+        }
+
+        /**
+         * Releases the slot of a request whose RTT says nothing about the load, such as a failed validation.
+         */
+        public void onIgnore() {
+            release();
+        }
+
+        private boolean release() {
+            if (released) {
+                return false;
+            }
+            released = true;
+            inFlight.decrementAndGet();
+            return true;
+        }
+    }
+}
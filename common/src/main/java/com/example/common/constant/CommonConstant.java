@@ -0,0 +1,18 @@
+package com.example.common.constant;
+
+
+/**
+ * Defines the constants both gateway editions must agree on: the claim names of the tokens they issue and verify,
+ * the role name that marks public endpoints in the permission tables, and the role that may operate the gateways.
+ */
+public class CommonConstant {
+
+
+    // This class is not meant to be instantiated
+    private CommonConstant() {}
+    public static final String ANONYMOUS = "ANONYMOUS";
+    public static final String ADMIN = "ADMIN";
+    public static final String CLAIM_USER_ID = "userId";
+    public static final String CLAIM_ROLE = "role";
+    public static final String UNKNOWN = "unknown";
+}
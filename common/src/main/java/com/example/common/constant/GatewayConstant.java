@@ -1,15 +1,15 @@
-package com.example.apigateway.constant;
+package com.example.common.constant;
 
 
 /**
- * Defines application-wide constant messages and parameters for validation, logging, and error handling.
+ * Defines the constant messages and parameters both gateway editions use for validation, logging, and error handling.
  * This class centralizes all static message strings to avoid hardcoding throughout the codebase.
  */
-public class Constant {
+public class GatewayConstant {
 
 
     // This class is not meant to be instantiated
-    private Constant() {}
+    private GatewayConstant() {}
     public static final String ASTERISK = "*";
     public static final String SLASH = "/";
     public static final String SLASH_ASTERISK_ASTERISK = "/**";
@@ -19,11 +19,12 @@ public class Constant {
     public static final String BAD_REQUEST = "BAD_REQUEST";
     public static final String HTTP_METHOD_NOT_ALLOWED = "HTTP_METHOD_NOT_ALLOWED";
     public static final String VALIDATION_ERROR = "VALIDATION_ERROR";
-    public static final String UNKNOWN = "unknown";
     public static final String INTERNAL_SERVER_ERROR = "Internal Server Error";
     public static final String UNAUTHORIZED = "UNAUTHORIZED";
     public static final String FORBIDDEN = "FORBIDDEN";
-    public static final String ANONYMOUS = "ANONYMOUS";
+    public static final String TOO_MANY_REQUESTS = "TOO_MANY_REQUESTS";
+    public static final String SERVICE_UNAVAILABLE = "SERVICE_UNAVAILABLE";
+    public static final String BEARER_PREFIX = "Bearer ";
     public static final int N_ONE = 1;
 
     // Exception messages
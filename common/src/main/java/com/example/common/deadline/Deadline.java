@@ -0,0 +1,98 @@
+package com.example.common.deadline;
+
+import java.time.Duration;
+
+/**
+ * Point in time after which the caller of a request no longer waits for its result.
+ * Deadlines travel between services as the remaining budget in milliseconds in the {@value #HEADER} header rather than
+ * as an absolute time, so clock skew between hosts does not matter; each hop turns it back into a local deadline.
+ */
+public final class Deadline {
+
+    /**
+     * Header carrying the remaining budget of a request, in milliseconds.
+     */
+    public static final String HEADER = "X-Request-Timeout";
+
+    /**
+     * Longest budget a deadline can have. Longer timeouts are cut down to it, and longer header values are
+     * rejected as malformed, so that a forged header can neither overflow {@link System#nanoTime()} arithmetic
+     * nor lift the deadlines of a service.
+     */
+    public static final Duration MAX_BUDGET = Duration.ofHours(1);
+
+    private final long deadlineNanos;
+
+    private Deadline(long deadlineNanos) {
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    /**
+     * @param timeout the budget from now, at most {@link #MAX_BUDGET}
+     * @return the deadline that many nanoseconds from now
+     */
+    public static Deadline after(Duration timeout) {
+        long budgetNanos = timeout.compareTo(MAX_BUDGET) > 0 ? MAX_BUDGET.toNanos() : timeout.toNanos();
+        return new Deadline(System.nanoTime() + budgetNanos);
+    }
+
+    /**
+     * Parses the value of the {@value #HEADER} header.
+     *
+     * @param header the header value, may be null
+     * @return the deadline, or null if the header is absent or malformed: not a number, negative or longer than
+     * {@link #MAX_BUDGET}
+     */
+    public static Deadline parseHeader(String header) {
+        if (header == null || header.isBlank()) {
+            return null;
+        }
+        long budgetMillis;
+        try {
+            budgetMillis = Long.parseLong(header.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        if (budgetMillis < 0 || budgetMillis > MAX_BUDGET.toMillis()) {
+            return null;
+        }
+        return after(Duration.ofMillis(budgetMillis));
+    }
+
+    /**
+     * @return the earlier of the two deadlines, either may be null
+     */
+    public static Deadline earliest(Deadline a, Deadline b) {
+        if (a == null) {
+            return b;
+        }
+        if (b == null) {
+            return a;
+        }
+        return a.deadlineNanos - b.deadlineNanos <= 0 ? a : b;
+    }
+
+    public Duration remaining() {
+        return Duration.ofNanos(Math.max(deadlineNanos - System.nanoTime(), 0));
+    }
+
+    public boolean isExpired() {
+        return deadlineNanos - System.nanoTime() <= 0;
+    }
+
+    /**
+     * @return the remaining budget formatted for the {@value #HEADER} header
+     */
+    public String toHeader() {
+        return Long.toString(remaining().toMillis());
+    }
+
+    /**
+     * @param timeout a timeout configured for an operation
+     * @return the timeout, shortened to the remaining budget
+     */
+    public Duration shorten(Duration timeout) {
+        Duration remaining = remaining();
+        return remaining.compareTo(timeout) < 0 ? remaining : timeout;
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.common.deadline;
+
+/**
+ * Holds the deadline of the request being served by the current thread.
+ * It is set by {@link DeadlineFilter} for the duration of a request and read by the Feign and transaction hooks.
+ */
+public final class DeadlineContext {
+
+    private static final ThreadLocal<Deadline> CURRENT = new ThreadLocal<>();
+
+    // This class is not meant to be instantiated
+    private DeadlineContext() {}
+
+    /**
+     * @return the deadline of the current request, or null if it has none
+     */
+    public static Deadline current() {
+        return CURRENT.get();
+    }
+
+    public static void set(Deadline deadline) {
+        CURRENT.set(deadline);
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Fails fast when the current request is already past its deadline.
+     *
+     * @param operation what was about to start, for the exception message
+     * @throws DeadlineExceededException if the deadline has passed
+     */
+    public static void checkNotExpired(String operation) {
+        Deadline deadline = CURRENT.get();
+        if (deadline != null && deadline.isExpired()) {
+            throw new DeadlineExceededException("Deadline exceeded before " + operation);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.common.deadline;
+
+/**
+ * Thrown instead of starting work whose caller has already given up.
+ */
+public class DeadlineExceededException extends RuntimeException {
+
+    public DeadlineExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.common.deadline;
+
+import feign.Capability;
+import feign.Client;
+import feign.Request;
+import feign.RequestInterceptor;
+import feign.RequestTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Makes OpenFeign clients respect the deadline of the request being served.
+ * As a request interceptor it forwards the remaining budget downstream in the {@value Deadline#HEADER} header;
+ * as a capability it refuses calls once the deadline has passed and shortens their connect and read timeouts to
+ * the remaining budget. Declared as a bean, it is applied to every Feign client of the application in both roles.
+ */
+public class DeadlineFeignCapability implements Capability, RequestInterceptor {
+
+    @Override
+    public void apply(RequestTemplate template) {
+        Deadline deadline = DeadlineContext.current();
+        if (deadline != null) {
+            template.removeHeader(Deadline.HEADER);
+            template.header(Deadline.HEADER, deadline.toHeader());
+        }
+    }
+
+    @Override
+    public Client enrich(Client client) {
+        return (request, options) -> {
+            Deadline deadline = DeadlineContext.current();
+            if (deadline == null) {
+                return client.execute(request, options);
+            }
+            if (deadline.isExpired()) {
+                throw new DeadlineExceededException("Deadline exceeded before calling " + request.url());
+            }
+            Duration connectTimeout = deadline.shorten(Duration.ofMillis(options.connectTimeoutMillis()));
+            Duration readTimeout = deadline.shorten(Duration.ofMillis(options.readTimeoutMillis()));
+            Request.Options shortened = new Request.Options(
+                    Math.max(connectTimeout.toMillis(), 1), TimeUnit.MILLISECONDS,
+                    Math.max(readTimeout.toMillis(), 1), TimeUnit.MILLISECONDS,
+                    options.isFollowRedirects());
+            return client.execute(request, shortened);
+        };
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.common.deadline;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Reads the {@value Deadline#HEADER} header of incoming requests into the {@link DeadlineContext}.
+ * A request that arrives with no budget left is answered with 504 without doing any work.
+ * Requests without the header have no deadline.
+ */
+public class DeadlineFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Deadline deadline = Deadline.parseHeader(request.getHeader(Deadline.HEADER));
+        if (deadline != null && deadline.isExpired()) {
+            response.sendError(HttpServletResponse.SC_GATEWAY_TIMEOUT, "Deadline exceeded");
+            return;
+        }
+        DeadlineContext.set(deadline);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            DeadlineContext.clear();
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.common.deadline;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+/**
+ * JPA transaction manager whose transaction timeout never exceeds the deadline of the request being served.
+ * Spring applies the transaction timeout to every query run in the transaction as its JDBC statement timeout,
+ * so queries are cancelled by the database once the caller has given up. A transaction is not even started when
+ * the deadline has already passed.
+ */
+public class DeadlineJpaTransactionManager extends JpaTransactionManager {
+
+    public DeadlineJpaTransactionManager(EntityManagerFactory entityManagerFactory) {
+        super(entityManagerFactory);
+    }
+
+    @Override
+    protected int determineTimeout(TransactionDefinition definition) {
+        int timeout = super.determineTimeout(definition);
+        Deadline deadline = DeadlineContext.current();
+        if (deadline == null) {
+            return timeout;
+        }
+        if (deadline.isExpired()) {
+            throw new DeadlineExceededException("Deadline exceeded before starting a transaction");
+        }
+        // Transaction timeouts have a granularity of seconds; round up so that a short budget is not zero.
+        int remaining = (int) Math.max(1, (deadline.remaining().toMillis() + 999) / 1000);
+        return timeout == TransactionDefinition.TIMEOUT_DEFAULT ? remaining : Math.min(timeout, remaining);
+    }
+}
@@ -1,4 +1,4 @@
-package com.example.apigateway.dto.request;
+package com.example.common.dto.request;
 
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.NotBlank;
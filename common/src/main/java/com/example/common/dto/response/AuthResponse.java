@@ -1,4 +1,4 @@
-package com.example.apigateway.dto.response;
+package com.example.common.dto.response;
 
 import lombok.Data;
 
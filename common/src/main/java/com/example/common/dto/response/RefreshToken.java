@@ -0,0 +1,19 @@
+package com.example.common.dto.response;
+
+import lombok.Data;
+
+import java.time.Instant;
+
+/**
+ * A refresh token and the record stored with it in Redis: the user it was issued to and the expiry of its family.
+ * The token itself and its family id are kept in the Redis key and hash, not in the encoded record.
+ */
+@Data
+public class RefreshToken {
+    private String token;
+    private String family;
+    private Long userId;
+    private String role;
+    private UserResponse user;
+    private Instant expiryDate;
+}
@@ -1,6 +1,5 @@
-package com.example.apigateway.dto.response;
+package com.example.common.dto.response;
 
-import com.example.apigateway.enumn.UserRoleEnum;
 import lombok.Data;
 
 @Data
@@ -14,5 +13,5 @@ public class UserResponse {
 
     private String email;
 
-    private UserRoleEnum role;
+    private String role;
 }
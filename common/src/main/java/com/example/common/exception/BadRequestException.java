@@ -1,4 +1,4 @@
-package com.example.apigateway.exception;
+package com.example.common.exception;
 
 /**
  * Exception thrown when a bad request is made by the client.
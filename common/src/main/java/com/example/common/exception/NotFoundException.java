@@ -1,4 +1,4 @@
-package com.example.apigateway.exception;
+package com.example.common.exception;
 
 /**
  * Exception thrown when a requested resource is not found.
@@ -1,4 +1,4 @@
-package com.example.apigateway.exception;
+package com.example.common.exception;
 
 /**
  * Custom exception class for handling unauthorized access.
@@ -0,0 +1,18 @@
+package com.example.common.geo;
+
+import java.net.InetAddress;
+import java.util.Optional;
+
+/**
+ * Resolves the country of an IP address for geo policies.
+ */
+public interface CountryResolver {
+
+    /**
+     * Resolves the ISO 3166-1 alpha-2 country code of an IP address.
+     *
+     * @param address the IP address
+     * @return the country code, or empty if the address is unknown or no database is loaded
+     */
+    Optional<String> getCountryIsoCode(InetAddress address);
+}
@@ -0,0 +1,54 @@
+package com.example.common.geo;
+
+import java.util.Collection;
+
+/**
+ * Set of ISO 3166-1 alpha-2 country codes stored as a 26×26 bitset, so membership is a single bit test.
+ */
+public final class CountrySet {
+
+    private static final int LETTERS = 26;
+
+    private final long[] bits = new long[(LETTERS * LETTERS + 63) / 64];
+    private final boolean empty;
+
+    public CountrySet(Collection<String> isoCodes) {
+        boolean none = true;
+        for (String isoCode : isoCodes) {
+            int index = indexOf(isoCode.trim());
+            if (index < 0) {
+                throw new IllegalArgumentException("Invalid ISO country code: " + isoCode);
+            }
+            bits[index >>> 6] |= 1L << index;
+            none = false;
+        }
+        this.empty = none;
+    }
+
+    /**
+     * Checks whether the country belongs to the set.
+     *
+     * @param isoCode the ISO 3166-1 alpha-2 country code
+     * @return true if the country belongs to the set, false otherwise or if the code is invalid
+     */
+    public boolean contains(String isoCode) {
+        int index = isoCode == null ? -1 : indexOf(isoCode);
+        return index >= 0 && (bits[index >>> 6] & (1L << index)) != 0;
+    }
+
+    public boolean isEmpty() {
+        return empty;
+    }
+
+    private static int indexOf(String isoCode) {
+        if (isoCode.length() != 2) {
+            return -1;
+        }
+        int first = Character.toUpperCase(isoCode.charAt(0)) - 'A';
+        int second = Character.toUpperCase(isoCode.charAt(1)) - 'A';
+        if (first < 0 || first >= LETTERS || second < 0 || second >= LETTERS) {
+            return -1;
+        }
+        return first * LETTERS + second;
+    }
+}
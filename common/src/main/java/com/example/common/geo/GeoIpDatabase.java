@@ -0,0 +1,155 @@
+package com.example.common.geo;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.maxmind.db.CHMCache;
+import com.maxmind.db.Reader;
+import com.maxmind.geoip2.DatabaseReader;
+import com.maxmind.geoip2.exception.GeoIp2Exception;
+import com.maxmind.geoip2.model.CountryResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MaxMind country database shared by both gateway editions.
+ * The database is memory-mapped from a filesystem path with a node cache, and resolved countries are kept
+ * in a bounded cache in front of the reader. The file is polled for changes; a new database is opened next
+ * to the current one and swapped in with a single volatile write, so in-flight lookups are never dropped.
+ * The replaced reader is closed on the following poll, once no lookup can still be using it.
+ * New databases should be moved into place atomically (write to a temporary file, then rename).
+ * Callers are expected to invoke {@link #reloadIfChanged()} periodically and {@link #close()} on shutdown.
+ */
+@Slf4j
+public class GeoIpDatabase implements CountryResolver, Closeable {
+
+    private static final String UNKNOWN_COUNTRY = "";
+
+    private final File databaseFile;
+    private final Cache<InetAddress, CachedCountry> countryCache;
+    private final Timer lookupTimer;
+    private volatile LoadedDatabase database;
+    private LoadedDatabase retired;
+
+    public GeoIpDatabase(String databasePath, long cacheMaxSize, MeterRegistry meterRegistry) {
+        this.databaseFile = new File(databasePath);
+        this.countryCache = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .recordStats()
+                .build();
+        this.lookupTimer = Timer.builder("gateway.geoip.lookup")
+                .description("Time spent resolving the country of a client IP")
+                .register(meterRegistry);
+        CaffeineCacheMetrics.monitor(meterRegistry, countryCache, "geoip.country");
+        reloadIfChanged();
+    }
+
+    @Override
+    public Optional<String> getCountryIsoCode(InetAddress address) {
+        long start = System.nanoTime();
+        try {
+            LoadedDatabase current = database;
+            if (current == null) {
+                return Optional.empty();
+            }
+            CachedCountry cached = countryCache.getIfPresent(address);
+            if (cached == null || cached.source != current) {
+                cached = new CachedCountry(current, lookup(current.reader, address));
+                countryCache.put(address, cached);
+            }
+            return cached.isoCode.isEmpty() ? Optional.empty() : Optional.of(cached.isoCode);
+        } finally {
+            lookupTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Opens the database again when the file has been replaced, and closes the reader retired by the previous swap.
+     * A database that fails to open is ignored and the current one keeps serving.
+     */
+    public synchronized void reloadIfChanged() {
+        closeQuietly(retired);
+        retired = null;
+        LoadedDatabase current = database;
+        if (!databaseFile.isFile()) {
+            if (current == null) {
+                log.warn("GeoIP database {} not found, geo-restricted routes will be denied", databaseFile);
+            }
+            return;
+        }
+        long lastModified = databaseFile.lastModified();
+        long length = databaseFile.length();
+        if (current != null && current.lastModified == lastModified && current.length == length) {
+            return;
+        }
+        try {
+            DatabaseReader reader = new DatabaseReader.Builder(databaseFile)
+                    .fileMode(Reader.FileMode.MEMORY_MAPPED)
+                    .withCache(new CHMCache())
+                    .build();
+            database = new LoadedDatabase(reader, lastModified, length);
+            retired = current;
+            log.info("Loaded GeoIP database {} built {}", databaseFile, reader.getMetadata().getBuildDate());
+        } catch (IOException e) {
+            log.warn("Unable to load GeoIP database {}: {}", databaseFile, e.getMessage());
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        closeQuietly(retired);
+        closeQuietly(database);
+    }
+
+    private static String lookup(DatabaseReader reader, InetAddress address) {
+        try {
+            return reader.tryCountry(address)
+                    .map(CountryResponse::getCountry)
+                    .map(country -> country.getIsoCode() == null ? UNKNOWN_COUNTRY : country.getIsoCode())
+                    .orElse(UNKNOWN_COUNTRY);
+        } catch (IOException | GeoIp2Exception e) {
+            return UNKNOWN_COUNTRY;
+        }
+    }
+
+    private static void closeQuietly(LoadedDatabase loaded) {
+        if (loaded == null) {
+            return;
+        }
+        try {
+            loaded.reader.close();
+        } catch (IOException e) {
+            log.warn("Unable to close GeoIP database: {}", e.getMessage());
+        }
+    }
+
+    private static final class LoadedDatabase {
+        private final DatabaseReader reader;
+        private final long lastModified;
+        private final long length;
+
+        private LoadedDatabase(DatabaseReader reader, long lastModified, long length) {
+            this.reader = reader;
+            this.lastModified = lastModified;
+            this.length = length;
+        }
+    }
+
+    private static final class CachedCountry {
+        private final LoadedDatabase source;
+        private final String isoCode;
+
+        private CachedCountry(LoadedDatabase source, String isoCode) {
+            this.source = source;
+            this.isoCode = isoCode;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.common.geo;
+
+import com.example.common.routing.RouteTrie;
+import lombok.Getter;
+import org.springframework.http.HttpMethod;
+
+import java.net.InetAddress;
+import java.util.List;
+
+/**
+ * A compiled geo policy. CIDR rules are checked first through a prefix trie, the most specific block winning
+ * with deny taking precedence on identical blocks; the GeoIP database is consulted only when no block matches
+ * and the policy has country rules. A policy with an allow list denies everything it does not allow.
+ */
+public class GeoPolicy {
+
+    @Getter
+    private final String id;
+    private final IpPrefixTrie<Boolean> cidrRules = new IpPrefixTrie<>();
+    private final CountrySet allowCountries;
+    private final CountrySet denyCountries;
+    private final boolean defaultAllow;
+
+    public GeoPolicy(GeoPolicyProperties.Policy properties) {
+        this.id = properties.getId();
+        properties.getAllowCidrs().forEach(cidr -> cidrRules.add(cidr, Boolean.TRUE));
+        properties.getDenyCidrs().forEach(cidr -> cidrRules.add(cidr, Boolean.FALSE));
+        this.allowCountries = new CountrySet(properties.getAllowCountries());
+        this.denyCountries = new CountrySet(properties.getDenyCountries());
+        this.defaultAllow = properties.getAllowCountries().isEmpty() && properties.getAllowCidrs().isEmpty();
+    }
+
+    /**
+     * Decides whether a client may call the routes covered by this policy.
+     *
+     * @param client          the client address, or null if it could not be determined
+     * @param countryResolver resolves countries, only used when no CIDR rule matches
+     * @return true if the client is allowed, false otherwise
+     */
+    public boolean isAllowed(InetAddress client, CountryResolver countryResolver) {
+        if (client == null) {
+            return false;
+        }
+        Boolean cidrDecision = cidrRules.longestMatch(client.getAddress());
+        if (cidrDecision != null) {
+            return cidrDecision;
+        }
+        if (allowCountries.isEmpty() && denyCountries.isEmpty()) {
+            return defaultAllow;
+        }
+        String country = countryResolver.getCountryIsoCode(client).orElse(null);
+        if (denyCountries.contains(country)) {
+            return false;
+        }
+        return allowCountries.contains(country) || defaultAllow;
+    }
+
+    /**
+     * Compiles policies into a route trie, in declaration order so the first matching policy applies.
+     *
+     * @param policies the configured policies
+     * @return the trie of policies, keyed by method and path pattern
+     */
+    public static RouteTrie<GeoPolicy> compile(List<GeoPolicyProperties.Policy> policies) {
+        RouteTrie<GeoPolicy> compiled = new RouteTrie<>();
+        for (GeoPolicyProperties.Policy policyProperties : policies) {
+            GeoPolicy policy = new GeoPolicy(policyProperties);
+            for (String path : policyProperties.getPaths()) {
+                if (policyProperties.getMethods().isEmpty()) {
+                    compiled.add(null, path, policy);
+                } else {
+                    policyProperties.getMethods().forEach(method -> compiled.add(HttpMethod.valueOf(method), path, policy));
+                }
+            }
+        }
+        return compiled;
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.common.geo;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Geo restriction settings bound from the {@code geoip} configuration prefix.
+ */
+@Data
+public class GeoPolicyProperties {
+
+    /**
+     * CIDR blocks of the reverse proxies whose X-Forwarded-For / Forwarded headers are trusted.
+     */
+    private List<String> trustedProxies = new ArrayList<>();
+
+    /**
+     * Per-route policies, matched in declaration order.
+     */
+    private List<Policy> policies = new ArrayList<>();
+
+    @Data
+    public static class Policy {
+        private String id;
+        private List<String> paths = new ArrayList<>();
+        private List<String> methods = new ArrayList<>();
+        private List<String> allowCountries = new ArrayList<>();
+        private List<String> denyCountries = new ArrayList<>();
+        private List<String> allowCidrs = new ArrayList<>();
+        private List<String> denyCidrs = new ArrayList<>();
+    }
+}
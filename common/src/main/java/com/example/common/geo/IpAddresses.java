@@ -0,0 +1,202 @@
+package com.example.common.geo;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.Arrays;
+
+/**
+ * Parses IP address literals and CIDR blocks without ever falling back to a DNS lookup,
+ * unlike {@link InetAddress#getByName(String)} which resolves anything that is not a literal.
+ */
+public final class IpAddresses {
+
+    // This class is not meant to be instantiated
+    private IpAddresses() {}
+
+    /**
+     * Parses an IPv4 or IPv6 literal.
+     *
+     * @param value the literal, optionally bracketed (IPv6); scoped IPv6 literals ({@code fe80::1%eth0}) are rejected
+     * @return the address, or null if the value is not an IP literal
+     */
+    public static InetAddress parse(String value) {
+        if (value == null) {
+            return null;
+        }
+        String literal = value.trim();
+        if (literal.startsWith("[") && literal.endsWith("]")) {
+            literal = literal.substring(1, literal.length() - 1);
+        }
+        if (literal.isEmpty()) {
+            return null;
+        }
+        byte[] bytes = literal.indexOf(':') >= 0 ? parseIpv6(literal) : parseIpv4(literal);
+        if (bytes == null) {
+            return null;
+        }
+        try {
+            // Raw bytes are never resolved; an IPv4-mapped IPv6 address comes back as its IPv4 address
+            return InetAddress.getByAddress(bytes);
+        } catch (UnknownHostException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Parses a CIDR block such as {@code 10.0.0.0/8}; a bare address is a block of one address.
+     *
+     * @param cidr the CIDR block
+     * @return the network address and prefix length
+     * @throws IllegalArgumentException if the value is not a valid CIDR block
+     */
+    public static Cidr parseCidr(String cidr) {
+        int slash = cidr.indexOf('/');
+        InetAddress address = parse(slash < 0 ? cidr : cidr.substring(0, slash));
+        if (address == null) {
+            throw new IllegalArgumentException("Invalid CIDR block: " + cidr);
+        }
+        byte[] bytes = address.getAddress();
+        int prefixLength = bytes.length * 8;
+        if (slash >= 0) {
+            try {
+                prefixLength = Integer.parseInt(cidr.substring(slash + 1).trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid CIDR block: " + cidr, e);
+            }
+            if (prefixLength < 0 || prefixLength > bytes.length * 8) {
+                throw new IllegalArgumentException("Invalid CIDR block: " + cidr);
+            }
+        }
+        return new Cidr(bytes, prefixLength);
+    }
+
+    private static byte[] parseIpv4(String literal) {
+        byte[] bytes = new byte[4];
+        int octet = 0;
+        int value = -1;
+        for (int i = 0; i < literal.length(); i++) {
+            char c = literal.charAt(i);
+            if (c == '.') {
+                if (value < 0 || octet == 3) {
+                    return null;
+                }
+                bytes[octet++] = (byte) value;
+                value = -1;
+            } else if (c >= '0' && c <= '9') {
+                value = (value < 0 ? 0 : value * 10) + (c - '0');
+                if (value > 255) {
+                    return null;
+                }
+            } else {
+                return null;
+            }
+        }
+        if (value < 0 || octet != 3) {
+            return null;
+        }
+        bytes[3] = (byte) value;
+        return bytes;
+    }
+
+    /**
+     * Parses the RFC 4291 text forms: eight groups of up to four hex digits, at most one {@code ::} standing for one
+     * or more zero groups, and an optional dotted IPv4 address in place of the last two groups.
+     */
+    private static byte[] parseIpv6(String literal) {
+        byte[] bytes = new byte[16];
+        int length = literal.length();
+        int position = 0;
+        int compressed = -1;
+        int i = 0;
+        if (literal.startsWith("::")) {
+            compressed = 0;
+            i = 2;
+        } else if (literal.charAt(0) == ':') {
+            return null;
+        }
+        while (i < length) {
+            if (position == 16) {
+                return null;
+            }
+            int groupStart = i;
+            int value = 0;
+            for (int digit; i < length && (digit = hexDigit(literal.charAt(i))) >= 0; i++) {
+                if (i - groupStart == 4) {
+                    return null;
+                }
+                value = value << 4 | digit;
+            }
+            if (i == groupStart) {
+                return null;
+            }
+            if (i < length && literal.charAt(i) == '.') {
+                byte[] ipv4 = position > 12 ? null : parseIpv4(literal.substring(groupStart));
+                if (ipv4 == null) {
+                    return null;
+                }
+                System.arraycopy(ipv4, 0, bytes, position, 4);
+                position += 4;
+                break;
+            }
+            bytes[position++] = (byte) (value >>> 8);
+            bytes[position++] = (byte) value;
+            if (i == length) {
+                break;
+            }
+            if (literal.charAt(i++) != ':' || i == length) {
+                return null;
+            }
+            if (literal.charAt(i) == ':') {
+                if (compressed >= 0) {
+                    return null;
+                }
+                compressed = position;
+                i++;
+            }
+        }
+        if (compressed < 0) {
+            return position == 16 ? bytes : null;
+        }
+        if (position == 16) {
+            return null;
+        }
+        int gap = 16 - position;
+        System.arraycopy(bytes, compressed, bytes, compressed + gap, position - compressed);
+        Arrays.fill(bytes, compressed, compressed + gap, (byte) 0);
+        return bytes;
+    }
+
+    private static int hexDigit(char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        if (c >= 'a' && c <= 'f') {
+            return c - 'a' + 10;
+        }
+        if (c >= 'A' && c <= 'F') {
+            return c - 'A' + 10;
+        }
+        return -1;
+    }
+
+    /**
+     * A parsed CIDR block.
+     */
+    public static final class Cidr {
+        private final byte[] address;
+        private final int prefixLength;
+
+        private Cidr(byte[] address, int prefixLength) {
+            this.address = address;
+            this.prefixLength = prefixLength;
+        }
+
+        public byte[] getAddress() {
+            return address;
+        }
+
+        public int getPrefixLength() {
+            return prefixLength;
+        }
+    }
+}
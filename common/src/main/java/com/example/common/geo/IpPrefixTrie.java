@@ -0,0 +1,73 @@
+package com.example.common.geo;
+
+/**
+ * Binary prefix trie of CIDR blocks, answering longest-prefix matches in at most 32 (IPv4) or 128 (IPv6) steps
+ * regardless of the number of blocks. IPv4 and IPv6 blocks are kept in separate tries.
+ *
+ * @param <T> the type of the value attached to each block
+ */
+public class IpPrefixTrie<T> {
+
+    private final Node<T> ipv4Root = new Node<>();
+    private final Node<T> ipv6Root = new Node<>();
+    private boolean empty = true;
+
+    /**
+     * Adds a CIDR block. When the same block is added twice, the last value wins.
+     *
+     * @param cidr  the CIDR block, for example {@code 10.0.0.0/8}
+     * @param value the value attached to the block
+     */
+    public void add(String cidr, T value) {
+        IpAddresses.Cidr block = IpAddresses.parseCidr(cidr.trim());
+        byte[] address = block.getAddress();
+        Node<T> node = address.length == 4 ? ipv4Root : ipv6Root;
+        for (int bit = 0; bit < block.getPrefixLength(); bit++) {
+            int branch = bitAt(address, bit);
+            if (node.children[branch] == null) {
+                node.children[branch] = new Node<>();
+            }
+            node = node.children[branch];
+        }
+        node.value = value;
+        empty = false;
+    }
+
+    /**
+     * Finds the value of the most specific block containing the address.
+     *
+     * @param address the raw address, 4 or 16 bytes
+     * @return the value of the longest matching block, or null if no block contains the address
+     */
+    public T longestMatch(byte[] address) {
+        Node<T> node = address.length == 4 ? ipv4Root : ipv6Root;
+        T best = node.value;
+        for (int bit = 0; bit < address.length * 8; bit++) {
+            node = node.children[bitAt(address, bit)];
+            if (node == null) {
+                break;
+            }
+            if (node.value != null) {
+                best = node.value;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * @return true if no block has been added
+     */
+    public boolean isEmpty() {
+        return empty;
+    }
+
+    private static int bitAt(byte[] address, int bit) {
+        return (address[bit >>> 3] >>> (7 - (bit & 7))) & 1;
+    }
+
+    private static final class Node<T> {
+        @SuppressWarnings("unchecked")
+        private final Node<T>[] children = new Node[2];
+        private T value;
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.common.geo;
+
+import java.net.InetAddress;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Resolves the real client address behind a chain of trusted reverse proxies.
+ * Forwarding headers are only honoured when the request comes from a trusted proxy; the chain of hops is then
+ * walked from the closest one back, skipping trusted proxies, and the first untrusted hop is the client.
+ * The standard {@code Forwarded} header takes precedence over {@code X-Forwarded-For}.
+ * Instances are immutable; the servlet and reactive resolvers build a new one whenever the configuration changes.
+ */
+public class TrustedProxies {
+
+    public static final String FORWARDED = "Forwarded";
+    public static final String X_FORWARDED_FOR = "X-Forwarded-For";
+
+    private static final String FOR_PARAMETER = "for=";
+
+    private final IpPrefixTrie<Boolean> proxies = new IpPrefixTrie<>();
+
+    /**
+     * @param cidrs the CIDR blocks of the trusted proxies
+     * @throws IllegalArgumentException if a block cannot be parsed
+     */
+    public TrustedProxies(List<String> cidrs) {
+        cidrs.forEach(cidr -> proxies.add(cidr, Boolean.TRUE));
+    }
+
+    /**
+     * Resolves the client address of a request.
+     *
+     * @param remoteAddress the address of the peer the request was received from
+     * @param forwarded     the values of the {@code Forwarded} headers, in order
+     * @param forwardedFor  the values of the {@code X-Forwarded-For} headers, in order
+     * @return the client address, or null if the peer or a forwarded hop cannot be parsed
+     */
+    public InetAddress resolveClient(String remoteAddress, List<String> forwarded, List<String> forwardedFor) {
+        InetAddress remote = IpAddresses.parse(remoteAddress);
+        if (remote == null || !isTrusted(remote)) {
+            return remote;
+        }
+        List<String> hops = forwardedHops(forwarded, forwardedFor);
+        InetAddress client = remote;
+        for (int i = hops.size() - 1; i >= 0 && isTrusted(client); i--) {
+            client = IpAddresses.parse(hops.get(i));
+            if (client == null) {
+                return null;
+            }
+        }
+        return client;
+    }
+
+    private boolean isTrusted(InetAddress address) {
+        return !proxies.isEmpty() && proxies.longestMatch(address.getAddress()) != null;
+    }
+
+    private static List<String> forwardedHops(List<String> forwarded, List<String> forwardedFor) {
+        List<String> hops = new ArrayList<>();
+        if (forwarded != null) {
+            for (String header : forwarded) {
+                for (String element : header.split(",")) {
+                    for (String pair : element.split(";")) {
+                        String trimmed = pair.trim();
+                        if (trimmed.regionMatches(true, 0, FOR_PARAMETER, 0, FOR_PARAMETER.length())) {
+                            hops.add(stripPort(unquote(trimmed.substring(FOR_PARAMETER.length()))));
+                        }
+                    }
+                }
+            }
+        }
+        if (!hops.isEmpty() || forwardedFor == null) {
+            return hops;
+        }
+        for (String header : forwardedFor) {
+            for (String hop : header.split(",")) {
+                hops.add(stripPort(hop.trim()));
+            }
+        }
+        return hops;
+    }
+
+    private static String unquote(String value) {
+        return value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")
+                ? value.substring(1, value.length() - 1) : value;
+    }
+
+    /**
+     * Removes the port from {@code 192.0.2.1:8080} and {@code [2001:db8::1]:8080}; bare IPv6 literals are kept as is.
+     */
+    private static String stripPort(String hop) {
+        if (hop.startsWith("[")) {
+            int end = hop.indexOf(']');
+            return end < 0 ? hop : hop.substring(1, end);
+        }
+        int colon = hop.indexOf(':');
+        return colon >= 0 && colon == hop.lastIndexOf(':') ? hop.substring(0, colon) : hop;
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.common.loadbalancer;
+
+/**
+ * Circuit breaker of one service instance.
+ * A closed circuit counts consecutive failures and the failure rate of the current window, and opens when either
+ * crosses its threshold. An open circuit ejects the instance for an exponentially growing time, after which it is
+ * half-open: a single probe request is let through, and its outcome closes the circuit or ejects the instance again.
+ * Every healthy window decreases the ejection level, so an instance that recovered is not punished forever.
+ */
+public class InstanceCircuit {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final String instanceId;
+    private final OutlierDetectionProperties properties;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long windowStart = System.nanoTime();
+    private int windowRequests;
+    private int windowFailures;
+    private boolean ejectedInWindow;
+    private int ejections;
+    private long openUntil;
+    private boolean probeInFlight;
+
+    InstanceCircuit(String instanceId, OutlierDetectionProperties properties) {
+        this.instanceId = instanceId;
+        this.properties = properties;
+    }
+
+    public String getInstanceId() {
+        return instanceId;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * Tells whether a request may be sent to the instance, moving an open circuit whose ejection time is over
+     * to half-open.
+     *
+     * @return true if the circuit is closed, or half-open without a probe in flight
+     */
+    synchronized boolean isAvailable() {
+        if (state == State.OPEN && System.nanoTime() - openUntil >= 0) {
+            state = State.HALF_OPEN;
+            probeInFlight = false;
+        }
+        return state == State.CLOSED || state == State.HALF_OPEN && !probeInFlight;
+    }
+
+    /**
+     * @return the time the ejection of an open circuit ends, as a {@link System#nanoTime()} value
+     */
+    synchronized long getOpenUntil() {
+        return openUntil;
+    }
+
+    synchronized void requestStarted() {
+        if (state == State.HALF_OPEN) {
+            probeInFlight = true;
+        }
+    }
+
+    /**
+     * Forgets a request that ended without an outcome; a probe in flight lets the next request probe instead.
+     */
+    synchronized void requestDiscarded() {
+        if (state == State.HALF_OPEN) {
+            probeInFlight = false;
+        }
+    }
+
+    /**
+     * Records the outcome of a request.
+     *
+     * @param success whether the request succeeded
+     */
+    synchronized void requestCompleted(boolean success) {
+        switch (state) {
+            case HALF_OPEN -> {
+                probeInFlight = false;
+                if (success) {
+                    close();
+                } else {
+                    eject();
+                }
+            }
+            case CLOSED -> record(success);
+            case OPEN -> {
+                // Late responses of requests sent before the ejection are ignored.
+            }
+        }
+    }
+
+    private void record(boolean success) {
+        long now = System.nanoTime();
+        if (now - windowStart >= properties.getWindow().toNanos()) {
+            if (!ejectedInWindow && ejections > 0) {
+                ejections--;
+            }
+            windowStart = now;
+            windowRequests = 0;
+            windowFailures = 0;
+            ejectedInWindow = false;
+        }
+        windowRequests++;
+        if (success) {
+            consecutiveFailures = 0;
+            return;
+        }
+        windowFailures++;
+        consecutiveFailures++;
+        boolean tooManyConsecutive = consecutiveFailures >= properties.getConsecutiveFailures();
+        boolean rateExceeded = windowRequests >= properties.getMinimumRequests()
+                && (double) windowFailures / windowRequests >= properties.getFailureRateThreshold();
+        if (tooManyConsecutive || rateExceeded) {
+            eject();
+        }
+    }
+
+    private void eject() {
+        long base = properties.getBaseEjectionTime().toNanos();
+        long max = properties.getMaxEjectionTime().toNanos();
+        long ejectionTime = Math.min(base << Math.min(ejections, 20), max);
+        ejections++;
+        state = State.OPEN;
+        openUntil = System.nanoTime() + ejectionTime;
+        ejectedInWindow = true;
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        windowStart = System.nanoTime();
+        windowRequests = 0;
+        windowFailures = 0;
+    }
+}
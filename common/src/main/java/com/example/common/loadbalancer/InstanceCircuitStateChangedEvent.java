@@ -0,0 +1,25 @@
+package com.example.common.loadbalancer;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Event published whenever the circuit of a load-balanced instance changes state.
+ */
+@Getter
+public class InstanceCircuitStateChangedEvent extends ApplicationEvent {
+
+    private final String serviceId;
+    private final String instanceId;
+    private final InstanceCircuit.State from;
+    private final InstanceCircuit.State to;
+
+    public InstanceCircuitStateChangedEvent(Object source, String serviceId, String instanceId,
+                                            InstanceCircuit.State from, InstanceCircuit.State to) {
+        super(source);
+        this.serviceId = serviceId;
+        this.instanceId = instanceId;
+        this.from = from;
+        this.to = to;
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.common.loadbalancer;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Latency and load statistics of one service instance.
+ * The latency is an exponentially weighted moving average whose weight depends on the time elapsed since the
+ * previous sample, so an instance that slows down (a GC pause, a noisy host) is noticed after a few requests
+ * whatever the request rate is. Only the instances the balancer selects are measured, so the average is also
+ * decayed when read: an instance that stopped being selected because it was slow drifts back toward the cost of an
+ * unmeasured instance, is tried again and re-measured, instead of being shunned on one stale sample forever.
+ */
+public class InstanceStats {
+
+    private final String instanceId;
+    private final long decayNanos;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private long ewmaNanos;
+    private long lastSampleNanos;
+    private long samples;
+
+    InstanceStats(String instanceId, long decayNanos) {
+        this.instanceId = instanceId;
+        this.decayNanos = decayNanos;
+    }
+
+    public String getInstanceId() {
+        return instanceId;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public synchronized double getEwmaMillis() {
+        return ewmaNanos / 1_000_000d;
+    }
+
+    public synchronized long getSamples() {
+        return samples;
+    }
+
+    /**
+     * Returns the cost of sending one more request to this instance, the expected latency multiplied by the
+     * number of requests it would be serving. Instances without samples yet cost only their in-flight count,
+     * so newly registered instances are tried first and measured quickly. The expected latency loses weight with
+     * the time since the last sample, at the rate samples lose weight to newer ones.
+     *
+     * @return the cost, lower is better
+     */
+    public double score() {
+        return score(System.nanoTime());
+    }
+
+    double score(long now) {
+        double ewma;
+        synchronized (this) {
+            ewma = samples == 0 ? 0 : ewmaNanos * Math.exp(-(double) Math.max(now - lastSampleNanos, 0) / decayNanos);
+        }
+        return scoreOf(ewma, inFlight.get());
+    }
+
+    /**
+     * @return the cost of an instance that was never measured and serves no request
+     */
+    static double unmeasuredScore() {
+        return scoreOf(0, 0);
+    }
+
+    private static double scoreOf(double ewmaNanos, int inFlight) {
+        return (ewmaNanos + 1) * (inFlight + 1);
+    }
+
+    void requestStarted() {
+        inFlight.incrementAndGet();
+    }
+
+    /**
+     * @param latencyNanos the latency of the request, or a negative value if it was not measured
+     */
+    void requestCompleted(long latencyNanos) {
+        inFlight.updateAndGet(count -> Math.max(count - 1, 0));
+        if (latencyNanos >= 0) {
+            record(latencyNanos);
+        }
+    }
+
+    private synchronized void record(long latencyNanos) {
+        long now = System.nanoTime();
+        if (samples == 0) {
+            ewmaNanos = latencyNanos;
+        } else {
+            double weight = Math.exp(-(double) Math.max(now - lastSampleNanos, 0) / decayNanos);
+            ewmaNanos = (long) (ewmaNanos * weight + latencyNanos * (1 - weight));
+        }
+        lastSampleNanos = now;
+        samples++;
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.common.loadbalancer;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.TimedRequestContext;
+
+/**
+ * Load-balancer lifecycle feeding {@link InstanceStatsRegistry}: it counts the requests in flight on each instance
+ * and records their latency when they complete, whatever their outcome. A discarded request, such as an aborted
+ * hedge, leaves the in-flight count without a latency sample. A request {@link SupersededCalls superseded} by a hedge
+ * completes when the hedge answers, so its latency is a lower bound of the instance's, which is still worth recording.
+ * It is invoked by the gateway routes, the reactive gateway and the OpenFeign clients alike.
+ */
+public class InstanceStatsLifecycle implements LoadBalancerLifecycle<Object, Object, ServiceInstance> {
+
+    private final String serviceId;
+    private final InstanceStatsRegistry statsRegistry;
+
+    public InstanceStatsLifecycle(String serviceId, InstanceStatsRegistry statsRegistry) {
+        this.serviceId = serviceId;
+        this.statsRegistry = statsRegistry;
+    }
+
+    @Override
+    public void onStart(Request<Object> request) {
+        // Nothing is known about the instance until it is selected.
+    }
+
+    @Override
+    public void onStartRequest(Request<Object> request, Response<ServiceInstance> lbResponse) {
+        if (lbResponse == null || !lbResponse.hasServer()) {
+            return;
+        }
+        if (request.getContext() instanceof TimedRequestContext context) {
+            context.setRequestStartTime(System.nanoTime());
+        }
+        statsRegistry.get(serviceId, lbResponse.getServer()).requestStarted();
+    }
+
+    @Override
+    public void onComplete(CompletionContext<Object, ServiceInstance, Object> completionContext) {
+        Response<ServiceInstance> lbResponse = completionContext.getLoadBalancerResponse();
+        if (lbResponse == null || !lbResponse.hasServer()) {
+            return;
+        }
+        if (completionContext.status() == CompletionContext.Status.DISCARD) {
+            statsRegistry.get(serviceId, lbResponse.getServer()).requestCompleted(-1);
+            return;
+        }
+        Object context = completionContext.getLoadBalancerRequest().getContext();
+        long startTime = context instanceof TimedRequestContext timed ? timed.getRequestStartTime() : 0;
+        long latency = startTime > 0 ? System.nanoTime() - startTime : -1;
+        statsRegistry.get(serviceId, lbResponse.getServer()).requestCompleted(latency);
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.common.loadbalancer;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.cloud.client.ServiceInstance;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Registry of the {@link InstanceStats} of every load-balanced instance, grouped by service id.
+ * It lives in the application context and is shared by the per-service load-balancer contexts, so the balancer
+ * that picks an instance and the lifecycle that measures the request see the same statistics.
+ * Statistics of instances that are no longer selected expire after a while; only requests sent to an instance keep
+ * its statistics alive, not the balancer looking at them.
+ */
+public class InstanceStatsRegistry {
+
+    private static final Duration IDLE_EXPIRY = Duration.ofMinutes(10);
+
+    private final long decayNanos;
+    private final ConcurrentMap<String, Cache<String, InstanceStats>> services = new ConcurrentHashMap<>();
+
+    /**
+     * @param decay the time after which an old latency sample has lost about two thirds of its weight
+     */
+    public InstanceStatsRegistry(Duration decay) {
+        this.decayNanos = decay.toNanos();
+    }
+
+    /**
+     * Returns the statistics of an instance, creating them on first use.
+     *
+     * @param serviceId the service id
+     * @param instance  the instance
+     * @return the statistics of the instance
+     */
+    public InstanceStats get(String serviceId, ServiceInstance instance) {
+        return instances(serviceId).get(instanceId(instance), id -> new InstanceStats(id, decayNanos));
+    }
+
+    /**
+     * Returns the {@link InstanceStats#score() score} of an instance for the balancer to compare candidates.
+     * Unlike {@link #get}, it neither creates statistics nor keeps them from expiring, so instances that keep
+     * being drawn but never selected are forgotten.
+     *
+     * @param serviceId the service id
+     * @param instance  the instance
+     * @return the score of the instance, or that of an unmeasured instance if it has no statistics
+     */
+    public double score(String serviceId, ServiceInstance instance) {
+        InstanceStats stats = instances(serviceId).policy().getIfPresentQuietly(instanceId(instance));
+        return stats == null ? InstanceStats.unmeasuredScore() : stats.score();
+    }
+
+    private Cache<String, InstanceStats> instances(String serviceId) {
+        return services.computeIfAbsent(serviceId, id -> Caffeine.newBuilder().expireAfterAccess(IDLE_EXPIRY).build());
+    }
+
+    /**
+     * Describes the statistics of every tracked instance, for debugging.
+     *
+     * @return the in-flight count, EWMA latency, sample count and score of each instance, by service id
+     */
+    public Map<String, Map<String, Map<String, Object>>> describe() {
+        Map<String, Map<String, Map<String, Object>>> description = new TreeMap<>();
+        services.forEach((serviceId, instances) -> {
+            Map<String, Map<String, Object>> stats = new TreeMap<>();
+            instances.asMap().forEach((instanceId, instance) -> stats.put(instanceId, Map.of(
+                    "inFlight", instance.getInFlight(),
+                    "ewmaMillis", instance.getEwmaMillis(),
+                    "samples", instance.getSamples(),
+                    "score", instance.score())));
+            description.put(serviceId, stats);
+        });
+        return description;
+    }
+
+    static String instanceId(ServiceInstance instance) {
+        return instance.getInstanceId() != null
+                ? instance.getInstanceId()
+                : instance.getHost() + ":" + instance.getPort();
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.common.loadbalancer;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.loadbalancer.core.ReactorLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.RoundRobinLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.util.List;
+
+/**
+ * Per-service load-balancer configuration, registered as the default one with
+ * {@code @LoadBalancerClients(defaultConfiguration = LatencyAwareLoadBalancerConfiguration.class)}.
+ * Services listed under {@code loadbalancer.latency-aware.service-ids} are balanced by
+ * {@link PowerOfTwoChoicesLoadBalancer}, the others keep the round-robin strategy.
+ * An {@link InstanceStatsRegistry} bean must be declared in the application context; when an {@link OutlierDetector}
+ * bean is declared too, ejected instances are hidden from both strategies.
+ * This class must not be picked up by component scanning, otherwise it would apply to the application context.
+ */
+@Configuration(proxyBeanMethods = false)
+public class LatencyAwareLoadBalancerConfiguration {
+
+    public static final String SERVICE_IDS_PROPERTY = "loadbalancer.latency-aware.service-ids";
+
+    @Bean
+    public ReactorLoadBalancer<ServiceInstance> reactorServiceInstanceLoadBalancer(Environment environment,
+                                                                                   LoadBalancerClientFactory loadBalancerClientFactory,
+                                                                                   InstanceStatsRegistry statsRegistry) {
+        String serviceId = environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+        var supplier = loadBalancerClientFactory.getLazyProvider(serviceId, ServiceInstanceListSupplier.class);
+        List<String> latencyAwareServiceIds = Binder.get(environment)
+                .bind(SERVICE_IDS_PROPERTY, Bindable.listOf(String.class))
+                .orElse(List.of());
+        if (latencyAwareServiceIds.contains(serviceId)) {
+            return new PowerOfTwoChoicesLoadBalancer(serviceId, supplier, statsRegistry);
+        }
+        return new RoundRobinLoadBalancer(supplier, serviceId);
+    }
+
+    @Bean
+    public LoadBalancerLifecycle<Object, Object, ServiceInstance> instanceStatsLifecycle(Environment environment,
+                                                                                        InstanceStatsRegistry statsRegistry) {
+        return new InstanceStatsLifecycle(environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME), statsRegistry);
+    }
+
+    /**
+     * Outlier ejection, replacing the default discovery-backed instance list supplier with one that filters it.
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnBean(OutlierDetector.class)
+    static class OutlierDetectionConfiguration {
+
+        @Bean
+        public ServiceInstanceListSupplier outlierEjectingServiceInstanceListSupplier(ConfigurableApplicationContext context,
+                                                                                      OutlierDetector outlierDetector) {
+            return ServiceInstanceListSupplier.builder()
+                    .withDiscoveryClient()
+                    .withCaching()
+                    .with((ctx, delegate) -> new OutlierEjectingServiceInstanceListSupplier(delegate, outlierDetector))
+                    .build(context);
+        }
+
+        @Bean
+        public LoadBalancerLifecycle<Object, Object, ServiceInstance> outlierDetectionLifecycle(Environment environment,
+                                                                                               OutlierDetector outlierDetector) {
+            return new OutlierDetectionLifecycle(environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME), outlierDetector);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.common.loadbalancer;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.Map;
+
+/**
+ * Actuator endpoint exposing the per-instance load-balancer statistics, to see why traffic goes where it goes.
+ * It is not a component; applications declare it as a bean next to their {@link InstanceStatsRegistry}.
+ */
+@Endpoint(id = "loadbalancer")
+public class LoadBalancerStatsEndpoint {
+
+    private final InstanceStatsRegistry statsRegistry;
+
+    public LoadBalancerStatsEndpoint(InstanceStatsRegistry statsRegistry) {
+        this.statsRegistry = statsRegistry;
+    }
+
+    @ReadOperation
+    public Map<String, Map<String, Map<String, Object>>> stats() {
+        return statsRegistry.describe();
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.common.loadbalancer;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Load-balancer lifecycle reporting the outcome of every request to the {@link OutlierDetector}.
+ * A request fails when it cannot be completed (connection refused, timeout) or when the instance answers
+ * with a 5xx status. A 503 carrying {@code Retry-After} is the instance shedding load on purpose, as its
+ * concurrency limiter does; it answered promptly, so it is not a failure and cannot get a healthy instance ejected
+ * during a load spike. A call {@link SupersededCalls superseded} by a hedge fails too: the instance was slower than
+ * another one by more than the hedge delay, or did not answer at all. A discarded call, such as an aborted hedge,
+ * has no outcome.
+ */
+public class OutlierDetectionLifecycle implements LoadBalancerLifecycle<Object, Object, ServiceInstance> {
+
+    private final String serviceId;
+    private final OutlierDetector outlierDetector;
+
+    public OutlierDetectionLifecycle(String serviceId, OutlierDetector outlierDetector) {
+        this.serviceId = serviceId;
+        this.outlierDetector = outlierDetector;
+    }
+
+    @Override
+    public void onStart(Request<Object> request) {
+        // Nothing is known about the instance until it is selected.
+    }
+
+    @Override
+    public void onStartRequest(Request<Object> request, Response<ServiceInstance> lbResponse) {
+        if (lbResponse != null && lbResponse.hasServer()) {
+            outlierDetector.requestStarted(serviceId, lbResponse.getServer());
+        }
+    }
+
+    @Override
+    public void onComplete(CompletionContext<Object, ServiceInstance, Object> completionContext) {
+        Response<ServiceInstance> lbResponse = completionContext.getLoadBalancerResponse();
+        if (lbResponse == null || !lbResponse.hasServer()) {
+            return;
+        }
+        ServiceInstance instance = lbResponse.getServer();
+        if (completionContext.status() == CompletionContext.Status.DISCARD) {
+            outlierDetector.requestDiscarded(serviceId, instance);
+            return;
+        }
+        boolean success = !SupersededCalls.isSuperseded(serviceId, instance) && isSuccess(completionContext);
+        outlierDetector.requestCompleted(serviceId, instance, success);
+    }
+
+    private static boolean isSuccess(CompletionContext<Object, ServiceInstance, Object> completionContext) {
+        if (completionContext.status() != CompletionContext.Status.SUCCESS) {
+            return false;
+        }
+        if (!(completionContext.getClientResponse() instanceof ResponseData response)
+                || response.getHttpStatus() == null
+                || !response.getHttpStatus().is5xxServerError()) {
+            return true;
+        }
+        return isShed(response);
+    }
+
+    private static boolean isShed(ResponseData response) {
+        return response.getHttpStatus().value() == HttpStatus.SERVICE_UNAVAILABLE.value()
+                && response.getHeaders() != null
+                && response.getHeaders().containsKey(HttpHeaders.RETRY_AFTER);
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.common.loadbalancer;
+
+import lombok.Data;
+
+import java.time.Duration;
+
+/**
+ * Outlier detection settings bound from the {@code loadbalancer.outlier-detection} configuration prefix.
+ */
+@Data
+public class OutlierDetectionProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Number of consecutive failures after which an instance is ejected.
+     */
+    private int consecutiveFailures = 5;
+
+    /**
+     * Failure rate within a window above which an instance is ejected, between 0 and 1.
+     */
+    private double failureRateThreshold = 0.5;
+
+    /**
+     * Minimum number of requests within a window before the failure rate is considered.
+     */
+    private int minimumRequests = 20;
+
+    /**
+     * Length of the window the failure rate is computed over.
+     */
+    private Duration window = Duration.ofSeconds(10);
+
+    /**
+     * Ejection time of the first ejection; it doubles with every consecutive ejection.
+     */
+    private Duration baseEjectionTime = Duration.ofSeconds(30);
+
+    /**
+     * Upper bound of the ejection time.
+     */
+    private Duration maxEjectionTime = Duration.ofMinutes(5);
+
+    /**
+     * Largest share of the instances of a service that may be ejected at once, in percent. At least one instance may
+     * always be ejected; past the cap, the ejected instances nearest to the end of their ejection stay routable.
+     */
+    private int maxEjectionPercent = 50;
+}
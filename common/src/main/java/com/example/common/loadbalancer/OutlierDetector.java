@@ -0,0 +1,137 @@
+package com.example.common.loadbalancer;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Per-instance circuit breaking and outlier ejection for load-balanced services.
+ * It removes ejected instances from the candidate lists, so a failing instance stops receiving traffic long before
+ * the registry evicts it. No more than {@link OutlierDetectionProperties#getMaxEjectionPercent() max-ejection-percent}
+ * of the instances of a service are removed, so a fault shared by every instance (a bad deploy, a saturated
+ * database) does not pile the whole load on the few instances left; only a service whose single instance is
+ * ejected, or one configured with 100 percent, gets no candidate at all so that callers fail fast.
+ * Every state transition is logged, counted in {@code loadbalancer.outlier.transitions} and published as an
+ * {@link InstanceCircuitStateChangedEvent}.
+ */
+@Slf4j
+public class OutlierDetector {
+
+    private static final Duration IDLE_EXPIRY = Duration.ofMinutes(10);
+
+    private final OutlierDetectionProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ConcurrentMap<String, Cache<String, InstanceCircuit>> services = new ConcurrentHashMap<>();
+
+    public OutlierDetector(OutlierDetectionProperties properties, MeterRegistry meterRegistry,
+                           ApplicationEventPublisher eventPublisher) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Filters the instances of a service down to those that may receive a request.
+     *
+     * @param serviceId the service id
+     * @param instances the instances known to the registry
+     * @return the instances whose circuit is closed or ready for a probe, plus the ejected instances past the
+     * ejection cap; possibly none
+     */
+    public List<ServiceInstance> filter(String serviceId, List<ServiceInstance> instances) {
+        List<ServiceInstance> available = new ArrayList<>(instances.size());
+        List<Ejected> ejected = null;
+        for (ServiceInstance instance : instances) {
+            InstanceCircuit circuit = circuit(serviceId, instance);
+            if (transition(serviceId, circuit, circuit::isAvailable)) {
+                available.add(instance);
+            } else {
+                if (ejected == null) {
+                    ejected = new ArrayList<>();
+                }
+                ejected.add(new Ejected(instance, circuit.getOpenUntil()));
+            }
+        }
+        int maxEjected = Math.max(1, instances.size() * properties.getMaxEjectionPercent() / 100);
+        if (ejected != null && ejected.size() > maxEjected) {
+            long now = System.nanoTime();
+            ejected.sort(Comparator.comparingLong((Ejected candidate) -> candidate.openUntil - now));
+            for (Ejected candidate : ejected.subList(0, ejected.size() - maxEjected)) {
+                available.add(candidate.instance);
+            }
+            log.debug("{} instances of service {} are ejected, keeping {} of them routable", ejected.size(), serviceId,
+                    ejected.size() - maxEjected);
+        }
+        if (available.isEmpty() && !instances.isEmpty()) {
+            log.warn("Every instance of service {} is ejected, failing fast", serviceId);
+        }
+        return available;
+    }
+
+    void requestStarted(String serviceId, ServiceInstance instance) {
+        circuit(serviceId, instance).requestStarted();
+    }
+
+    void requestCompleted(String serviceId, ServiceInstance instance, boolean success) {
+        InstanceCircuit circuit = circuit(serviceId, instance);
+        transition(serviceId, circuit, () -> {
+            circuit.requestCompleted(success);
+            return null;
+        });
+    }
+
+    void requestDiscarded(String serviceId, ServiceInstance instance) {
+        circuit(serviceId, instance).requestDiscarded();
+    }
+
+    private <T> T transition(String serviceId, InstanceCircuit circuit, Supplier<T> action) {
+        InstanceCircuit.State from = circuit.getState();
+        T result = action.get();
+        InstanceCircuit.State to = circuit.getState();
+        if (from != to) {
+            log.info("Circuit of instance {} of service {} moved from {} to {}", circuit.getInstanceId(), serviceId, from, to);
+            meterRegistry.counter("loadbalancer.outlier.transitions",
+                    "service", serviceId, "instance", circuit.getInstanceId(), "state", to.name()).increment();
+            eventPublisher.publishEvent(new InstanceCircuitStateChangedEvent(this, serviceId, circuit.getInstanceId(), from, to));
+        }
+        return result;
+    }
+
+    private InstanceCircuit circuit(String serviceId, ServiceInstance instance) {
+        return services.computeIfAbsent(serviceId, this::newServiceCache)
+                .get(InstanceStatsRegistry.instanceId(instance), id -> new InstanceCircuit(id, properties));
+    }
+
+    private Cache<String, InstanceCircuit> newServiceCache(String serviceId) {
+        Cache<String, InstanceCircuit> circuits = Caffeine.newBuilder().expireAfterAccess(IDLE_EXPIRY).build();
+        Gauge.builder("loadbalancer.outlier.ejected", circuits, cache -> cache.asMap().values().stream()
+                        .filter(circuit -> circuit.getState() != InstanceCircuit.State.CLOSED)
+                        .count())
+                .tag("service", serviceId)
+                .register(meterRegistry);
+        return circuits;
+    }
+
+    private static final class Ejected {
+        private final ServiceInstance instance;
+        private final long openUntil;
+
+        private Ejected(ServiceInstance instance, long openUntil) {
+            this.instance = instance;
+            this.openUntil = openUntil;
+        }
+    }
+}
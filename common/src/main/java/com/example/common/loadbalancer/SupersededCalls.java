@@ -0,0 +1,60 @@
+package com.example.common.loadbalancer;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.net.URI;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Per-request record of the load-balanced calls whose response was not used because another call made for the same
+ * request answered first, as when a hedged call wins. The gateway route that selected the instance still completes
+ * its call with the winner's response, so the lifecycles look the call up here to count it as the failure it was.
+ * The record lives in the attributes of the current servlet request; outside of one, nothing is ever superseded.
+ */
+public final class SupersededCalls {
+
+    private static final String ATTRIBUTE = SupersededCalls.class.getName();
+
+    // This class is not meant to be instantiated
+    private SupersededCalls() {}
+
+    /**
+     * Records that the call of the current request to an instance was superseded.
+     *
+     * @param serviceId the service the call was load-balanced over
+     * @param uri       the uri of the call, on the instance it was sent to
+     */
+    @SuppressWarnings("unchecked")
+    public static void mark(String serviceId, URI uri) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return;
+        }
+        Set<String> calls = (Set<String>) attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (calls == null) {
+            calls = new HashSet<>();
+            attributes.setAttribute(ATTRIBUTE, calls, RequestAttributes.SCOPE_REQUEST);
+        }
+        calls.add(key(serviceId, uri.getHost(), uri.getPort()));
+    }
+
+    /**
+     * Tells whether the call of the current request to an instance was superseded.
+     *
+     * @param serviceId the service the call was load-balanced over
+     * @param instance  the instance the call was sent to
+     * @return true if another call answered the request instead
+     */
+    static boolean isSuperseded(String serviceId, ServiceInstance instance) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        Object calls = attributes == null ? null : attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        return calls instanceof Set<?> set && set.contains(key(serviceId, instance.getHost(), instance.getPort()));
+    }
+
+    private static String key(String serviceId, String host, int port) {
+        return serviceId + ' ' + host + ':' + port;
+    }
+}
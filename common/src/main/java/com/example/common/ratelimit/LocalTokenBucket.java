@@ -0,0 +1,143 @@
+package com.example.common.ratelimit;
+
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.LongFunction;
+
+/**
+ * Node-local share of a cluster-wide token bucket, split into stripes to keep threads from contending on one lock.
+ * Each stripe spends tokens leased from Redis and only goes back to Redis once they are used up or expired.
+ * Leases start at one token and double while each one is used up before it expires; a lease that expires is cut to
+ * what was spent of it, so tokens dropped on expiry stay close to the local rate instead of a full batch per stripe.
+ * After a refusal, the stripe remembers how long Redis said to wait, rejects locally until then and starts again
+ * from single tokens.
+ */
+public class LocalTokenBucket {
+
+    /**
+     * Returned by {@link #tryTake(Stripe)} when the stripe has to lease tokens before one can be taken.
+     */
+    private static final long LEASE_NEEDED = -1;
+
+    private final Stripe[] stripes;
+    private final int mask;
+    private final long leaseTtlNanos;
+
+    /**
+     * @param stripes       the number of stripes, rounded up to a power of two
+     * @param leaseTtlNanos how long leased tokens may be spent before they are dropped
+     */
+    public LocalTokenBucket(int stripes, long leaseTtlNanos) {
+        int size = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+        this.stripes = new Stripe[size];
+        for (int i = 0; i < size; i++) {
+            this.stripes[i] = new Stripe();
+        }
+        this.mask = size - 1;
+        this.leaseTtlNanos = leaseTtlNanos;
+    }
+
+    /**
+     * Takes one token, leasing from the shared bucket on the calling thread when the stripe is empty.
+     *
+     * @param maxSize the most tokens to lease at once when the stripe is empty
+     * @param leaser  leases tokens from the shared bucket
+     * @return 0 if a token was taken, otherwise the number of milliseconds until one may be available
+     */
+    public long tryAcquire(long maxSize, LongFunction<TokenLease> leaser) {
+        Stripe stripe = stripe();
+        stripe.lock.lock();
+        try {
+            long taken = tryTake(stripe);
+            return taken != LEASE_NEEDED ? taken : spend(stripe, leaser.apply(nextLeaseSize(stripe, maxSize)));
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * Takes one token without blocking: the stripe lock is never held while the shared bucket is leased from, so
+     * concurrent callers finding the stripe empty may each lease a batch; the extra tokens are kept for later calls.
+     *
+     * @param maxSize the most tokens to lease at once when the stripe is empty
+     * @param leaser  leases tokens from the shared bucket
+     * @return 0 if a token was taken, otherwise the number of milliseconds until one may be available
+     */
+    public Mono<Long> acquire(long maxSize, Function<Long, Mono<TokenLease>> leaser) {
+        Stripe stripe = stripe();
+        long taken;
+        long size = 0;
+        stripe.lock.lock();
+        try {
+            taken = tryTake(stripe);
+            if (taken == LEASE_NEEDED) {
+                size = nextLeaseSize(stripe, maxSize);
+            }
+        } finally {
+            stripe.lock.unlock();
+        }
+        if (taken != LEASE_NEEDED) {
+            return Mono.just(taken);
+        }
+        return leaser.apply(size).map(lease -> {
+            stripe.lock.lock();
+            try {
+                return spend(stripe, lease);
+            } finally {
+                stripe.lock.unlock();
+            }
+        });
+    }
+
+    private Stripe stripe() {
+        return stripes[(int) Thread.currentThread().getId() & mask];
+    }
+
+    private static long tryTake(Stripe stripe) {
+        long now = System.nanoTime();
+        if (stripe.tokens > 0 && now - stripe.expiresAt < 0) {
+            stripe.tokens--;
+            return 0;
+        }
+        if (now - stripe.blockedUntil < 0) {
+            return TimeUnit.NANOSECONDS.toMillis(stripe.blockedUntil - now) + 1;
+        }
+        return LEASE_NEEDED;
+    }
+
+    /**
+     * Sizes the next lease of an empty stripe: twice the last one if it was used up, what was spent of it if it
+     * expired, and a single token for the first lease or after a refusal.
+     */
+    private static long nextLeaseSize(Stripe stripe, long maxSize) {
+        long next = stripe.tokens > 0 ? stripe.leased - stripe.tokens : stripe.leased * 2;
+        return Math.max(1, Math.min(maxSize, next));
+    }
+
+    private long spend(Stripe stripe, TokenLease lease) {
+        long now = System.nanoTime();
+        if (lease.getGranted() > 0) {
+            // Tokens leased concurrently by another caller are kept if they have not expired
+            long kept = now - stripe.expiresAt < 0 ? stripe.tokens : 0;
+            stripe.leased = kept + lease.getGranted();
+            stripe.tokens = stripe.leased - 1;
+            stripe.expiresAt = now + leaseTtlNanos;
+            return 0;
+        }
+        stripe.tokens = 0;
+        stripe.leased = 0;
+        stripe.blockedUntil = now + TimeUnit.MILLISECONDS.toNanos(lease.getRetryAfterMillis());
+        return Math.max(1, lease.getRetryAfterMillis());
+    }
+
+    private static final class Stripe {
+        private final ReentrantLock lock = new ReentrantLock();
+        private long tokens;
+        private long leased;
+        private long expiresAt = System.nanoTime();
+        private long blockedUntil = expiresAt;
+    }
+}
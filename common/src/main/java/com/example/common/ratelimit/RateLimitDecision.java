@@ -0,0 +1,24 @@
+package com.example.common.ratelimit;
+
+import lombok.Getter;
+
+/**
+ * Outcome of a rate limit check.
+ */
+@Getter
+public class RateLimitDecision {
+
+    public static final RateLimitDecision ALLOWED = new RateLimitDecision(true, 0);
+
+    private final boolean allowed;
+    private final long retryAfterMillis;
+
+    private RateLimitDecision(boolean allowed, long retryAfterMillis) {
+        this.allowed = allowed;
+        this.retryAfterMillis = retryAfterMillis;
+    }
+
+    public static RateLimitDecision rejected(long retryAfterMillis) {
+        return new RateLimitDecision(false, retryAfterMillis);
+    }
+}
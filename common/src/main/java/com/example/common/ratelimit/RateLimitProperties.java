@@ -0,0 +1,48 @@
+package com.example.common.ratelimit;
+
+import lombok.Data;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Rate limiting settings bound from the {@code rate-limit} configuration prefix.
+ */
+@Data
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Maximum number of tokens a node leases from Redis at once for a single stripe.
+     */
+    private int leaseSize = 10;
+
+    /**
+     * How long leased tokens may be spent locally before they are dropped.
+     */
+    private Duration leaseTtl = Duration.ofSeconds(1);
+
+    /**
+     * Number of stripes of each local bucket.
+     */
+    private int stripes = 4;
+
+    /**
+     * Limits per gateway route id.
+     */
+    private Map<String, RouteLimit> routes = new LinkedHashMap<>();
+
+    @Data
+    public static class RouteLimit {
+        private BucketSpec user;
+        private BucketSpec ip;
+    }
+
+    @Data
+    public static class BucketSpec {
+        private long capacity;
+        private double refillPerSecond;
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.common.ratelimit;
+
+import java.util.List;
+
+/**
+ * Redis layout of the cluster-wide token buckets, shared by both gateway editions.
+ * A bucket is a hash holding its token count and the time it was last refilled, updated atomically by the script in
+ * {@link #SCRIPT}; it expires once it would be full again.
+ */
+public final class TokenBucketKeys {
+
+    public static final String KEY_PREFIX = "rate_limit:";
+    public static final String SCRIPT = "scripts/token_bucket.lua";
+
+    // This class is not meant to be instantiated
+    private TokenBucketKeys() {}
+
+    /**
+     * @param key the bucket key, e.g. {@code table-service:ip:10.0.0.1}
+     * @return the Redis key of the bucket
+     */
+    public static String bucketKey(String key) {
+        return KEY_PREFIX + key;
+    }
+
+    /**
+     * @param spec      the capacity and refill rate of the bucket
+     * @param requested the number of tokens wanted
+     * @return the arguments of the script
+     */
+    public static List<String> arguments(RateLimitProperties.BucketSpec spec, long requested) {
+        return List.of(Long.toString(spec.getCapacity()), Double.toString(spec.getRefillPerSecond()), Long.toString(requested));
+    }
+}
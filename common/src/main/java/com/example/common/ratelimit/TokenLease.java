@@ -0,0 +1,30 @@
+package com.example.common.ratelimit;
+
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Tokens granted by a Redis token bucket.
+ */
+@Getter
+public final class TokenLease {
+
+    private final long granted;
+    private final long retryAfterMillis;
+
+    private TokenLease(long granted, long retryAfterMillis) {
+        this.granted = granted;
+        this.retryAfterMillis = retryAfterMillis;
+    }
+
+    /**
+     * Reads the reply of the token bucket script.
+     *
+     * @param reply the number of tokens granted and, when nothing was granted, the milliseconds until the next token
+     * @return the lease
+     */
+    public static TokenLease fromReply(List<?> reply) {
+        return new TokenLease(((Number) reply.get(0)).longValue(), ((Number) reply.get(1)).longValue());
+    }
+}
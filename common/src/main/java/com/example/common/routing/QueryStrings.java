@@ -0,0 +1,61 @@
+package com.example.common.routing;
+
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Helpers for building cache and coalescing keys from query strings.
+ */
+public final class QueryStrings {
+
+    // This class is not meant to be instantiated
+    private QueryStrings() {}
+
+    /**
+     * Normalizes a raw query string so that equivalent queries produce the same key:
+     * parameters are decoded, re-encoded consistently and sorted by name then value, and empty pairs are dropped.
+     * Repeated parameters and parameters with an empty value are kept, since they may change the response.
+     *
+     * @param query the raw query string, may be null
+     * @return the normalized query string, empty if there is no parameter
+     */
+    public static String normalize(String query) {
+        if (query == null || query.isEmpty()) {
+            return "";
+        }
+        String[] pairs = query.split("&");
+        int count = 0;
+        for (String pair : pairs) {
+            if (!pair.isEmpty()) {
+                pairs[count++] = canonical(pair);
+            }
+        }
+        if (count == 0) {
+            return "";
+        }
+        String[] sorted = Arrays.copyOf(pairs, count);
+        Arrays.sort(sorted);
+        return String.join("&", sorted);
+    }
+
+    private static String canonical(String pair) {
+        int equals = pair.indexOf('=');
+        String name = equals < 0 ? pair : pair.substring(0, equals);
+        String value = equals < 0 ? "" : pair.substring(equals + 1);
+        return encode(decode(name)) + "=" + encode(decode(value));
+    }
+
+    private static String decode(String value) {
+        try {
+            return URLDecoder.decode(value, StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            return value;
+        }
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
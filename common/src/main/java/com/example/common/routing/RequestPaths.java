@@ -0,0 +1,45 @@
+package com.example.common.routing;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.util.UrlPathHelper;
+
+/**
+ * Helpers for reading the request path that route tries are matched against.
+ * Upstream services decode the path they receive, so policies must be matched against the decoded path too:
+ * {@code /table/%75pdate/1} has to hit the rules of {@code /table/update/1}, not slip through as an unknown route.
+ */
+public final class RequestPaths {
+
+    // This class is not meant to be instantiated
+    private RequestPaths() {}
+
+    /**
+     * Returns the decoded path of a servlet request, without context path, path parameters and duplicate slashes.
+     *
+     * @param request the incoming HTTP request
+     * @return the path to match against route patterns
+     */
+    public static String pathWithinApplication(HttpServletRequest request) {
+        return UrlPathHelper.defaultInstance.getPathWithinApplication(request);
+    }
+
+    /**
+     * Returns the decoded path of a reactive request path, read the same way as a servlet request path:
+     * segments are decoded, path parameters are dropped and duplicate slashes are collapsed.
+     *
+     * @param path the path within the application, e.g. {@code request.getPath().pathWithinApplication()}
+     * @return the path to match against route patterns
+     */
+    public static String decodedPath(PathContainer path) {
+        StringBuilder builder = new StringBuilder(path.value().length());
+        for (PathContainer.Element element : path.elements()) {
+            if (element instanceof PathContainer.PathSegment segment) {
+                builder.append(segment.valueToMatch());
+            } else if (builder.isEmpty() || builder.charAt(builder.length() - 1) != '/') {
+                builder.append('/');
+            }
+        }
+        return builder.isEmpty() ? "/" : builder.toString();
+    }
+}
@@ -0,0 +1,200 @@
+package com.example.common.routing;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Segment trie of path patterns, split per HTTP method.
+ * Supports literal segments, {@code *} and {@code {var}} for a single segment and a trailing {@code **};
+ * lookups cost time proportional to the depth of the path rather than the number of patterns.
+ * Patterns with partial wildcards inside a segment (for example {@code *.html}) are kept in a small
+ * fallback list and matched with {@link PathPattern}.
+ * When several patterns match, the value of the one added first wins, mirroring the first-match
+ * semantics of Spring Security request matchers.
+ *
+ * @param <T> the type of the value attached to each pattern
+ */
+public class RouteTrie<T> {
+
+    private static final String SINGLE_WILDCARD = "*";
+    private static final String MULTI_WILDCARD = "**";
+
+    private final Map<HttpMethod, Node<T>> roots = new HashMap<>();
+    private final Node<T> anyMethodRoot = new Node<>();
+    private final List<Entry<T>> fallback = new ArrayList<>();
+    private int size;
+
+    /**
+     * Adds a pattern to the trie.
+     *
+     * @param method  the HTTP method the pattern applies to, or null for every method
+     * @param pattern the path pattern, for example {@code /table/*}
+     * @param value   the value returned when the pattern is the first one to match
+     */
+    public void add(HttpMethod method, String pattern, T value) {
+        Entry<T> entry = new Entry<>(size++, method, pattern, value);
+        String[] segments = tokenize(pattern);
+        if (!isSimple(segments)) {
+            entry.pathPattern = PathPatternParser.defaultInstance.parse(pattern);
+            fallback.add(entry);
+            return;
+        }
+        Node<T> node = method == null ? anyMethodRoot : roots.computeIfAbsent(method, key -> new Node<>());
+        for (int i = 0; i < segments.length; i++) {
+            String segment = segments[i];
+            if (MULTI_WILDCARD.equals(segment)) {
+                node.catchAll = first(node.catchAll, entry);
+                return;
+            }
+            if (SINGLE_WILDCARD.equals(segment) || isVariable(segment)) {
+                if (node.wildcard == null) {
+                    node.wildcard = new Node<>();
+                }
+                node = node.wildcard;
+            } else {
+                node = node.children.computeIfAbsent(segment, key -> new Node<>());
+            }
+        }
+        node.terminal = first(node.terminal, entry);
+    }
+
+    /**
+     * Finds the value of the first added pattern matching the request.
+     *
+     * @param method the HTTP method of the request
+     * @param path   the request path, without context path and query string
+     * @return the matching value, or null if no pattern matches
+     */
+    public T find(HttpMethod method, String path) {
+        Entry<T> entry = findEntry(method, path);
+        return entry == null ? null : entry.value;
+    }
+
+    /**
+     * Finds the first added pattern matching the request.
+     *
+     * @param method the HTTP method of the request
+     * @param path   the request path, without context path and query string
+     * @return the matching pattern, or null if no pattern matches
+     */
+    public String findPattern(HttpMethod method, String path) {
+        Entry<T> entry = findEntry(method, path);
+        return entry == null ? null : entry.pattern;
+    }
+
+    /**
+     * @return true if no pattern has been added
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    private Entry<T> findEntry(HttpMethod method, String path) {
+        // The root path has no segment: start past its end so that it reaches the terminal of the root node
+        int start = path.isEmpty() || "/".equals(path) ? path.length() + 1 : path.startsWith("/") ? 1 : 0;
+        Node<T> root = roots.get(method);
+        Entry<T> best = root == null ? null : match(root, path, start);
+        best = first(best, match(anyMethodRoot, path, start));
+        if (!fallback.isEmpty()) {
+            PathContainer container = null;
+            for (Entry<T> entry : fallback) {
+                if (best != null && best.ordinal < entry.ordinal) {
+                    break;
+                }
+                if (entry.method != null && entry.method != method) {
+                    continue;
+                }
+                if (container == null) {
+                    container = PathContainer.parsePath(path);
+                }
+                if (entry.pathPattern.matches(container)) {
+                    best = first(best, entry);
+                    break;
+                }
+            }
+        }
+        return best;
+    }
+
+    private Entry<T> match(Node<T> node, String path, int position) {
+        Entry<T> best = node.catchAll;
+        if (position > path.length()) {
+            return first(best, node.terminal);
+        }
+        int end = path.indexOf('/', position);
+        if (end < 0) {
+            end = path.length();
+        }
+        if (!node.children.isEmpty()) {
+            Node<T> child = node.children.get(path.substring(position, end));
+            if (child != null) {
+                best = first(best, match(child, path, end + 1));
+            }
+        }
+        if (node.wildcard != null && end > position) {
+            best = first(best, match(node.wildcard, path, end + 1));
+        }
+        return best;
+    }
+
+    private static <T> Entry<T> first(Entry<T> current, Entry<T> candidate) {
+        if (current == null) {
+            return candidate;
+        }
+        return candidate == null || current.ordinal < candidate.ordinal ? current : candidate;
+    }
+
+    private static String[] tokenize(String pattern) {
+        String trimmed = pattern.startsWith("/") ? pattern.substring(1) : pattern;
+        return trimmed.isEmpty() ? new String[0] : trimmed.split("/", -1);
+    }
+
+    private static boolean isSimple(String[] segments) {
+        for (int i = 0; i < segments.length; i++) {
+            String segment = segments[i];
+            if (MULTI_WILDCARD.equals(segment)) {
+                if (i != segments.length - 1) {
+                    return false;
+                }
+            } else if (!SINGLE_WILDCARD.equals(segment) && !isVariable(segment)
+                    && (segment.indexOf('*') >= 0 || segment.indexOf('?') >= 0 || segment.indexOf('{') >= 0)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isVariable(String segment) {
+        return segment.length() > 2 && segment.charAt(0) == '{' && segment.charAt(segment.length() - 1) == '}'
+                && segment.indexOf(':') < 0 && segment.charAt(1) != '*';
+    }
+
+    private static final class Node<T> {
+        private final Map<String, Node<T>> children = new HashMap<>();
+        private Node<T> wildcard;
+        private Entry<T> terminal;
+        private Entry<T> catchAll;
+    }
+
+    private static final class Entry<T> {
+        private final int ordinal;
+        private final HttpMethod method;
+        private final String pattern;
+        private final T value;
+        private PathPattern pathPattern;
+
+        private Entry(int ordinal, HttpMethod method, String pattern, T value) {
+            this.ordinal = ordinal;
+            this.method = method;
+            this.pattern = pattern;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.common.security;
+
+import lombok.Getter;
+
+import java.util.Set;
+
+/**
+ * A single permission compiled for authorization: the endpoint it protects and the authorities allowed to call it.
+ * The snapshot's route trie resolves the (method, route template) of a request to its rule, and the rule holds the
+ * decision of every role for that template, so a decision costs one trie walk and one set lookup.
+ */
+@Getter
+public class AuthorizationRule {
+
+    private final String method;
+    private final String endpoint;
+    private final Set<String> authorities;
+    private final boolean permitAll;
+
+    public AuthorizationRule(String method, String endpoint, Set<String> authorities, boolean permitAll) {
+        this.method = method;
+        this.endpoint = endpoint;
+        this.authorities = Set.copyOf(authorities);
+        this.permitAll = permitAll;
+    }
+
+    /**
+     * Checks whether the authority may call the endpoint.
+     *
+     * @param authority the authority of the caller, i.e. its role name
+     * @return true if the authority is granted this permission, false otherwise
+     */
+    public boolean isGrantedTo(String authority) {
+        return permitAll || authorities.contains(authority);
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.common.security;
+
+import com.example.common.constant.CommonConstant;
+import com.example.common.routing.RouteTrie;
+import lombok.AccessLevel;
+import lombok.Getter;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.authentication.AuthenticationTrustResolver;
+import org.springframework.security.authentication.AuthenticationTrustResolverImpl;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Immutable, versioned view of the permission and role tables, compiled for request matching.
+ * Public rules are registered ahead of protected ones so the first matching rule decides,
+ * exactly like matchers registered one by one in a security configuration.
+ * The snapshot does not depend on the servlet or reactive stack, so both gateway editions authorize from the same rules.
+ */
+@Getter
+public class AuthorizationSnapshot {
+
+    private static final AuthenticationTrustResolver TRUST_RESOLVER = new AuthenticationTrustResolverImpl();
+
+    private final long version;
+    private final String fingerprint;
+    private final Instant loadedAt;
+    private final int ruleCount;
+    @Getter(AccessLevel.NONE)
+    private final RouteTrie<AuthorizationRule> rules;
+
+    private AuthorizationSnapshot(long version, String fingerprint, List<AuthorizationRule> orderedRules) {
+        this.version = version;
+        this.fingerprint = fingerprint;
+        this.loadedAt = Instant.now();
+        this.ruleCount = orderedRules.size();
+        this.rules = new RouteTrie<>();
+        orderedRules.forEach(rule -> rules.add(HttpMethod.valueOf(rule.getMethod()), rule.getEndpoint(), rule));
+    }
+
+    /**
+     * Compiles a snapshot from the flat permission rows.
+     *
+     * @param version     the version of the snapshot
+     * @param fingerprint the fingerprint of the data the rows were read from
+     * @param rows        one row per permission and role, ordered by permission id
+     * @return the compiled snapshot
+     */
+    public static AuthorizationSnapshot of(long version, String fingerprint, List<PermissionRuleView> rows) {
+        Map<Long, PermissionRuleView> permissions = new LinkedHashMap<>();
+        Map<Long, Set<String>> roles = new LinkedHashMap<>();
+        for (PermissionRuleView row : rows) {
+            permissions.putIfAbsent(row.getId(), row);
+            Set<String> roleNames = roles.computeIfAbsent(row.getId(), id -> new HashSet<>());
+            if (row.getRoleName() != null) {
+                roleNames.add(row.getRoleName());
+            }
+        }
+        List<AuthorizationRule> publicRules = new ArrayList<>();
+        List<AuthorizationRule> protectedRules = new ArrayList<>();
+        permissions.forEach((id, permission) -> {
+            Set<String> roleNames = roles.get(id);
+            boolean permitAll = roleNames.contains(CommonConstant.ANONYMOUS);
+            AuthorizationRule rule = new AuthorizationRule(permission.getMethod(), permission.getEndpoint(), roleNames, permitAll);
+            (permitAll ? publicRules : protectedRules).add(rule);
+        });
+        publicRules.addAll(protectedRules);
+        return new AuthorizationSnapshot(version, fingerprint, publicRules);
+    }
+
+    /**
+     * Finds the first rule matching the request.
+     *
+     * @param method the HTTP method of the request
+     * @param path   the request path, without context path and query string
+     * @return the matching rule, or null if no permission covers the request
+     */
+    public AuthorizationRule match(HttpMethod method, String path) {
+        return rules.find(method, path);
+    }
+
+    /**
+     * Decides whether the caller may send the request.
+     * The first rule matching the request decides: public rules permit everyone, other rules require one of
+     * their authorities, and requests no permission covers only require an authenticated user.
+     * The authentication is only resolved when the matched rule is not public.
+     *
+     * @param method         the HTTP method of the request
+     * @param path           the request path, without context path and query string
+     * @param authentication supplies the authentication of the caller, possibly null
+     * @return true if the request is granted, false otherwise
+     */
+    public boolean isGranted(HttpMethod method, String path, Supplier<Authentication> authentication) {
+        AuthorizationRule rule = match(method, path);
+        if (rule != null && rule.isPermitAll()) {
+            return true;
+        }
+        Authentication current = authentication.get();
+        if (current == null || !current.isAuthenticated() || TRUST_RESOLVER.isAnonymous(current)) {
+            return false;
+        }
+        if (rule == null) {
+            return true;
+        }
+        if (current.getPrincipal() instanceof JwtUserPrincipal principal) {
+            return rule.isGrantedTo(principal.getRole());
+        }
+        for (GrantedAuthority authority : current.getAuthorities()) {
+            if (rule.isGrantedTo(authority.getAuthority())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,184 @@
+package com.example.common.security;
+
+import com.example.common.constant.CommonConstant;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.MalformedJwtException;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Fast-path verifier for the compact HS256 tokens issued by {@link JwtTokenIssuer}.
+ * The signing key is decoded once, {@link Mac} instances are shared through a {@link MacPool}, base64url segments are decoded
+ * straight from the token bytes, and only the claims the gateway issues are read from the payload.
+ * Any token that does not have exactly that shape is handed to the regular jjwt parser.
+ */
+public class Hs256JwtVerifier {
+
+    private static final String HMAC_SHA256 = "HmacSHA256";
+    private static final String CLAIM_SUBJECT = "sub";
+    private static final String CLAIM_ID = "jti";
+    private static final String CLAIM_ISSUED_AT = "iat";
+    private static final String CLAIM_EXPIRATION = "exp";
+    // Base64url of {"alg":"HS256"} and {"alg":"HS256","typ":"JWT"}
+    private static final byte[][] KNOWN_HEADERS = {
+            "eyJhbGciOiJIUzI1NiJ9".getBytes(StandardCharsets.US_ASCII),
+            "eyJhbGciOiJIUzI1NiIsInR5cCI6IkpXVCJ9".getBytes(StandardCharsets.US_ASCII)
+    };
+
+    private final SecretKey signingKey;
+    private final JwtParser fallbackParser;
+    private final MacPool macs;
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final Base64.Decoder decoder = Base64.getUrlDecoder();
+
+    public Hs256JwtVerifier(String secretKey) {
+        this.signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey));
+        this.fallbackParser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+        this.macs = new MacPool(HMAC_SHA256, signingKey);
+    }
+
+    /**
+     * Returns the key tokens are signed with.
+     *
+     * @return the HMAC-SHA256 signing key
+     */
+    public SecretKey getSigningKey() {
+        return signingKey;
+    }
+
+    /**
+     * Verifies the token and returns its claims.
+     *
+     * @param token the compact JWT
+     * @return the verified claims
+     * @throws io.jsonwebtoken.JwtException if the token is malformed, expired or badly signed
+     */
+    public Claims verify(String token) {
+        if (token == null || token.isEmpty()) {
+            // jjwt reports an empty token with an IllegalArgumentException, which callers do not expect
+            throw new MalformedJwtException("JWT string is empty");
+        }
+        byte[] bytes = token.getBytes(StandardCharsets.ISO_8859_1);
+        int firstDot = indexOf(bytes, 0);
+        int secondDot = firstDot < 0 ? -1 : indexOf(bytes, firstDot + 1);
+        if (secondDot < 0 || indexOf(bytes, secondDot + 1) >= 0 || !isKnownHeader(bytes, firstDot)) {
+            return fallbackParser.parseClaimsJws(token).getBody();
+        }
+
+        ByteBuffer signature;
+        ByteBuffer payload;
+        try {
+            signature = decoder.decode(ByteBuffer.wrap(bytes, secondDot + 1, bytes.length - secondDot - 1));
+            payload = decoder.decode(ByteBuffer.wrap(bytes, firstDot + 1, secondDot - firstDot - 1));
+        } catch (IllegalArgumentException e) {
+            return fallbackParser.parseClaimsJws(token).getBody();
+        }
+
+        byte[] expected;
+        Mac mac = macs.acquire();
+        try {
+            mac.update(bytes, 0, secondDot);
+            expected = mac.doFinal();
+        } finally {
+            macs.release(mac);
+        }
+        if (!constantTimeEquals(expected, signature)) {
+            throw new SignatureException("JWT signature does not match locally computed signature.");
+        }
+
+        Claims claims = readKnownClaims(payload);
+        if (claims == null) {
+            return fallbackParser.parseClaimsJws(token).getBody();
+        }
+        if (System.currentTimeMillis() > claims.getExpiration().getTime()) {
+            throw new ExpiredJwtException(null, claims, "JWT expired at " + claims.getExpiration());
+        }
+        return claims;
+    }
+
+    /**
+     * Reads sub, jti, iat, exp, userId and role from the payload.
+     *
+     * @param payload the decoded payload JSON
+     * @return the claims, or null if the payload contains anything else or lacks an expiration
+     */
+    private Claims readKnownClaims(ByteBuffer payload) {
+        Claims claims = Jwts.claims();
+        try (JsonParser parser = jsonFactory.createParser(payload.array(), payload.arrayOffset() + payload.position(), payload.remaining())) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                JsonToken value = parser.nextToken();
+                switch (name) {
+                    case CLAIM_SUBJECT, CLAIM_ID, CommonConstant.CLAIM_ROLE -> {
+                        if (value != JsonToken.VALUE_STRING) {
+                            return null;
+                        }
+                        claims.put(name, parser.getText());
+                    }
+                    case CLAIM_ISSUED_AT, CLAIM_EXPIRATION, CommonConstant.CLAIM_USER_ID -> {
+                        if (value != JsonToken.VALUE_NUMBER_INT) {
+                            return null;
+                        }
+                        claims.put(name, parser.getNumberValue());
+                    }
+                    default -> {
+                        return null;
+                    }
+                }
+            }
+            if (parser.currentToken() != JsonToken.END_OBJECT || parser.nextToken() != null) {
+                return null;
+            }
+        } catch (IOException e) {
+            return null;
+        }
+        return claims.getExpiration() == null ? null : claims;
+    }
+
+    private static boolean isKnownHeader(byte[] bytes, int headerLength) {
+        for (byte[] header : KNOWN_HEADERS) {
+            if (header.length == headerLength && Arrays.equals(header, 0, headerLength, bytes, 0, headerLength)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int indexOf(byte[] bytes, int from) {
+        for (int i = from; i < bytes.length; i++) {
+            if (bytes[i] == '.') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean constantTimeEquals(byte[] expected, ByteBuffer actual) {
+        if (expected.length != actual.remaining()) {
+            return false;
+        }
+        int result = 0;
+        for (int i = 0; i < expected.length; i++) {
+            result |= expected[i] ^ actual.get(actual.position() + i);
+        }
+        return result == 0;
+    }
+}
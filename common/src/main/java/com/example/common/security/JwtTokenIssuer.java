@@ -0,0 +1,73 @@
+package com.example.common.security;
+
+import com.example.common.constant.CommonConstant;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Issues the compact HS256 tokens understood by {@link Hs256JwtVerifier}.
+ * Every token carries the subject, the issue and expiration times, the user id and the role name,
+ * which is the exact shape the verifier's fast path reads. Refresh tokens also carry a random token id, so two of them
+ * issued to a user in the same second never share a Redis key.
+ */
+public class JwtTokenIssuer {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private final Hs256JwtVerifier jwtVerifier;
+
+    public JwtTokenIssuer(Hs256JwtVerifier jwtVerifier) {
+        this.jwtVerifier = jwtVerifier;
+    }
+
+    /**
+     * Issues a signed token.
+     *
+     * @param username   the subject of the token
+     * @param userId     the id of the user
+     * @param role       the role name of the user
+     * @param expiration the lifetime of the token in milliseconds
+     * @return the compact JWT
+     */
+    public String issue(String username, Long userId, String role, long expiration) {
+        return issue(username, userId, role, expiration, null);
+    }
+
+    /**
+     * Issues a signed refresh token, identified by a random {@code jti}.
+     *
+     * @param username   the subject of the token
+     * @param userId     the id of the user
+     * @param role       the role name of the user
+     * @param expiration the lifetime of the token in milliseconds
+     * @return the compact JWT
+     */
+    public String issueRefreshToken(String username, Long userId, String role, long expiration) {
+        byte[] id = new byte[16];
+        RANDOM.nextBytes(id);
+        return issue(username, userId, role, expiration, ENCODER.encodeToString(id));
+    }
+
+    private String issue(String username, Long userId, String role, long expiration, String id) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(CommonConstant.CLAIM_USER_ID, userId);
+        claims.put(CommonConstant.CLAIM_ROLE, role);
+        long now = System.currentTimeMillis();
+        return Jwts
+                .builder()
+                .setClaims(claims)
+                .setId(id)
+                .setSubject(username)
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + expiration))
+                .signWith(jwtVerifier.getSigningKey(), SignatureAlgorithm.HS256)
+                .compact();
+    }
+}
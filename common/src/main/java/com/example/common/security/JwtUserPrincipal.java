@@ -0,0 +1,59 @@
+package com.example.common.security;
+
+import com.example.common.constant.CommonConstant;
+import io.jsonwebtoken.Claims;
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Authenticated principal built directly from verified JWT claims,
+ * without loading the user from the database.
+ */
+@Getter
+public class JwtUserPrincipal implements UserDetails {
+
+    private final Long userId;
+    private final String username;
+    private final String role;
+
+    public JwtUserPrincipal(Long userId, String username, String role) {
+        this.userId = userId;
+        this.username = username;
+        this.role = role;
+    }
+
+    /**
+     * Builds a principal from verified claims.
+     *
+     * @param claims the verified claims of an access token
+     * @return the principal, or null if the claims do not carry a user id and a role
+     */
+    public static JwtUserPrincipal fromClaims(Claims claims) {
+        Long userId = claims.get(CommonConstant.CLAIM_USER_ID, Long.class);
+        String role = claims.get(CommonConstant.CLAIM_ROLE, String.class);
+        if (userId == null || role == null) {
+            return null;
+        }
+        return new JwtUserPrincipal(userId, claims.getSubject(), role);
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return List.of(new SimpleGrantedAuthority(role));
+    }
+
+    @Override
+    public String getPassword() {
+        return null;
+    }
+
+    @Override
+    public String getUsername() {
+        return username;
+    }
+}
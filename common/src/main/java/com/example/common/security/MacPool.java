@@ -0,0 +1,81 @@
+package com.example.common.security;
+
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import java.security.GeneralSecurityException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Small lock-free pool of {@link Mac} instances initialised with one key.
+ * A thread-local cache does not help when every request runs on a new virtual thread, since each of them would
+ * build and initialise its own {@link Mac}; the pool keeps a fixed number of instances shared by all threads instead.
+ * Callers take an instance with {@link #acquire()} and hand it back with {@link #release(Mac)}. When the slots they
+ * probe are empty a new instance is created, and when they are full the returned one is dropped.
+ */
+final class MacPool {
+
+    private static final int PROBES = 4;
+
+    private final String algorithm;
+    private final SecretKey key;
+    private final AtomicReferenceArray<Mac> slots;
+    private final int mask;
+
+    MacPool(String algorithm, SecretKey key) {
+        this(algorithm, key, Runtime.getRuntime().availableProcessors() * 2);
+    }
+
+    MacPool(String algorithm, SecretKey key, int size) {
+        int capacity = Integer.highestOneBit(Math.max(PROBES, size) - 1) << 1;
+        this.algorithm = algorithm;
+        this.key = key;
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+        // Build the instances up front so that the first requests do not pay for them
+        for (int i = 0; i < capacity; i++) {
+            slots.set(i, newMac());
+        }
+    }
+
+    /**
+     * Takes an initialised instance out of the pool, or creates one if the probed slots are empty.
+     *
+     * @return a {@link Mac} ready for {@code update}, owned by the caller until it is released
+     */
+    Mac acquire() {
+        int start = ThreadLocalRandom.current().nextInt();
+        for (int i = 0; i < PROBES; i++) {
+            Mac mac = slots.getAndSet((start + i) & mask, null);
+            if (mac != null) {
+                return mac;
+            }
+        }
+        return newMac();
+    }
+
+    /**
+     * Resets the instance and puts it back into the pool if one of the probed slots is free.
+     *
+     * @param mac an instance obtained from {@link #acquire()}
+     */
+    void release(Mac mac) {
+        mac.reset();
+        int start = ThreadLocalRandom.current().nextInt();
+        for (int i = 0; i < PROBES; i++) {
+            if (slots.compareAndSet((start + i) & mask, null, mac)) {
+                return;
+            }
+        }
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(algorithm);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to initialise " + algorithm, e);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.common.security;
+
+/**
+ * Flat projection of a permission and one of the roles granted it.
+ * A permission granted to several roles yields one row per role; a permission granted to none yields a row with a null role name.
+ */
+public interface PermissionRuleView {
+
+    Long getId();
+
+    String getMethod();
+
+    String getEndpoint();
+
+    String getRoleName();
+}
@@ -0,0 +1,99 @@
+package com.example.common.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * Redis layout of the refresh tokens, shared by both gateway editions.
+ * A token is stored under the SHA-256 digest of its JWT, as a hash holding the id of its family and the serialized
+ * token record. A family is the chain of tokens rotated from one sign-in: it points at its live token, and every
+ * rotated token leaves a marker naming its family, so presenting a rotated token again revokes the whole family.
+ * Every key expires with the family. A token issued before its user was revoked is refused and revokes its family,
+ * so a rotation never carries a stale role forward. The scripts in {@link #STORE_SCRIPT} and {@link #ROTATE_SCRIPT} update the
+ * layout atomically.
+ */
+public final class RefreshTokenKeys {
+
+    public static final String TOKEN_PREFIX = "refresh_token:";
+    public static final String USED_PREFIX = "refresh_token_used:";
+    public static final String FAMILY_PREFIX = "refresh_token_family:";
+    public static final String USER_REVOKED_AT_PREFIX = "user_revoked_at:";
+
+    public static final String STORE_SCRIPT = "scripts/refresh_token_store.lua";
+    public static final String ROTATE_SCRIPT = "scripts/refresh_token_rotate.lua";
+
+    /**
+     * Outcomes returned by the rotate script as the first element of its reply.
+     */
+    public static final String ROTATED = "rotated";
+    public static final String REUSED = "reused";
+    public static final String REVOKED = "revoked";
+    public static final String MISSING = "missing";
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    // This class is not meant to be instantiated
+    private RefreshTokenKeys() {}
+
+    /**
+     * Digests a refresh token; the 43-character digest replaces the JWT in the Redis keys.
+     *
+     * @param token the compact JWT
+     * @return the base64url SHA-256 digest of the token
+     */
+    public static String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return ENCODER.encodeToString(sha256.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * @return a new random family id
+     */
+    public static String newFamily() {
+        byte[] id = new byte[16];
+        RANDOM.nextBytes(id);
+        return ENCODER.encodeToString(id);
+    }
+
+    public static String tokenKey(String digest) {
+        return TOKEN_PREFIX + digest;
+    }
+
+    public static String usedKey(String digest) {
+        return USED_PREFIX + digest;
+    }
+
+    public static String familyKey(String family) {
+        return FAMILY_PREFIX + family;
+    }
+
+    /**
+     * Returns the key holding the epoch second up to which the tokens of a user are revoked, written by the user
+     * revocation service.
+     *
+     * @param userId the id of the user
+     * @return the revocation mark key of the user
+     */
+    public static String userRevokedAtKey(Long userId) {
+        return USER_REVOKED_AT_PREFIX + userId;
+    }
+
+    /**
+     * Returns the key refresh tokens were stored under before they were digested, whose value is the token record
+     * serialized as JSON. Digests contain no dots, so they never collide with a JWT.
+     *
+     * @param token the compact JWT
+     * @return the legacy key of the token
+     */
+    public static String legacyKey(String token) {
+        return TOKEN_PREFIX + token;
+    }
+}
@@ -0,0 +1,260 @@
+package com.example.common.security;
+
+import com.example.common.dto.response.RefreshToken;
+import com.example.common.dto.response.UserResponse;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Instant;
+
+/**
+ * Fixed-layout binary encoding of the record stored with a {@link RefreshToken} in Redis, shared by both gateway
+ * editions; the token and its family live in the Redis key and hash, not in the record.
+ * A record starts with its schema version, then the user id and the expiry in epoch milliseconds as 8-byte
+ * big-endian longs, then the role and the username, full name, phone number, email and role of the user as strings:
+ * an unsigned varint of the UTF-8 length plus one, zero meaning null, followed by the bytes.
+ * Records written as JSON before the binary encoding start with '{' and are still decoded, with a streaming parser.
+ */
+public final class RefreshTokenRecordCodec {
+
+    public static final byte VERSION_1 = 1;
+
+    private static final byte JSON_START = '{';
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    // This class is not meant to be instantiated
+    private RefreshTokenRecordCodec() {}
+
+    /**
+     * Encodes the record of a refresh token with the current schema version.
+     *
+     * @param refreshToken the refresh token
+     * @return the encoded record
+     */
+    public static byte[] encode(RefreshToken refreshToken) {
+        UserResponse user = refreshToken.getUser() == null ? new UserResponse() : refreshToken.getUser();
+        byte[][] strings = {
+                utf8(refreshToken.getRole()), utf8(user.getUsername()), utf8(user.getFullName()),
+                utf8(user.getPhoneNumber()), utf8(user.getEmail()), utf8(user.getRole())
+        };
+        int size = 1 + 2 * Long.BYTES;
+        for (byte[] string : strings) {
+            size += string == null ? 1 : varintSize(string.length + 1) + string.length;
+        }
+        Writer writer = new Writer(size);
+        writer.bytes[writer.position++] = VERSION_1;
+        writer.writeLong(refreshToken.getUserId() == null ? 0 : refreshToken.getUserId());
+        writer.writeLong(refreshToken.getExpiryDate() == null ? 0 : refreshToken.getExpiryDate().toEpochMilli());
+        for (byte[] string : strings) {
+            writer.writeString(string);
+        }
+        return writer.bytes;
+    }
+
+    /**
+     * Decodes a record of any known schema version, or a legacy JSON record.
+     *
+     * @param bytes the encoded record
+     * @return the refresh token, without its token and family, and with a user even if the record names none
+     * @throws IllegalArgumentException if the bytes are not a record of a known version, or are truncated or malformed
+     */
+    public static RefreshToken decode(byte[] bytes) {
+        if (bytes.length == 0) {
+            throw new IllegalArgumentException("Empty refresh token record");
+        }
+        try {
+            if (bytes[0] == JSON_START) {
+                return decodeJson(bytes);
+            }
+            if (bytes[0] != VERSION_1) {
+                throw new IllegalArgumentException("Unknown refresh token record version " + bytes[0]);
+            }
+            return decodeVersion1(bytes);
+        } catch (DateTimeException | ArithmeticException e) {
+            // A legacy record whose expiry is not an ISO-8601 instant or is out of the range of a long
+            throw new IllegalArgumentException("Malformed refresh token record", e);
+        }
+    }
+
+    private static RefreshToken decodeVersion1(byte[] bytes) {
+        Reader reader = new Reader(bytes, 1);
+        RefreshToken refreshToken = new RefreshToken();
+        UserResponse user = new UserResponse();
+        long userId = reader.readLong();
+        long expiry = reader.readLong();
+        refreshToken.setUserId(userId == 0 ? null : userId);
+        refreshToken.setExpiryDate(expiry == 0 ? null : Instant.ofEpochMilli(expiry));
+        refreshToken.setRole(reader.readString());
+        user.setUsername(reader.readString());
+        user.setFullName(reader.readString());
+        user.setPhoneNumber(reader.readString());
+        user.setEmail(reader.readString());
+        user.setRole(reader.readString());
+        refreshToken.setUser(user);
+        return refreshToken;
+    }
+
+    private static RefreshToken decodeJson(byte[] bytes) {
+        RefreshToken refreshToken = new RefreshToken();
+        UserResponse user = new UserResponse();
+        try (JsonParser parser = JSON_FACTORY.createParser(bytes)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IllegalArgumentException("Malformed refresh token record");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                JsonToken value = parser.nextToken();
+                switch (name) {
+                    case "userId" -> refreshToken.setUserId(value == JsonToken.VALUE_NULL ? null : parser.getLongValue());
+                    case "role" -> refreshToken.setRole(textOf(parser, value));
+                    case "expiryDate" -> refreshToken.setExpiryDate(instantOf(parser, value));
+                    case "user" -> readJsonUser(parser, value, user);
+                    default -> parser.skipChildren();
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Malformed refresh token record", e);
+        }
+        refreshToken.setUser(user);
+        return refreshToken;
+    }
+
+    private static void readJsonUser(JsonParser parser, JsonToken token, UserResponse user) throws IOException {
+        if (token != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return;
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (name) {
+                case "username" -> user.setUsername(textOf(parser, value));
+                case "fullName" -> user.setFullName(textOf(parser, value));
+                case "phoneNumber" -> user.setPhoneNumber(textOf(parser, value));
+                case "email" -> user.setEmail(textOf(parser, value));
+                case "role" -> user.setRole(textOf(parser, value));
+                default -> parser.skipChildren();
+            }
+        }
+    }
+
+    private static String textOf(JsonParser parser, JsonToken value) throws IOException {
+        return value == JsonToken.VALUE_NULL ? null : parser.getText();
+    }
+
+    /**
+     * Reads an instant written by Jackson's JavaTimeModule: decimal epoch seconds, or an ISO-8601 string.
+     */
+    private static Instant instantOf(JsonParser parser, JsonToken value) throws IOException {
+        return switch (value) {
+            case VALUE_STRING -> Instant.parse(parser.getText());
+            case VALUE_NUMBER_INT -> Instant.ofEpochSecond(parser.getLongValue());
+            case VALUE_NUMBER_FLOAT -> {
+                BigDecimal seconds = parser.getDecimalValue();
+                yield Instant.ofEpochSecond(seconds.toBigInteger().longValueExact(),
+                        seconds.remainder(BigDecimal.ONE).movePointRight(9).intValue());
+            }
+            default -> null;
+        };
+    }
+
+    private static byte[] utf8(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int varintSize(int value) {
+        return (31 - Integer.numberOfLeadingZeros(value | 1)) / 7 + 1;
+    }
+
+    /**
+     * Writes into an array sized up front by {@link #encode}, so no copy is made when the record is complete.
+     */
+    private static final class Writer {
+
+        private final byte[] bytes;
+        private int position;
+
+        Writer(int size) {
+            this.bytes = new byte[size];
+        }
+
+        void writeLong(long value) {
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                bytes[position++] = (byte) (value >>> shift);
+            }
+        }
+
+        void writeString(byte[] utf8) {
+            if (utf8 == null) {
+                writeVarint(0);
+                return;
+            }
+            writeVarint(utf8.length + 1);
+            System.arraycopy(utf8, 0, bytes, position, utf8.length);
+            position += utf8.length;
+        }
+
+        private void writeVarint(int value) {
+            while ((value & ~0x7F) != 0) {
+                bytes[position++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            bytes[position++] = (byte) value;
+        }
+    }
+
+    private static final class Reader {
+
+        private final byte[] bytes;
+        private int position;
+
+        Reader(byte[] bytes, int position) {
+            this.bytes = bytes;
+            this.position = position;
+        }
+
+        long readLong() {
+            require(8);
+            long value = 0;
+            for (int i = 0; i < 8; i++) {
+                value = (value << 8) | (bytes[position++] & 0xFF);
+            }
+            return value;
+        }
+
+        String readString() {
+            int length = readVarint();
+            if (length == 0) {
+                return null;
+            }
+            require(length - 1);
+            String value = new String(bytes, position, length - 1, StandardCharsets.UTF_8);
+            position += length - 1;
+            return value;
+        }
+
+        private int readVarint() {
+            int value = 0;
+            for (int shift = 0; shift < 32; shift += 7) {
+                require(1);
+                byte b = bytes[position++];
+                value |= (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Malformed refresh token record");
+        }
+
+        private void require(int length) {
+            if (length < 0 || position + length > bytes.length) {
+                throw new IllegalArgumentException("Truncated refresh token record");
+            }
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.common.security;
+
+import com.example.common.dto.response.RefreshToken;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+/**
+ * Serializer of the records stored with refresh tokens in Redis by both gateway editions, in the compact binary
+ * layout of {@link RefreshTokenRecordCodec}; records written as JSON by earlier versions are still read.
+ */
+public class RefreshTokenRedisSerializer implements RedisSerializer<RefreshToken> {
+
+    @Override
+    public byte[] serialize(RefreshToken refreshToken) {
+        return refreshToken == null ? null : RefreshTokenRecordCodec.encode(refreshToken);
+    }
+
+    @Override
+    public RefreshToken deserialize(byte[] bytes) {
+        if (bytes == null) {
+            return null;
+        }
+        try {
+            return RefreshTokenRecordCodec.decode(bytes);
+        } catch (RuntimeException e) {
+            // Whatever a corrupt record makes the codec throw, callers of a RedisSerializer expect this
+            throw new SerializationException("Cannot read refresh token record", e);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+-- Rotates a refresh token: the presented token is consumed and its successor takes over its family, with the
+-- remaining lifetime of the family. Family keys are read from stored values, so the script needs a single Redis node.
+-- KEYS[1]: key of the presented token, KEYS[2]: key of its successor, KEYS[3]: used marker of the presented token,
+-- KEYS[4]: revocation mark of the user
+-- ARGV[1]: family key prefix, ARGV[2]: token key prefix, ARGV[3]: digest of the successor,
+-- ARGV[4]: issue time of the presented token in epoch seconds
+-- Returns {'rotated', token record}, {'reused'} when the presented token had already been rotated, or {'revoked'}
+-- when it was issued before the user was revoked, in both cases revoking its family, or {'missing'} when the token
+-- is unknown or expired.
+if KEYS[1] == KEYS[2] then
+    -- Refresh tokens carry a random jti, so a successor equal to the presented token means a broken issuer;
+    -- rotating would delete the token it just stored.
+    return redis.error_reply('successor of a refresh token has the same key as the presented token')
+end
+
+local family = redis.call('HGET', KEYS[1], 'family')
+if not family then
+    local reused = redis.call('GET', KEYS[3])
+    if not reused then
+        return {'missing'}
+    end
+    local familyKey = ARGV[1] .. reused
+    local live = redis.call('GET', familyKey)
+    if live then
+        redis.call('DEL', ARGV[2] .. live)
+    end
+    redis.call('DEL', familyKey)
+    return {'reused'}
+end
+
+local revokedAt = tonumber(redis.call('GET', KEYS[4]) or '0')
+if revokedAt > 0 and tonumber(ARGV[4]) <= revokedAt then
+    redis.call('DEL', KEYS[1], ARGV[1] .. family)
+    return {'revoked'}
+end
+
+local ttl = redis.call('PTTL', KEYS[1])
+local record = redis.call('HGET', KEYS[1], 'record')
+redis.call('DEL', KEYS[1])
+redis.call('HSET', KEYS[2], 'family', family, 'record', record)
+redis.call('PEXPIRE', KEYS[2], ttl)
+redis.call('SET', KEYS[3], family, 'PX', ttl)
+redis.call('SET', ARGV[1] .. family, ARGV[3], 'PX', ttl)
+return {'rotated', record}
@@ -0,0 +1,7 @@
+-- Stores the first refresh token of a new family.
+-- KEYS[1]: key of the token, KEYS[2]: key of the family
+-- ARGV[1]: family id, ARGV[2]: token record, ARGV[3]: lifetime in milliseconds, ARGV[4]: digest of the token
+redis.call('HSET', KEYS[1], 'family', ARGV[1], 'record', ARGV[2])
+redis.call('PEXPIRE', KEYS[1], ARGV[3])
+redis.call('SET', KEYS[2], ARGV[4], 'PX', ARGV[3])
+return 1
@@ -0,0 +1,51 @@
+package com.example.common.concurrency;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GradientConcurrencyLimiterTest {
+
+    @Test
+    void probeUnderLoadOnlyCutsTheLimitByTheProbeRatio() {
+        GradientConcurrencyLimiter limiter = new GradientConcurrencyLimiter(everyWindowProbes());
+        List<GradientConcurrencyLimiter.Permit> busy = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            busy.add(limiter.tryAcquire());
+        }
+
+        busy.remove(busy.size() - 1).onSuccess();
+
+        assertThat(limiter.getLimit()).isEqualTo(20);
+        // Admitted under the previous limit, so they do not end the probe
+        busy.forEach(GradientConcurrencyLimiter.Permit::onSuccess);
+        assertThat(limiter.getLimit()).isEqualTo(20);
+
+        limiter.tryAcquire().onSuccess();
+
+        assertThat(limiter.getLimit()).isEqualTo(40);
+    }
+
+    @Test
+    void lightlyLoadedWindowMeasuresTheMinimumRttWithoutProbing() {
+        GradientConcurrencyLimiter limiter = new GradientConcurrencyLimiter(everyWindowProbes());
+
+        limiter.tryAcquire().onSuccess();
+
+        assertThat(limiter.getLimit()).isEqualTo(40);
+        assertThat(limiter.getMinRttMillis()).isGreaterThan(0);
+    }
+
+    private static ConcurrencyLimitProperties everyWindowProbes() {
+        ConcurrencyLimitProperties properties = new ConcurrencyLimitProperties();
+        properties.setInitialLimit(40);
+        properties.setWindow(Duration.ZERO);
+        properties.setWindowSamples(1);
+        properties.setMinRttResetWindows(1);
+        return properties;
+    }
+}
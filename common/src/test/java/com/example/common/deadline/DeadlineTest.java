@@ -0,0 +1,46 @@
+package com.example.common.deadline;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DeadlineTest {
+
+    @Test
+    void parsesTheRemainingBudget() {
+        Deadline deadline = Deadline.parseHeader(" 1500 ");
+
+        assertThat(deadline).isNotNull();
+        assertThat(deadline.remaining()).isBetween(Duration.ofMillis(1000), Duration.ofMillis(1500));
+        assertThat(deadline.isExpired()).isFalse();
+    }
+
+    @Test
+    void zeroBudgetIsAlreadyExpired() {
+        assertThat(Deadline.parseHeader("0").isExpired()).isTrue();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"-1", "-9223372036854775808", "3600001", "9223372036854775807", "9223372036854775808", "1e3", "abc"})
+    void rejectsMalformedBudgets(String header) {
+        assertThat(Deadline.parseHeader(header)).isNull();
+    }
+
+    @Test
+    void acceptsTheLongestBudget() {
+        assertThat(Deadline.parseHeader(Long.toString(Deadline.MAX_BUDGET.toMillis()))).isNotNull();
+    }
+
+    @Test
+    void capsLongTimeouts() {
+        Deadline deadline = Deadline.after(Duration.ofSeconds(Long.MAX_VALUE));
+
+        assertThat(deadline.isExpired()).isFalse();
+        assertThat(deadline.remaining()).isLessThanOrEqualTo(Deadline.MAX_BUDGET);
+        assertThat(deadline.shorten(Duration.ofSeconds(1))).isEqualTo(Duration.ofSeconds(1));
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.common.geo;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CountrySetTest {
+
+    @Test
+    void containsTheListedCountriesInAnyCase() {
+        CountrySet set = new CountrySet(List.of("VN", " us ", "aa", "ZZ"));
+
+        assertThat(set.contains("VN")).isTrue();
+        assertThat(set.contains("vn")).isTrue();
+        assertThat(set.contains("US")).isTrue();
+        assertThat(set.contains("AA")).isTrue();
+        assertThat(set.contains("zz")).isTrue();
+        assertThat(set.contains("FR")).isFalse();
+        assertThat(set.contains("ZY")).isFalse();
+        assertThat(set.isEmpty()).isFalse();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "V", "VNM", "V1", "@A", "[A", "É1"})
+    void invalidCodesAreNeverContained(String isoCode) {
+        CountrySet set = new CountrySet(List.of("VN"));
+
+        assertThat(set.contains(isoCode)).isFalse();
+        assertThatThrownBy(() -> new CountrySet(List.of(isoCode))).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void emptySetContainsNothing() {
+        CountrySet set = new CountrySet(List.of());
+
+        assertThat(set.isEmpty()).isTrue();
+        assertThat(set.contains("VN")).isFalse();
+        assertThat(set.contains(null)).isFalse();
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.common.geo;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.net.Inet4Address;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IpAddressesTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "192.0.2.1",
+            "0.0.0.0",
+            "255.255.255.255",
+            "::",
+            "::1",
+            "1::",
+            "2001:db8::1",
+            "2001:DB8:0:0:0:0:0:1",
+            "2001:db8:85a3:8d3:1319:8a2e:370:7348",
+            "fe80::1:2",
+            "1:2:3:4:5:6::8",
+            "::ffff:192.0.2.1",
+            "64:ff9b::192.0.2.1",
+            "1:2:3:4:5:6:192.0.2.1"
+    })
+    void parsesLiteralsLikeTheJdk(String literal) throws UnknownHostException {
+        assertThat(IpAddresses.parse(literal)).isEqualTo(InetAddress.getByName(literal));
+    }
+
+    @Test
+    void parsesBracketedAndPaddedLiterals() throws UnknownHostException {
+        assertThat(IpAddresses.parse(" [2001:db8::1] ")).isEqualTo(InetAddress.getByName("2001:db8::1"));
+        assertThat(IpAddresses.parse(" 192.0.2.1 ")).isEqualTo(InetAddress.getByName("192.0.2.1"));
+    }
+
+    @Test
+    void returnsIpv4MappedAddressesAsIpv4() {
+        assertThat(IpAddresses.parse("::ffff:c000:201")).isInstanceOf(Inet4Address.class)
+                .isEqualTo(IpAddresses.parse("192.0.2.1"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "",
+            "[]",
+            "localhost",
+            "example.com",
+            "zz::1",
+            "example.com:8080:1",
+            "1.2.3",
+            "1.2.3.4.5",
+            "1.2.3.256",
+            "1..2.3",
+            "1.2.3.4.",
+            "１.２.３.４",
+            ":",
+            ":::",
+            "1:",
+            ":1",
+            "::1:",
+            "1::2::3",
+            "12345::",
+            "1:2:3:4:5:6:7:8:9",
+            "1:2:3:4:5:6:7::8",
+            "1:2:3:4:5:6:7:8::",
+            "::ffff:256.1.1.1",
+            "::ffff:1.2.3",
+            "1:2:3:4:5:6:7:1.2.3.4",
+            "::1.2.3.4:1",
+            "fe80::1%eth0",
+            "[::1",
+            "unknown"
+    })
+    void rejectsEverythingElse(String value) {
+        assertThat(IpAddresses.parse(value)).isNull();
+    }
+
+    @Test
+    void neverResolvesHostNames() {
+        long start = System.nanoTime();
+        for (int i = 0; i < 1_000; i++) {
+            assertThat(IpAddresses.parse("zz::" + i)).isNull();
+            assertThat(IpAddresses.parse("host" + i + ".invalid")).isNull();
+        }
+        // A single DNS lookup takes longer than parsing all of them
+        assertThat(System.nanoTime() - start).isLessThan(1_000_000_000L);
+    }
+
+    @Test
+    void parsesCidrBlocks() {
+        IpAddresses.Cidr block = IpAddresses.parseCidr("10.0.0.0/8");
+        IpAddresses.Cidr single = IpAddresses.parseCidr("2001:db8::1");
+
+        assertThat(block.getAddress()).containsExactly(10, 0, 0, 0);
+        assertThat(block.getPrefixLength()).isEqualTo(8);
+        assertThat(single.getAddress()).hasSize(16);
+        assertThat(single.getPrefixLength()).isEqualTo(128);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"10.0.0.0/33", "10.0.0.0/-1", "10.0.0.0/x", "2001:db8::/129", "example.com/8", "/8"})
+    void rejectsInvalidCidrBlocks(String cidr) {
+        assertThatThrownBy(() -> IpAddresses.parseCidr(cidr)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.common.geo;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IpPrefixTrieTest {
+
+    @Test
+    void findsTheMostSpecificBlock() {
+        IpPrefixTrie<String> trie = new IpPrefixTrie<>();
+        trie.add("10.0.0.0/8", "wide");
+        trie.add("10.1.0.0/16", "narrow");
+        trie.add("10.1.2.3", "host");
+
+        assertThat(trie.longestMatch(address("10.2.0.1"))).isEqualTo("wide");
+        assertThat(trie.longestMatch(address("10.1.9.9"))).isEqualTo("narrow");
+        assertThat(trie.longestMatch(address("10.1.2.3"))).isEqualTo("host");
+        assertThat(trie.longestMatch(address("11.0.0.1"))).isNull();
+    }
+
+    @Test
+    void keepsIpv4AndIpv6Apart() {
+        IpPrefixTrie<String> trie = new IpPrefixTrie<>();
+        trie.add("0.0.0.0/0", "any-ipv4");
+        trie.add("2001:db8::/32", "documentation");
+
+        assertThat(trie.longestMatch(address("203.0.113.1"))).isEqualTo("any-ipv4");
+        assertThat(trie.longestMatch(address("2001:db8:1::1"))).isEqualTo("documentation");
+        assertThat(trie.longestMatch(address("2001:db9::1"))).isNull();
+    }
+
+    @Test
+    void lastValueOfARepeatedBlockWins() {
+        IpPrefixTrie<String> trie = new IpPrefixTrie<>();
+        trie.add("192.0.2.0/24", "first");
+        trie.add(" 192.0.2.0/24 ", "second");
+
+        assertThat(trie.longestMatch(address("192.0.2.7"))).isEqualTo("second");
+    }
+
+    @Test
+    void reportsWhetherEmpty() {
+        IpPrefixTrie<String> trie = new IpPrefixTrie<>();
+        assertThat(trie.isEmpty()).isTrue();
+        assertThat(trie.longestMatch(address("192.0.2.7"))).isNull();
+
+        trie.add("::/0", "any-ipv6");
+
+        assertThat(trie.isEmpty()).isFalse();
+        assertThat(trie.longestMatch(address("::1"))).isEqualTo("any-ipv6");
+    }
+
+    @Test
+    void rejectsInvalidBlocks() {
+        IpPrefixTrie<String> trie = new IpPrefixTrie<>();
+
+        assertThatThrownBy(() -> trie.add("10.0.0.0/40", "invalid")).isInstanceOf(IllegalArgumentException.class);
+        assertThat(trie.isEmpty()).isTrue();
+    }
+
+    private static byte[] address(String literal) {
+        return IpAddresses.parse(literal).getAddress();
+    }
+}
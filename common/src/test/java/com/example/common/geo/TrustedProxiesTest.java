@@ -0,0 +1,77 @@
+package com.example.common.geo;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.InetAddress;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TrustedProxiesTest {
+
+    private final TrustedProxies proxies = new TrustedProxies(List.of("10.0.0.0/8", "2001:db8:ffff::/48"));
+
+    @Test
+    void ignoresForwardingHeadersFromUntrustedPeers() {
+        InetAddress client = proxies.resolveClient("203.0.113.9", List.of("for=198.51.100.1"), List.of("198.51.100.2"));
+
+        assertThat(client).isEqualTo(IpAddresses.parse("203.0.113.9"));
+    }
+
+    @Test
+    void takesTheClosestUntrustedHop() {
+        InetAddress client = proxies.resolveClient("10.0.0.1", null, List.of("198.51.100.1, 203.0.113.5, 10.0.0.2"));
+
+        assertThat(client).isEqualTo(IpAddresses.parse("203.0.113.5"));
+    }
+
+    @Test
+    void hopsSpoofedByTheClientAreIgnored() {
+        // The client sent "X-Forwarded-For: 10.0.0.99" itself; the proxy appended the real address after it
+        InetAddress client = proxies.resolveClient("10.0.0.1", null, List.of("10.0.0.99", "203.0.113.5"));
+
+        assertThat(client).isEqualTo(IpAddresses.parse("203.0.113.5"));
+    }
+
+    @Test
+    void fallsBackToTheLastTrustedHop() {
+        InetAddress client = proxies.resolveClient("10.0.0.1", null, List.of("10.0.0.3, 10.0.0.2"));
+
+        assertThat(client).isEqualTo(IpAddresses.parse("10.0.0.3"));
+    }
+
+    @Test
+    void forwardedTakesPrecedenceOverXForwardedFor() {
+        InetAddress client = proxies.resolveClient("10.0.0.1",
+                List.of("for=\"[2001:db8::7]:4711\";proto=https, For=10.0.0.2:8080"), List.of("198.51.100.1"));
+
+        assertThat(client).isEqualTo(IpAddresses.parse("2001:db8::7"));
+    }
+
+    @Test
+    void stripsPortsAndKeepsBareIpv6Hops() {
+        assertThat(proxies.resolveClient("10.0.0.1", null, List.of("203.0.113.5:51000")))
+                .isEqualTo(IpAddresses.parse("203.0.113.5"));
+        assertThat(proxies.resolveClient("10.0.0.1", null, List.of("2001:db8::7")))
+                .isEqualTo(IpAddresses.parse("2001:db8::7"));
+        assertThat(proxies.resolveClient("2001:db8:ffff::1", null, List.of("[2001:db8::7]:51000")))
+                .isEqualTo(IpAddresses.parse("2001:db8::7"));
+    }
+
+    @Test
+    void malformedHopsResolveToNoClient() {
+        assertThat(proxies.resolveClient("10.0.0.1", List.of("for=unknown"), null)).isNull();
+        assertThat(proxies.resolveClient("10.0.0.1", List.of("for=_hidden"), null)).isNull();
+        assertThat(proxies.resolveClient("10.0.0.1", null, List.of("zz::1"))).isNull();
+        assertThat(proxies.resolveClient("10.0.0.1", null, List.of("example.com"))).isNull();
+        assertThat(proxies.resolveClient("10.0.0.1", null, List.of("203.0.113.5, "))).isNull();
+        assertThat(proxies.resolveClient("not-an-address", null, List.of("203.0.113.5"))).isNull();
+    }
+
+    @Test
+    void trustedPeerWithoutHeadersIsTheClient() {
+        assertThat(proxies.resolveClient("10.0.0.1", null, null)).isEqualTo(IpAddresses.parse("10.0.0.1"));
+        assertThat(new TrustedProxies(List.of()).resolveClient("10.0.0.1", null, List.of("203.0.113.5")))
+                .isEqualTo(IpAddresses.parse("10.0.0.1"));
+    }
+}
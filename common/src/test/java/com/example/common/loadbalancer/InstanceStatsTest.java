@@ -0,0 +1,44 @@
+package com.example.common.loadbalancer;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
+
+class InstanceStatsTest {
+
+    private static final long DECAY_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    @Test
+    void staleLatencyDecaysTowardAnUnmeasuredInstance() {
+        InstanceStats stats = new InstanceStats("slow", DECAY_NANOS);
+        stats.requestStarted();
+        stats.requestCompleted(TimeUnit.MILLISECONDS.toNanos(500));
+        long now = System.nanoTime();
+
+        double fresh = stats.score(now);
+        double afterOneDecay = stats.score(now + DECAY_NANOS);
+        double afterLongIdle = stats.score(now + 30 * DECAY_NANOS);
+
+        assertThat(afterOneDecay).isLessThan(fresh * 0.4).isGreaterThan(fresh * 0.3);
+        assertThat(afterLongIdle).isCloseTo(InstanceStats.unmeasuredScore(), offset(1.0));
+        assertThat(stats.getEwmaMillis()).isEqualTo(500.0);
+    }
+
+    @Test
+    void scoringDoesNotTrackOrKeepInstancesAlive() {
+        InstanceStatsRegistry registry = new InstanceStatsRegistry(Duration.ofSeconds(10));
+        ServiceInstance instance = new DefaultServiceInstance("table-1", "table-service", "10.0.0.1", 8080, false);
+
+        assertThat(registry.score("table-service", instance)).isEqualTo(InstanceStats.unmeasuredScore());
+        assertThat(registry.describe().get("table-service")).isEmpty();
+
+        registry.get("table-service", instance).requestStarted();
+        assertThat(registry.score("table-service", instance)).isEqualTo(2 * InstanceStats.unmeasuredScore());
+    }
+}
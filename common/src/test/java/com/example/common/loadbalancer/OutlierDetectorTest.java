@@ -0,0 +1,85 @@
+package com.example.common.loadbalancer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.RequestData;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OutlierDetectorTest {
+
+    private static final String SERVICE = "table-service";
+
+    private final OutlierDetectionProperties properties = new OutlierDetectionProperties();
+    private final OutlierDetector detector = new OutlierDetector(properties, new SimpleMeterRegistry(), event -> {});
+    private final List<ServiceInstance> instances = IntStream.range(0, 4)
+            .mapToObj(i -> (ServiceInstance) new DefaultServiceInstance("table-" + i, SERVICE, "10.0.0." + i, 8080, false))
+            .toList();
+
+    @Test
+    void ejectsNoMoreThanTheMaximumShareOfInstances() {
+        detector.filter(SERVICE, instances);
+        eject(instances.get(0));
+        eject(instances.get(1));
+        eject(instances.get(2));
+
+        List<ServiceInstance> available = detector.filter(SERVICE, instances);
+
+        assertThat(available).hasSize(2).contains(instances.get(3));
+    }
+
+    @Test
+    void ejectsTheOnlyInstanceSoCallersFailFast() {
+        List<ServiceInstance> single = instances.subList(0, 1);
+        eject(single.get(0));
+
+        assertThat(detector.filter(SERVICE, single)).isEmpty();
+    }
+
+    @Test
+    void ejectsEveryInstanceWhenAllowedTo() {
+        properties.setMaxEjectionPercent(100);
+        instances.forEach(this::eject);
+
+        assertThat(detector.filter(SERVICE, instances)).isEmpty();
+    }
+
+    @Test
+    void doesNotCountSheddingAsFailure() {
+        OutlierDetectionLifecycle lifecycle = new OutlierDetectionLifecycle(SERVICE, detector);
+        HttpHeaders retryAfter = new HttpHeaders();
+        retryAfter.set(HttpHeaders.RETRY_AFTER, "1");
+        for (int i = 0; i < properties.getConsecutiveFailures(); i++) {
+            complete(lifecycle, instances.get(0), HttpStatus.SERVICE_UNAVAILABLE, retryAfter);
+            complete(lifecycle, instances.get(1), HttpStatus.SERVICE_UNAVAILABLE, new HttpHeaders());
+        }
+
+        assertThat(detector.filter(SERVICE, instances)).contains(instances.get(0)).doesNotContain(instances.get(1));
+    }
+
+    private void eject(ServiceInstance instance) {
+        for (int i = 0; i < properties.getConsecutiveFailures(); i++) {
+            detector.requestStarted(SERVICE, instance);
+            detector.requestCompleted(SERVICE, instance, false);
+        }
+    }
+
+    private static void complete(OutlierDetectionLifecycle lifecycle, ServiceInstance instance, HttpStatus status,
+                                 HttpHeaders headers) {
+        DefaultResponse lbResponse = new DefaultResponse(instance);
+        ResponseData response = new ResponseData(status, headers, null, (RequestData) null);
+        lifecycle.onStartRequest(new DefaultRequest<>(), lbResponse);
+        lifecycle.onComplete(new CompletionContext<>(CompletionContext.Status.SUCCESS, new DefaultRequest<>(), lbResponse, response));
+    }
+}
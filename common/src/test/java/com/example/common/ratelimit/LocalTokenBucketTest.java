@@ -0,0 +1,118 @@
+package com.example.common.ratelimit;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LocalTokenBucketTest {
+
+    private static final long MINUTE = TimeUnit.MINUTES.toNanos(1);
+
+    private final List<Long> requested = new ArrayList<>();
+
+    @Test
+    void leasesStartAtOneTokenAndDoubleWhileUsedUp() {
+        LocalTokenBucket bucket = new LocalTokenBucket(1, MINUTE);
+
+        for (int i = 0; i < 23; i++) {
+            assertThat(bucket.tryAcquire(8, granting())).isZero();
+        }
+
+        assertThat(requested).containsExactly(1L, 2L, 4L, 8L, 8L);
+    }
+
+    @Test
+    void expiredLeaseShrinksToWhatWasSpent() throws InterruptedException {
+        LocalTokenBucket bucket = new LocalTokenBucket(1, TimeUnit.MILLISECONDS.toNanos(50));
+        for (int i = 0; i < 10; i++) {
+            bucket.tryAcquire(8, granting());
+        }
+        // The lease of 8 has had 3 tokens spent when it expires
+        assertThat(requested).containsExactly(1L, 2L, 4L, 8L);
+
+        Thread.sleep(100);
+        bucket.tryAcquire(8, granting());
+
+        assertThat(requested).containsExactly(1L, 2L, 4L, 8L, 3L);
+    }
+
+    @Test
+    void refusalBlocksLocallyUntilRetryAfter() throws InterruptedException {
+        LocalTokenBucket bucket = new LocalTokenBucket(1, MINUTE);
+        LongFunction<TokenLease> refusing = size -> {
+            requested.add(size);
+            return lease(0, 50);
+        };
+
+        assertThat(bucket.tryAcquire(8, refusing)).isEqualTo(50);
+        assertThat(bucket.tryAcquire(8, refusing)).isBetween(1L, 51L);
+        assertThat(requested).hasSize(1);
+
+        Thread.sleep(100);
+
+        assertThat(bucket.tryAcquire(8, granting())).isZero();
+        assertThat(requested).hasSize(2);
+    }
+
+    @Test
+    void refusalStartsAgainFromSingleTokens() {
+        LocalTokenBucket bucket = new LocalTokenBucket(1, MINUTE);
+        for (int i = 0; i < 7; i++) {
+            bucket.tryAcquire(8, granting());
+        }
+
+        bucket.tryAcquire(8, size -> {
+            requested.add(size);
+            return lease(0, 0);
+        });
+        bucket.tryAcquire(8, granting());
+
+        assertThat(requested).containsExactly(1L, 2L, 4L, 8L, 1L);
+    }
+
+    @Test
+    void partialGrantIsSpentBeforeLeasingAgain() {
+        LocalTokenBucket bucket = new LocalTokenBucket(1, MINUTE);
+        bucket.tryAcquire(8, granting());
+
+        bucket.tryAcquire(8, size -> {
+            requested.add(size);
+            return lease(1, 0);
+        });
+        bucket.tryAcquire(8, granting());
+
+        // The partial grant of 1 was used up, so the next lease doubles it
+        assertThat(requested).containsExactly(1L, 2L, 2L);
+    }
+
+    @Test
+    void reactiveAcquireSharesTheSameRules() {
+        LocalTokenBucket bucket = new LocalTokenBucket(1, MINUTE);
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(bucket.acquire(8, size -> Mono.fromSupplier(() -> granting().apply(size))).block()).isZero();
+        }
+        Long refused = bucket.acquire(8, size -> Mono.just(lease(0, 30))).block();
+
+        assertThat(requested).containsExactly(1L, 2L);
+        assertThat(refused).isEqualTo(30);
+        assertThat(bucket.acquire(8, size -> Mono.error(new AssertionError("leased while blocked"))).block()).isPositive();
+    }
+
+    private LongFunction<TokenLease> granting() {
+        return size -> {
+            requested.add(size);
+            return lease(size, 0);
+        };
+    }
+
+    private static TokenLease lease(long granted, long retryAfterMillis) {
+        return TokenLease.fromReply(List.of(granted, retryAfterMillis));
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.common.routing;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.http.server.RequestPath;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.net.URI;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RequestPathsTest {
+
+    @ParameterizedTest
+    @CsvSource({
+            "/table/update/1, /table/update/1",
+            "/table/%75pdate/1, /table/update/1",
+            "/table/%75%70%64%61%74%65/1, /table/update/1",
+            "//table//update/1, /table/update/1",
+            "/table/update;v=1/1, /table/update/1",
+            "/table/update/, /table/update/",
+            "/, /"
+    })
+    void readsReactiveAndServletPathsAlike(String rawPath, String expected) {
+        RequestPath reactivePath = RequestPath.parse(URI.create("http://localhost" + rawPath).getRawPath(), null);
+
+        assertThat(RequestPaths.decodedPath(reactivePath.pathWithinApplication())).isEqualTo(expected);
+        assertThat(RequestPaths.pathWithinApplication(new MockHttpServletRequest("GET", rawPath))).isEqualTo(expected);
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.common.routing;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.http.HttpMethod;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RouteTrieTest {
+
+    @ParameterizedTest
+    @CsvSource({
+            "/table/page, /table/page",
+            "/table/1, /table/{id}",
+            "/table/update/1, /table/update/*",
+            "/table/update/1/extra, /table/**",
+            "/table, /table/**",
+            "/other, ",
+            "/, "
+    })
+    void matchesLiteralAndWildcardSegments(String path, String expected) {
+        RouteTrie<String> trie = new RouteTrie<>();
+        trie.add(HttpMethod.GET, "/table/page", "/table/page");
+        trie.add(HttpMethod.GET, "/table/{id}", "/table/{id}");
+        trie.add(HttpMethod.GET, "/table/update/*", "/table/update/*");
+        trie.add(HttpMethod.GET, "/table/**", "/table/**");
+
+        assertThat(trie.find(HttpMethod.GET, path)).isEqualTo(expected);
+    }
+
+    @Test
+    void firstAddedPatternWins() {
+        RouteTrie<String> trie = new RouteTrie<>();
+        trie.add(HttpMethod.GET, "/table/**", "catch-all");
+        trie.add(HttpMethod.GET, "/table/page", "literal");
+        trie.add(null, "/table/{id}", "any-method");
+
+        assertThat(trie.find(HttpMethod.GET, "/table/page")).isEqualTo("catch-all");
+        assertThat(trie.findPattern(HttpMethod.GET, "/table/1")).isEqualTo("/table/**");
+        assertThat(trie.find(HttpMethod.POST, "/table/1")).isEqualTo("any-method");
+    }
+
+    @Test
+    void anyMethodPatternAddedFirstBeatsMethodPattern() {
+        RouteTrie<String> trie = new RouteTrie<>();
+        trie.add(null, "/table/{id}", "any-method");
+        trie.add(HttpMethod.DELETE, "/table/{id}", "delete");
+
+        assertThat(trie.find(HttpMethod.DELETE, "/table/1")).isEqualTo("any-method");
+    }
+
+    @Test
+    void methodsAreMatchedSeparately() {
+        RouteTrie<String> trie = new RouteTrie<>();
+        trie.add(HttpMethod.PUT, "/table/update/{id}", "update");
+
+        assertThat(trie.find(HttpMethod.PUT, "/table/update/1")).isEqualTo("update");
+        assertThat(trie.find(HttpMethod.GET, "/table/update/1")).isNull();
+    }
+
+    @Test
+    void wildcardSegmentNeedsANonEmptySegment() {
+        RouteTrie<String> trie = new RouteTrie<>();
+        trie.add(HttpMethod.GET, "/table/{id}/items", "items");
+
+        assertThat(trie.find(HttpMethod.GET, "/table/1/items")).isEqualTo("items");
+        assertThat(trie.find(HttpMethod.GET, "/table//items")).isNull();
+        assertThat(trie.find(HttpMethod.GET, "/table/1")).isNull();
+    }
+
+    @Test
+    void partialWildcardsFallBackToPathPattern() {
+        RouteTrie<String> trie = new RouteTrie<>();
+        trie.add(HttpMethod.GET, "/docs/*.html", "html");
+        trie.add(HttpMethod.GET, "/files/{name:[a-z]+}", "regex");
+        trie.add(HttpMethod.GET, "/docs/**", "docs");
+
+        assertThat(trie.find(HttpMethod.GET, "/docs/index.html")).isEqualTo("html");
+        assertThat(trie.find(HttpMethod.GET, "/docs/index.txt")).isEqualTo("docs");
+        assertThat(trie.find(HttpMethod.GET, "/files/abc")).isEqualTo("regex");
+        assertThat(trie.find(HttpMethod.GET, "/files/123")).isNull();
+        assertThat(trie.find(HttpMethod.POST, "/docs/index.html")).isNull();
+    }
+
+    @Test
+    void trieMatchAddedFirstBeatsFallback() {
+        RouteTrie<String> trie = new RouteTrie<>();
+        trie.add(HttpMethod.GET, "/docs/**", "docs");
+        trie.add(HttpMethod.GET, "/docs/*.html", "html");
+
+        assertThat(trie.find(HttpMethod.GET, "/docs/index.html")).isEqualTo("docs");
+    }
+
+    @Test
+    void reportsWhetherEmpty() {
+        RouteTrie<String> trie = new RouteTrie<>();
+        assertThat(trie.isEmpty()).isTrue();
+
+        trie.add(HttpMethod.GET, "/", "root");
+
+        assertThat(trie.isEmpty()).isFalse();
+        assertThat(trie.find(HttpMethod.GET, "/")).isEqualTo("root");
+    }
+}
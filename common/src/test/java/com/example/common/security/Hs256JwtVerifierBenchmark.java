@@ -0,0 +1,73 @@
+package com.example.common.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link Hs256JwtVerifier} with the jjwt parsing it replaced, on a token issued by {@link JwtTokenIssuer}.
+ * {@code perParseParser} is the former TokenServiceImpl path, which decoded the key and built a parser on every call.
+ * Run with {@code mvn -pl common test-compile} then the main method, using the test classpath; add
+ * {@code -prof gc} to the JMH options to see the allocation rate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class Hs256JwtVerifierBenchmark {
+
+    private static final String SECRET = "c2VjcmV0LWtleS1mb3ItdGhlLWhzMjU2LXZlcmlmaWVyLXRlc3RzLTMyYg==";
+
+    private Hs256JwtVerifier verifier;
+    private JwtParser sharedParser;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        verifier = new Hs256JwtVerifier(SECRET);
+        sharedParser = Jwts.parserBuilder().setSigningKey(verifier.getSigningKey()).build();
+        token = new JwtTokenIssuer(verifier).issue("alice", 42L, "ADMIN", TimeUnit.DAYS.toMillis(1));
+    }
+
+    @Benchmark
+    public Claims fastPath() {
+        return verifier.verify(token);
+    }
+
+    @Benchmark
+    public Claims sharedParser() {
+        return sharedParser.parseClaimsJws(token).getBody();
+    }
+
+    @Benchmark
+    public Claims perParseParser() {
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)))
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(Hs256JwtVerifierBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,203 @@
+package com.example.common.security;
+
+import com.example.common.constant.CommonConstant;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.SignatureException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class Hs256JwtVerifierTest {
+
+    private static final String SECRET = "c2VjcmV0LWtleS1mb3ItdGhlLWhzMjU2LXZlcmlmaWVyLXRlc3RzLTMyYg==";
+    private static final String OTHER_SECRET = "b3RoZXIta2V5LWZvci10aGUtaHMyNTYtdmVyaWZpZXItdGVzdHMtMzJieXRlcw==";
+
+    private final Hs256JwtVerifier verifier = new Hs256JwtVerifier(SECRET);
+    private final JwtTokenIssuer issuer = new JwtTokenIssuer(verifier);
+
+    @Test
+    void verifiesIssuedToken() {
+        Claims claims = verifier.verify(issuer.issue("alice", 42L, "ADMIN", 60_000));
+
+        assertThat(claims.getSubject()).isEqualTo("alice");
+        assertThat(claims.get(CommonConstant.CLAIM_USER_ID, Long.class)).isEqualTo(42L);
+        assertThat(claims.get(CommonConstant.CLAIM_ROLE, String.class)).isEqualTo("ADMIN");
+        assertThat(claims.getExpiration()).isAfter(new Date());
+    }
+
+    @Test
+    void refreshTokensIssuedTogetherAreDistinct() {
+        String first = issuer.issueRefreshToken("alice", 42L, "ADMIN", 60_000);
+        String second = issuer.issueRefreshToken("alice", 42L, "ADMIN", 60_000);
+
+        assertThat(first).isNotEqualTo(second);
+        assertThat(verifier.verify(first).getId()).isNotBlank().isNotEqualTo(verifier.verify(second).getId());
+    }
+
+    @Test
+    void verifiesConcurrentlyWithSharedMacs() throws Exception {
+        String valid = issuer.issue("alice", 42L, "ADMIN", 60_000);
+        String forged = sign("{\"alg\":\"HS256\"}", payload("ADMIN", 60), OTHER_SECRET);
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < 2_000; i++) {
+                String token = i % 2 == 0 ? valid : forged;
+                results.add(executor.submit(() -> isAccepted(token)));
+            }
+            for (int i = 0; i < results.size(); i++) {
+                assertThat(results.get(i).get()).isEqualTo(i % 2 == 0);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void verifiesTokenWithTypHeader() {
+        String token = sign("{\"alg\":\"HS256\",\"typ\":\"JWT\"}", payload("USER", 60), SECRET);
+
+        assertThat(verifier.verify(token).get(CommonConstant.CLAIM_ROLE, String.class)).isEqualTo("USER");
+    }
+
+    @Test
+    void verifiesTokenWithUnknownClaimsThroughFallback() {
+        String token = Jwts.builder()
+                .setSubject("alice")
+                .claim("scope", "tables")
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(verifier.getSigningKey(), SignatureAlgorithm.HS256)
+                .compact();
+
+        assertThat(verifier.verify(token).get("scope", String.class)).isEqualTo("tables");
+    }
+
+    @Test
+    void rejectsTamperedSignature() {
+        String token = issuer.issue("alice", 42L, "USER", 60_000);
+        char last = token.charAt(token.length() - 2);
+        String tampered = token.substring(0, token.length() - 2) + (last == 'A' ? 'B' : 'A') + token.charAt(token.length() - 1);
+
+        assertThatThrownBy(() -> verifier.verify(tampered)).isInstanceOf(SignatureException.class);
+    }
+
+    @Test
+    void rejectsTamperedPayload() {
+        String token = issuer.issue("alice", 42L, "USER", 60_000);
+        String[] parts = token.split("\\.");
+        String forged = parts[0] + "." + base64Url(payload("ADMIN", 60)) + "." + parts[2];
+
+        assertThatThrownBy(() -> verifier.verify(forged)).isInstanceOf(SignatureException.class);
+    }
+
+    @Test
+    void rejectsTokenSignedWithAnotherKey() {
+        String token = sign("{\"alg\":\"HS256\"}", payload("ADMIN", 60), OTHER_SECRET);
+
+        assertThatThrownBy(() -> verifier.verify(token)).isInstanceOf(SignatureException.class);
+    }
+
+    @Test
+    void rejectsUnsignedToken() {
+        String token = base64Url("{\"alg\":\"none\"}") + "." + base64Url(payload("ADMIN", 60)) + ".";
+
+        assertThatThrownBy(() -> verifier.verify(token)).isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    void rejectsOtherAlgorithmSignedWithTheSecret() {
+        // An RS256 header over an HMAC of the secret must not be accepted as HS256
+        String token = sign("{\"alg\":\"RS256\"}", payload("ADMIN", 60), SECRET);
+
+        assertThatThrownBy(() -> verifier.verify(token)).isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    void rejectsExpiredToken() {
+        String token = sign("{\"alg\":\"HS256\"}", payload("USER", -60), SECRET);
+
+        assertThatThrownBy(() -> verifier.verify(token)).isInstanceOf(ExpiredJwtException.class);
+    }
+
+    @Test
+    void rejectsExpiredTokenThroughFallback() {
+        String token = Jwts.builder()
+                .setSubject("alice")
+                .claim("scope", "tables")
+                .setExpiration(new Date(System.currentTimeMillis() - 60_000))
+                .signWith(verifier.getSigningKey(), SignatureAlgorithm.HS256)
+                .compact();
+
+        assertThatThrownBy(() -> verifier.verify(token)).isInstanceOf(ExpiredJwtException.class);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "",
+            "abc",
+            "eyJhbGciOiJIUzI1NiJ9.abc",
+            "eyJhbGciOiJIUzI1NiJ9.e30.sig.extra",
+            "eyJhbGciOiJIUzI1NiJ9.!!!.c2ln",
+            "eyJhbGciOiJIUzI1NiJ9.e30.!!!",
+            "eyJhbGciOiJIUzI1NiJ9..",
+            "..."
+    })
+    void rejectsMalformedToken(String token) {
+        assertThatThrownBy(() -> verifier.verify(token)).isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    void rejectsWellSignedPayloadThatIsNotJson() {
+        String token = sign("{\"alg\":\"HS256\"}", "not json", SECRET);
+
+        assertThatThrownBy(() -> verifier.verify(token)).isInstanceOf(JwtException.class);
+    }
+
+    private boolean isAccepted(String token) {
+        try {
+            return verifier.verify(token).getSubject().equals("alice");
+        } catch (SignatureException e) {
+            return false;
+        }
+    }
+
+    private static String payload(String role, long expiresInSeconds) {
+        long now = System.currentTimeMillis() / 1000;
+        return "{\"userId\":42,\"role\":\"" + role + "\",\"sub\":\"alice\",\"iat\":" + now
+                + ",\"exp\":" + (now + expiresInSeconds) + "}";
+    }
+
+    private static String sign(String header, String payload, String secret) {
+        String signingInput = base64Url(header) + "." + base64Url(payload);
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(Base64.getDecoder().decode(secret), "HmacSHA256"));
+            byte[] signature = mac.doFinal(signingInput.getBytes(StandardCharsets.US_ASCII));
+            return signingInput + "." + Base64.getUrlEncoder().withoutPadding().encodeToString(signature);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String base64Url(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.common.security;
+
+import com.example.common.dto.response.RefreshToken;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RefreshTokenRedisSerializerTest {
+
+    private final RefreshTokenRedisSerializer serializer = new RefreshTokenRedisSerializer();
+
+    @Test
+    void writesTheBinaryRecord() {
+        RefreshToken refreshToken = RefreshTokenRecordCodecTest.refreshToken();
+
+        byte[] bytes = serializer.serialize(refreshToken);
+
+        assertThat(bytes).isEqualTo(RefreshTokenRecordCodec.encode(refreshToken));
+        assertThat(serializer.deserialize(bytes)).isEqualTo(refreshToken);
+    }
+
+    @Test
+    void passesNullsThrough() {
+        assertThat(serializer.serialize(null)).isNull();
+        assertThat(serializer.deserialize(null)).isNull();
+    }
+
+    @Test
+    void reportsCorruptRecordsAsSerializationErrors() {
+        assertThatThrownBy(() -> serializer.deserialize(new byte[]{RefreshTokenRecordCodec.VERSION_1, 0}))
+                .isInstanceOf(SerializationException.class)
+                .hasCauseInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.tableservice.configuration;
+
+import com.example.common.concurrency.ConcurrencyLimitFilter;
+import com.example.common.concurrency.ConcurrencyLimitProperties;
+import com.example.common.concurrency.GradientConcurrencyLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+
+/**
+ * Configuration class for the adaptive concurrency limit in front of {@code RestaurantTableController}.
+ * Requests above the limit are answered with 503 at once instead of queuing in Tomcat and Hikari.
+ */
+@Configuration
+@ConditionalOnProperty(name = "concurrency-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class ConcurrencyLimitConfig {
+
+    private static final String PREFIX = "concurrency-limit";
+    private static final String API_PATTERN = "/api/v1/restaurant-tables/*";
+
+    /**
+     * Provides the limiter, sized from the concurrency-limit settings.
+     *
+     * @param environment the environment holding the settings
+     * @return the limiter
+     */
+    @Bean
+    public GradientConcurrencyLimiter gradientConcurrencyLimiter(Environment environment) {
+        ConcurrencyLimitProperties properties = Binder.get(environment)
+                .bind(PREFIX, ConcurrencyLimitProperties.class)
+                .orElseGet(ConcurrencyLimitProperties::new);
+        return new GradientConcurrencyLimiter(properties);
+    }
+
+    /**
+     * Registers the limiting filter on the API, right after the deadline filter so that expired requests
+     * never take a slot.
+     *
+     * @param limiter       the limiter
+     * @param meterRegistry the registry the limit and rejections are published to
+     * @return the filter registration
+     */
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(GradientConcurrencyLimiter limiter,
+                                                                                 MeterRegistry meterRegistry) {
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration =
+                new FilterRegistrationBean<>(new ConcurrencyLimitFilter(limiter, meterRegistry));
+        registration.addUrlPatterns(API_PATTERN);
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return registration;
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.tableservice.configuration;
+
+import com.example.common.loadbalancer.InstanceStatsRegistry;
+import com.example.common.loadbalancer.LatencyAwareLoadBalancerConfiguration;
+import com.example.common.loadbalancer.LoadBalancerStatsEndpoint;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Configuration class for the latency-aware load balancing of the OpenFeign clients.
+ * The services listed under loadbalancer.latency-aware.service-ids are balanced by power of two choices
+ * over EWMA latency and in-flight requests; the others stay round-robin.
+ */
+@Configuration
+@LoadBalancerClients(defaultConfiguration = LatencyAwareLoadBalancerConfiguration.class)
+public class LoadBalancerConfig {
+
+    /**
+     * Provides the per-instance statistics shared by the balancers of every service.
+     *
+     * @param decay the time after which an old latency sample has lost most of its weight
+     * @return the statistics registry
+     */
+    @Bean
+    public InstanceStatsRegistry instanceStatsRegistry(@Value("${loadbalancer.latency-aware.decay:10s}") Duration decay) {
+        return new InstanceStatsRegistry(decay);
+    }
+
+    /**
+     * Exposes the per-instance statistics on /actuator/loadbalancer.
+     *
+     * @param statsRegistry the statistics registry
+     * @return the actuator endpoint
+     */
+    @Bean
+    public LoadBalancerStatsEndpoint loadBalancerStatsEndpoint(InstanceStatsRegistry statsRegistry) {
+        return new LoadBalancerStatsEndpoint(statsRegistry);
+    }
+}
@@ -22,6 +22,7 @@ public class Constant {
     public static final String INTERNAL_SERVER_ERROR = "Internal Server Error";
     public static final String UNAUTHORIZED = "UNAUTHORIZED";
     public static final String FORBIDDEN = "FORBIDDEN";
+    public static final String GATEWAY_TIMEOUT = "GATEWAY_TIMEOUT";
     public static final String EMPTY_STRING = "";
     public static final int N_ZERO = 0;
     public static final int N_ONE = 1;
@@ -66,6 +67,7 @@ public class Constant {
 
     // Database-related messages
     public static final String DATABASE_EXCEPTION_OCCURRED = "Database exception occurred: {}";
+    public static final String DEADLINE_EXCEEDED_OCCURRED = "Deadline exceeded: {}";
 
     // Database constraint violation messages
     public static final String DATA_INTEGRITY_VIOLATION_OCCURRED = "DataIntegrityViolationException occurred: {}";
@@ -1,14 +1,17 @@
 package com.example.tableservice.exception;
 
+import com.example.common.deadline.DeadlineExceededException;
 import com.example.tableservice.constant.Constant;
 import com.example.tableservice.dto.response.ErrorResponse;
 import feign.FeignException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataAccessException;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.transaction.TransactionTimedOutException;
 import org.springframework.web.HttpRequestMethodNotSupportedException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -113,6 +116,20 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
     }
 
+    /**
+     * Handles requests abandoned because their deadline passed: a refused downstream call, a transaction that
+     * could not start, or a query cancelled by its statement timeout.
+     *
+     * @param ex the exception
+     * @return a ResponseEntity with HTTP 504 status and error message
+     */
+    @ExceptionHandler({DeadlineExceededException.class, TransactionTimedOutException.class, QueryTimeoutException.class})
+    public ResponseEntity<ErrorResponse<Object>> handleDeadlineExceeded(RuntimeException ex) {
+        log.warn(Constant.DEADLINE_EXCEEDED_OCCURRED, ex.getMessage());
+        ErrorResponse<Object> errorResponse = ErrorResponse.of(Constant.GATEWAY_TIMEOUT, ex.getMessage());
+        return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).body(errorResponse);
+    }
+
     /**
      * Handles DataIntegrityViolationException for database constraint violations.
      *
@@ -0,0 +1,48 @@
+package com.example.tabletypeservice.configuration;
+
+import com.example.common.deadline.DeadlineFilter;
+import com.example.common.deadline.DeadlineJpaTransactionManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizers;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.orm.jpa.JpaTransactionManager;
+
+/**
+ * Configuration class for request deadlines.
+ * Reads the deadline set by the gateway and makes the JPA transactions respect it.
+ */
+@Configuration
+public class DeadlineConfig {
+
+    /**
+     * Registers the filter reading the deadline header, ahead of every other filter.
+     *
+     * @return the filter registration
+     */
+    @Bean
+    public FilterRegistrationBean<DeadlineFilter> deadlineFilter() {
+        FilterRegistrationBean<DeadlineFilter> registration = new FilterRegistrationBean<>(new DeadlineFilter());
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    /**
+     * Replaces the default JPA transaction manager with one whose timeout, and therefore the JDBC statement
+     * timeout of every query, never exceeds the remaining budget.
+     *
+     * @param entityManagerFactory the entity manager factory
+     * @param customizers          the transaction manager customizers configured by Spring Boot
+     * @return the transaction manager
+     */
+    @Bean
+    public JpaTransactionManager transactionManager(EntityManagerFactory entityManagerFactory,
+                                                    ObjectProvider<TransactionManagerCustomizers> customizers) {
+        JpaTransactionManager transactionManager = new DeadlineJpaTransactionManager(entityManagerFactory);
+        customizers.ifAvailable(customizer -> customizer.customize(transactionManager));
+        return transactionManager;
+    }
+}
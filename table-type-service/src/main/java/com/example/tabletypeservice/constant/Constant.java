@@ -22,6 +22,7 @@ public class Constant {
     public static final String INTERNAL_SERVER_ERROR = "Internal Server Error";
     public static final String UNAUTHORIZED = "UNAUTHORIZED";
     public static final String FORBIDDEN = "FORBIDDEN";
+    public static final String GATEWAY_TIMEOUT = "GATEWAY_TIMEOUT";
     public static final String AES = "AES";
     public static final String AES_TRANSFORMATION = "AES/CBC/PKCS5Padding"; //CBC mode with PKCS5 padding
     // Parameters
@@ -106,6 +107,7 @@ public class Constant {
 
     // Database-related messages
     public static final String DATABASE_EXCEPTION_OCCURRED = "Database exception occurred: {}";
+    public static final String DEADLINE_EXCEEDED_OCCURRED = "Deadline exceeded: {}";
     public static final String DATABASE_ERROR_OCCURRED = "A database error occurred.";
 
     // Database constraint violation messages